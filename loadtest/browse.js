@@ -0,0 +1,51 @@
+// loadtest/browse.js
+// 一般ユーザーの閲覧系（DB 待ちが中心）：トップ → 一覧 → 詳細 → カレンダー
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e ROOM_IDS=1,2,3 loadtest/browse.js
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const ROOM_IDS = (__ENV.ROOM_IDS || '1').split(',');
+
+export const options = {
+  scenarios: {
+    browse: {
+      executor: 'ramping-arrival-rate',
+      startRate: 10,
+      timeUnit: '1s',
+      preAllocatedVUs: 200,
+      maxVUs: 2000,
+      stages: [
+        { target: 50, duration: '1m' },
+        { target: 150, duration: '2m' },
+        { target: 300, duration: '2m' },
+      ],
+    },
+  },
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+    http_req_duration: ['p(95)<1000'],
+  },
+};
+
+function calendarRange() {
+  const start = new Date();
+  start.setHours(0, 0, 0, 0);
+  const end = new Date(start.getTime() + 7 * 24 * 3600 * 1000);
+  const fmt = (d) => d.toISOString().slice(0, 19) + '+09:00';
+  return `start=${encodeURIComponent(fmt(start))}&end=${encodeURIComponent(fmt(end))}`;
+}
+
+export default function () {
+  const roomId = ROOM_IDS[Math.floor(Math.random() * ROOM_IDS.length)];
+
+  check(http.get(`${BASE_URL}/`), { 'top 200': (r) => r.status === 200 });
+  check(http.get(`${BASE_URL}/rooms`), { 'rooms 200': (r) => r.status === 200 });
+  check(http.get(`${BASE_URL}/rooms/${roomId}`), { 'room 200': (r) => r.status === 200 });
+  check(http.get(`${BASE_URL}/rooms/${roomId}/calendar/events?${calendarRange()}`, {
+    tags: { name: 'calendar' },
+  }), { 'calendar 200': (r) => r.status === 200 });
+
+  sleep(Math.random());
+}
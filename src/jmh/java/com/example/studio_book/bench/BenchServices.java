@@ -0,0 +1,69 @@
+// src/jmh/java/com/example/studio_book/bench/BenchServices.java
+package com.example.studio_book.bench;
+
+import java.math.BigDecimal;
+
+import com.example.studio_book.controller.RoomCalendarController;
+import com.example.studio_book.repository.ReservationStatsRepository;
+import com.example.studio_book.service.AdminSettingsService;
+import com.example.studio_book.service.AppMetrics;
+import com.example.studio_book.service.BusinessHourService;
+import com.example.studio_book.service.ClosureRuleExpander;
+import com.example.studio_book.service.HostStatsService;
+import com.example.studio_book.service.ReservationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 計測対象をメモリ上リポジトリで組み立てる（コンストラクタが変わったらここだけ直す）
+ * 計測対象の経路で使わない依存は null。
+ */
+final class BenchServices {
+
+    /** 記録のコストも本番と同じく計測に含める */
+    private static final AppMetrics METRICS = new AppMetrics(new SimpleMeterRegistry());
+
+    private BenchServices() {}
+
+    static ReservationService reservationService(Fixtures f, BigDecimal taxRate, int billingUnitMinutes) {
+        var settings = new AdminSettingsService(InMemoryRepositories.adminSettings(taxRate, billingUnitMinutes));
+        return new ReservationService(
+            InMemoryRepositories.reservations(f),
+            InMemoryRepositories.rooms(f),
+            null,
+            InMemoryRepositories.priceRules(f),
+            settings,
+            null, null, null, null, null, null, null,
+            METRICS,
+            null, null);
+    }
+
+    static BusinessHourService businessHourService(Fixtures f) {
+        return new BusinessHourService(InMemoryRepositories.rooms(f), InMemoryRepositories.businessHours(f), null, null);
+    }
+
+    static RoomCalendarController roomCalendarController(Fixtures f) {
+        return new RoomCalendarController(
+            InMemoryRepositories.closures(f),
+            InMemoryRepositories.reservations(f),
+            InMemoryRepositories.businessHours(f),
+            closureRuleExpander(f),
+            null, null,
+            METRICS);
+    }
+
+    static ClosureRuleExpander closureRuleExpander(Fixtures f) {
+        return new ClosureRuleExpander(InMemoryRepositories.closureRules(f), 20_000);
+    }
+
+    static HostStatsService hostStatsService(Fixtures f) {
+        return new HostStatsService(
+            InMemoryRepositories.rooms(f),
+            InMemoryRepositories.businessHours(f),
+            InMemoryRepositories.closures(f),
+            closureRuleExpander(f),
+            InMemoryRepositories.reservations(f),
+            InMemoryRepositories.unused(ReservationStatsRepository.class),
+            METRICS);
+    }
+}
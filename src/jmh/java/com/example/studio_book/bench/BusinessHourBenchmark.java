@@ -0,0 +1,46 @@
+// src/jmh/java/com/example/studio_book/bench/BusinessHourBenchmark.java
+package com.example.studio_book.bench;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.studio_book.service.BusinessHourService;
+
+/** BusinessHourService.fitsWithinBusinessHours（予約入力時の営業時間チェック） */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BusinessHourBenchmark {
+
+    /** 予約が跨ぐ日数（日ごとに営業時間を引く） */
+    @Param({ "1", "6" })
+    public int days;
+
+    private BusinessHourService service;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup
+    public void setUp() {
+        Fixtures f = new Fixtures(1, 0, 0, 0, LocalDate.of(2025, 1, 1), 30, 42L);
+        service = BenchServices.businessHourService(f);
+        // 月曜 10:00 から。複数日の場合は営業時間外に掛かるので途中で false になる経路も含む
+        start = LocalDate.of(2025, 1, 6).atTime(10, 0);
+        end = days == 1 ? start.plusHours(3) : start.plusDays(days - 1).withHour(12);
+    }
+
+    @Benchmark
+    public boolean fitsWithinBusinessHours() {
+        return service.fitsWithinBusinessHours(1, start, end);
+    }
+}
@@ -0,0 +1,55 @@
+// src/jmh/java/com/example/studio_book/bench/CalendarEventsBenchmark.java
+package com.example.studio_book.bench;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.ResponseEntity;
+
+import com.example.studio_book.controller.RoomCalendarController;
+
+/** RoomCalendarController.events（FullCalendar 用イベント生成） */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CalendarEventsBenchmark {
+
+    /** 表示範囲（日）：週表示 7 / 月表示 42 */
+    @Param({ "7", "42" })
+    public int viewDays;
+
+    @Param({ "100", "1000" })
+    public int reservationsPerRoom;
+
+    @Param({ "10" })
+    public int closuresPerRoom;
+
+    private RoomCalendarController controller;
+    private OffsetDateTime start;
+    private OffsetDateTime end;
+
+    @Setup
+    public void setUp() {
+        Fixtures f = new Fixtures(1, 0, reservationsPerRoom, closuresPerRoom, LocalDate.of(2025, 1, 1), 90, 42L);
+        controller = BenchServices.roomCalendarController(f);
+        start = LocalDate.of(2025, 2, 1).atStartOfDay().atOffset(ZoneOffset.ofHours(9));
+        end = start.plusDays(viewDays);
+    }
+
+    @Benchmark
+    public ResponseEntity<List<Map<String, Object>>> events() {
+        return controller.events(1, start, end);
+    }
+}
@@ -0,0 +1,133 @@
+// src/jmh/java/com/example/studio_book/bench/Fixtures.java
+package com.example.studio_book.bench;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.example.studio_book.entity.Closure;
+import com.example.studio_book.entity.PriceRule;
+import com.example.studio_book.entity.Reservation;
+import com.example.studio_book.entity.Room;
+import com.example.studio_book.entity.RoomBusinessHour;
+import com.example.studio_book.entity.User;
+
+/**
+ * ベンチマーク用の合成データ（seed 固定で毎回同じ内容）
+ *
+ * - 営業時間：平日 9:00-22:00、土 10:00-20:00、日 休み
+ * - 料金ルール：時間帯加算（夜間・早朝）と曜日別の固定費を交互に
+ * - 予約：期間内にランダムな 1〜4 時間枠（paid / booked / canceled 混在、重複は気にしない）
+ * - 休館：期間内にランダムな 3〜48 時間
+ */
+final class Fixtures {
+
+    final List<Room> rooms = new ArrayList<>();
+    final Map<Integer, List<PriceRule>> rulesByRoom = new HashMap<>();
+    final Map<Integer, List<RoomBusinessHour>> bhByRoom = new HashMap<>();
+    final Map<Integer, List<Reservation>> reservationsByRoom = new HashMap<>();
+    final Map<Integer, List<Closure>> closuresByRoom = new HashMap<>();
+    final User host;
+
+    private static final String[] STATUSES = { "paid", "paid", "booked", "canceled" };
+
+    Fixtures(int roomCount, int rulesPerRoom, int reservationsPerRoom, int closuresPerRoom,
+             LocalDate from, int days, long seed) {
+        Random rnd = new Random(seed);
+
+        host = new User();
+        host.setId(1);
+        host.setName("bench-host");
+
+        int reservationId = 1;
+        int closureId = 1;
+        for (int roomId = 1; roomId <= roomCount; roomId++) {
+            Room room = new Room();
+            room.setId(roomId);
+            room.setName("Room " + roomId);
+            room.setPrice(2000 + rnd.nextInt(10) * 500);
+            room.setUser(host);
+            rooms.add(room);
+
+            rulesByRoom.put(roomId, rules(roomId, rulesPerRoom, rnd));
+            bhByRoom.put(roomId, businessHours(room));
+
+            List<Reservation> rs = new ArrayList<>(reservationsPerRoom);
+            for (int i = 0; i < reservationsPerRoom; i++) {
+                LocalDateTime s = from.plusDays(rnd.nextInt(days)).atTime(9 + rnd.nextInt(10), rnd.nextBoolean() ? 0 : 30);
+                Reservation r = new Reservation();
+                r.setId(reservationId++);
+                r.setRoom(room);
+                r.setUser(host);
+                r.setStartAt(s);
+                r.setEndAt(s.plusHours(1 + rnd.nextInt(4)));
+                r.setStatus(STATUSES[rnd.nextInt(STATUSES.length)]);
+                r.setAmount(room.getPrice() * 2);
+                rs.add(r);
+            }
+            reservationsByRoom.put(roomId, rs);
+
+            List<Closure> cs = new ArrayList<>(closuresPerRoom);
+            for (int i = 0; i < closuresPerRoom; i++) {
+                LocalDateTime s = from.plusDays(rnd.nextInt(days)).atTime(rnd.nextInt(24), 0);
+                Closure c = new Closure();
+                c.setId(closureId++);
+                c.setRoomId(roomId);
+                c.setStartAt(s);
+                c.setEndAt(s.plusHours(3 + rnd.nextInt(46)));
+                c.setReason("bench");
+                cs.add(c);
+            }
+            closuresByRoom.put(roomId, cs);
+        }
+    }
+
+    private static List<PriceRule> rules(int roomId, int count, Random rnd) {
+        List<PriceRule> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PriceRule p = new PriceRule();
+            p.setId(roomId * 1000 + i);
+            p.setRoomId(roomId);
+            if (i % 2 == 0) {
+                p.setRuleType("multiplier");
+                p.setWeekday(rnd.nextInt(3) == 0 ? null : 1 + rnd.nextInt(7));
+                int startHour = rnd.nextBoolean() ? 18 : 6;
+                p.setStartHour(LocalTime.of(startHour, 0));
+                p.setEndHour(LocalTime.of(startHour + 3 + rnd.nextInt(3), 0));
+                p.setMultiplier(new BigDecimal("0.25").multiply(BigDecimal.valueOf(1 + rnd.nextInt(4))));
+            } else {
+                p.setRuleType("flat_fee");
+                p.setWeekday(rnd.nextBoolean() ? null : 1 + rnd.nextInt(7));
+                p.setFlatFee(500 + rnd.nextInt(5) * 100);
+            }
+            list.add(p);
+        }
+        return list;
+    }
+
+    private static List<RoomBusinessHour> businessHours(Room room) {
+        List<RoomBusinessHour> list = new ArrayList<>(7);
+        for (int day = 1; day <= 7; day++) {
+            RoomBusinessHour bh = new RoomBusinessHour();
+            bh.setRoom(room);
+            bh.setDayIndex(day);
+            if (day == 7) {
+                bh.setHoliday(true);
+            } else if (day == 6) {
+                bh.setStartTime(LocalTime.of(10, 0));
+                bh.setEndTime(LocalTime.of(20, 0));
+            } else {
+                bh.setStartTime(LocalTime.of(9, 0));
+                bh.setEndTime(LocalTime.of(22, 0));
+            }
+            list.add(bh);
+        }
+        return list;
+    }
+}
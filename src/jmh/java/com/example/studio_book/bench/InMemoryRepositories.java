@@ -0,0 +1,131 @@
+// src/jmh/java/com/example/studio_book/bench/InMemoryRepositories.java
+package com.example.studio_book.bench;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.example.studio_book.entity.AdminSettings;
+import com.example.studio_book.entity.Closure;
+import com.example.studio_book.entity.Reservation;
+import com.example.studio_book.entity.Room;
+import com.example.studio_book.entity.RoomBusinessHour;
+import com.example.studio_book.repository.AdminSettingsRepository;
+import com.example.studio_book.repository.ClosureRepository;
+import com.example.studio_book.repository.ClosureRuleRepository;
+import com.example.studio_book.repository.PriceRuleRepository;
+import com.example.studio_book.repository.ReservationRepository;
+import com.example.studio_book.repository.RoomBusinessHourRepository;
+import com.example.studio_book.repository.RoomRepository;
+
+/**
+ * ベンチマーク用のメモリ上リポジトリ（java.lang.reflect.Proxy）
+ * 対象の処理が呼ぶメソッドだけを実装し、それ以外は UnsupportedOperationException。
+ * 検索はメモリ上の索引（部屋 id → 一覧）から引くので、計測値は Java 側の処理コストだけになる。
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {}
+
+    @SuppressWarnings("unchecked")
+    static <T> T proxy(Class<T> repositoryType, Map<String, Function<Object[], Object>> handlers) {
+        return (T) Proxy.newProxyInstance(
+            repositoryType.getClassLoader(),
+            new Class<?>[] { repositoryType },
+            (self, method, args) -> {
+                var h = handlers.get(method.getName());
+                if (h != null) return h.apply(args);
+                if (method.getName().equals("toString")) return "InMemory" + repositoryType.getSimpleName();
+                if (method.getName().equals("hashCode")) return System.identityHashCode(self);
+                if (method.getName().equals("equals")) return self == args[0];
+                throw new UnsupportedOperationException(repositoryType.getSimpleName() + "." + method.getName());
+            });
+    }
+
+    static RoomRepository rooms(Fixtures f) {
+        Map<Integer, Room> byId = f.rooms.stream().collect(Collectors.toMap(Room::getId, r -> r));
+        return proxy(RoomRepository.class, Map.of(
+            "findById", a -> Optional.ofNullable(byId.get((Integer) a[0])),
+            "findAllByHost", a -> f.rooms
+        ));
+    }
+
+    static PriceRuleRepository priceRules(Fixtures f) {
+        return proxy(PriceRuleRepository.class, Map.of(
+            "findByRoomId", a -> f.rulesByRoom.getOrDefault((Integer) a[0], List.of())
+        ));
+    }
+
+    static AdminSettingsRepository adminSettings(BigDecimal taxRate, int billingUnitMinutes) {
+        List<AdminSettings> rows = List.of(
+            new AdminSettings("tax_rate", taxRate.toPlainString()),
+            new AdminSettings("ENABLE_PRICE_RULES", "true"),
+            new AdminSettings("BILLING_UNIT_MINUTES", String.valueOf(billingUnitMinutes)));
+        return proxy(AdminSettingsRepository.class, Map.of(
+            "findAll", a -> rows,
+            "findRevision", a -> 0L
+        ));
+    }
+
+    static RoomBusinessHourRepository businessHours(Fixtures f) {
+        return proxy(RoomBusinessHourRepository.class, Map.of(
+            "findByRoomIdOrderByDayIndexAsc", a -> f.bhByRoom.getOrDefault((Integer) a[0], List.of()),
+            "findByRoomIdAndDayIndex", a -> f.bhByRoom.getOrDefault((Integer) a[0], List.of()).stream()
+                    .filter(bh -> bh.getDayIndex().equals(a[1])).findFirst(),
+            "findByRoomIdIn", a -> ((Collection<?>) a[0]).stream()
+                    .flatMap(id -> f.bhByRoom.getOrDefault((Integer) id, List.<RoomBusinessHour>of()).stream())
+                    .toList()
+        ));
+    }
+
+    static ClosureRepository closures(Fixtures f) {
+        return proxy(ClosureRepository.class, Map.of(
+            // (roomId, start, end): endAt > start && startAt < end
+            "findByRoomIdAndEndAtAfterAndStartAtBefore", a -> f.closuresByRoom.getOrDefault((Integer) a[0], List.of()).stream()
+                    .filter(c -> overlaps(c.getStartAt(), c.getEndAt(), (LocalDateTime) a[1], (LocalDateTime) a[2]))
+                    .toList(),
+            // (roomIds, endExclusive, startExclusive)
+            "findByRoomIdInAndStartAtLessThanAndEndAtGreaterThan", a -> ((Collection<?>) a[0]).stream()
+                    .flatMap(id -> f.closuresByRoom.getOrDefault((Integer) id, List.<Closure>of()).stream())
+                    .filter(c -> overlaps(c.getStartAt(), c.getEndAt(), (LocalDateTime) a[2], (LocalDateTime) a[1]))
+                    .toList()
+        ));
+    }
+
+    /** 繰り返し休館は無し（従来の計測結果と比べられるよう、個別の休館だけにしておく） */
+    static ClosureRuleRepository closureRules(Fixtures f) {
+        return proxy(ClosureRuleRepository.class, Map.of(
+            "findByRoomIdOrderByIdAsc", a -> List.of(),
+            "findByRoomIdIn", a -> List.of()
+        ));
+    }
+
+    static ReservationRepository reservations(Fixtures f) {
+        return proxy(ReservationRepository.class, Map.of(
+            "findByRoomIdAndEndAtAfterAndStartAtBefore", a -> f.reservationsByRoom.getOrDefault((Integer) a[0], List.of()).stream()
+                    .filter(r -> overlaps(r.getStartAt(), r.getEndAt(), (LocalDateTime) a[1], (LocalDateTime) a[2]))
+                    .toList(),
+            // (roomIds, status, endExclusive, startExclusive)
+            "findByRoomIdInAndStatusAndStartAtLessThanAndEndAtGreaterThan", a -> ((Collection<?>) a[0]).stream()
+                    .flatMap(id -> f.reservationsByRoom.getOrDefault((Integer) id, List.<Reservation>of()).stream())
+                    .filter(r -> a[1].equals(r.getStatus()))
+                    .filter(r -> overlaps(r.getStartAt(), r.getEndAt(), (LocalDateTime) a[3], (LocalDateTime) a[2]))
+                    .toList()
+        ));
+    }
+
+    private static boolean overlaps(LocalDateTime s1, LocalDateTime e1, LocalDateTime s2, LocalDateTime e2) {
+        return s1.isBefore(e2) && s2.isBefore(e1);
+    }
+
+    /** 型だけ合わせたい未使用の依存（呼ばれたら例外） */
+    static <T> T unused(Class<T> type) {
+        return proxy(type, Map.of());
+    }
+}
@@ -0,0 +1,50 @@
+// src/jmh/java/com/example/studio_book/bench/PricingBenchmark.java
+package com.example.studio_book.bench;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.studio_book.dto.ReservationConfirmDto;
+import com.example.studio_book.service.ReservationService;
+
+/** ReservationService.buildConfirmDto（確認画面の見積もり計算） */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PricingBenchmark {
+
+    @Param({ "4", "32" })
+    public int rulesPerRoom;
+
+    /** 予約の長さ（時間）。日跨ぎで日毎ループの回数が増える */
+    @Param({ "2", "50" })
+    public int hours;
+
+    private ReservationService service;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup
+    public void setUp() {
+        Fixtures f = new Fixtures(1, rulesPerRoom, 0, 0, LocalDate.of(2025, 1, 1), 30, 42L);
+        service = BenchServices.reservationService(f, new BigDecimal("0.1"), 15);
+        start = LocalDate.of(2025, 1, 6).atTime(17, 0);
+        end = start.plusHours(hours);
+    }
+
+    @Benchmark
+    public ReservationConfirmDto buildConfirmDto() {
+        return service.buildConfirmDto(1, null, start, end);
+    }
+}
@@ -0,0 +1,72 @@
+// src/jmh/java/com/example/studio_book/bench/RegressionGate.java
+package com.example.studio_book.bench;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * JMH の JSON 結果を基準値と比較し、許容幅を超えて遅くなったベンチマークがあれば終了コード 1
+ *
+ *   RegressionGate <baseline.json> <result.json> [tolerance=0.15]
+ *
+ * キーはベンチマーク名 + @Param。基準値にないもの（新規追加分）は比較しない。
+ * 基準値のファイル自体が無い場合は比較を飛ばして終了コード 0（計測環境ごとに取り直す前提）。
+ * AverageTime（小さいほど良い）前提。
+ */
+public final class RegressionGate {
+
+    private RegressionGate() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: RegressionGate <baseline.json> <result.json> [tolerance]");
+            System.exit(2);
+        }
+        File baselineFile = new File(args[0]);
+        if (!baselineFile.isFile()) {
+            // ★ 基準値は計測環境ごとに取る。まだ無ければ失敗にせず比較を飛ばす
+            System.out.println("SKIP: baseline not found: " + baselineFile
+                    + " — 比較せずに終了します（基準を取るには jmh 実行後に target/jmh-result.json をこのパスへコピー）");
+            return;
+        }
+        File resultFile = new File(args[1]);
+        if (!resultFile.isFile()) {
+            System.err.println("result not found: " + resultFile + "（先に exec:exec@jmh を実行してください）");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.15;
+
+        Map<String, Double> baseline = load(baselineFile);
+        Map<String, Double> current = load(resultFile);
+
+        int regressions = 0;
+        for (var e : current.entrySet()) {
+            Double base = baseline.get(e.getKey());
+            if (base == null || base <= 0) continue;
+            double ratio = e.getValue() / base;
+            boolean bad = ratio > 1.0 + tolerance;
+            if (bad) regressions++;
+            System.out.printf("%s %-70s %10.3f -> %10.3f (%+.1f%%)%n",
+                    bad ? "NG" : "ok", e.getKey(), base, e.getValue(), (ratio - 1.0) * 100);
+        }
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed more than " + Math.round(tolerance * 100) + "%");
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Double> load(File file) throws Exception {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            JsonNode params = run.path("params");
+            params.fieldNames().forEachRemaining(n -> key.append(' ').append(n).append('=').append(params.get(n).asText()));
+            scores.put(key.toString(), run.path("primaryMetric").path("score").asDouble());
+        }
+        return scores;
+    }
+}
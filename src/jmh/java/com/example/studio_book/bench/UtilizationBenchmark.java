@@ -0,0 +1,47 @@
+// src/jmh/java/com/example/studio_book/bench/UtilizationBenchmark.java
+package com.example.studio_book.bench;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.studio_book.service.HostStatsService;
+
+/** HostStatsService.computeUtilizationPercents（ホストの直近3か月の稼働率） */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UtilizationBenchmark {
+
+    @Param({ "1", "20" })
+    public int rooms;
+
+    @Param({ "100", "1000" })
+    public int reservationsPerRoom;
+
+    @Param({ "10" })
+    public int closuresPerRoom;
+
+    private HostStatsService service;
+    private final List<String> labels = List.of("2025-01", "2025-02", "2025-03");
+
+    @Setup
+    public void setUp() {
+        Fixtures f = new Fixtures(rooms, 0, reservationsPerRoom, closuresPerRoom, LocalDate.of(2025, 1, 1), 90, 42L);
+        service = BenchServices.hostStatsService(f);
+    }
+
+    @Benchmark
+    public List<Double> computeUtilizationPercents() {
+        return service.computeUtilizationPercents(1, null, labels);
+    }
+}
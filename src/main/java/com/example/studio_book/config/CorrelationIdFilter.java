@@ -0,0 +1,63 @@
+// src/main/java/com/example/studio_book/config/CorrelationIdFilter.java
+package com.example.studio_book.config;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * リクエストごとの相関 ID を MDC（requestId）に載せ、レスポンスヘッダ X-Request-Id で返す
+ *
+ * 上流（Heroku ルーター等）が付けた X-Request-Id があればそれを使う。
+ * 形式が怪しいもの（ログ注入対策）は捨てて採番し直す。
+ * 決めた ID はリクエスト属性に残し、非同期の再ディスパッチでは同じ ID を MDC に載せ直す。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Id";
+    public static final String MDC_KEY = "requestId";
+    /** 最初のディスパッチで決めた ID（非同期の再ディスパッチで使い回す） */
+    public static final String ATTRIBUTE = CorrelationIdFilter.class.getName() + ".id";
+
+    private static final Pattern VALID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // ★ 再ディスパッチで採番し直すと、同じリクエストのログが 2 つの ID に分かれる
+        String id = isAsyncDispatch(request) ? (String) request.getAttribute(ATTRIBUTE) : null;
+        if (id == null) {
+            id = request.getHeader(HEADER);
+            if (id == null || !VALID.matcher(id).matches()) {
+                id = UUID.randomUUID().toString();
+            }
+            request.setAttribute(ATTRIBUTE, id);
+            response.setHeader(HEADER, id);
+        }
+        MDC.put(MDC_KEY, id);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    /** 非同期（DeferredResult）の再ディスパッチでも MDC に載せ直す（ID は最初のディスパッチのもの） */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+}
@@ -0,0 +1,17 @@
+// src/main/java/com/example/studio_book/config/MetricsConfig.java
+package com.example.studio_book.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /** 予約入力チェックの SQL 数（studio.validation.queries）を取るため */
+    @Bean
+    public HibernatePropertiesCustomizer queryCountInspector() {
+        return props -> props.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector());
+    }
+}
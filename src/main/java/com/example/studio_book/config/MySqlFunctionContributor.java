@@ -0,0 +1,24 @@
+// src/main/java/com/example/studio_book/config/MySqlFunctionContributor.java
+package com.example.studio_book.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Criteria / JPQL から MySQL の全文検索を呼ぶための関数登録
+ * （META-INF/services/org.hibernate.boot.model.FunctionContributor で読み込まれる）
+ *
+ * 使い方: cb.function("match_against", Double.class, root.get("note"), cb.literal(query)) > 0
+ */
+public class MySqlFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                "match_against",
+                "match(?1) against(?2 in boolean mode)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.DOUBLE));
+    }
+}
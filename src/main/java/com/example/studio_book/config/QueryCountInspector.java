@@ -0,0 +1,25 @@
+// src/main/java/com/example/studio_book/config/QueryCountInspector.java
+package com.example.studio_book.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate が発行する SQL をスレッドごとに数える（SQL 自体は書き換えない）
+ *
+ * 区間の件数は current() の差分で取る：
+ *   long before = QueryCountInspector.current(); ...; long n = QueryCountInspector.current() - before;
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+}
@@ -0,0 +1,11 @@
+// src/main/java/com/example/studio_book/config/SchedulingConfig.java
+package com.example.studio_book.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** @Scheduled（仮押さえの掃除など）を有効化 */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
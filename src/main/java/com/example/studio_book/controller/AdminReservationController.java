@@ -9,7 +9,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.example.studio_book.dto.KeysetPage;
+import com.example.studio_book.dto.ReservationListFilter;
 import com.example.studio_book.repository.ReservationRepository;
+import com.example.studio_book.service.AvailabilityBitmaps;
+import com.example.studio_book.service.RoomLockService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -19,11 +23,16 @@ import lombok.RequiredArgsConstructor;
 public class AdminReservationController {
 
     private final ReservationRepository reservationRepository;
+    private final RoomLockService roomLockService;
+    private final AvailabilityBitmaps availability;
 
-    /** 一覧表示 */
+    private static final int PAGE_SIZE = 5;
+
+    /** 一覧表示（id 降順のキーセット。cursor = 直前ページ端の予約ID、dir=prev で新しい側へ戻る） */
     @GetMapping
     public String index(
-        @org.springframework.web.bind.annotation.RequestParam(name = "page", defaultValue = "0") int page,
+        @org.springframework.web.bind.annotation.RequestParam(name = "cursor", required = false) Integer cursor,
+        @org.springframework.web.bind.annotation.RequestParam(name = "dir", defaultValue = "next") String dir,
         @org.springframework.web.bind.annotation.RequestParam(name = "kw", required = false) String kw,
         @org.springframework.web.bind.annotation.RequestParam(name = "status", required = false) String status,
         @org.springframework.web.bind.annotation.RequestParam(name = "startFrom", required = false)
@@ -35,8 +44,6 @@ public class AdminReservationController {
         @org.springframework.web.bind.annotation.RequestParam(name = "reservationId", required = false) Integer reservationId,
         Model model
     ) {
-        var pageable = org.springframework.data.domain.PageRequest.of(Math.max(page, 0), 5);
-
         // 文字列ブランク → null
         String kwNorm = (kw != null && !kw.isBlank()) ? kw.trim() : null;
         String statusNorm = (status != null && !status.isBlank()) ? status : null;
@@ -45,12 +52,19 @@ public class AdminReservationController {
         java.time.LocalDateTime fromDt = (startFrom != null) ? startFrom.atStartOfDay() : null;
         java.time.LocalDateTime toDt = (startTo != null) ? startTo.atTime(23, 59, 59, 999_000_000) : null;
 
-        var pageData = reservationRepository.findAdminReservationPageFiltered(
-            kwNorm, statusNorm, fromDt, toDt, reservationId, pageable
-        );
+        // 指定された条件だけで組み立て、size+1 件取得（COUNT は打たない）
+        var filter = new ReservationListFilter(kwNorm, statusNorm, fromDt, toDt, reservationId, null);
+        boolean backward = cursor != null && "prev".equals(dir);
+        var slice = reservationRepository.findAdminReservations(filter, cursor, backward, PAGE_SIZE);
+
+        // 絞り込みなしのときだけ統計値の概算件数を出す（絞り込み時は「次へ」の有無のみ）
+        Long approximateTotal = filter.isEmpty() ? reservationRepository.estimateReservationCount() : null;
+
+        var pageData = KeysetPage.of(slice.getContent(), slice.hasNext(), backward, cursor != null,
+                row -> String.valueOf(row.getReservationId()), approximateTotal);
 
         model.addAttribute("page", pageData);
-        model.addAttribute("rows", pageData.getContent());
+        model.addAttribute("rows", pageData.content());
 
         // 画面に検索条件を戻す
         model.addAttribute("kw", kwNorm);
@@ -85,6 +99,7 @@ public class AdminReservationController {
         // ★ 強制：キャンセル → canceled
         r.setStatus("canceled");
         reservationRepository.save(r);
+        if (r.getRoom() != null) availability.invalidateAfterCommit(r.getRoom().getId());
 
         return "redirect:/admin/reservations?canceled=1";
     }
@@ -96,9 +111,19 @@ public class AdminReservationController {
         var r = reservationRepository.findById(id)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
+        // canceled から戻すと枠を再び占有するので、同室の書き込みと直列化して重複を確認
+        if ("canceled".equals(r.getStatus()) && r.getRoom() != null) {
+            Integer roomId = r.getRoom().getId();
+            roomLockService.lockForTransaction(roomId);
+            if (reservationRepository.existsOverlapping(roomId, r.getStartAt(), r.getEndAt())) {
+                return "redirect:/admin/reservations?conflict=1";
+            }
+        }
+
         // ★ 強制：クリア → booked
         r.setStatus("booked");
         reservationRepository.save(r);
+        if (r.getRoom() != null) availability.invalidateAfterCommit(r.getRoom().getId());
 
         return "redirect:/admin/reservations?cleared=1";
     }
@@ -2,36 +2,33 @@
 package com.example.studio_book.controller;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
-import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.example.studio_book.dto.KeysetPage;
 import com.example.studio_book.entity.AuditLog;
-import com.example.studio_book.repository.AuditLogRepository;
+import com.example.studio_book.service.AuditLogSearchService;
 
 @Controller
 public class AuditLogController {
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogSearchService auditLogSearchService;
 
-    public AuditLogController(AuditLogRepository auditLogRepository) {
-        this.auditLogRepository = auditLogRepository;
+    public AuditLogController(AuditLogSearchService auditLogSearchService) {
+        this.auditLogSearchService = auditLogSearchService;
     }
 
     @GetMapping("/admin/logs")
     public String list(
-            @RequestParam(name = "page", defaultValue = "0") int page,
+            // ★ ページ境界（(ts, id) のキーセット）。dir=prev で新しい側へ戻る
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "dir", defaultValue = "next") String dir,
             // ★ 検索パラメータ
             @RequestParam(name = "q", required = false) String q,
             @RequestParam(name = "actorId", required = false) Integer actorId,
@@ -44,46 +41,15 @@ public class AuditLogController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             Model model) {
 
-        Pageable pageable = PageRequest.of(page, 10, Sort.by(Sort.Direction.DESC, "ts"));
+        var criteria = new AuditLogSearchService.Criteria(q, actorId, action, entity, entityId, from, to);
 
-        Specification<AuditLog> spec = Specification.where(null);
-
-        // キーワード（action / entity / note の部分一致・大文字小文字無視）
-        if (StringUtils.hasText(q)) {
-            final String like = "%" + q.toLowerCase() + "%";
-            spec = spec.and((root, cq, cb) -> cb.or(
-                    cb.like(cb.lower(root.get("action")), like),
-                    cb.like(cb.lower(root.get("entity")), like),
-                    cb.like(cb.lower(root.get("note")), like)
-            ));
-        }
-
-        if (actorId != null) {
-            spec = spec.and((root, cq, cb) -> cb.equal(root.get("actorId"), actorId));
-        }
-        if (entityId != null) {
-            spec = spec.and((root, cq, cb) -> cb.equal(root.get("entityId"), entityId));
-        }
-        if (StringUtils.hasText(action)) {
-            final String like = "%" + action.toLowerCase() + "%";
-            spec = spec.and((root, cq, cb) -> cb.like(cb.lower(root.get("action")), like));
-        }
-        if (StringUtils.hasText(entity)) {
-            final String like = "%" + entity.toLowerCase() + "%";
-            spec = spec.and((root, cq, cb) -> cb.like(cb.lower(root.get("entity")), like));
+        KeysetPage<AuditLog> logs;
+        try {
+            logs = auditLogSearchService.search(criteria, cursor, "prev".equals(dir));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
 
-        if (from != null) {
-            LocalDateTime fromDt = from.atStartOfDay();
-            spec = spec.and((root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("ts"), fromDt));
-        }
-        if (to != null) {
-            LocalDateTime toDt = to.atTime(LocalTime.MAX);
-            spec = spec.and((root, cq, cb) -> cb.lessThanOrEqualTo(root.get("ts"), toDt));
-        }
-
-        Page<AuditLog> logs = auditLogRepository.findAll(spec, pageable);
-
         // ビューへ現在の検索条件を戻す（入力値保持・ページリンク維持用）
         model.addAttribute("logs", logs);
         model.addAttribute("q", q);
@@ -97,4 +63,3 @@ public class AuditLogController {
         return "admin/logs";
     }
 }
-
@@ -2,6 +2,8 @@
 package com.example.studio_book.controller;
 
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -13,7 +15,9 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import com.example.studio_book.entity.Room;
 import com.example.studio_book.form.BusinessHoursForm;
 import com.example.studio_book.security.UserDetailsImpl;
 import com.example.studio_book.service.BusinessHourService;
@@ -58,6 +62,7 @@ public class HostBusinessHourController {
                          @PathVariable Integer roomId,
                          @Valid @ModelAttribute("form") BusinessHoursForm form,
                          BindingResult bindingResult,
+                         @RequestParam(name = "applyTo", required = false) List<Integer> applyTo,
                          Model model) {
         roomService.assertOwnedBy(roomId, principal.getUser().getId());
 
@@ -105,7 +110,15 @@ public class HostBusinessHourController {
             return "host/rooms/business-hours/edit";
         }
         try {
-            businessHourService.save(roomId, form);
+            if (applyTo == null || applyTo.isEmpty()) {
+                businessHourService.save(roomId, form);
+            } else {
+                // ★ 同じ週を他のスタジオにも（1 回の読み込み＋1 回のバッチ書き込み）
+                var roomIds = new ArrayList<Integer>();
+                roomIds.add(roomId);
+                roomIds.addAll(applyTo);
+                businessHourService.applyToRooms(principal.getUser().getId(), roomIds, form);
+            }
         } catch (IllegalArgumentException ex) {
             model.addAttribute("error", ex.getMessage());
             return "host/rooms/business-hours/edit";
@@ -119,4 +132,13 @@ public class HostBusinessHourController {
         // ここは所有確認後に呼ばれる想定だが、二重チェックしたい場合は assertOwnedBy を入れてもOK
         return roomService.findOwned(roomId, principal.getUser().getId());
     }
+
+    /** 同じ営業時間を適用できる他のスタジオ */
+    @ModelAttribute("otherRooms")
+    public List<Room> otherRooms(@AuthenticationPrincipal UserDetailsImpl principal,
+                                 @PathVariable Integer roomId) {
+        return roomService.findOwnedRooms(principal.getUser().getId()).stream()
+                .filter(r -> !r.getId().equals(roomId))
+                .toList();
+    }
 }
@@ -1,9 +1,11 @@
 // src/main/java/com/example/studio_book/controller/HostClosureController.java
 package com.example.studio_book.controller;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -14,11 +16,13 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import com.example.studio_book.entity.Closure;
 import com.example.studio_book.entity.Room;
 import com.example.studio_book.form.ClosureForm;
+import com.example.studio_book.form.ClosureRuleForm;
 import com.example.studio_book.security.UserDetailsImpl;
 import com.example.studio_book.service.ClosureService;
 
@@ -41,6 +45,10 @@ public class HostClosureController {
         model.addAttribute("room", room);
         model.addAttribute("closures", closureService.list(roomId, principal));
         model.addAttribute("closureForm", new ClosureForm());
+        model.addAttribute("closureRules", closureService.listRules(roomId, principal));
+        if (!model.containsAttribute("closureRuleForm")) {
+            model.addAttribute("closureRuleForm", new ClosureRuleForm());
+        }
         return "host/closures/index";
     }
 
@@ -48,8 +56,13 @@ public class HostClosureController {
     @GetMapping(value = "/events", produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseBody
     public List<Map<String, Object>> events(@PathVariable Integer roomId,
-                                            @AuthenticationPrincipal UserDetailsImpl principal) {
-        List<Closure> list = closureService.list(roomId, principal);
+                                            @AuthenticationPrincipal UserDetailsImpl principal,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime start,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime end) {
+        // ★ FullCalendar が表示範囲を渡してくるときは、その範囲の分だけ（繰り返し休館も展開して）返す
+        List<Closure> list = (start != null && end != null)
+                ? closureService.listBetween(roomId, start.toLocalDateTime(), end.toLocalDateTime(), principal)
+                : closureService.list(roomId, principal);
         return list.stream().map(c -> {
             final boolean allDay =
                 c.getStartAt().toLocalTime().equals(java.time.LocalTime.MIDNIGHT) &&
@@ -64,6 +77,8 @@ public class HostClosureController {
             m.put("start", c.getStartAt().toString());
             m.put("end",   c.getEndAt().toString());
             m.put("allDay", allDay);
+            // 繰り返し休館の発生は個別に消せない（ルールごと削除）
+            m.put("extendedProps", Map.of("recurring", c.getId() == null));
             return m;
         }).collect(java.util.stream.Collectors.toList());
     }
@@ -96,5 +111,32 @@ public class HostClosureController {
         closureService.delete(roomId, closureId, principal);
         return "redirect:/host/rooms/%d/closures?success=1".formatted(roomId);
     }
-}
 
+    /** 繰り返し休館の追加 */
+    @PostMapping("/rules")
+    public String createRule(@PathVariable Integer roomId,
+                             @Valid @ModelAttribute("closureRuleForm") ClosureRuleForm form,
+                             BindingResult bindingResult,
+                             @AuthenticationPrincipal UserDetailsImpl principal,
+                             Model model) {
+        if (bindingResult.hasErrors()) {
+            return index(roomId, principal, model);
+        }
+        try {
+            closureService.createRule(roomId, form, principal);
+            return "redirect:/host/rooms/%d/closures?success=1".formatted(roomId);
+        } catch (IllegalArgumentException ex) {
+            model.addAttribute("error", ex.getMessage());
+            return index(roomId, principal, model);
+        }
+    }
+
+    /** 繰り返し休館の削除 */
+    @PostMapping("/rules/{ruleId}/delete")
+    public String deleteRule(@PathVariable Integer roomId,
+                             @PathVariable Integer ruleId,
+                             @AuthenticationPrincipal UserDetailsImpl principal) {
+        closureService.deleteRule(roomId, ruleId, principal);
+        return "redirect:/host/rooms/%d/closures?success=1".formatted(roomId);
+    }
+}
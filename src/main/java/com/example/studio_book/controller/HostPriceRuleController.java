@@ -5,6 +5,7 @@ import java.time.LocalTime;
 import java.util.List;
 import java.util.Objects;
 
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
@@ -14,12 +15,16 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.example.studio_book.entity.PriceRule;
+import com.example.studio_book.entity.Room;
 import com.example.studio_book.form.PriceRuleForm;
 import com.example.studio_book.form.PriceRuleRowForm;
 import com.example.studio_book.repository.PriceRuleRepository;
 import com.example.studio_book.repository.RoomRepository;
+import com.example.studio_book.security.UserDetailsImpl;
+import com.example.studio_book.service.PriceRuleService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -31,6 +36,7 @@ public class HostPriceRuleController {
 
     private final PriceRuleRepository priceRuleRepository;
     private final RoomRepository roomRepository;
+    private final PriceRuleService priceRuleService;
 
     @GetMapping("/{roomId}/price-rules")
     public String edit(@PathVariable Integer roomId, Model model) {
@@ -40,6 +46,7 @@ public class HostPriceRuleController {
         var form = buildFormFrom(rules, roomId); // rows[0]を1件分だけ初期化
 
         model.addAttribute("room", room);
+        model.addAttribute("otherRooms", otherRooms(room));
         model.addAttribute("form", form);
         model.addAttribute("rules", rules);
         return "host/price_rules/edit";
@@ -64,6 +71,7 @@ public class HostPriceRuleController {
         if (binding.hasErrors()) {
             var current = priceRuleRepository.findByRoomIdOrderByWeekdayAscStartHourAscIdAsc(roomId);
             model.addAttribute("room", room);
+            model.addAttribute("otherRooms", otherRooms(room));
             model.addAttribute("rules", current);
             return "host/price_rules/edit";
         }
@@ -84,6 +92,7 @@ public class HostPriceRuleController {
         PriceRuleForm freshForm = buildFormFrom(latest, roomId);
 
         model.addAttribute("room", room);
+        model.addAttribute("otherRooms", otherRooms(room));
         model.addAttribute("form", freshForm);
         model.addAttribute("rules", latest);
         model.addAttribute("saved", true);
@@ -109,12 +118,41 @@ public class HostPriceRuleController {
         var freshForm = buildFormFrom(latest, roomId);
 
         model.addAttribute("room", room);
+        model.addAttribute("otherRooms", otherRooms(room));
         model.addAttribute("form", freshForm);
         model.addAttribute("rules", latest);
         model.addAttribute("deleted", true);
         return "host/price_rules/edit";
     }
 
+    /** このスタジオのルール一式を選んだスタジオへコピー（先のルールは置き換え） */
+    @PostMapping("/{roomId}/price-rules/copy")
+    public String copy(@AuthenticationPrincipal UserDetailsImpl principal,
+                       @PathVariable Integer roomId,
+                       @RequestParam(name = "targetRoomIds", required = false) List<Integer> targetRoomIds,
+                       Model model) {
+        if (targetRoomIds != null && !targetRoomIds.isEmpty()) {
+            priceRuleService.copyRules(principal.getUser().getId(), roomId, targetRoomIds);
+        }
+
+        var room = roomRepository.findById(roomId).orElseThrow();
+        var latest = priceRuleRepository.findByRoomIdOrderByWeekdayAscStartHourAscIdAsc(roomId);
+
+        model.addAttribute("room", room);
+        model.addAttribute("otherRooms", otherRooms(room));
+        model.addAttribute("form", buildFormFrom(latest, roomId));
+        model.addAttribute("rules", latest);
+        model.addAttribute("copied", targetRoomIds != null && !targetRoomIds.isEmpty());
+        return "host/price_rules/edit";
+    }
+
+    /** 同じホストの他のスタジオ（コピー先の候補） */
+    private List<Room> otherRooms(Room room) {
+        return roomRepository.findByUser_IdOrderByNameAsc(room.getUser().getId()).stream()
+                .filter(r -> !r.getId().equals(room.getId()))
+                .toList();
+    }
+
     private LocalTime safeParse(String hhmm) {
         if (hhmm == null || hhmm.isBlank()) return null;
         return LocalTime.parse(hhmm); // "HH:mm"
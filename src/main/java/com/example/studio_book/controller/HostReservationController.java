@@ -1,9 +1,7 @@
 // src/main/java/com/example/studio_book/controller/HostReservationController.java
 package com.example.studio_book.controller;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -16,8 +14,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.example.studio_book.dto.HostReservationRow;
+import com.example.studio_book.dto.KeysetCursor;
+import com.example.studio_book.dto.KeysetPage;
+import com.example.studio_book.dto.ReservationListFilter;
 import com.example.studio_book.repository.ReservationRepository;
 import com.example.studio_book.security.UserDetailsImpl;
+import com.example.studio_book.service.AvailabilityBitmaps;
 
 import lombok.RequiredArgsConstructor;
 
@@ -27,11 +30,15 @@ import lombok.RequiredArgsConstructor;
 public class HostReservationController {
 
     private final ReservationRepository reservationRepository;
+    private final AvailabilityBitmaps availability;
 
-    /** 一覧表示 */
+    private static final int PAGE_SIZE = 5;
+
+    /** 一覧表示（(startAt, id) 降順のキーセット。dir=prev で新しい側へ戻る） */
     @GetMapping
     public String index(@AuthenticationPrincipal UserDetailsImpl principal,
-                        @RequestParam(name = "page", defaultValue = "0") int page,
+                        @RequestParam(name = "cursor", required = false) String cursor,
+                        @RequestParam(name = "dir", defaultValue = "next") String dir,
                         @RequestParam(name = "kw", required = false) String kw,
                         @RequestParam(name = "status", required = false) String status,
                         @RequestParam(name = "reservationId", required = false) Integer reservationId,
@@ -45,20 +52,30 @@ public class HostReservationController {
                         Model model) {
 
         var hostId = principal.getUser().getId();
-        var pageable = PageRequest.of(Math.max(page, 0), 5, Sort.by(Sort.Direction.DESC, "startAt"));
+
+        KeysetCursor c;
+        try {
+            c = KeysetCursor.parse(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
 
         String kwNorm = (kw != null && !kw.isBlank()) ? kw.trim() : null;
         String statusNorm = (status != null && !status.isBlank()) ? status : null;
         java.time.LocalDateTime fromDt = (startFrom != null) ? startFrom.atStartOfDay() : null;
         java.time.LocalDateTime toDt   = (startTo   != null) ? startTo.atTime(23,59,59, 999_000_000) : null;
 
-        Page<com.example.studio_book.dto.HostReservationRow> p =
-            reservationRepository.findPageForHostFiltered(
-                hostId, kwNorm, statusNorm, fromDt, toDt, reservationId, roomId, pageable
-            );
+        // 指定された条件だけで組み立て、size+1 件取得（COUNT は打たない）
+        var filter = new ReservationListFilter(kwNorm, statusNorm, fromDt, toDt, reservationId, roomId);
+        boolean backward = c != null && "prev".equals(dir);
+        Slice<HostReservationRow> slice =
+            reservationRepository.findHostReservations(hostId, filter, c, backward, PAGE_SIZE);
+
+        var p = KeysetPage.of(slice.getContent(), slice.hasNext(), backward, c != null,
+                row -> KeysetCursor.format(row.getStartAt(), row.getReservationId()), null);
 
         model.addAttribute("page", p);
-        model.addAttribute("rows", p.getContent());
+        model.addAttribute("rows", p.content());
 
         // 検索条件の戻し
         model.addAttribute("kw", kwNorm);
@@ -108,6 +125,7 @@ public class HostReservationController {
             r.setStatus("canceled");
             // 必要なら監査：r.setCanceledAt(LocalDateTime.now()); r.setCancelReason("host");
             reservationRepository.save(r);
+            availability.invalidateAfterCommit(r.getRoom().getId());
         }
         return "redirect:/host/reservations?canceled=1";
     }
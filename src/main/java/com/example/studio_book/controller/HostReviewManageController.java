@@ -22,10 +22,10 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.example.studio_book.entity.Review;
-import com.example.studio_book.repository.AuditLogRepository;
 import com.example.studio_book.repository.ReviewRepository;
 import com.example.studio_book.repository.RoomRepository;
 import com.example.studio_book.security.UserDetailsImpl;
+import com.example.studio_book.service.AuditLogWriter;
 
 import lombok.RequiredArgsConstructor;
 
@@ -35,7 +35,7 @@ import lombok.RequiredArgsConstructor;
 public class HostReviewManageController {
 
     private final ReviewRepository reviewRepository;
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
     private final RoomRepository roomRepository; 
 
     /** レビュー一覧（ホスト横断）＋簡易フィルタ */
@@ -101,7 +101,7 @@ public class HostReviewManageController {
         r.setHostReplyAt(LocalDateTime.now());
         reviewRepository.save(r);
 
-        auditLogRepository.add("host_reply", toIntId(principal.getUser().getId()), "review", r.getId());
+        auditLogWriter.add("host_reply", toIntId(principal.getUser().getId()), "review", r.getId());
         ra.addFlashAttribute("message", "返信を保存しました。");
         return "redirect:/host/reviews";
     }
@@ -127,7 +127,7 @@ public class HostReviewManageController {
         	));
         reviewRepository.save(r);
 
-        auditLogRepository.add(isPublic ? "review_public_on" : "review_public_off",
+        auditLogWriter.add(isPublic ? "review_public_on" : "review_public_off",
                 toIntId(principal.getUser().getId()), "review", r.getId());
 
         ra.addFlashAttribute("message", isPublic ? "公開に変更しました。" : "非公開に変更しました。");
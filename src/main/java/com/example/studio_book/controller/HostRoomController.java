@@ -28,6 +28,7 @@ import com.example.studio_book.repository.PriceRuleRepository;
 import com.example.studio_book.repository.RoomBusinessHourRepository;
 import com.example.studio_book.repository.RoomRepository;
 import com.example.studio_book.security.UserDetailsImpl;
+import com.example.studio_book.service.RoomService;
 import com.example.studio_book.viewmodel.PriceRuleViewModel;
 
 import lombok.RequiredArgsConstructor;
@@ -40,6 +41,7 @@ public class HostRoomController {
     private final RoomRepository roomRepository;
     private final PriceRuleRepository priceRuleRepository;
     private final RoomBusinessHourRepository roomBusinessHourRepository; // ★追加
+    private final RoomService roomService;
 
     // 一覧（本人のスタジオのみ）
     @GetMapping
@@ -121,7 +123,8 @@ public class HostRoomController {
      // 所有者チェック
         Room room = roomRepository.findByIdAndUser_Id(id, principal.getUser().getId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        roomRepository.delete(room);
+        // ★ RoomService 経由で削除（予約検索の行も一緒に消す）
+        roomService.deleteRoom(room);
         
         // 成功メッセージはリダイレクト先でフラッシュスコープ等を使ってもOK
         return "redirect:/host/rooms?success";
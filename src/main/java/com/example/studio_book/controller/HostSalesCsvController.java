@@ -1,6 +1,8 @@
 // src/main/java/com/example/studio_book/controller/HostSalesCsvController.java
 package com.example.studio_book.controller;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
@@ -24,6 +26,7 @@ import com.example.studio_book.entity.ReservationChargeItem;
 import com.example.studio_book.repository.ReservationChargeItemRepository;
 import com.example.studio_book.repository.ReservationRepository;
 import com.example.studio_book.security.UserDetailsImpl;
+import com.example.studio_book.service.AppMetrics;
 
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -35,6 +38,7 @@ public class HostSalesCsvController {
 
     private final ReservationRepository reservationRepository;
     private final ReservationChargeItemRepository chargeItemRepository;
+    private final AppMetrics metrics;
 
     private static final DateTimeFormatter CSV_DT =
             new DateTimeFormatterFactory("yyyy-MM-dd HH:mm").createDateTimeFormatter();
@@ -46,6 +50,7 @@ public class HostSalesCsvController {
                               @RequestParam(defaultValue = "true") boolean onlyWithItems,
                               HttpServletResponse resp) throws Exception {
 
+        long t0 = System.nanoTime();
         var hostId = principal.getUser().getId();
         int only = onlyWithItems ? 1 : 0;
 
@@ -60,10 +65,10 @@ public class HostSalesCsvController {
         resp.setHeader("Content-Disposition", "attachment; filename=\"host-sales.csv\"");
 
         // UTF-8 BOM（Excel対策）
-        var os = resp.getOutputStream();
+        var os = new ByteArrayOutputStream();
         os.write(new byte[]{(byte)0xEF, (byte)0xBB, (byte)0xBF});
 
-        try (var writer = new PrintWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8), true)) {
+        try (var writer = new PrintWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8))) {
             // ヘッダ
        /*     writer.println(String.join(",",
                     "reservation_id", "room_name", "guest_name", "start_at", "end_at", "amount", "status"));*/
@@ -83,6 +88,8 @@ public class HostSalesCsvController {
                 ));
             }
         }
+        send(resp, os);
+        metrics.recordExport("csv_list", page.getContent().size(), System.nanoTime() - t0);
     }
 
     // ▼ 予約1件の明細CSV（reservation_charge_items を吐く）
@@ -91,6 +98,7 @@ public class HostSalesCsvController {
                                @PathVariable Integer id,
                                HttpServletResponse resp) throws Exception {
 
+        long t0 = System.nanoTime();
         var hostId = principal.getUser().getId();
 
         // 権限チェックも兼ねてヘッダー1件取得（存在＋ホスト本人の部屋か）
@@ -104,10 +112,10 @@ public class HostSalesCsvController {
         resp.setHeader("Content-Disposition",
                 "attachment; filename=\"reservation-" + head.getReservationId() + "-items.csv\"");
 
-        var os = resp.getOutputStream();
+        var os = new ByteArrayOutputStream();
         os.write(new byte[]{(byte)0xEF, (byte)0xBB, (byte)0xBF});
 
-        try (var writer = new PrintWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8), true)) {
+        try (var writer = new PrintWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8))) {
             // 先頭に予約ヘッダ情報をメタとして出す（Excelで見やすい）
           /*  writer.println("# reservation_id," + head.getReservationId());
             writer.println("# room_name," + esc(head.getRoomName()));
@@ -140,10 +148,21 @@ public class HostSalesCsvController {
                 ));
             }
         }
+        send(resp, os);
+        metrics.recordExport("csv_items", items.size(), System.nanoTime() - t0);
     }
 
     // ===== CSV helper =====
 
+    /**
+     * メモリ上で組み立てた CSV を一度に送る
+     * （PrintWriter は synchronized なので、ソケットへの書き込みを中で待つと仮想スレッドが pin される）
+     */
+    private static void send(HttpServletResponse resp, ByteArrayOutputStream body) throws IOException {
+        resp.setContentLength(body.size());
+        body.writeTo(resp.getOutputStream());
+    }
+
     private static String fmt(LocalDateTime dt) {
         return dt == null ? "" : CSV_DT.format(dt);
     }
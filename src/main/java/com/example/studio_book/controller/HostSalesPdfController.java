@@ -2,12 +2,16 @@
 package com.example.studio_book.controller;
 
 import java.awt.Color;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.text.NumberFormat;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -20,6 +24,7 @@ import com.example.studio_book.entity.ReservationChargeItem;
 import com.example.studio_book.repository.ReservationChargeItemRepository;
 import com.example.studio_book.repository.ReservationRepository;
 import com.example.studio_book.security.UserDetailsImpl;
+import com.example.studio_book.service.AppMetrics;
 import com.lowagie.text.Chunk;
 import com.lowagie.text.Document;
 import com.lowagie.text.Element;
@@ -43,15 +48,21 @@ public class HostSalesPdfController {
 
     private final ReservationRepository reservationRepository;
     private final ReservationChargeItemRepository chargeItemRepository;
+    private final AppMetrics metrics;
 
     private static final DateTimeFormatter DT = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm");
     private static final NumberFormat CURRENCY = NumberFormat.getIntegerInstance(Locale.JAPAN);
 
+    // フォントは一度だけ読み込む（毎回の一時ファイル作成をやめる）
+    private static final Map<String, BaseFont> FONTS = new HashMap<>();
+    private static final ReentrantLock FONT_LOCK = new ReentrantLock();
+
     @GetMapping(value = "/sales_details/{id}/invoice.pdf", produces = "application/pdf")
     public void invoicePdf(@AuthenticationPrincipal UserDetailsImpl principal,
                            @PathVariable Integer id,
                            HttpServletResponse resp) throws Exception {
 
+        long t0 = System.nanoTime();
         var hostId = principal.getUser().getId();
 
         // 予約ヘッダ（本人チェック兼ねる）
@@ -67,11 +78,13 @@ public class HostSalesPdfController {
         resp.setHeader("Content-Disposition",
                 "attachment; filename=\"reservation-" + head.getReservationId() + "-invoice.pdf\"");
 
-        var os = resp.getOutputStream();
+        // OpenPDF の内部は synchronized が多いので、ソケットへは書かずメモリ上で作ってから送る
+        // （ロック中に送信を待つと仮想スレッドが pin される）
+        var os = new ByteArrayOutputStream(32 * 1024);
 
         // ====== フォント準備（日本語埋め込み）======
-        BaseFont bfRegular = loadBaseFont("/fonts/NotoSansJP-Regular.ttf");
-        BaseFont bfBold    = loadBaseFont("/fonts/NotoSansJP-Bold.ttf");
+        BaseFont bfRegular = font("/fonts/NotoSansJP-Regular.ttf");
+        BaseFont bfBold    = font("/fonts/NotoSansJP-Bold.ttf");
 
         Font fTitle   = new Font(bfBold,   16);
         Font fLabel   = new Font(bfBold,   10);
@@ -173,16 +186,34 @@ public class HostSalesPdfController {
         doc.add(new Paragraph("本書はシステムにより自動生成されています。", fSmall));
 
         doc.close();
+        resp.setContentLength(os.size());
+        os.writeTo(resp.getOutputStream());
+        metrics.recordExport("pdf", items.size(), System.nanoTime() - t0);
     }
 
     // ===== helpers =====
 
+    private static BaseFont font(String classpath) throws Exception {
+        FONT_LOCK.lock();
+        try {
+            BaseFont f = FONTS.get(classpath);
+            if (f == null) {
+                f = loadBaseFont(classpath);
+                FONTS.put(classpath, f);
+            }
+            return f;
+        } finally {
+            FONT_LOCK.unlock();
+        }
+    }
+
     private static BaseFont loadBaseFont(String classpath) throws Exception {
         ClassPathResource res = new ClassPathResource(classpath);
         try (InputStream in = res.getInputStream()) {
             // InputStream → 一時ファイル経由で BaseFont 生成（Jar内でも安定）
             java.nio.file.Path tmp = java.nio.file.Files.createTempFile("font-", ".ttf");
             java.nio.file.Files.copy(in, tmp, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+            tmp.toFile().deleteOnExit();
             return BaseFont.createFont(tmp.toString(), BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
         }
     }
@@ -1,6 +1,9 @@
 package com.example.studio_book.controller;
 
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
@@ -16,10 +19,13 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.example.studio_book.dto.ReservationConfirmDto;
 import com.example.studio_book.entity.Reservation;
+import com.example.studio_book.entity.SlotHold;
 import com.example.studio_book.entity.User;
 import com.example.studio_book.form.ReservationInputForm;
 import com.example.studio_book.repository.PriceRuleRepository;
@@ -27,15 +33,17 @@ import com.example.studio_book.repository.ReviewRepository;
 import com.example.studio_book.repository.RoomBusinessHourRepository;
 import com.example.studio_book.repository.RoomRepository;
 import com.example.studio_book.security.UserDetailsImpl;
+import com.example.studio_book.service.CheckoutStatusRegistry;
 import com.example.studio_book.service.ReservationService;
+import com.example.studio_book.service.SlotHoldService;
 import com.example.studio_book.service.StripeService;
 import com.example.studio_book.validation.ReservationInputValidator;
-import com.stripe.model.checkout.Session;
-import com.stripe.param.checkout.SessionRetrieveParams;
 
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Controller
 public class ReservationController {
     private final ReservationService reservationService;
@@ -45,6 +53,8 @@ public class ReservationController {
     private final RoomBusinessHourRepository roomBusinessHourRepository;
     private final PriceRuleRepository priceRuleRepository;
     private final ReservationInputValidator reservationInputValidator;
+    private final SlotHoldService slotHoldService;
+    private final CheckoutStatusRegistry checkoutStatusRegistry;
 
     public ReservationController(ReservationService reservationService,
             StripeService stripeService,
@@ -52,9 +62,13 @@ public class ReservationController {
             ReviewRepository reviewRepository,
             RoomBusinessHourRepository roomBusinessHourRepository,
             PriceRuleRepository priceRuleRepository,
-            ReservationInputValidator reservationInputValidator) {
+            ReservationInputValidator reservationInputValidator,
+            SlotHoldService slotHoldService,
+            CheckoutStatusRegistry checkoutStatusRegistry) {
 this.reservationService = reservationService;
 this.stripeService = stripeService;
+this.slotHoldService = slotHoldService;
+this.checkoutStatusRegistry = checkoutStatusRegistry;
 
 this.roomRepository = roomRepository;
 this.reviewRepository = reviewRepository;
@@ -63,6 +77,11 @@ this.priceRuleRepository = priceRuleRepository;
 this.reservationInputValidator = reservationInputValidator;
 }
     
+    private static final long MAX_STATUS_WAIT_SECONDS = 30;
+    private static final Map<String, String> STATUS_COMPLETED = Map.of("status", "completed");
+    private static final Map<String, String> STATUS_PROCESSING = Map.of("status", "processing");
+    private static final Map<String, String> STATUS_CONFLICT = Map.of("status", "conflict");
+
     @Value("${stripe.publishable-key}")
     private String stripePublishableKey;
 
@@ -71,6 +90,8 @@ this.reservationInputValidator = reservationInputValidator;
                         @PageableDefault(page = 0, size = 10, sort = "id", direction = Direction.ASC) Pageable pageable,
                         @RequestParam(value = "reserved", required = false) String reserved,
                         @RequestParam(value = "session_id", required = false) String sessionId,
+                        @RequestParam(value = "hold", required = false) Integer holdId,
+                        HttpSession httpSession,
                         Model model)
     {
         User user = userDetailsImpl.getUser();
@@ -78,70 +99,130 @@ this.reservationInputValidator = reservationInputValidator;
 
         model.addAttribute("reservationPage", reservationPage);
 
+        // 決済キャンセルで戻ってきたら、その手続きの仮押さえ（cancel_url の hold）だけを即解放（期限切れを待たない）
+        if ("cancel".equals(reserved) && holdId != null && slotHoldService.releaseHold(holdId, user.getId())) {
+            // 仮押さえが無くなったので、その Stripe セッションは失効させて決済できないようにする
+            // （別の手続きで DTO が置き換わっていて失効できなかった分は、Webhook の競合チェック＋返金で守る）
+            if (httpSession.getAttribute("reservationDTO") instanceof ReservationConfirmDto dto
+                    && holdId.equals(dto.getHoldId())) {
+                if (dto.getCheckoutSessionId() != null) {
+                    stripeService.expireSession(dto.getCheckoutSessionId());
+                }
+                dto.setCheckoutSessionId(null);
+                httpSession.setAttribute("reservationDTO", dto);
+            }
+        }
         
         if (reserved != null) {
-            boolean done = false;
-            if (sessionId != null) {
-                try {
-                    SessionRetrieveParams params = SessionRetrieveParams.builder()
-                            .addExpand("payment_intent").build();
-                    Session sess = Session.retrieve(sessionId, params, null);
-                    String piId = sess.getPaymentIntent(); // PaymentIntent ID
-                    // Webhookで登録済みか確認（ReservationRepository.existsByPaymentIntentId を利用）
-                    done = reservationService.existsByPaymentIntentId(piId);
-                } catch (Exception ignore) { /* ネットワーク一時障害などは無視して続行 */ }
-            }
+            // Webhook で登録済みか（自前の記録だけを見る。Stripe は呼ばない）
+            boolean done = reservationService.isCheckoutCompleted(sessionId, user.getId());
             if (done) {
                 model.addAttribute("reserved", true);          // 「予約が完了しました。」
+            } else if (reservationService.isCheckoutConflict(sessionId, user.getId())) {
+                model.addAttribute("conflict", true);          // 「枠が埋まっていたため返金しました。」
             } else {
                 model.addAttribute("processing", true);        // 「決済は完了。予約反映中…」等の案内に使う
+                model.addAttribute("sessionId", sessionId);    // 画面から /reservations/status を待つ
             }
         }
         
         return "reservations/index";
     }
+
+    /**
+     * 決済後の予約反映状況（{"status":"completed"|"conflict"|"processing"}）
+     * wait 秒を指定すると、確定するかタイムアウトするまで応答を保留する（ロングポーリング）
+     */
+    @GetMapping("/reservations/status")
+    @ResponseBody
+    public DeferredResult<Map<String, String>> status(@AuthenticationPrincipal UserDetailsImpl userDetailsImpl,
+                                                      @RequestParam("session_id") String sessionId,
+                                                      @RequestParam(value = "wait", defaultValue = "0") long waitSeconds) {
+        Integer userId = userDetailsImpl.getUser().getId();
+        long waitMillis = Math.min(Math.max(waitSeconds, 0), MAX_STATUS_WAIT_SECONDS) * 1000L;
+
+        DeferredResult<Map<String, String>> result = new DeferredResult<>(waitMillis, STATUS_PROCESSING);
+        if (reservationService.isCheckoutCompleted(sessionId, userId)) {
+            result.setResult(STATUS_COMPLETED);
+            return result;
+        }
+        if (reservationService.isCheckoutConflict(sessionId, userId)) {
+            result.setResult(STATUS_CONFLICT);
+            return result;
+        }
+        if (waitMillis == 0) {
+            result.setResult(STATUS_PROCESSING);
+            return result;
+        }
+
+        CompletableFuture<CheckoutStatusRegistry.Outcome> waiter = checkoutStatusRegistry.await(sessionId);
+        // ★ タイムアウト・切断を含め、応答が終わったら待機を外す（残すと未確定のセッションごとに溜まる）
+        result.onCompletion(() -> checkoutStatusRegistry.cancel(sessionId, waiter));
+        waiter.thenAccept(outcome -> {
+            if (!Objects.equals(outcome.userId(), userId)) {
+                result.setResult(STATUS_PROCESSING);
+            } else {
+                result.setResult(outcome.status() == CheckoutStatusRegistry.Status.CONFLICT ? STATUS_CONFLICT : STATUS_COMPLETED);
+            }
+        });
+        return result;
+    }
     @GetMapping("/reservations/confirm")
     public String confirm(@AuthenticationPrincipal UserDetailsImpl userDetailsImpl,
                           RedirectAttributes redirectAttributes,
                           HttpSession httpSession,
                           Model model) {
 
-    	
-        System.out.println("[CONFIRM] START");
-    	
         // 1) セッションからDTO取得
         ReservationConfirmDto reservationDTO =
             (ReservationConfirmDto) httpSession.getAttribute("reservationDTO");
-        
-        System.out.println("[CONFIRM] reservationDTO=" + reservationDTO); // ★追加
-        
+
+        log.debug("[CONFIRM] reservationDTO={}", reservationDTO);
+
         if (reservationDTO == null) {
             redirectAttributes.addFlashAttribute("errorMessage", "セッションがタイムアウトしました。もう一度予約内容を入力してください。");
             return "redirect:/rooms";
         }
 
         
-        System.out.println("[CONFIRM] createStripeSession...");
-        
-        // 2) Stripeセッション作成
         User user = userDetailsImpl.getUser();
-        System.out.println("[CONFIRM] start createStripeSession roomId=" + reservationDTO.getRoomId()
-            + " amount=" + reservationDTO.getAmount());
-        String sessionId = stripeService.createStripeSession(reservationDTO, user);
-        System.out.println("[CONFIRM] created sessionId=" + sessionId); // ★追加
-
-        // 3) 空ならビューを返さない（ここが重要）
-        if (sessionId == null || sessionId.isBlank()) {
-            redirectAttributes.addFlashAttribute("errorMessage", "決済セッションの作成に失敗しました。時間をおいて再度お試しください。");
-            return "redirect:/rooms/" + reservationDTO.getRoomId();
+
+        // 同じ見積もりで作成済みのセッションが生きていれば再利用（リロード・戻るで Stripe を呼ばない）
+        String sessionId;
+        if (reservationDTO.hasReusableCheckoutSession(LocalDateTime.now())) {
+            sessionId = reservationDTO.getCheckoutSessionId();
+            log.debug("[CONFIRM] reuse checkout session {}", sessionId);
+        } else {
+            // 2) 枠の仮押さえ（他ユーザーの決済中・予約済みならここで弾く）
+            try {
+                SlotHold hold = slotHoldService.hold(reservationDTO.getRoomId(), user.getId(),
+                        reservationDTO.getStartAt(), reservationDTO.getEndAt());
+                reservationDTO.setHoldExpiresAt(hold.getExpiresAt());
+                reservationDTO.setHoldId(hold.getId());
+            } catch (IllegalStateException e) {
+                redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+                return "redirect:/rooms/" + reservationDTO.getRoomId();
+            }
+
+            // 3) 見積もりを保存（Webhook はこの内訳で明細を作る）→ Stripeセッション作成
+            reservationDTO.setQuoteId(reservationService.saveQuote(reservationDTO, user.getId()));
+            sessionId = stripeService.createStripeSession(reservationDTO, user);
+
+            // 4) 空ならビューを返さない（ここが重要）
+            if (sessionId == null || sessionId.isBlank()) {
+                redirectAttributes.addFlashAttribute("errorMessage", "決済セッションの作成に失敗しました。時間をおいて再度お試しください。");
+                return "redirect:/rooms/" + reservationDTO.getRoomId();
+            }
+
+            reservationDTO.setCheckoutSessionId(sessionId);
+            reservationDTO.setCheckoutQuoteKey(reservationDTO.quoteKey());
+            httpSession.setAttribute("reservationDTO", reservationDTO);
         }
 
-        // 4) ビューに必須データを渡す（th:object と合わせる）
+        // 5) ビューに必須データを渡す（th:object と合わせる）
         model.addAttribute("confirm", reservationDTO);       // ★テンプレ名と一致
         model.addAttribute("sessionId", sessionId);          // ★これが data-session-id に入る
         model.addAttribute("stripePublishableKey", stripePublishableKey);
-        System.out.println("[CONFIRM] OK → reservations/confirm");
-        
         return "reservations/confirm";
     }
     
@@ -154,52 +235,38 @@ this.reservationInputValidator = reservationInputValidator;
                         HttpSession httpSession,
                         Model model) {
 
-    	
-        System.out.println("[INPUT] START roomId=" + roomId);
+        log.debug("[INPUT] roomId={} start={} end={}", roomId, form.getStartDateTime(), form.getEndDateTime());
 
-        // フォーム値
-        System.out.println("[INPUT] form start=" + form.getStartDateTime()
-                         + " end=" + form.getEndDateTime());
-        
-    	
         // 1) 基本バリデーション（必須、開始<終了 など）
         if (!binding.hasErrors()) {
-            reservationInputValidator.validateWithRoomId(form, binding, roomId);
+            reservationInputValidator.validateWithRoomId(form, binding, roomId, principal.getUser().getId());
         }
         if (binding.hasErrors()) {
             // エラー時は rooms/show を再描画するため、画面に必要なモデルを詰め直す
-        	 System.out.println("[INPUT] binding errors:");
-        	    binding.getAllErrors().forEach(e -> System.out.println("  - " + e));
+            log.debug("[INPUT] binding errors: {}", binding.getAllErrors());
             populateRoomShowModel(roomId, model);
             return "rooms/show";
         }
 
-        System.out.println("[INPUT] validation OK");
         // 2) 金額計算など予約確定前の集約（ReservationService側に任せる）
         LocalDateTime startAt = form.getStartDateTime();
         LocalDateTime endAt   = form.getEndDateTime();
 
-        System.out.println("[INPUT] buildConfirmDto...");
         // ここはプロジェクトの既存APIに合わせてください
         // 例: reservationService.buildConfirmDto(roomId, principal.getUser(), startAt, endAt)
         ReservationConfirmDto dto = null;
         try {
             dto = reservationService.buildConfirmDto(roomId, principal.getUser(),
             		startAt, endAt);
-            System.out.println("[INPUT] buildConfirmDto OK dto=" + dto);
         } catch (Exception e) {
-            System.out.println("[INPUT][ERROR] buildConfirmDto threw " + e.getClass().getName()
-                    + ": " + e.getMessage());
-            e.printStackTrace(); // ★必ず出す
+            log.error("[INPUT] buildConfirmDto failed roomId={} start={} end={}", roomId, startAt, endAt, e);
             ra.addFlashAttribute("errorMessage", "金額計算でエラーが発生しました。");
             return "redirect:/rooms/" + roomId;
         }
 
-        System.out.println("[INPUT] dto created = " + dto);
+        log.debug("[INPUT] dto created = {}", dto);
         // 3) セッションにDTO保存 → /reservations/confirm へ
         httpSession.setAttribute("reservationDTO", dto);
-        
-        System.out.println("[INPUT] dto created = " + dto);
         return "redirect:/reservations/confirm";
     }
     
@@ -11,15 +11,20 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.example.studio_book.entity.Closure;
 import com.example.studio_book.entity.Reservation;
@@ -27,9 +32,15 @@ import com.example.studio_book.entity.RoomBusinessHour;
 import com.example.studio_book.repository.ClosureRepository;
 import com.example.studio_book.repository.ReservationRepository;
 import com.example.studio_book.repository.RoomBusinessHourRepository;
+import com.example.studio_book.service.AppMetrics;
+import com.example.studio_book.service.ClosureRuleExpander;
+import com.example.studio_book.service.PriceCurveService;
+import com.example.studio_book.service.SlotFinderService;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/rooms/{roomId}/calendar")
@@ -38,6 +49,10 @@ public class RoomCalendarController {
     private final ClosureRepository closureRepo;
     private final ReservationRepository reservationRepo;
     private final RoomBusinessHourRepository bhRepo;
+    private final ClosureRuleExpander closureRules;
+    private final SlotFinderService slotFinder;
+    private final PriceCurveService priceCurves;
+    private final AppMetrics metrics;
 
     private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
@@ -50,30 +65,22 @@ public class RoomCalendarController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime end) {
 
+        long t0 = System.nanoTime();
+
         // FullCalendar は [start, end)（end は排他端）
         final LocalDateTime startL = start.toLocalDateTime();
         final LocalDateTime endL   = end.toLocalDateTime();
 
-        
-        // ★ デバッグログ追加
-        System.out.println("=== Calendar Events Request ===");
-        System.out.println("Room ID: " + roomId);
-        System.out.println("Start: " + startL + " | End: " + endL);
-        
+
         // 1) マスタ
         var bhs = bhRepo.findByRoomIdOrderByDayIndexAsc(roomId);
-        System.out.println("Business Hours Count: " + bhs.size()); // ← これを追加
-        bhs.forEach(bh -> System.out.println("  DOW:" + bh.getDayIndex() + 
-        	    " Holiday:" + bh.isHoliday() + 
-        	    " " + bh.getStartTime() + "-" + bh.getEndTime())); // ← これを追加
         var bhByDow = bhs.stream().collect(Collectors.toMap(RoomBusinessHour::getDayIndex, x -> x));
 
         // 2) 閉鎖・予約（[startL, endL) で取得）
-        var closures = closureRepo.findByRoomIdAndEndAtAfterAndStartAtBefore(roomId, startL, endL);
+        var closures = new ArrayList<>(closureRepo.findByRoomIdAndEndAtAfterAndStartAtBefore(roomId, startL, endL));
+        // ★ 繰り返し休館は表示範囲の分だけ展開
+        closures.addAll(closureRules.occurrences(roomId, startL, endL));
         var reservations = reservationRepo.findByRoomIdAndEndAtAfterAndStartAtBefore(roomId, startL, endL);
-        
-        System.out.println("Closures: " + closures.size());
-        System.out.println("Reservations: " + reservations.size());
 
         List<Map<String, Object>> events = new ArrayList<>();
 
@@ -94,37 +101,20 @@ public class RoomCalendarController {
         }
 
         // (A) OPEN 背景を作る（日ごと）
-        // ★ ループの範囲を確認
         int dayCount = 0;
         // ★ ここを [startL, endL) の“排他端”ループに
         for (LocalDate d = startL.toLocalDate(); d.isBefore(endL.toLocalDate()); d = d.plusDays(1)) {
-        	   dayCount++;
+            dayCount++;
             int dow = d.getDayOfWeek().getValue(); // 1..7
             var bh = bhByDow.get(dow);
-            // ★ これを追加
-            if (bh == null) {
-                System.out.println("  " + d + " (DOW:" + dow + ") -> BH: NULL");
-                continue;
-            }
-            if (bh.isHoliday()) {
-                System.out.println("  " + d + " (DOW:" + dow + ") -> HOLIDAY");
-                continue;
-            }
-            if (bh.getStartTime() == null || bh.getEndTime() == null) {
-                System.out.println("  " + d + " (DOW:" + dow + ") -> NO TIME SET");
-                continue;
-            }
             if (bh == null || bh.isHoliday() || bh.getStartTime() == null || bh.getEndTime() == null) {
+                log.trace("  {} (DOW:{}) -> closed", d, dow);
                 continue;
             }
-            // ★ ここまで到達しているか確認
-            System.out.println("  " + d + " (DOW:" + dow + ") -> PROCESSING OPEN");
             var openStart = max(LocalDateTime.of(d, bh.getStartTime()), startL);
             var openEnd   = min(LocalDateTime.of(d, bh.getEndTime()),   endL);
-            System.out.println("    openStart: " + openStart + " | openEnd: " + openEnd);
-            
             if (!openStart.isBefore(openEnd)) {
-                System.out.println("    -> SKIPPED (openStart >= openEnd)");
+                log.trace("  {} (DOW:{}) -> SKIPPED ({} >= {})", d, dow, openStart, openEnd);
                 continue;
             }
 
@@ -135,25 +125,88 @@ public class RoomCalendarController {
                 .filter(c -> overlaps(dayOpenStart, dayOpenEnd, c.getStartAt(), c.getEndAt()))
                 .map(c -> new Interval(max(dayOpenStart, c.getStartAt()), min(dayOpenEnd, c.getEndAt())))
                 .toList();
-            
-            System.out.println("    dayClosures count: " + dayClosures.size());
-
 
             var openSegments = subtract(dayOpenStart, dayOpenEnd, dayClosures);
-            System.out.println("    openSegments count: " + openSegments.size());
+            log.trace("  {} (DOW:{}) -> open {}~{} closures={} segments={}",
+                    d, dow, openStart, openEnd, dayClosures.size(), openSegments.size());
             for (Interval seg : openSegments) {
-            	System.out.println("    -> Creating OPEN event: " + seg.start + " ~ " + seg.end);
                 events.add(bgEvent("営業", seg.start, seg.end, "#e6ffe6", "#cde8cd", "open"));
             }
         }
-        System.out.println("Processed Days: " + dayCount);
-        System.out.println("Total Events: " + events.size());
-        System.out.println("===============================");
+        log.debug("calendar room={} [{}, {}) bh={} closures={} reservations={} days={} events={}",
+                roomId, startL, endL, bhs.size(), closures.size(), reservations.size(), dayCount, events.size());
 
+        metrics.recordCalendar(events.size(), System.nanoTime() - t0);
         return ResponseEntity.ok(events);
     }
 
 
+    /**
+     * after 以降で minutes 分空いている枠を最大 limit 件（order=price で安い順）
+     * 営業時間・休館・予約・決済中の仮押さえを除く
+     */
+    @GetMapping(value = "/next-slots", produces = "application/json")
+    public ResponseEntity<List<Map<String, Object>>> nextSlots(
+            @PathVariable Integer roomId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime after,
+            @RequestParam(defaultValue = "60") int minutes,
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(defaultValue = "time") String order) {
+
+        SlotFinderService.Order o = switch (order) {
+            case "time" -> SlotFinderService.Order.TIME;
+            case "price" -> SlotFinderService.Order.PRICE;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "order は time / price です");
+        };
+        LocalDateTime afterL = after != null ? after.toLocalDateTime() : LocalDateTime.now();
+
+        List<SlotFinderService.FreeSlot> slots;
+        try {
+            slots = slotFinder.nextSlots(roomId, afterL, minutes, limit, o);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        List<Map<String, Object>> body = new ArrayList<>(slots.size());
+        for (var s : slots) {
+            Map<String, Object> m = new HashMap<>();
+            m.put("start", ISO.format(s.startAt()));
+            m.put("end", ISO.format(s.endAt()));
+            m.put("amount", s.amount());
+            body.add(m);
+        }
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * [from, to] の日ごと・枠ごと（15/30 分）の時間単価（料金ヒートマップ用）
+     * ETag は料金の版と期間・枠から作るので、ルールが変わらない限り 304 で返せる
+     */
+    @GetMapping(value = "/price-curve", produces = "application/json")
+    public ResponseEntity<PriceCurveService.PriceCurve> priceCurve(
+            @PathVariable Integer roomId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "30") int slot,
+            WebRequest request) {
+
+        PriceCurveService.PriceCurve curve;
+        try {
+            curve = priceCurves.curve(roomId, from, to, slot);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        String etag = "\"" + curve.version() + "-" + from + "-" + to + "-" + slot + "\"";
+        if (request.checkNotModified(etag)) {
+            return null; // 304（ヘッダは checkNotModified が設定済み）
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic().mustRevalidate())
+                .body(curve);
+    }
+
     /** 背景イベント */
     private Map<String, Object> bgEvent(String title, LocalDateTime s, LocalDateTime e,
                                         String bgColor, String borderColor, String type) {
@@ -7,20 +7,26 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 
+import com.example.studio_book.service.AppMetrics;
 import com.example.studio_book.service.StripeService;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
 import com.stripe.net.Webhook;
 
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 @Controller
 public class StripeWebhookController {
     private final StripeService stripeService;
+    private final AppMetrics metrics;
 
     @Value("${stripe.webhook-secret}")
     private String webhookSecret;
 
-    public StripeWebhookController(StripeService stripeService) {
+    public StripeWebhookController(StripeService stripeService, AppMetrics metrics) {
         this.stripeService = stripeService;
+        this.metrics = metrics;
     }
 
     @PostMapping(value = "/stripe/webhook", consumes = "application/json")
@@ -28,11 +34,14 @@ public class StripeWebhookController {
         @RequestBody String payload,
         @RequestHeader(value = "Stripe-Signature", required = false) String sigHeader) {
 
-        System.out.println("[WEBHOOK] HIT /stripe/webhook");
-        System.out.println("[WEBHOOK] Stripe-Signature=" + sigHeader);
-        System.out.println("[WEBHOOK] payload=" + payload);
+        // 本文（決済情報・メタデータ）と署名はログに出さない
+        log.debug("[WEBHOOK] HIT /stripe/webhook bytes={}", payload.length());
+
+        long t0 = System.nanoTime();
 
         if (sigHeader == null) {
+            log.warn("[WEBHOOK] missing Stripe-Signature");
+            metrics.recordWebhook(null, "missing_signature", System.nanoTime() - t0);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("missing-signature");
         }
 
@@ -40,18 +49,31 @@ public class StripeWebhookController {
         try {
             event = Webhook.constructEvent(payload, sigHeader, webhookSecret);
         } catch (SignatureVerificationException e) {
-            System.out.println("[WEBHOOK] signature verification failed: " + e.getMessage());
+            log.warn("[WEBHOOK] signature verification failed: {}", e.getMessage());
+            metrics.recordWebhook(null, "invalid_signature", System.nanoTime() - t0);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("invalid-signature");
         }
 
-        System.out.println("[WEBHOOK] type=" + event.getType());
+        log.info("[WEBHOOK] type={} id={}", event.getType(), event.getId());
 
-        if ("checkout.session.completed".equals(event.getType())) {
-            stripeService.processSessionCompleted(event);
-        } else if ("payment_intent.succeeded".equals(event.getType())) {
-            stripeService.processPaymentIntentSucceeded(event);
-        } else if ("charge.succeeded".equals(event.getType()) || "charge.updated".equals(event.getType())) {
-            stripeService.processChargeEvent(event);  // ★ 追加
+        // ★ 処理結果をそのままタグにする（サービス側で握りつぶした失敗も error として数える）
+        StripeService.WebhookOutcome outcome = StripeService.WebhookOutcome.ERROR;
+        try {
+            if ("checkout.session.completed".equals(event.getType())) {
+                outcome = stripeService.processSessionCompleted(event);
+            } else if ("payment_intent.succeeded".equals(event.getType())) {
+                outcome = stripeService.processPaymentIntentSucceeded(event);
+            } else if ("charge.succeeded".equals(event.getType()) || "charge.updated".equals(event.getType())) {
+                outcome = stripeService.processChargeEvent(event);  // ★ 追加
+            } else {
+                outcome = StripeService.WebhookOutcome.SKIPPED;
+            }
+        } finally {
+            metrics.recordWebhook(event.getType(), outcome.tag(), System.nanoTime() - t0);
+        }
+        // 失敗は 500 で返して Stripe に再送させる
+        if (outcome == StripeService.WebhookOutcome.ERROR) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("error");
         }
         return ResponseEntity.ok("ok");
     }
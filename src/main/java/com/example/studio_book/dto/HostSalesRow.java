@@ -0,0 +1,21 @@
+// src/main/java/com/example/studio_book/dto/HostSalesRow.java
+package com.example.studio_book.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** 売上詳細の1行（Criteria の construct 用。画面・CSV は HostSalesRowProjection として扱う） */
+@Getter
+@AllArgsConstructor
+public class HostSalesRow implements HostSalesRowProjection {
+    private Integer reservationId;
+    private String roomName;
+    private Integer roomId;
+    private String guestName;
+    private LocalDateTime startAt;
+    private LocalDateTime endAt;
+    private Integer amount;
+    private String status;
+}
@@ -0,0 +1,34 @@
+// src/main/java/com/example/studio_book/dto/KeysetCursor.java
+package com.example.studio_book.dto;
+
+import java.time.LocalDateTime;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * キーセット方式の一覧で使うページ境界 (時刻, id)。
+ * URL では "2025-11-01T10:00_123" の形で持ち回る。
+ */
+public record KeysetCursor(LocalDateTime ts, int id) {
+
+    /** @return 空なら null。形式が壊れていれば IllegalArgumentException */
+    public static KeysetCursor parse(String s) {
+        if (!StringUtils.hasText(s)) return null;
+        int sep = s.lastIndexOf('_');
+        if (sep <= 0) throw new IllegalArgumentException("invalid cursor: " + s);
+        try {
+            return new KeysetCursor(LocalDateTime.parse(s.substring(0, sep)), Integer.parseInt(s.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid cursor: " + s, e);
+        }
+    }
+
+    public static String format(LocalDateTime ts, Integer id) {
+        return ts + "_" + id;
+    }
+
+    @Override
+    public String toString() {
+        return format(ts, id);
+    }
+}
@@ -0,0 +1,55 @@
+// src/main/java/com/example/studio_book/dto/KeysetPage.java
+package com.example.studio_book.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * キーセット方式の一覧 1 画面分（COUNT なし）
+ *
+ * @param nextCursor        次（古い側）のページがあればその起点、無ければ null
+ * @param prevCursor        前（新しい側）のページがあればその起点、無ければ null
+ * @param approximateTotal  全体件数の概算（出せないときは null）
+ */
+public record KeysetPage<T>(
+    List<T> content,
+    String nextCursor,
+    String prevCursor,
+    Long approximateTotal
+) {
+
+    /**
+     * size+1 件取得の結果から 1 画面分を組み立てる
+     *
+     * @param fetched    取得した行（backward なら新しい側を昇順で取ったもの）
+     * @param more       size を超えて取れたか（Slice#hasNext）
+     * @param backward   前のページ（新しい側）を取ったか
+     * @param fromCursor 起点の cursor 付きで取ったか（先頭ページでないか）
+     * @param cursorOf   行 → cursor 文字列
+     */
+    public static <T> KeysetPage<T> of(List<T> fetched, boolean more, boolean backward, boolean fromCursor,
+                                       Function<T, String> cursorOf, Long approximateTotal) {
+        List<T> rows = new ArrayList<>(fetched);
+        if (backward) Collections.reverse(rows);
+
+        String next = null;
+        String prev = null;
+        if (!rows.isEmpty()) {
+            boolean hasOlder = backward || more;
+            boolean hasNewer = backward ? more : fromCursor;
+            if (hasOlder) next = cursorOf.apply(rows.get(rows.size() - 1));
+            if (hasNewer) prev = cursorOf.apply(rows.get(0));
+        }
+        return new KeysetPage<>(rows, next, prev, approximateTotal);
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrevious() {
+        return prevCursor != null;
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.studio_book.dto;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 
 import lombok.Builder;
 import lombok.Data;
@@ -20,5 +24,36 @@ public class ReservationConfirmDto {
     private java.util.List<com.example.studio_book.viewmodel.ConfirmLineItem> items; // 内訳
     private Long subtotal;  // 基本+固定+加算の小計
     private Long tax;       // 税額
+
+    // 仮押さえの期限（confirm 時に取得。Stripe セッションの expires_at にも使う）
+    private LocalDateTime holdExpiresAt;
+    // 仮押さえの id（cancel_url に載せ、キャンセルで戻ったときはこの 1 件だけ解放する）
+    private Integer holdId;
+
+    // 作成済みの Stripe Checkout セッション（リロード・戻るで作り直さないためのキャッシュ）
+    private String checkoutSessionId;
+    private String checkoutQuoteKey;   // セッション作成時の quoteKey()。内容が変わったら再作成
+
+    // 保存済み見積もりの id（PaymentIntent.metadata.quoteId）
+    private String quoteId;
+
+    /** 見積もりの同一性キー（room/start/end/amount の SHA-256） */
+    public String quoteKey() {
+        String raw = roomId + "|" + startAt + "|" + endAt + "|" + amount;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** キャッシュ済みセッションが同じ見積もりのもので、期限まで余裕があるか */
+    public boolean hasReusableCheckoutSession(LocalDateTime now) {
+        return checkoutSessionId != null
+            && quoteKey().equals(checkoutQuoteKey)
+            && holdExpiresAt != null
+            && holdExpiresAt.isAfter(now.plusMinutes(1));
+    }
 }
 
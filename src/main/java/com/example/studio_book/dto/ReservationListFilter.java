@@ -0,0 +1,24 @@
+// src/main/java/com/example/studio_book/dto/ReservationListFilter.java
+package com.example.studio_book.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 予約一覧の絞り込み条件（null の項目は条件に含めない）
+ *
+ * @param roomId ホスト一覧のみ
+ */
+public record ReservationListFilter(
+    String kw,
+    String status,
+    LocalDateTime startFrom,
+    LocalDateTime startTo,
+    Integer reservationId,
+    Integer roomId
+) {
+
+    public boolean isEmpty() {
+        return kw == null && status == null && startFrom == null && startTo == null
+            && reservationId == null && roomId == null;
+    }
+}
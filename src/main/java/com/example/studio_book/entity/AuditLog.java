@@ -8,15 +8,25 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "audit_logs")
+// 一覧は (ts, id) のキーセットで降順に辿る。各フィルタは完全一致＋ts 範囲で索引を使う
+// （note の FULLTEXT を含め、索引の実体は db/migration で管理）
+@Table(name = "audit_logs",
+       indexes = {
+           @Index(name = "idx_audit_logs_ts", columnList = "ts, id"),
+           @Index(name = "idx_audit_logs_action_ts", columnList = "action, ts"),
+           @Index(name = "idx_audit_logs_entity_ts", columnList = "entity, entity_id, ts"),
+           @Index(name = "idx_audit_logs_actor_ts", columnList = "actor_id, ts")
+       })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,15 +42,18 @@ public class AuditLog {
     private LocalDateTime ts;
 
     /** 実行者ID（User.id または Host.id） */
+    @NotNull
     @Min(value = 1, message = "actorId must be > 0")
     @Column(name = "actor_id", nullable = false)
     private Integer actorId;
 
     /** 操作の種類（例: host_reply, review_public_on 等） */
+    @NotNull
     @Column(nullable = false, length = 100)
     private String action;
 
     /** 対象のエンティティ種別（例: review, room, reservation） */
+    @NotNull
     @Column(nullable = false, length = 100)
     private String entity;
 
@@ -9,13 +9,15 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
-@Table(name = "closures")
+@Table(name = "closures",
+       indexes = @Index(name = "idx_closures_room_start", columnList = "room_id, start_at"))
 @Data
 public class Closure {
     @Id
@@ -0,0 +1,76 @@
+// src/main/java/com/example/studio_book/entity/ClosureRule.java
+package com.example.studio_book.entity;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * 繰り返しの休館（毎週火曜・第2火曜・毎年 12/31 など）。
+ * 期間ごとの行は作らず、照会された範囲の分だけ ClosureRuleExpander が展開する。
+ * 変更は作り直し（削除＋追加）のみで、行を更新しない。
+ */
+@Entity
+@Table(name = "closure_rules",
+       indexes = @Index(name = "idx_closure_rules_room", columnList = "room_id"))
+@Data
+public class ClosureRule {
+
+    public static final String WEEKLY = "weekly";
+    /** 第 n ○曜日（weekOfMonth = -1 は最終） */
+    public static final String MONTHLY = "monthly";
+    /** 毎年 month/dayOfMonth */
+    public static final String YEARLY = "yearly";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "room_id", nullable = false)
+    private Integer roomId;
+
+    @Column(name = "frequency", nullable = false, length = 16)
+    private String frequency; // weekly / monthly / yearly
+
+    /** 1=月 … 7=日（weekly / monthly） */
+    @Column(name = "weekday")
+    private Integer weekday;
+
+    /** 1..5, -1=最終（monthly） */
+    @Column(name = "week_of_month")
+    private Integer weekOfMonth;
+
+    /** 1..12（yearly） */
+    @Column(name = "month")
+    private Integer month;
+
+    /** 1..31（yearly） */
+    @Column(name = "day_of_month")
+    private Integer dayOfMonth;
+
+    /** null なら終日 */
+    @Column(name = "start_time")
+    private LocalTime startTime;
+
+    /** start_time 以前なら翌日の時刻 */
+    @Column(name = "end_time")
+    private LocalTime endTime;
+
+    @Column(name = "valid_from", nullable = false)
+    private LocalDate validFrom;
+
+    /** null なら無期限（含む） */
+    @Column(name = "valid_until")
+    private LocalDate validUntil;
+
+    @Column(name = "reason")
+    private String reason;
+}
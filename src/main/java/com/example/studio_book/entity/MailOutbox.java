@@ -0,0 +1,68 @@
+// src/main/java/com/example/studio_book/entity/MailOutbox.java
+package com.example.studio_book.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * 送信待ちメール（トランザクショナル・アウトボックス）
+ * 業務データ（ユーザー・トークン）と同じトランザクションで積み、MailOutboxSender が後から送る。
+ *
+ * status: pending（未送信・再試行待ち）/ sent / failed（再試行上限に到達）
+ */
+@Entity
+@Table(name = "mail_outbox",
+       indexes = @Index(name = "idx_mail_outbox_due", columnList = "status, next_attempt_at"))
+@Data
+public class MailOutbox {
+
+    public static final String STATUS_PENDING = "pending";
+    public static final String STATUS_SENT = "sent";
+    public static final String STATUS_FAILED = "failed";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "from_address")
+    private String fromAddress;       // null ならメールサーバー側の既定
+
+    @Column(name = "to_address", nullable = false)
+    private String toAddress;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Column(nullable = false)
+    private boolean html;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // 次に送ってよい時刻（送信中はリース期限として先に進めておく）
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -9,11 +9,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
-@Table(name = "price_rules")
+@Table(name = "price_rules",
+       indexes = @Index(name = "idx_price_rules_room", columnList = "room_id"))
 @Data
 public class PriceRule {
     @Id
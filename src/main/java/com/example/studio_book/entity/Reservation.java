@@ -8,13 +8,21 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations",
+       indexes = {
+           @Index(name = "idx_reservations_checkout_session", columnList = "checkout_session_id"),
+           // 部屋ごとの期間検索（重複チェック・カレンダー・ホスト一覧）。end_at/status まで含めて索引だけで判定
+           @Index(name = "idx_reservations_room_start", columnList = "room_id, start_at, end_at, status"),
+           // 状態＋開始日時での絞り込み（管理者一覧・集計）
+           @Index(name = "idx_reservations_status_start", columnList = "status, start_at")
+       })
 @Data
 public class Reservation {
     @Id
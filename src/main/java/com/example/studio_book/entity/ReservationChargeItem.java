@@ -7,11 +7,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
-@Table(name = "reservation_charge_items")
+// 予約ごとの明細取得と、売上詳細の「明細あり」EXISTS 用
+@Table(name = "reservation_charge_items",
+       indexes = @Index(name = "idx_charge_items_reservation", columnList = "reservation_id, slice_start"))
 @Data
 public class ReservationChargeItem {
 
@@ -0,0 +1,49 @@
+// src/main/java/com/example/studio_book/entity/ReservationQuote.java
+package com.example.studio_book.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * 確認画面で提示した見積もり（id は PaymentIntent.metadata.quoteId に載せる）
+ * Webhook ではこの内訳から reservation_charge_items を作る。
+ */
+@Entity
+@Table(name = "reservation_quotes",
+       indexes = @Index(name = "idx_reservation_quotes_created", columnList = "created_at"))
+@Data
+public class ReservationQuote {
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;   // UUID
+
+    @Column(name = "room_id", nullable = false)
+    private Integer roomId;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "start_at", nullable = false)
+    private LocalDateTime startAt;
+
+    @Column(name = "end_at", nullable = false)
+    private LocalDateTime endAt;
+
+    @Column(name = "subtotal", nullable = false)
+    private Long subtotal;
+
+    @Column(name = "tax", nullable = false)
+    private Long tax;
+
+    @Column(name = "amount", nullable = false)
+    private Long amount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,48 @@
+// src/main/java/com/example/studio_book/entity/ReservationQuoteItem.java
+package com.example.studio_book.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/** 見積もりの内訳 1 行（ConfirmLineItem をそのまま保存） */
+@Entity
+@Table(name = "reservation_quote_items",
+       indexes = @Index(name = "idx_reservation_quote_items_quote", columnList = "quote_id, sort_order"))
+@Data
+public class ReservationQuoteItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "quote_id", nullable = false, length = 36)
+    private String quoteId;
+
+    @Column(name = "sort_order", nullable = false)
+    private Integer sortOrder;
+
+    @Column(name = "kind", nullable = false)
+    private String kind;
+
+    @Column(name = "description")
+    private String description;
+
+    @Column(name = "amount", nullable = false)
+    private Long amount;
+
+    @Column(name = "slice_start")
+    private LocalDateTime sliceStart;
+
+    @Column(name = "slice_end")
+    private LocalDateTime sliceEnd;
+
+    @Column(name = "unit_rate_per_hour")
+    private Integer unitRatePerHour;
+}
@@ -0,0 +1,44 @@
+package com.example.studio_book.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 予約一覧のキーワード検索用の索引テーブル（予約 1 件につき 1 行）。
+ * スタジオ名・予約者名・ホスト名を names にまとめ、FULLTEXT(ngram) で引く。
+ * 中身は ReservationSearchIndexer が予約登録時・名前変更時に書き換える
+ * （names の FULLTEXT は db/migration で作成）。
+ */
+@Entity
+@Table(name = "reservation_search",
+       indexes = {
+           @Index(name = "idx_reservation_search_room", columnList = "room_id"),
+           @Index(name = "idx_reservation_search_guest", columnList = "guest_id"),
+           @Index(name = "idx_reservation_search_host", columnList = "host_id")
+       })
+@Data
+@NoArgsConstructor
+public class ReservationSearch {
+
+    @Id
+    @Column(name = "reservation_id")
+    private Integer reservationId;
+
+    @Column(name = "room_id", nullable = false)
+    private Integer roomId;
+
+    @Column(name = "guest_id", nullable = false)
+    private Integer guestId;
+
+    @Column(name = "host_id", nullable = false)
+    private Integer hostId;
+
+    /** "スタジオ名 予約者名 ホスト名" */
+    @Column(name = "names", nullable = false, columnDefinition = "TEXT")
+    private String names;
+}
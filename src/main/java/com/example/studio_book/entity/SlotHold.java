@@ -0,0 +1,45 @@
+// src/main/java/com/example/studio_book/entity/SlotHold.java
+package com.example.studio_book.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * 決済中の枠の仮押さえ（Stripe Checkout 作成〜Webhook 登録までの間だけ有効）
+ * expires_at を過ぎたものは無効扱い（定期ジョブで物理削除）
+ */
+@Entity
+@Table(name = "slot_holds",
+       indexes = @Index(name = "idx_slot_holds_room_time", columnList = "room_id, start_at, end_at"))
+@Data
+public class SlotHold {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "room_id", nullable = false)
+    private Integer roomId;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "start_at", nullable = false)
+    private LocalDateTime startAt;
+
+    @Column(name = "end_at", nullable = false)
+    private LocalDateTime endAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -3,25 +3,27 @@ package com.example.studio_book.event;
 import java.util.UUID;
 
 import org.springframework.context.event.EventListener;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.studio_book.entity.User;
+import com.example.studio_book.service.MailOutboxService;
 import com.example.studio_book.service.VerificationTokenService;
 
 @Component
 public class SignupEventListener {
     private final VerificationTokenService verificationTokenService;
-    private final JavaMailSender javaMailSender;
+    private final MailOutboxService mailOutboxService;
 
-    public SignupEventListener(VerificationTokenService verificationTokenService, JavaMailSender mailSender) {
+    public SignupEventListener(VerificationTokenService verificationTokenService, MailOutboxService mailOutboxService) {
         this.verificationTokenService = verificationTokenService;
-        this.javaMailSender = mailSender;
+        this.mailOutboxService = mailOutboxService;
     }
 
+    // トークンと認証メールを同じトランザクションで登録（送信は MailOutboxSender が後で行う）
     @EventListener
-    private void onSignupEvent(SignupEvent signupEvent) {
+    @Transactional
+    public void onSignupEvent(SignupEvent signupEvent) {
         User user = signupEvent.getUser();
         String token = UUID.randomUUID().toString();
         verificationTokenService.create(user, token);
@@ -32,11 +34,6 @@ public class SignupEventListener {
         String confirmationUrl = signupEvent.getRequestUrl() + "/verify?token=" + token;
         String message = "以下のリンクをクリックして会員登録を完了してください。";
 
-        SimpleMailMessage mailMessage = new SimpleMailMessage();
-        mailMessage.setFrom(senderAddress);
-        mailMessage.setTo(recipientAddress);
-        mailMessage.setSubject(subject);
-        mailMessage.setText(message + "\n" + confirmationUrl);
-        javaMailSender.send(mailMessage);
+        mailOutboxService.enqueue(senderAddress, recipientAddress, subject, message + "\n" + confirmationUrl, false);
     }
 }
@@ -0,0 +1,58 @@
+// src/main/java/com/example/studio_book/form/ClosureRuleForm.java
+package com.example.studio_book.form;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class ClosureRuleForm {
+    /** weekly / monthly / yearly */
+    @NotBlank(message = "繰り返しの種類を選択してください")
+    private String frequency;
+
+    /** 1=月 … 7=日 */
+    private Integer weekday;
+
+    /** 1..5, -1=最終 */
+    private Integer weekOfMonth;
+
+    private Integer month;
+
+    private Integer dayOfMonth;
+
+    /** 空なら終日 */
+    @DateTimeFormat(pattern = "HH:mm")
+    private LocalTime startTime;
+
+    @DateTimeFormat(pattern = "HH:mm")
+    private LocalTime endTime;
+
+    @NotNull(message = "適用開始日は必須です")
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate validFrom;
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate validUntil;
+
+    @Size(max = 255, message = "理由は255文字以内で入力してください")
+    private String reason;
+
+    @AssertTrue(message = "開始時刻と終了時刻は両方指定するか、両方空（終日）にしてください")
+    public boolean isValidTimes() {
+        return (startTime == null) == (endTime == null);
+    }
+
+    @AssertTrue(message = "適用終了日は適用開始日以降を指定してください")
+    public boolean isValidPeriod() {
+        if (validFrom == null || validUntil == null) return true;
+        return !validUntil.isBefore(validFrom);
+    }
+}
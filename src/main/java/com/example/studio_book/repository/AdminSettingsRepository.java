@@ -3,9 +3,19 @@ package com.example.studio_book.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import com.example.studio_book.entity.AdminSettings;
 
 public interface AdminSettingsRepository extends JpaRepository<AdminSettings, Long> {
     Optional<AdminSettings> findByKey(String key);
+
+    // スナップショットの変更検知用。保存のたびに bumpRevision で +1 される単調増加の番号（V5）
+    @Query(value = "SELECT revision FROM admin_settings_revision WHERE id = 1", nativeQuery = true)
+    Long findRevision();
+
+    @Modifying
+    @Query(value = "UPDATE admin_settings_revision SET revision = revision + 1 WHERE id = 1", nativeQuery = true)
+    int bumpRevision();
 }
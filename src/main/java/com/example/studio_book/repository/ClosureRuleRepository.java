@@ -0,0 +1,15 @@
+// src/main/java/com/example/studio_book/repository/ClosureRuleRepository.java
+package com.example.studio_book.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.studio_book.entity.ClosureRule;
+
+public interface ClosureRuleRepository extends JpaRepository<ClosureRule, Integer> {
+
+    List<ClosureRule> findByRoomIdOrderByIdAsc(Integer roomId);
+
+    List<ClosureRule> findByRoomIdIn(List<Integer> roomIds);
+}
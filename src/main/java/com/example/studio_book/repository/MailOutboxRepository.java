@@ -0,0 +1,29 @@
+// src/main/java/com/example/studio_book/repository/MailOutboxRepository.java
+package com.example.studio_book.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.studio_book.entity.MailOutbox;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    /** 送信期限が来たものを行ロックして取得（他ノードが掴んでいる行は飛ばす） */
+    @Query(value = """
+            SELECT * FROM mail_outbox
+             WHERE status = 'pending' AND next_attempt_at <= :now
+             ORDER BY id
+             LIMIT :limit
+             FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<MailOutbox> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from MailOutbox m where m.status = 'sent' and m.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
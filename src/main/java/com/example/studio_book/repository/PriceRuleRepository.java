@@ -14,6 +14,9 @@ public interface PriceRuleRepository extends JpaRepository<PriceRule, Integer> {
 
     List<PriceRule> findByRoomId(Integer roomId);
 
+    // 複数スタジオ分を1回で（ルールのコピー用）
+    List<PriceRule> findByRoomIdIn(List<Integer> roomIds);
+
     // 一覧表示用（曜日→開始時刻→ID）
     List<PriceRule> findByRoomIdOrderByWeekdayAscStartHourAscIdAsc(Integer roomId);
     
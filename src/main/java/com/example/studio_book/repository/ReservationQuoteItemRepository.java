@@ -0,0 +1,23 @@
+package com.example.studio_book.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.studio_book.entity.ReservationQuoteItem;
+
+public interface ReservationQuoteItemRepository extends JpaRepository<ReservationQuoteItem, Integer> {
+
+    List<ReservationQuoteItem> findByQuoteIdOrderBySortOrderAsc(String quoteId);
+
+    @Modifying
+    @Query("""
+      delete from ReservationQuoteItem i
+      where i.quoteId in (select q.id from ReservationQuote q where q.createdAt < :cutoff)
+    """)
+    int deleteByQuoteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
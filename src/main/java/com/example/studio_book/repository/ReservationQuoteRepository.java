@@ -0,0 +1,17 @@
+package com.example.studio_book.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.studio_book.entity.ReservationQuote;
+
+public interface ReservationQuoteRepository extends JpaRepository<ReservationQuote, String> {
+
+    @Modifying
+    @Query("delete from ReservationQuote q where q.createdAt < :cutoff")
+    int deleteByCreatedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -6,6 +6,7 @@ import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,15 +14,20 @@ import org.springframework.data.repository.query.Param;
 import com.example.studio_book.dto.AdminReservationRow;
 import com.example.studio_book.dto.HostReservationRow;
 import com.example.studio_book.dto.HostSalesHead;
-import com.example.studio_book.dto.HostSalesRowProjection;
 import com.example.studio_book.dto.RoomOption;
 import com.example.studio_book.entity.Reservation;
 import com.example.studio_book.entity.User;
 
-public interface ReservationRepository extends JpaRepository<Reservation, Integer> {
+public interface ReservationRepository extends JpaRepository<Reservation, Integer>,
+                                               ReservationSearchRepository {
     public Page<Reservation> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
     boolean existsByPaymentIntentId(String paymentIntentId);
 
+    Optional<Reservation> findByPaymentIntentId(String paymentIntentId);
+
+    // 決済直後の状態確認用（idx_reservations_checkout_session）
+    boolean existsByCheckoutSessionIdAndUser_Id(String checkoutSessionId, Integer userId);
+
     // ホストIDに紐づく予約一覧（新しい開始時刻順）
     @Query("""
     		   SELECT new com.example.studio_book.dto.HostReservationRow(
@@ -81,6 +87,8 @@ public interface ReservationRepository extends JpaRepository<Reservation, Intege
     // 承認/キャンセル操作時の所有チェック（その予約がそのホストの部屋のものか）
     Optional<Reservation> findByIdAndRoom_User_Id(Integer reservationId, Integer hostId);
     
+    // 稼働率の集計用（部屋・利用者は 1 本の JOIN で読む。EAGER の個別 SELECT を部屋数・人数分出さない）
+    @EntityGraph(attributePaths = {"room", "user", "user.role"})
     List<Reservation> findByRoomIdInAndStatusAndStartAtLessThanAndEndAtGreaterThan(
     	    List<Integer> roomIds, String status, LocalDateTime endExclusive, LocalDateTime startExclusive);
     
@@ -96,48 +104,6 @@ public interface ReservationRepository extends JpaRepository<Reservation, Intege
     	""")
     	List<RoomOption> findRoomOptionsForHost(@Param("hostId") Integer hostId);
 
-    // 売上詳細（ネイティブ + インターフェイス投影 + ページング）
-    @Query(
-    	    value = """
-    	        SELECT
-    	          r.id                AS reservationId,
-    	          rm.name             AS roomName,
-    	          rm.id               AS roomId,
-    	          u.name              AS guestName,
-    	          r.start_at          AS startAt,
-    	          r.end_at            AS endAt,
-    	          r.amount            AS amount,
-    	          r.status            AS status
-    	        FROM reservations r
-    	        JOIN rooms rm ON rm.id = r.room_id
-    	        JOIN users u  ON u.id  = r.user_id
-    	        WHERE rm.user_id = :hostId     -- ★ 修正
-    	          AND (:onlyWithItems = 0 OR EXISTS (
-    	                 SELECT 1 FROM reservation_charge_items i
-    	                 WHERE i.reservation_id = r.id
-    	               ))
-    	          AND (:roomId IS NULL OR rm.id = :roomId)
-    	        ORDER BY r.start_at DESC
-    	        """,
-    	    countQuery = """
-    	        SELECT COUNT(*)
-    	        FROM reservations r
-    	        JOIN rooms rm ON rm.id = r.room_id
-    	        WHERE rm.user_id = :hostId     -- ★ 修正
-    	          AND (:onlyWithItems = 0 OR EXISTS (
-    	                 SELECT 1 FROM reservation_charge_items i
-    	                 WHERE i.reservation_id = r.id
-    	               ))
-    	          AND (:roomId IS NULL OR rm.id = :roomId)
-    	        """,
-    	    nativeQuery = true
-    	)
-    	Page<HostSalesRowProjection> findSalesDetailsForHost(
-    	    @Param("hostId") Integer hostId,
-    	    @Param("onlyWithItems") int onlyWithItems,
-    	    @Param("roomId") Integer roomIdOrNull,
-    	    Pageable pageable
-    	);
  // ReservationRepository に追加（native 版）
     @Query(value = """
       SELECT
@@ -170,105 +136,14 @@ public interface ReservationRepository extends JpaRepository<Reservation, Intege
     """)
     boolean existsOverlapping(int roomId, LocalDateTime startAt, LocalDateTime endAt);
     
-    @Query(
-    	    value = """
-    	        SELECT new com.example.studio_book.dto.AdminReservationRow(
-    	            r.id, rm.name, gu.name, host.name, r.startAt, r.endAt, r.amount, r.status
-    	        )
-    	        FROM Reservation r
-    	          JOIN r.room rm
-    	          JOIN rm.user host
-    	          JOIN r.user gu
-    	        WHERE (:reservationId IS NULL OR r.id = :reservationId)
-    	          AND (:status IS NULL OR r.status = :status)
-    	          AND (:startFrom IS NULL OR r.startAt >= :startFrom)
-    	          AND (:startTo   IS NULL OR r.startAt <= :startTo)
-    	          AND (
-    	               :kw IS NULL
-    	               OR LOWER(rm.name)   LIKE LOWER(CONCAT('%', :kw, '%'))
-    	               OR LOWER(gu.name)   LIKE LOWER(CONCAT('%', :kw, '%'))
-    	               OR LOWER(host.name) LIKE LOWER(CONCAT('%', :kw, '%'))
-    	          )
-    	        ORDER BY r.id DESC
-    	        """,
-    	    countQuery = """
-    	        SELECT COUNT(r)
-    	        FROM Reservation r
-    	          JOIN r.room rm
-    	          JOIN rm.user host
-    	          JOIN r.user gu
-    	        WHERE (:reservationId IS NULL OR r.id = :reservationId)
-    	          AND (:status IS NULL OR r.status = :status)
-    	          AND (:startFrom IS NULL OR r.startAt >= :startFrom)
-    	          AND (:startTo   IS NULL OR r.startAt <= :startTo)
-    	          AND (
-    	               :kw IS NULL
-    	               OR LOWER(rm.name)   LIKE LOWER(CONCAT('%', :kw, '%'))
-    	               OR LOWER(gu.name)   LIKE LOWER(CONCAT('%', :kw, '%'))
-    	               OR LOWER(host.name) LIKE LOWER(CONCAT('%', :kw, '%'))
-    	          )
-    	        """
-    	)
-    	Page<com.example.studio_book.dto.AdminReservationRow> findAdminReservationPageFiltered(
-    	    @Param("kw") String kw,
-    	    @Param("status") String status,
-    	    @Param("startFrom") java.time.LocalDateTime startFrom,
-    	    @Param("startTo") java.time.LocalDateTime startTo,
-    	    @Param("reservationId") Integer reservationId,
-    	    Pageable pageable
-    	);
-    
-    @Query(
-    	    value = """
-    	        SELECT new com.example.studio_book.dto.HostReservationRow(
-    	            r.id, rm.name, gu.name, r.startAt, r.endAt, r.amount, r.status
-    	        )
-    	        FROM Reservation r
-    	          JOIN r.room rm
-    	          JOIN rm.user host
-    	          JOIN r.user gu
-    	        WHERE host.id = :hostId
-    	          AND (:reservationId IS NULL OR r.id = :reservationId)
-    	          AND (:status IS NULL OR r.status = :status)
-    	          AND (:startFrom IS NULL OR r.startAt >= :startFrom)
-    	          AND (:startTo   IS NULL OR r.startAt <= :startTo)
-    	          AND (:roomId IS NULL OR rm.id = :roomId)
-    	          AND (
-    	               :kw IS NULL
-    	               OR LOWER(rm.name) LIKE LOWER(CONCAT('%', :kw, '%'))
-    	               OR LOWER(gu.name) LIKE LOWER(CONCAT('%', :kw, '%'))
-    	          )
-    	        ORDER BY r.startAt DESC
-    	        """,
-    	    countQuery = """
-    	        SELECT COUNT(r)
-    	        FROM Reservation r
-    	          JOIN r.room rm
-    	          JOIN rm.user host
-    	          JOIN r.user gu
-    	        WHERE host.id = :hostId
-    	          AND (:reservationId IS NULL OR r.id = :reservationId)
-    	          AND (:status IS NULL OR r.status = :status)
-    	          AND (:startFrom IS NULL OR r.startAt >= :startFrom)
-    	          AND (:startTo   IS NULL OR r.startAt <= :startTo)
-    	          AND (:roomId IS NULL OR rm.id = :roomId)
-    	          AND (
-    	               :kw IS NULL
-    	               OR LOWER(rm.name) LIKE LOWER(CONCAT('%', :kw, '%'))
-    	               OR LOWER(gu.name) LIKE LOWER(CONCAT('%', :kw, '%'))
-    	          )
-    	        """
-    	)
-    	Page<com.example.studio_book.dto.HostReservationRow> findPageForHostFiltered(
-    	    @Param("hostId") Integer hostId,
-    	    @Param("kw") String kw,
-    	    @Param("status") String status,
-    	    @Param("startFrom") java.time.LocalDateTime startFrom,
-    	    @Param("startTo") java.time.LocalDateTime startTo,
-    	    @Param("reservationId") Integer reservationId,
-    	    @Param("roomId") Integer roomId,
-    	    Pageable pageable
-    	);
+    // 管理者/ホストの予約一覧・売上詳細の絞り込みは ReservationSearchRepository（Criteria で条件ごとに組み立て）
+
+    /** 予約全体の概算件数（InnoDB の統計値。COUNT(*) を打たずに「約 N 件」を出す用） */
+    @Query(value = """
+            SELECT table_rows FROM information_schema.tables
+             WHERE table_schema = DATABASE() AND table_name = 'reservations'
+            """, nativeQuery = true)
+    Long estimateReservationCount();
 
     
     
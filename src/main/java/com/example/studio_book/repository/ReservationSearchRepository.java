@@ -0,0 +1,46 @@
+// src/main/java/com/example/studio_book/repository/ReservationSearchRepository.java
+package com.example.studio_book.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import com.example.studio_book.dto.AdminReservationRow;
+import com.example.studio_book.dto.HostReservationRow;
+import com.example.studio_book.dto.HostSalesRowProjection;
+import com.example.studio_book.dto.KeysetCursor;
+import com.example.studio_book.dto.ReservationListFilter;
+
+/**
+ * 絞り込み付きの予約一覧（ReservationRepository のフラグメント）。
+ * 実装は指定された条件の述語だけを組み立てるので、条件の組み合わせごとに索引が使える。
+ */
+public interface ReservationSearchRepository {
+
+    /**
+     * 管理者一覧：id 降順のキーセット
+     *
+     * @param cursorId 直前ページ端の予約ID（null なら先頭）
+     * @param backward true なら cursorId より新しい側を id 昇順で返す（呼び出し側で反転）
+     */
+    Slice<AdminReservationRow> findAdminReservations(ReservationListFilter filter,
+                                                     Integer cursorId, boolean backward, int size);
+
+    /**
+     * ホスト一覧：(startAt, id) 降順のキーセット
+     *
+     * @param cursor   直前ページ端の行（null なら先頭）
+     * @param backward true なら cursor より新しい側を昇順で返す（呼び出し側で反転）
+     */
+    Slice<HostReservationRow> findHostReservations(Integer hostId, ReservationListFilter filter,
+                                                   KeysetCursor cursor, boolean backward, int size);
+
+    /**
+     * 売上詳細（開始日時の降順）。
+     * COUNT は件数が 1 ページに収まらないときだけ発行する。
+     *
+     * @param onlyWithItems 1 なら料金明細のある予約だけ
+     */
+    Page<HostSalesRowProjection> findSalesDetailsForHost(Integer hostId, int onlyWithItems,
+                                                         Integer roomId, Pageable pageable);
+}
@@ -0,0 +1,209 @@
+// src/main/java/com/example/studio_book/repository/ReservationSearchRepositoryImpl.java
+package com.example.studio_book.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.example.studio_book.dto.AdminReservationRow;
+import com.example.studio_book.dto.HostReservationRow;
+import com.example.studio_book.dto.HostSalesRow;
+import com.example.studio_book.dto.HostSalesRowProjection;
+import com.example.studio_book.dto.KeysetCursor;
+import com.example.studio_book.dto.ReservationListFilter;
+import com.example.studio_book.entity.Reservation;
+import com.example.studio_book.entity.ReservationChargeItem;
+import com.example.studio_book.entity.ReservationSearch;
+import com.example.studio_book.entity.Room;
+import com.example.studio_book.entity.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+/**
+ * 「(:x IS NULL OR …)」を並べた汎用 JPQL だと MySQL は条件に依らない 1 つの計画（ほぼ走査）しか立てられない。
+ * ここでは渡された条件の述語だけを Criteria で組み立てる。
+ */
+class ReservationSearchRepositoryImpl implements ReservationSearchRepository {
+
+    /** MySQL の ngram_token_size（既定 2） */
+    private static final int NGRAM_TOKEN_SIZE = 2;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public Slice<AdminReservationRow> findAdminReservations(ReservationListFilter f,
+                                                            Integer cursorId, boolean backward, int size) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<AdminReservationRow> cq = cb.createQuery(AdminReservationRow.class);
+        Root<Reservation> r = cq.from(Reservation.class);
+        Join<Reservation, Room> rm = r.join("room");
+        Join<Room, User> host = rm.join("user");
+        Join<Reservation, User> gu = r.join("user");
+
+        cq.select(cb.construct(AdminReservationRow.class,
+                r.get("id"), rm.get("name"), gu.get("name"), host.get("name"),
+                r.get("startAt"), r.get("endAt"), r.get("amount"), r.get("status")));
+
+        List<Predicate> where = filters(cb, r, f);
+        if (f.kw() != null) {
+            where.add(keyword(cb, cq, r, f.kw(), null));
+        }
+        if (cursorId != null) {
+            where.add(backward ? cb.greaterThan(r.get("id"), cursorId) : cb.lessThan(r.get("id"), cursorId));
+        }
+        cq.where(where.toArray(Predicate[]::new));
+        cq.orderBy(backward ? cb.asc(r.get("id")) : cb.desc(r.get("id")));
+
+        return slice(em.createQuery(cq), size);
+    }
+
+    @Override
+    public Slice<HostReservationRow> findHostReservations(Integer hostId, ReservationListFilter f,
+                                                          KeysetCursor cursor, boolean backward, int size) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<HostReservationRow> cq = cb.createQuery(HostReservationRow.class);
+        Root<Reservation> r = cq.from(Reservation.class);
+        Join<Reservation, Room> rm = r.join("room");
+        Join<Reservation, User> gu = r.join("user");
+
+        cq.select(cb.construct(HostReservationRow.class,
+                r.get("id"), rm.get("name"), gu.get("name"),
+                r.get("startAt"), r.get("endAt"), r.get("amount"), r.get("status")));
+
+        List<Predicate> where = filters(cb, r, f);
+        where.add(cb.equal(rm.get("user").get("id"), hostId));
+        if (f.roomId() != null) {
+            where.add(cb.equal(r.get("room").get("id"), f.roomId()));
+        }
+        if (f.kw() != null) {
+            where.add(keyword(cb, cq, r, f.kw(), hostId));
+        }
+        if (cursor != null) {
+            Expression<LocalDateTime> startAt = r.get("startAt");
+            Expression<Integer> id = r.get("id");
+            where.add(backward
+                ? cb.or(cb.greaterThan(startAt, cursor.ts()),
+                        cb.and(cb.equal(startAt, cursor.ts()), cb.greaterThan(id, cursor.id())))
+                : cb.or(cb.lessThan(startAt, cursor.ts()),
+                        cb.and(cb.equal(startAt, cursor.ts()), cb.lessThan(id, cursor.id()))));
+        }
+        cq.where(where.toArray(Predicate[]::new));
+        cq.orderBy(backward
+            ? List.of(cb.asc(r.get("startAt")), cb.asc(r.get("id")))
+            : List.of(cb.desc(r.get("startAt")), cb.desc(r.get("id"))));
+
+        return slice(em.createQuery(cq), size);
+    }
+
+    @Override
+    public Page<HostSalesRowProjection> findSalesDetailsForHost(Integer hostId, int onlyWithItems,
+                                                                Integer roomId, Pageable pageable) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<HostSalesRowProjection> cq = cb.createQuery(HostSalesRowProjection.class);
+        Root<Reservation> r = cq.from(Reservation.class);
+        Join<Reservation, Room> rm = r.join("room");
+        Join<Reservation, User> gu = r.join("user");
+
+        cq.select(cb.construct(HostSalesRow.class,
+                r.get("id"), rm.get("name"), rm.get("id"), gu.get("name"),
+                r.get("startAt"), r.get("endAt"), r.get("amount"), r.get("status")));
+        cq.where(salesFilters(cb, cq, r, hostId, onlyWithItems, roomId));
+        cq.orderBy(cb.desc(r.get("startAt")), cb.desc(r.get("id")));
+
+        TypedQuery<HostSalesRowProjection> q = em.createQuery(cq);
+        if (pageable.isPaged()) {
+            q.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            q.setMaxResults(pageable.getPageSize());
+        }
+        List<HostSalesRowProjection> content = q.getResultList();
+
+        // 1ページ目で件数が足りない等、総数が自明なときは COUNT を打たない
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            CriteriaQuery<Long> count = cb.createQuery(Long.class);
+            Root<Reservation> cr = count.from(Reservation.class);
+            count.select(cb.count(cr));
+            count.where(salesFilters(cb, count, cr, hostId, onlyWithItems, roomId));
+            return em.createQuery(count).getSingleResult();
+        });
+    }
+
+    // ===== 述語 =====
+
+    /** 管理者・ホスト共通の条件（指定されたものだけ） */
+    private static List<Predicate> filters(CriteriaBuilder cb, Root<Reservation> r, ReservationListFilter f) {
+        List<Predicate> where = new ArrayList<>();
+        if (f.reservationId() != null) where.add(cb.equal(r.get("id"), f.reservationId()));
+        if (f.status() != null) where.add(cb.equal(r.get("status"), f.status()));
+        if (f.startFrom() != null) where.add(cb.greaterThanOrEqualTo(r.get("startAt"), f.startFrom()));
+        if (f.startTo() != null) where.add(cb.lessThanOrEqualTo(r.get("startAt"), f.startTo()));
+        return where;
+    }
+
+    private static Predicate[] salesFilters(CriteriaBuilder cb, AbstractQuery<?> query, Root<Reservation> r,
+                                            Integer hostId, int onlyWithItems, Integer roomId) {
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(r.get("room").get("user").get("id"), hostId));
+        if (roomId != null) {
+            where.add(cb.equal(r.get("room").get("id"), roomId));
+        }
+        if (onlyWithItems != 0) {
+            Subquery<Integer> items = query.subquery(Integer.class);
+            Root<ReservationChargeItem> i = items.from(ReservationChargeItem.class);
+            items.select(cb.literal(1)).where(cb.equal(i.get("reservationId"), r.get("id")));
+            where.add(cb.exists(items));
+        }
+        return where.toArray(Predicate[]::new);
+    }
+
+    /**
+     * スタジオ名・予約者名・ホスト名のいずれかにキーワードを含む。
+     * 3 表 JOIN の LIKE ではなく reservation_search の FULLTEXT(ngram) から予約 ID を引く。
+     */
+    private static Predicate keyword(CriteriaBuilder cb, AbstractQuery<?> query, Root<Reservation> r,
+                                     String kw, Integer hostId) {
+        Subquery<Integer> ids = query.subquery(Integer.class);
+        Root<ReservationSearch> s = ids.from(ReservationSearch.class);
+        List<Predicate> where = new ArrayList<>();
+        if (kw.codePointCount(0, kw.length()) >= NGRAM_TOKEN_SIZE) {
+            // フレーズ検索。演算子として解釈されないよう " は除く
+            String phrase = "\"" + kw.replace("\"", "") + "\"";
+            where.add(cb.greaterThan(
+                    cb.function("match_against", Double.class, s.get("names"), cb.literal(phrase)), 0.0));
+        } else {
+            // 1文字は全文検索できないので LIKE（% と _ は文字として扱う）
+            String pattern = "%" + kw.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            where.add(cb.like(s.get("names"), pattern, '\\'));
+        }
+        if (hostId != null) {
+            where.add(cb.equal(s.get("hostId"), hostId));
+        }
+        ids.select(s.get("reservationId")).where(where.toArray(Predicate[]::new));
+        return r.get("id").in(ids);
+    }
+
+    /** size+1 件取って続きの有無を判定（COUNT なし） */
+    private static <T> Slice<T> slice(TypedQuery<T> q, int size) {
+        List<T> rows = new ArrayList<>(q.setMaxResults(size + 1).getResultList());
+        boolean more = rows.size() > size;
+        if (more) rows.remove(size);
+        return new SliceImpl<>(rows, PageRequest.of(0, size), more);
+    }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -27,9 +28,12 @@ public interface ReviewRepository extends JpaRepository<Review, Integer>,
     // ====== 公開のみ ======
 
     // ★部屋ごとの「公開のみ」ページング（コントローラはコレを呼びます）
+    // 画面で投稿者名を出すので user も同時ロード（1 件ごとの SELECT を出さない）
+    @EntityGraph(attributePaths = {"user", "user.role"})
     Page<Review> findByRoomIdAndPublicVisibleTrueOrderByCreatedAtDesc(Integer roomId, Pageable pageable);
 
     // ★「非公開」かつ「ホスト返信あり」を別枠で表示
+    @EntityGraph(attributePaths = {"user", "user.role"})
     List<Review> findByRoomIdAndPublicVisibleFalseAndHostReplyIsNotNullOrderByHostReplyAtDesc(Integer roomId);
 
     // ★平均（公開のみ／単一room）
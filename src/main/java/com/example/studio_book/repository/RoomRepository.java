@@ -47,10 +47,17 @@ public interface RoomRepository extends JpaRepository<Room, Integer> {
     
     @Query("select r.id from Room r where r.user.id = :hostId")
     List<Integer> findIdsByHostId(@Param("hostId") Integer hostId);
+
+    @Query("select r.id from Room r order by r.id")
+    List<Integer> findAllIds();
     
     boolean existsByNameAndAddress(String name, String address);
 
     // 更新時は自分自身を除外して重複チェック
     boolean existsByNameAndAddressAndIdNot(String name, String address, Integer id);
 
+    // 枠を変更する書き込みの直列化用（複数ノード間）。reservations を EAGER で読まないよう id だけロックする
+    @Query(value = "SELECT id FROM rooms WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Integer lockById(@Param("id") Integer id);
+
 }
@@ -0,0 +1,69 @@
+// src/main/java/com/example/studio_book/repository/SlotHoldRepository.java
+package com.example.studio_book.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.studio_book.entity.SlotHold;
+
+public interface SlotHoldRepository extends JpaRepository<SlotHold, Integer> {
+
+    // 他ユーザーの有効な仮押さえと [start, end) が交差するか
+    @Query("""
+        select case when count(h)>0 then true else false end
+        from SlotHold h
+        where h.roomId = :roomId
+          and h.userId <> :userId
+          and h.expiresAt > :now
+          and h.startAt < :endAt
+          and :startAt < h.endAt
+    """)
+    boolean existsActiveOverlappingByOtherUser(@Param("roomId") Integer roomId,
+                                               @Param("userId") Integer userId,
+                                               @Param("startAt") LocalDateTime startAt,
+                                               @Param("endAt") LocalDateTime endAt,
+                                               @Param("now") LocalDateTime now);
+
+    // [start, end) に掛かる有効な仮押さえ（開始順。空き枠検索で差し引く）
+    @Query("""
+        select h from SlotHold h
+        where h.roomId = :roomId
+          and h.expiresAt > :now
+          and h.startAt < :endAt
+          and :startAt < h.endAt
+        order by h.startAt
+    """)
+    List<SlotHold> findActiveOverlapping(@Param("roomId") Integer roomId,
+                                         @Param("startAt") LocalDateTime startAt,
+                                         @Param("endAt") LocalDateTime endAt,
+                                         @Param("now") LocalDateTime now);
+
+    // 同一ユーザーの同室の仮押さえは常に1件（取り直し時に古いものを消す）
+    @Modifying
+    @Query("delete from SlotHold h where h.roomId = :roomId and h.userId = :userId")
+    int deleteByRoomIdAndUserId(@Param("roomId") Integer roomId, @Param("userId") Integer userId);
+
+    @Modifying
+    @Query("delete from SlotHold h where h.id = :id and h.userId = :userId")
+    int deleteByIdAndUserId(@Param("id") Integer id, @Param("userId") Integer userId);
+
+    @Modifying
+    @Query("""
+        delete from SlotHold h
+        where h.roomId = :roomId and h.userId = :userId
+          and h.startAt = :startAt and h.endAt = :endAt
+    """)
+    int deleteExact(@Param("roomId") Integer roomId,
+                    @Param("userId") Integer userId,
+                    @Param("startAt") LocalDateTime startAt,
+                    @Param("endAt") LocalDateTime endAt);
+
+    @Modifying
+    @Query("delete from SlotHold h where h.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
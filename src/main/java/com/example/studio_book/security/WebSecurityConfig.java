@@ -24,6 +24,8 @@ public class WebSecurityConfig {
                 		"/password/forgot",  
                 		"/rooms/*/calendar/**",
                 		 "/password/reset").permitAll()  // すべてのユーザーにアクセスを許可するURL
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")   // メトリクス（/actuator/prometheus）は管理者のみ
                 .requestMatchers("/host/**").hasRole("HOST")// ホストにのみアクセスを許可するURL
                 .requestMatchers("/admin/**").hasRole("ADMIN")  // 管理者にのみアクセスを許可するURL
                 .anyRequest().authenticated()                   // 上記以外のURLはログインが必要（会員または管理者のどちらでもOK）
@@ -1,30 +1,103 @@
 // src/main/java/com/example/studio_book/service/AdminSettingsService.java
 package com.example.studio_book.service;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.example.studio_book.entity.AdminSettings;
 import com.example.studio_book.repository.AdminSettingsRepository;
+import com.example.studio_book.service.dto.AdminSettingsSnapshot;
 
 import lombok.RequiredArgsConstructor;
 
+/**
+ * admin_settings の読み書き
+ *
+ * 読み取りはメモリ上のスナップショットから（DB アクセスなし）。
+ * 自ノードの更新時はコミット直後に差し替え、他ノードの更新は定期的なバージョン確認で取り込む。
+ * バージョンは admin_settings_revision の変更番号（保存と同じトランザクションで +1）。
+ */
 @Service
 @RequiredArgsConstructor
 public class AdminSettingsService {
 
     private final AdminSettingsRepository repo;
+    private final AtomicReference<AdminSettingsSnapshot> current = new AtomicReference<>();
+    // synchronized だと DB 待ちの間、仮想スレッドがキャリアスレッドを占有（pin）するので Lock を使う
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    /** 現在のスナップショット（初回のみ読み込み） */
+    public AdminSettingsSnapshot snapshot() {
+        AdminSettingsSnapshot s = current.get();
+        return s != null ? s : reload();
+    }
 
     public String getValue(String key) {
-        return repo.findByKey(key).map(AdminSettings::getValue).orElse("");
+        return snapshot().value(key, "");
     }
 
     public String getValue(String key, String defaultValue) {
-        return repo.findByKey(key).map(AdminSettings::getValue).orElse(defaultValue);
+        return snapshot().value(key, defaultValue);
     }
 
+    @Transactional
     public void updateValue(String key, String value) {
         AdminSettings s = repo.findByKey(key).orElseGet(() -> new AdminSettings(key, value));
         s.setValue(value);
         repo.save(s);
+        // ★ 同じ秒に 2 回保存しても他ノードが取りこぼさないよう、変更番号を必ず進める
+        repo.bumpRevision();
+        // ★ トランザクション内で読み直すと、ロールバックされた値がスナップショットに残る
+        afterCommit(this::reload);
+    }
+
+    /** 他ノードでの更新を取り込む（変更番号が変わったときだけ全件を読み直す） */
+    @Scheduled(fixedDelayString = "${admin-settings.poll-interval-ms:30000}")
+    public void refreshIfChanged() {
+        AdminSettingsSnapshot s = current.get();
+        if (s == null || !s.version().equals(currentVersion())) {
+            reload();
+        }
+    }
+
+    AdminSettingsSnapshot reload() {
+        reloadLock.lock();
+        try {
+            String version = currentVersion();
+            Map<String, String> values = new HashMap<>();
+            for (AdminSettings a : repo.findAll()) {
+                values.put(a.getKey(), a.getValue());
+            }
+            AdminSettingsSnapshot s = AdminSettingsSnapshot.of(version, values);
+            current.set(s);
+            return s;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private String currentVersion() {
+        return String.valueOf(repo.findRevision());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
@@ -11,7 +11,6 @@ import org.springframework.stereotype.Service;
 
 import com.example.studio_book.dto.AdminStatsApiDto;
 import com.example.studio_book.dto.RoomOptionDto;
-import com.example.studio_book.entity.Room;
 import com.example.studio_book.repository.AdminStatsRepository;
 import com.example.studio_book.repository.RoomRepository;
 import com.example.studio_book.repository.UserRepository; // 役割=HOST を取得する想定
@@ -84,30 +83,7 @@ public class AdminStatsService {
             return hostStatsService.computeUtilizationPercents(null, roomIdOrZeroAll, labels);
         }
 
-        // 全体 → すべてのルームについて算出し、月ごとに単純平均
-        List<Room> allRooms = roomRepository.findAll();
-        if (allRooms.isEmpty()) {
-            return labels.stream().map(l -> 0.0).toList();
-        }
-
-        // 初期化
-        double[] sum = new double[labels.size()];
-        int[]    cnt = new int[labels.size()];
-
-        for (Room r : allRooms) {
-            List<Double> util = hostStatsService.computeUtilizationPercents(null, r.getId(), labels);
-            for (int i = 0; i < labels.size(); i++) {
-                // null 安全
-                double v = (util != null && i < util.size() && util.get(i) != null) ? util.get(i) : 0.0;
-                sum[i] += v;
-                cnt[i] += 1;
-            }
-        }
-
-        List<Double> avg = new ArrayList<>(labels.size());
-        for (int i = 0; i < labels.size(); i++) {
-            avg.add(cnt[i] == 0 ? 0.0 : sum[i] / cnt[i]);
-        }
-        return avg;
+        // 全体 → すべてのルームについて算出し、月ごとに単純平均（読み込みは全ルーム分まとめて 1 回ずつ）
+        return hostStatsService.computeAverageUtilizationPercents(roomRepository.findAllIds(), labels);
     }
 }
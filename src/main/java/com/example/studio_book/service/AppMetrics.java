@@ -0,0 +1,125 @@
+// src/main/java/com/example/studio_book/service/AppMetrics.java
+package com.example.studio_book.service;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 予約・Webhook・集計まわりのメトリクス（/actuator/prometheus で公開）
+ *
+ * 呼び出し側は System.nanoTime() の差分を渡すだけにしている（テストで mock してもそのまま動くように）。
+ * タグは値の種類が増えないものだけ（イベント種別は既知のもの以外 "other"、ルーム数は段階に丸める）。
+ */
+@Component
+public class AppMetrics {
+
+    private static final Set<String> KNOWN_WEBHOOK_TYPES = Set.of(
+            "checkout.session.completed", "payment_intent.succeeded", "charge.succeeded", "charge.updated");
+
+    private final MeterRegistry registry;
+    private final Timer quoteTimer;
+    private final Timer validationTimer;
+    private final DistributionSummary validationQueries;
+    private final Counter duplicateWebhooks;
+    private final Timer calendarTimer;
+    private final DistributionSummary calendarEvents;
+
+    public AppMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.quoteTimer = Timer.builder("studio.quote.duration")
+                .description("見積もり計算（buildConfirmDto）")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.validationTimer = Timer.builder("studio.validation.duration")
+                .description("予約入力の空き・営業時間チェック")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.validationQueries = DistributionSummary.builder("studio.validation.queries")
+                .description("予約入力チェック 1 回あたりの SQL 数")
+                .serviceLevelObjectives(4, 6, 8, 12, 16, 32)
+                .register(registry);
+        this.duplicateWebhooks = Counter.builder("studio.webhook.duplicates")
+                .description("登録済みの PaymentIntent に対する Webhook（再送・複数イベント）")
+                .register(registry);
+        this.calendarTimer = Timer.builder("studio.calendar.duration")
+                .description("カレンダーのイベント生成")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.calendarEvents = DistributionSummary.builder("studio.calendar.events")
+                .description("カレンダー 1 リクエストあたりのイベント数")
+                .serviceLevelObjectives(10, 50, 100, 200, 500, 1000)
+                .register(registry);
+    }
+
+    public void recordQuote(long elapsedNanos) {
+        quoteTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordValidation(long queries, long elapsedNanos) {
+        validationTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        validationQueries.record(queries);
+    }
+
+    /** outcome: ok / invalid_signature / missing_signature / error */
+    public void recordWebhook(String eventType, String outcome, long elapsedNanos) {
+        String type = eventType == null ? "unknown"
+                : KNOWN_WEBHOOK_TYPES.contains(eventType) ? eventType : "other";
+        Timer.builder("studio.webhook.duration")
+                .description("Stripe Webhook の処理時間")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void countDuplicateWebhook() {
+        duplicateWebhooks.increment();
+    }
+
+    /** format: csv_list / csv_items / pdf */
+    public void recordExport(String format, int rows, long elapsedNanos) {
+        Timer.builder("studio.export.duration")
+                .description("売上 CSV/PDF の出力")
+                .tag("format", format)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("studio.export.rows")
+                .tag("format", format)
+                .serviceLevelObjectives(10, 100, 1000, 10000)
+                .register(registry)
+                .record(rows);
+    }
+
+    /** kind: series / utilization。rooms は段階に丸めてタグにする（全ルーム合算で数えていない場合は -1） */
+    public void recordStats(String kind, int roomCount, long elapsedNanos) {
+        Timer.builder("studio.stats.duration")
+                .description("ホスト統計の集計")
+                .tag("kind", kind)
+                .tag("rooms", roomBucket(roomCount))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCalendar(int events, long elapsedNanos) {
+        calendarTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        calendarEvents.record(events);
+    }
+
+    static String roomBucket(int rooms) {
+        if (rooms < 0) return "all";
+        if (rooms <= 1) return "1";
+        if (rooms <= 5) return "2-5";
+        if (rooms <= 20) return "6-20";
+        return "21+";
+    }
+}
@@ -0,0 +1,191 @@
+// src/main/java/com/example/studio_book/service/AuditLogArchiver.java
+package com.example.studio_book.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 古い監査ログを月単位で gzip 圧縮の NDJSON に書き出し、audit_logs から消す。
+ *
+ * - 書き出しは (ts, id) のキーセットで少しずつ読み、.part に書いてから最終名へ移動
+ * - 移動の前に .part を、移動の後にディレクトリを fsync する（DELETE 後に落ちても両方を失わない）
+ * - ファイルが出来上がってから、書き出した行（id の上限で特定）だけを小分けに DELETE
+ * - 途中で落ちても次回同じ月をやり直すだけ（既存ファイルは上書きせず連番を付ける）
+ */
+@Slf4j
+@Component
+public class AuditLogArchiver {
+
+    private static final String SELECT_CHUNK = """
+            SELECT id, ts, actor_id, action, entity, entity_id, note
+              FROM audit_logs
+             WHERE ts >= ? AND ts < ? AND (ts, id) > (?, ?)
+             ORDER BY ts, id
+             LIMIT ?
+            """;
+
+    private static final String DELETE_CHUNK = """
+            DELETE FROM audit_logs
+             WHERE ts >= ? AND ts < ? AND id <= ?
+             ORDER BY ts, id
+             LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int retentionMonths;
+    private final Path dir;
+    private final int chunkSize;
+
+    public AuditLogArchiver(JdbcTemplate jdbcTemplate,
+                            ObjectMapper objectMapper,
+                            @Value("${audit.archive.enabled:false}") boolean enabled,
+                            @Value("${audit.archive.retention-months:12}") int retentionMonths,
+                            @Value("${audit.archive.dir:archive/audit-logs}") String dir,
+                            @Value("${audit.archive.chunk-size:5000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.retentionMonths = retentionMonths;
+        this.dir = Paths.get(dir);
+        this.chunkSize = chunkSize;
+    }
+
+    /** 保持期間より前の月を古い順にすべて退避する */
+    @Scheduled(cron = "${audit.archive.cron:0 15 4 * * *}")
+    public void archiveExpired() {
+        if (!enabled) return;
+
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        LocalDateTime oldest = jdbcTemplate.queryForObject("SELECT MIN(ts) FROM audit_logs", LocalDateTime.class);
+        if (oldest == null) return;
+
+        for (YearMonth m = YearMonth.from(oldest); m.isBefore(cutoff); m = m.plusMonths(1)) {
+            try {
+                archiveMonth(m);
+            } catch (RuntimeException | IOException e) {
+                // 書き出しに失敗した月は消さずに残す（次回やり直し）
+                log.error("[AUDIT-ARCHIVE] {} failed: {}", m, e.getMessage(), e);
+                return;
+            }
+        }
+    }
+
+    /** @return 書き出して削除した件数 */
+    long archiveMonth(YearMonth month) throws IOException {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        Files.createDirectories(dir);
+        Path target = targetFile(month);
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+
+        long exported = 0;
+        long maxId = 0;
+        try (var out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(part)), StandardCharsets.UTF_8))) {
+            LocalDateTime lastTs = from;
+            long lastId = 0;
+            while (true) {
+                List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                        SELECT_CHUNK, from, to, lastTs, lastId, chunkSize);
+                for (Map<String, Object> r : rows) {
+                    out.write(objectMapper.writeValueAsString(toJson(r)));
+                    out.write('\n');
+                    long id = ((Number) r.get("id")).longValue();
+                    maxId = Math.max(maxId, id);
+                    lastId = id;
+                    lastTs = toLocalDateTime(r.get("ts"));
+                }
+                exported += rows.size();
+                if (rows.size() < chunkSize) break;
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+
+        if (exported == 0) {
+            Files.deleteIfExists(part);
+            return 0;
+        }
+        // ★ close だけではページキャッシュに残るだけ。ディスクに載ってから名前を付け、行を消す
+        try {
+            force(part, StandardOpenOption.WRITE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+        force(dir, StandardOpenOption.READ);
+
+        // ファイルが揃ってから、書き出した行だけを小分けに消す（ロックを短く保つ）
+        long deleted = 0;
+        int n;
+        do {
+            n = jdbcTemplate.update(DELETE_CHUNK, from, to, maxId, chunkSize);
+            deleted += n;
+        } while (n == chunkSize);
+
+        log.info("[AUDIT-ARCHIVE] {} exported={} deleted={} file={}", month, exported, deleted, target);
+        return deleted;
+    }
+
+    /** ファイル（またはディレクトリのエントリ）をディスクへ書き出す。テストで順序を確かめられるよう package-private */
+    void force(Path path, StandardOpenOption mode) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, mode)) {
+            ch.force(true);
+        }
+    }
+
+    /** audit_logs-2025-01.ndjson.gz（やり直しで既にあれば -1, -2 … を付ける） */
+    private Path targetFile(YearMonth month) {
+        Path p = dir.resolve("audit_logs-" + month + ".ndjson.gz");
+        for (int i = 1; Files.exists(p); i++) {
+            p = dir.resolve("audit_logs-" + month + "-" + i + ".ndjson.gz");
+        }
+        return p;
+    }
+
+    private static Map<String, Object> toJson(Map<String, Object> r) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", r.get("id"));
+        m.put("ts", toLocalDateTime(r.get("ts")).toString());
+        m.put("actorId", r.get("actor_id"));
+        m.put("action", r.get("action"));
+        m.put("entity", r.get("entity"));
+        m.put("entityId", r.get("entity_id"));
+        m.put("note", r.get("note"));
+        return m;
+    }
+
+    /** ドライバの設定により DATETIME は LocalDateTime / Timestamp のどちらでも返る */
+    private static LocalDateTime toLocalDateTime(Object v) {
+        return v instanceof Timestamp t ? t.toLocalDateTime() : (LocalDateTime) v;
+    }
+}
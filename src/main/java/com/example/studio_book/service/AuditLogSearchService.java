@@ -0,0 +1,140 @@
+// src/main/java/com/example/studio_book/service/AuditLogSearchService.java
+package com.example.studio_book.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import com.example.studio_book.dto.KeysetCursor;
+import com.example.studio_book.dto.KeysetPage;
+import com.example.studio_book.entity.AuditLog;
+import com.example.studio_book.repository.AuditLogRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 管理画面の監査ログ検索。
+ * OFFSET + COUNT(*) ではなく (ts, id) のキーセットで辿り、件数は統計情報の概算を使う。
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditLogSearchService {
+
+    public static final int PAGE_SIZE = 10;
+
+    /** ngram の最小トークン長（これ未満のキーワードは全文検索にかけられない） */
+    private static final int NGRAM_TOKEN_SIZE = 2;
+
+    private final AuditLogRepository auditLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /** 画面の検索条件（action / entity / actorId / entityId は完全一致） */
+    public record Criteria(String q, Integer actorId, String action, String entity, Integer entityId,
+                           LocalDate from, LocalDate to) {
+
+        boolean isEmpty() {
+            return !StringUtils.hasText(q) && actorId == null && !StringUtils.hasText(action)
+                && !StringUtils.hasText(entity) && entityId == null && from == null && to == null;
+        }
+    }
+
+    /**
+     * @param cursor   ページ境界（null なら先頭ページ）
+     * @param backward true なら cursor より新しい側（前のページ）を取る
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<AuditLog> search(Criteria criteria, String cursor, boolean backward) {
+        KeysetCursor c = KeysetCursor.parse(cursor);
+        boolean older = c == null || !backward;
+
+        Specification<AuditLog> spec = filters(criteria);
+        if (c != null) spec = spec.and(keyset(c, older));
+
+        Sort.Direction dir = older ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(dir, "ts").and(Sort.by(dir, "id"));
+
+        // 1件多く取って「続きがあるか」を判定する（COUNT は打たない）
+        List<AuditLog> rows = new ArrayList<>(auditLogRepository.findBy(spec,
+                q -> q.sortBy(sort).limit(PAGE_SIZE + 1).all()));
+        boolean more = rows.size() > PAGE_SIZE;
+        if (more) rows.remove(PAGE_SIZE);
+
+        Long estimated = criteria.isEmpty() ? estimateTotal() : null;
+        return KeysetPage.of(rows, more, !older, c != null, AuditLogSearchService::cursorOf, estimated);
+    }
+
+    private Specification<AuditLog> filters(Criteria f) {
+        Specification<AuditLog> spec = Specification.where(null);
+
+        if (StringUtils.hasText(f.q())) {
+            String q = f.q().strip();
+            if (q.codePointCount(0, q.length()) >= NGRAM_TOKEN_SIZE) {
+                // FULLTEXT(ngram) のフレーズ検索。演算子として解釈されないよう " は除く
+                String phrase = "\"" + q.replace("\"", "") + "\"";
+                spec = spec.and((root, cq, cb) -> cb.greaterThan(
+                        cb.function("match_against", Double.class, root.get("note"), cb.literal(phrase)), 0.0));
+            } else {
+                // 1文字だけは全文検索できないので前方一致に留める
+                String prefix = q.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+                spec = spec.and((root, cq, cb) -> cb.like(root.get("note"), prefix, '\\'));
+            }
+        }
+        if (f.actorId() != null) {
+            spec = spec.and((root, cq, cb) -> cb.equal(root.get("actorId"), f.actorId()));
+        }
+        if (StringUtils.hasText(f.action())) {
+            String action = f.action().strip();
+            spec = spec.and((root, cq, cb) -> cb.equal(root.get("action"), action));
+        }
+        if (StringUtils.hasText(f.entity())) {
+            String entity = f.entity().strip();
+            spec = spec.and((root, cq, cb) -> cb.equal(root.get("entity"), entity));
+        }
+        if (f.entityId() != null) {
+            spec = spec.and((root, cq, cb) -> cb.equal(root.get("entityId"), f.entityId()));
+        }
+        if (f.from() != null) {
+            LocalDateTime fromDt = f.from().atStartOfDay();
+            spec = spec.and((root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("ts"), fromDt));
+        }
+        if (f.to() != null) {
+            LocalDateTime toExclusive = f.to().plusDays(1).atStartOfDay();
+            spec = spec.and((root, cq, cb) -> cb.lessThan(root.get("ts"), toExclusive));
+        }
+        return spec;
+    }
+
+    /** (ts, id) < cursor（older）または (ts, id) > cursor */
+    private static Specification<AuditLog> keyset(KeysetCursor c, boolean older) {
+        return (root, cq, cb) -> older
+            ? cb.or(cb.lessThan(root.get("ts"), c.ts()),
+                    cb.and(cb.equal(root.get("ts"), c.ts()), cb.lessThan(root.get("id"), c.id())))
+            : cb.or(cb.greaterThan(root.get("ts"), c.ts()),
+                    cb.and(cb.equal(root.get("ts"), c.ts()), cb.greaterThan(root.get("id"), c.id())));
+    }
+
+    private static String cursorOf(AuditLog a) {
+        return KeysetCursor.format(a.getTs(), a.getId());
+    }
+
+    /** InnoDB の統計値による概算件数（COUNT(*) のフルスキャンを避ける） */
+    private Long estimateTotal() {
+        try {
+            return jdbcTemplate.queryForObject("""
+                    SELECT table_rows FROM information_schema.tables
+                     WHERE table_schema = DATABASE() AND table_name = 'audit_logs'
+                    """, Long.class);
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+}
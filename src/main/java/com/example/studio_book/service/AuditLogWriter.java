@@ -0,0 +1,268 @@
+// src/main/java/com/example/studio_book/service/AuditLogWriter.java
+package com.example.studio_book.service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.studio_book.entity.AuditLog;
+import com.example.studio_book.repository.AuditLogRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 監査ログの書き込み窓口。
+ * 通常（BUFFERED）はコミット後にメモリ上のキューへ積み、タイマーか件数しきい値で JDBC バッチ INSERT する。
+ * 金額に関わる操作は SYNC を指定し、業務トランザクションの中で従来どおり保存する。
+ *
+ * - BUFFERED は JPA を通らないので、積む前に Bean Validation を掛ける（SYNC と同じく違反は例外）
+ * - バッチが失敗したら 1 行ずつ入れ直し、行そのものが原因で入らないもの（制約違反など）は
+ *   デッドレター（ロガー audit.deadletter）に出して捨てる。DB 不調など一時的な失敗の分だけキューへ戻す
+ */
+@Slf4j
+@Component
+public class AuditLogWriter implements MeterBinder {
+
+    public enum Durability {
+        /** 業務トランザクション内で保存（ロールバックも一緒） */
+        SYNC,
+        /** コミット後にキューへ積み、まとめて保存 */
+        BUFFERED
+    }
+
+    static final String INSERT_SQL =
+            "INSERT INTO audit_logs (ts, actor_id, action, entity, entity_id, note) VALUES (?, ?, ?, ?, ?, ?)";
+
+    /** 書けなかった行の出力先（logback-spring.xml で非同期キューを通さずに出す） */
+    private static final Logger deadLetterLog = LoggerFactory.getLogger("audit.deadletter");
+
+    private final AuditLogRepository auditLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+
+    private final Queue<AuditLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    private Counter overflowCounter;
+    private Counter failureCounter;
+    private Counter deadLetterCounter;
+
+    public AuditLogWriter(AuditLogRepository auditLogRepository,
+                          JdbcTemplate jdbcTemplate,
+                          Validator validator,
+                          @Value("${audit.buffer.enabled:true}") boolean enabled,
+                          @Value("${audit.buffer.capacity:10000}") int capacity,
+                          @Value("${audit.buffer.batch-size:200}") int batchSize) {
+        this.auditLogRepository = auditLogRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+    }
+
+    /** HostReviewManageController など、簡易な記録用（BUFFERED） */
+    public void add(String action, Integer actorId, String entity, Integer entityId) {
+        write(AuditLog.builder()
+                .ts(LocalDateTime.now())
+                .action(action)
+                .actorId(actorId)
+                .entity(entity)
+                .entityId(entityId)
+                .build());
+    }
+
+    public void write(AuditLog entry) {
+        write(entry, Durability.BUFFERED);
+    }
+
+    public void write(AuditLog entry, Durability durability) {
+        if (entry.getTs() == null) entry.setTs(LocalDateTime.now());
+
+        if (durability == Durability.SYNC || !enabled) {
+            auditLogRepository.save(entry);
+            return;
+        }
+
+        // ★ JPA を通らない経路なので、ここで検証しておく（不正な行をキューに入れない）
+        Set<ConstraintViolation<AuditLog>> violations = validator.validate(entry);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+
+        // ロールバックされた操作の監査ログは残さない
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(entry);
+                }
+            });
+        } else {
+            enqueue(entry);
+        }
+    }
+
+    private void enqueue(AuditLog entry) {
+        // 上限を超えたら捨てずに呼び出し元スレッドで直接書く（監査ログは欠落させない）
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            if (overflowCounter != null) overflowCounter.increment();
+            insertBatch(List.of(entry));
+            return;
+        }
+        queue.offer(entry);
+
+        if (size.get() >= batchSize && !flushing.get()) {
+            Thread.ofVirtual().name("audit-flush").start(this::flush);
+        }
+    }
+
+    /** タイマー起動（件数しきい値に届かなくても一定間隔で吐き出す） */
+    @Scheduled(fixedDelayString = "${audit.buffer.flush-interval-ms:1000}")
+    public void flush() {
+        if (!flushing.compareAndSet(false, true)) return;
+        try {
+            List<AuditLog> batch;
+            while (!(batch = drain()).isEmpty()) {
+                try {
+                    insertBatch(batch);
+                } catch (RuntimeException e) {
+                    log.warn("[AUDIT] batch insert failed size={}: {}", batch.size(), e.getMessage());
+                    if (failureCounter != null) failureCounter.increment();
+                    // 1 行ずつ入れ直す。一時的な失敗で残った分だけ戻して次回に回す
+                    List<AuditLog> rest = insertEach(batch);
+                    if (!rest.isEmpty()) {
+                        requeue(rest);
+                        return;
+                    }
+                }
+            }
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        // 実行中の flush が終わるのを短時間だけ待ってから残りを吐き出す
+        for (int i = 0; i < 50 && flushing.get(); i++) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        flush();
+        if (size.get() > 0) {
+            log.error("[AUDIT] {} entries could not be written before shutdown", size.get());
+        }
+    }
+
+    int pending() {
+        return size.get();
+    }
+
+    private List<AuditLog> drain() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        AuditLog a;
+        while (batch.size() < batchSize && (a = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(a);
+        }
+        return batch;
+    }
+
+    /**
+     * 1 行ずつ INSERT。行が原因の失敗はデッドレターに出して先へ進む
+     * @return 一時的な失敗（DB 不調など）で書けなかった行以降（戻してやり直す分）
+     */
+    private List<AuditLog> insertEach(List<AuditLog> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            AuditLog a = batch.get(i);
+            try {
+                insertBatch(List.of(a));
+            } catch (DataIntegrityViolationException e) {
+                deadLetter(a, e);
+            } catch (DataAccessException e) {
+                log.warn("[AUDIT] insert failed, requeue {} entries: {}", batch.size() - i, e.getMessage());
+                return batch.subList(i, batch.size());
+            } catch (RuntimeException e) {
+                deadLetter(a, e);
+            }
+        }
+        return List.of();
+    }
+
+    private void requeue(List<AuditLog> rows) {
+        for (AuditLog a : rows) {
+            queue.offer(a);
+            size.incrementAndGet();
+        }
+    }
+
+    private void deadLetter(AuditLog a, RuntimeException e) {
+        // note は任意入力なので出さない
+        deadLetterLog.error("ts={} actorId={} action={} entity={} entityId={} cause={}",
+                a.getTs(), a.getActorId(), a.getAction(), a.getEntity(), a.getEntityId(), e.getMessage());
+        if (deadLetterCounter != null) deadLetterCounter.increment();
+    }
+
+    private void insertBatch(List<AuditLog> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, a) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(a.getTs()));
+            ps.setInt(2, a.getActorId());
+            ps.setString(3, a.getAction());
+            ps.setString(4, a.getEntity());
+            if (a.getEntityId() != null) ps.setInt(5, a.getEntityId());
+            else ps.setNull(5, Types.INTEGER);
+            ps.setString(6, a.getNote());
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("studio.audit.queue_depth", size, AtomicInteger::get)
+                .description("Audit log entries waiting to be flushed")
+                .register(registry);
+        overflowCounter = Counter.builder("studio.audit.overflow")
+                .description("Audit log entries written synchronously because the buffer was full")
+                .register(registry);
+        failureCounter = Counter.builder("studio.audit.flush_failures")
+                .register(registry);
+        deadLetterCounter = Counter.builder("studio.audit.dead_letters")
+                .description("Audit log entries that could not be written and were sent to the dead-letter log")
+                .register(registry);
+    }
+}
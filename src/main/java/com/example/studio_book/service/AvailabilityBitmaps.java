@@ -0,0 +1,338 @@
+// src/main/java/com/example/studio_book/service/AvailabilityBitmaps.java
+package com.example.studio_book.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.studio_book.entity.Closure;
+import com.example.studio_book.entity.Reservation;
+import com.example.studio_book.entity.RoomBusinessHour;
+import com.example.studio_book.repository.ClosureRepository;
+import com.example.studio_book.repository.ReservationRepository;
+import com.example.studio_book.repository.RoomBusinessHourRepository;
+
+/**
+ * 部屋・日ごとの空き状況を 15 分 × 96 ビットで持つ（営業 / 休館 / 予約の 3 層）
+ *
+ * - 営業時間は内側に、休館・予約は外側に丸める。15 分境界に揃った区間なら元の行で判定するのと同じ結果になる
+ * - 足りない日は「月単位」で読み込む（営業時間・休館・繰り返し休館・予約を 1 回ずつ）
+ * - このノードでの書き込みはコミット後に反映（予約はビットを立てる、それ以外は部屋ごと捨てる）。
+ *   別ノードでの書き込みは TTL で拾う
+ * - 上限を超えたら丸ごと捨てる
+ */
+@Component
+public class AvailabilityBitmaps {
+
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES; // 96
+
+    private record Key(int roomId, LocalDate date) {}
+
+    private record Entry(Day day, long loadedAt) {}
+
+    /** 区間をその日の [from, to) スロットに切ったもの */
+    public record Segment(LocalDate date, int from, int to) {}
+
+    /**
+     * 1 部屋・1 日分（不変）。ビット i は [i*15分, (i+1)*15分)
+     */
+    public static final class Day {
+        private final long[] open;
+        private final long[] closed;
+        private final long[] booked;
+
+        Day(long[] open, long[] closed, long[] booked) {
+            this.open = open;
+            this.closed = closed;
+            this.booked = booked;
+        }
+
+        /** [from, to) がすべて営業時間内か */
+        public boolean allOpen(int from, int to) {
+            return all(open, from, to);
+        }
+
+        public boolean anyClosed(int from, int to) {
+            return any(closed, from, to);
+        }
+
+        public boolean anyBooked(int from, int to) {
+            return any(booked, from, to);
+        }
+
+        /** 営業中・休館でない・予約なし */
+        public boolean isFree(int from, int to) {
+            return all(freeMask(), from, to);
+        }
+
+        /** 予約できるスロット（open & ~closed & ~booked） */
+        public long[] freeMask() {
+            long[] m = new long[open.length];
+            for (int w = 0; w < m.length; w++) {
+                m[w] = open[w] & ~closed[w] & ~booked[w];
+            }
+            return m;
+        }
+
+        Day withBooked(int from, int to) {
+            long[] b = booked.clone();
+            set(b, from, to);
+            return new Day(open, closed, b);
+        }
+    }
+
+    private final RoomBusinessHourRepository businessHourRepository;
+    private final ClosureRepository closureRepository;
+    private final ClosureRuleExpander closureRules;
+    private final ReservationRepository reservationRepository;
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<Key, Entry> cache = new ConcurrentHashMap<>();
+    // 読み込み中に書き込みが入ったら、その読み込み結果は入れない
+    private final ConcurrentHashMap<Integer, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public AvailabilityBitmaps(RoomBusinessHourRepository businessHourRepository,
+                               ClosureRepository closureRepository,
+                               ClosureRuleExpander closureRules,
+                               ReservationRepository reservationRepository,
+                               @Value("${availability.bitmap.ttl-seconds:60}") long ttlSeconds,
+                               @Value("${availability.bitmap.max-entries:50000}") int maxEntries) {
+        this.businessHourRepository = businessHourRepository;
+        this.closureRepository = closureRepository;
+        this.closureRules = closureRules;
+        this.reservationRepository = reservationRepository;
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.maxEntries = maxEntries;
+    }
+
+    /** [start, end) が 15 分境界に揃っているか（揃っていなければビットマップでは判定しない） */
+    public static boolean isAligned(LocalDateTime start, LocalDateTime end) {
+        return aligned(start) && aligned(end);
+    }
+
+    /** [start, end) がすべて営業時間内か（isAligned な区間のみ） */
+    public boolean allOpen(int roomId, LocalDateTime start, LocalDateTime end) {
+        List<Segment> segs = segments(start, end);
+        Map<LocalDate, Day> days = days(roomId, start.toLocalDate(), segs.get(segs.size() - 1).date());
+        for (Segment s : segs) {
+            if (!days.get(s.date()).allOpen(s.from(), s.to())) return false;
+        }
+        return true;
+    }
+
+    /** [start, end) が休館（単発・繰り返し）と重なるか（isAligned な区間のみ） */
+    public boolean anyClosed(int roomId, LocalDateTime start, LocalDateTime end) {
+        List<Segment> segs = segments(start, end);
+        Map<LocalDate, Day> days = days(roomId, start.toLocalDate(), segs.get(segs.size() - 1).date());
+        for (Segment s : segs) {
+            if (days.get(s.date()).anyClosed(s.from(), s.to())) return true;
+        }
+        return false;
+    }
+
+    /** [from, to] の各日（キャッシュに無い・古い日はまとめて読み込む） */
+    public Map<LocalDate, Day> days(int roomId, LocalDate from, LocalDate to) {
+        long now = System.currentTimeMillis();
+        Map<LocalDate, Day> out = new LinkedHashMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            Entry e = cache.get(new Key(roomId, d));
+            boolean fresh = e != null && now - e.loadedAt() < ttlMillis;
+            out.put(d, fresh ? e.day() : null);
+            if (!fresh) {
+                if (firstMissing == null) firstMissing = d;
+                lastMissing = d;
+            }
+        }
+        if (firstMissing == null) return out;
+
+        Map<LocalDate, Day> loaded = load(roomId,
+                YearMonth.from(firstMissing).atDay(1),
+                YearMonth.from(lastMissing).atEndOfMonth(), now);
+        out.replaceAll((d, day) -> day != null ? day : loaded.get(d));
+        return out;
+    }
+
+    /** 予約確定をコミット後に反映（読み込み済みの日だけビットを立てる） */
+    public void markBookedAfterCommit(int roomId, LocalDateTime start, LocalDateTime end) {
+        afterCommit(() -> {
+            versionOf(roomId).incrementAndGet();
+            for (Segment s : segments(start, end)) {
+                cache.computeIfPresent(new Key(roomId, s.date()),
+                        (k, e) -> new Entry(e.day().withBooked(s.from(), s.to()), e.loadedAt()));
+            }
+        });
+    }
+
+    /** キャンセル・休館・営業時間の変更をコミット後に反映（部屋ごと読み直し） */
+    public void invalidateAfterCommit(int roomId) {
+        afterCommit(() -> invalidate(roomId));
+    }
+
+    public void invalidate(int roomId) {
+        versionOf(roomId).incrementAndGet();
+        cache.keySet().removeIf(k -> k.roomId() == roomId);
+    }
+
+    private Map<LocalDate, Day> load(int roomId, LocalDate first, LocalDate last, long now) {
+        long version = versionOf(roomId).get();
+        LocalDateTime rangeStart = first.atStartOfDay();
+        LocalDateTime rangeEnd = last.plusDays(1).atStartOfDay();
+
+        Map<Integer, RoomBusinessHour> bhByDow = new HashMap<>();
+        for (RoomBusinessHour bh : businessHourRepository.findByRoomIdOrderByDayIndexAsc(roomId)) {
+            bhByDow.put(bh.getDayIndex(), bh);
+        }
+        List<Closure> closures = new ArrayList<>(
+                closureRepository.findByRoomIdAndEndAtAfterAndStartAtBefore(roomId, rangeStart, rangeEnd));
+        closures.addAll(closureRules.occurrences(roomId, rangeStart, rangeEnd));
+        List<Reservation> reservations =
+                reservationRepository.findByRoomIdAndEndAtAfterAndStartAtBefore(roomId, rangeStart, rangeEnd);
+
+        int n = (int) (last.toEpochDay() - first.toEpochDay()) + 1;
+        long[][] open = new long[n][];
+        long[][] closed = new long[n][];
+        long[][] booked = new long[n][];
+        for (int i = 0; i < n; i++) {
+            open[i] = openBits(bhByDow.get(first.plusDays(i).getDayOfWeek().getValue()));
+            closed[i] = new long[words()];
+            booked[i] = new long[words()];
+        }
+        for (Closure c : closures) {
+            paint(closed, first, last, c.getStartAt(), c.getEndAt());
+        }
+        for (Reservation r : reservations) {
+            if ("canceled".equals(r.getStatus())) continue;
+            paint(booked, first, last, r.getStartAt(), r.getEndAt());
+        }
+
+        Map<LocalDate, Day> out = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            out.put(first.plusDays(i), new Day(open[i], closed[i], booked[i]));
+        }
+
+        if (cache.size() + n > maxEntries) cache.clear();
+        if (versionOf(roomId).get() == version) {
+            out.forEach((d, day) -> cache.put(new Key(roomId, d), new Entry(day, now)));
+            // put の間に書き込みが入った場合は入れた分を捨てる
+            if (versionOf(roomId).get() != version) invalidate(roomId);
+        }
+        return out;
+    }
+
+    /** 営業時間（終了 00:00 は 24:00 扱い）を内側に丸めたビット */
+    private static long[] openBits(RoomBusinessHour bh) {
+        long[] bits = new long[words()];
+        if (bh == null || bh.isHoliday() || bh.getStartTime() == null || bh.getEndTime() == null) {
+            return bits;
+        }
+        int startMin = minuteOfDay(bh.getStartTime());
+        int endMin = bh.getEndTime().equals(LocalTime.MIDNIGHT) ? 24 * 60 : minuteOfDay(bh.getEndTime());
+        int from = ceilSlot(startMin);
+        int to = endMin / SLOT_MINUTES;
+        if (from < to) set(bits, from, to);
+        return bits;
+    }
+
+    /** [start, end) を外側に丸めて [first, last] の各日に立てる */
+    private static void paint(long[][] layer, LocalDate first, LocalDate last,
+                              LocalDateTime start, LocalDateTime end) {
+        for (Segment s : segments(start, end)) {
+            if (s.date().isBefore(first) || s.date().isAfter(last)) continue;
+            set(layer[(int) (s.date().toEpochDay() - first.toEpochDay())], s.from(), s.to());
+        }
+    }
+
+    /** [start, end) を日ごとのスロット範囲に分ける（端数は外側に丸める） */
+    static List<Segment> segments(LocalDateTime start, LocalDateTime end) {
+        List<Segment> out = new ArrayList<>();
+        if (!start.isBefore(end)) return out;
+        LocalDate last = end.minusNanos(1).toLocalDate(); // end がちょうど 0 時ならその日は含めない
+        for (LocalDate d = start.toLocalDate(); !d.isAfter(last); d = d.plusDays(1)) {
+            int from = d.equals(start.toLocalDate()) ? minuteOfDay(start.toLocalTime()) : 0;
+            int to = d.equals(end.toLocalDate()) ? minuteOfDay(end.toLocalTime()) : 24 * 60;
+            // 秒以下の端数は外側に寄せる
+            if (d.equals(end.toLocalDate()) && (end.getSecond() != 0 || end.getNano() != 0)) to++;
+            out.add(new Segment(d, from / SLOT_MINUTES, ceilSlot(to)));
+        }
+        return out;
+    }
+
+    private static boolean aligned(LocalDateTime t) {
+        return t.getMinute() % SLOT_MINUTES == 0 && t.getSecond() == 0 && t.getNano() == 0;
+    }
+
+    private static int minuteOfDay(LocalTime t) {
+        return t.getHour() * 60 + t.getMinute();
+    }
+
+    private static int ceilSlot(int minute) {
+        return (minute + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    private static int words() {
+        return (SLOTS_PER_DAY + 63) / 64;
+    }
+
+    /** w 語目のうち [from, to) に当たるビット */
+    private static long mask(int w, int from, int to) {
+        int lo = Math.max(from, w * 64) - w * 64;
+        int hi = Math.min(to, w * 64 + 64) - w * 64;
+        if (lo >= hi) return 0L;
+        return (hi - lo == 64) ? -1L : ((1L << (hi - lo)) - 1) << lo;
+    }
+
+    static boolean all(long[] bits, int from, int to) {
+        for (int w = 0; w < bits.length; w++) {
+            long m = mask(w, from, to);
+            if ((bits[w] & m) != m) return false;
+        }
+        return true;
+    }
+
+    static boolean any(long[] bits, int from, int to) {
+        for (int w = 0; w < bits.length; w++) {
+            if ((bits[w] & mask(w, from, to)) != 0) return true;
+        }
+        return false;
+    }
+
+    static void set(long[] bits, int from, int to) {
+        for (int w = 0; w < bits.length; w++) {
+            bits[w] |= mask(w, from, to);
+        }
+    }
+
+    private AtomicLong versionOf(int roomId) {
+        return versions.computeIfAbsent(roomId, k -> new AtomicLong());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
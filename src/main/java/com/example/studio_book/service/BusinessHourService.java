@@ -1,17 +1,27 @@
 // src/main/java/com/example/studio_book/service/BusinessHourService.java
 package com.example.studio_book.service;
 
+import java.sql.Time;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.TreeMap;
 import java.util.stream.IntStream;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.example.studio_book.entity.Room;
 import com.example.studio_book.entity.RoomBusinessHour;
 import com.example.studio_book.form.BusinessHourRowForm;
 import com.example.studio_book.form.BusinessHoursForm;
@@ -24,8 +34,18 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class BusinessHourService {
 
+    private static final String UPSERT_SQL = """
+            INSERT INTO room_businesshours (room_id, day_index, start_time, end_time, holiday)
+            VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE start_time = VALUES(start_time),
+                                    end_time = VALUES(end_time),
+                                    holiday = VALUES(holiday)
+            """;
+
     private final RoomRepository roomRepository;
     private final RoomBusinessHourRepository bhRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final AvailabilityBitmaps availability;
 
     /** 1..7 の空行を作る */
     public BusinessHoursForm loadOrDefault(Integer roomId) {
@@ -56,12 +76,32 @@ public class BusinessHourService {
         return form;
     }
 
+    /** 1 部屋分の保存 */
     @Transactional
     public void save(Integer roomId, BusinessHoursForm form) {
         if (!roomId.equals(form.getRoomId())) throw new IllegalArgumentException("roomId mismatch");
-        var room = roomRepository.findById(roomId).orElseThrow();
+        roomRepository.findById(roomId).orElseThrow();
+
+        upsertWeek(List.of(roomId), normalize(form));
+    }
+
+    /**
+     * 同じ週の営業時間を複数のスタジオへまとめて適用する（ホスト本人のスタジオに限る）
+     * @return 書き換えた行数（変更のない曜日は数えない）
+     */
+    @Transactional
+    public int applyToRooms(Integer hostId, Collection<Integer> roomIds, BusinessHoursForm form) {
+        var ids = new LinkedHashSet<>(roomIds);
+        var rooms = roomRepository.findAllById(ids);
+        if (rooms.size() != ids.size()) throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        for (Room r : rooms) {
+            if (!r.getUser().getId().equals(hostId)) throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+        }
+        return upsertWeek(ids, normalize(form));
+    }
 
-        // 1..7 の行だけ受理、重複 dayIndex は最後を優先
+    /** 1..7 の行だけ受理、重複 dayIndex は最後を優先。未指定の曜日は休み */
+    private Map<Integer, BusinessHourRowForm> normalize(BusinessHoursForm form) {
         Map<Integer, BusinessHourRowForm> map = new TreeMap<>();
         for (var r : form.getRows()) {
             if (r.getDayIndex() == null) continue;
@@ -82,25 +122,56 @@ public class BusinessHourService {
             }
             map.put(r.getDayIndex(), r);
         }
+        for (int day = 1; day <= 7; day++) {
+            map.putIfAbsent(day, BusinessHourRowForm.builder().dayIndex(day).holiday(true).build());
+        }
+        return map;
+    }
 
-        // 既存取得→更新 or 作成
-        for (int i = 1; i <= 7; i++) {
-            final int day = i;   // ← これがポイント
-
-            var row = map.getOrDefault(day, BusinessHourRowForm.builder()
-                .dayIndex(day).holiday(true).startTime(null).endTime(null).build());
-            var opt = bhRepository.findByRoomIdAndDayIndex(roomId, day);
-
-            RoomBusinessHour e = opt.orElseGet(() -> RoomBusinessHour.builder()
-                .room(room)
-                .dayIndex(day)   // ← i ではなく day
-                .build());
+    /**
+     * 既存行を 1 回で読み、変わった (部屋, 曜日) だけを 1 回のバッチで UPSERT する
+     * （以前は曜日ごとに SELECT＋save で 1 部屋 14 往復）
+     */
+    private int upsertWeek(Collection<Integer> roomIds, Map<Integer, BusinessHourRowForm> week) {
+        Map<Integer, Map<Integer, RoomBusinessHour>> current = new HashMap<>();
+        for (var e : bhRepository.findByRoomIdIn(List.copyOf(roomIds))) {
+            current.computeIfAbsent(e.getRoom().getId(), k -> new HashMap<>()).put(e.getDayIndex(), e);
+        }
 
-            e.setHoliday(row.isHoliday());
-            e.setStartTime(row.isHoliday() ? null : row.getStartTime());
-            e.setEndTime(row.isHoliday() ? null : row.getEndTime());
-            bhRepository.save(e);
+        List<RoomBusinessHour> changed = new ArrayList<>();
+        for (Integer roomId : roomIds) {
+            var days = current.getOrDefault(roomId, Map.of());
+            var room = new Room();
+            room.setId(roomId);
+            for (var row : week.values()) {
+                var e = days.get(row.getDayIndex());
+                if (e != null && e.isHoliday() == row.isHoliday()
+                        && Objects.equals(e.getStartTime(), row.getStartTime())
+                        && Objects.equals(e.getEndTime(), row.getEndTime())) {
+                    continue;
+                }
+                changed.add(RoomBusinessHour.builder()
+                        .room(room)
+                        .dayIndex(row.getDayIndex())
+                        .startTime(row.getStartTime())
+                        .endTime(row.getEndTime())
+                        .holiday(row.isHoliday())
+                        .build());
+            }
         }
+        if (changed.isEmpty()) return 0;
+
+        // uq_room_day (room_id, day_index) で UPSERT
+        jdbcTemplate.batchUpdate(UPSERT_SQL, changed, changed.size(), (ps, h) -> {
+            ps.setInt(1, h.getRoom().getId());
+            ps.setInt(2, h.getDayIndex());
+            ps.setTime(3, h.getStartTime() == null ? null : Time.valueOf(h.getStartTime()));
+            ps.setTime(4, h.getEndTime() == null ? null : Time.valueOf(h.getEndTime()));
+            ps.setBoolean(5, h.isHoliday());
+        });
+        changed.stream().map(h -> h.getRoom().getId()).distinct()
+                .forEach(availability::invalidateAfterCommit);
+        return changed.size();
     }
     
     @Transactional(readOnly = true)
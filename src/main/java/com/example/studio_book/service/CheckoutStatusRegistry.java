@@ -0,0 +1,133 @@
+// src/main/java/com/example/studio_book/service/CheckoutStatusRegistry.java
+package com.example.studio_book.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 直近に予約が確定した Checkout セッションの記録と、その完了を待つリクエストへの通知
+ *
+ * Webhook のコミット後に markCompleted される。決済直後の「反映中」画面は
+ * ここ（なければ reservations.checkout_session_id）だけを見るので Stripe を呼ばない。
+ * 単一ノード内のメモリのみ。別ノードで確定した分は DB 側の照会で拾う。
+ *
+ * ★ 待機はリクエストごとに別の Future。タイムアウト・切断時は cancel で外し、
+ *   待ち手のいなくなったセッションはマップから消す（外し損ねた分も purge で期限切れとして消す）
+ */
+@Component
+public class CheckoutStatusRegistry {
+
+    /** 確定結果（CONFLICT = 決済後に枠が埋まっていて予約できず返金に回した） */
+    public enum Status { COMPLETED, CONFLICT }
+
+    public record Outcome(Integer userId, Status status) {}
+
+    private record Completed(Outcome outcome, long atMillis) {}
+
+    private record Waiter(CompletableFuture<Outcome> future, long sinceMillis) {}
+
+    private final ConcurrentHashMap<String, Completed> recent = new ConcurrentHashMap<>();
+    /** セッション → 待機中のリクエスト（リストの変更は compute 系の中だけで行う） */
+    private final ConcurrentHashMap<String, List<Waiter>> waiters = new ConcurrentHashMap<>();
+
+    @Value("${reservation.checkout-status-ttl-ms:600000}")
+    private long ttlMillis = 600_000L;
+
+    /** 待機の最長保持時間（/reservations/status の最大待ち 30 秒より長く） */
+    @Value("${reservation.checkout-status-waiter-max-age-ms:60000}")
+    private long waiterMaxAgeMillis = 60_000L;
+
+    /** 予約確定を記録し、待っているリクエストに通知 */
+    public void markCompleted(String checkoutSessionId, Integer userId) {
+        mark(checkoutSessionId, new Outcome(userId, Status.COMPLETED));
+    }
+
+    /** 競合で予約できなかった（返金に回した）ことを記録し、待っているリクエストに通知 */
+    public void markConflict(String checkoutSessionId, Integer userId) {
+        mark(checkoutSessionId, new Outcome(userId, Status.CONFLICT));
+    }
+
+    private void mark(String checkoutSessionId, Outcome outcome) {
+        if (checkoutSessionId == null) return;
+        recent.put(checkoutSessionId, new Completed(outcome, System.currentTimeMillis()));
+        List<Waiter> ws = waiters.remove(checkoutSessionId);
+        if (ws != null) ws.forEach(w -> w.future().complete(outcome));
+    }
+
+    /** そのユーザーのセッションとして確定済みか */
+    public boolean isCompleted(String checkoutSessionId, Integer userId) {
+        return hasStatus(checkoutSessionId, userId, Status.COMPLETED);
+    }
+
+    /** そのユーザーのセッションが競合で予約できなかったか */
+    public boolean isConflict(String checkoutSessionId, Integer userId) {
+        return hasStatus(checkoutSessionId, userId, Status.CONFLICT);
+    }
+
+    private boolean hasStatus(String checkoutSessionId, Integer userId, Status status) {
+        if (checkoutSessionId == null) return false;
+        Completed c = recent.get(checkoutSessionId);
+        return c != null && c.outcome().status() == status && Objects.equals(c.outcome().userId(), userId);
+    }
+
+    /**
+     * 確定を待つ（確定または競合の記録で完了する）
+     * 呼び出し側は待つのをやめた時点で必ず cancel すること
+     */
+    public CompletableFuture<Outcome> await(String checkoutSessionId) {
+        CompletableFuture<Outcome> f = new CompletableFuture<>();
+        Waiter w = new Waiter(f, System.currentTimeMillis());
+        waiters.compute(checkoutSessionId, (k, ws) -> {
+            List<Waiter> list = ws != null ? ws : new ArrayList<>();
+            list.add(w);
+            return list;
+        });
+        // 登録とすれ違いで確定していた場合
+        Completed c = recent.get(checkoutSessionId);
+        if (c != null) {
+            cancel(checkoutSessionId, f);
+            f.complete(c.outcome());
+        }
+        return f;
+    }
+
+    /** 待機を外す（最後の 1 件ならセッションごと消す） */
+    public void cancel(String checkoutSessionId, CompletableFuture<Outcome> future) {
+        waiters.computeIfPresent(checkoutSessionId, (k, ws) -> {
+            ws.removeIf(w -> w.future() == future);
+            return ws.isEmpty() ? null : ws;
+        });
+    }
+
+    /** 期限切れの記録と、外し損ねた古い待機を掃除 */
+    @Scheduled(fixedDelayString = "${reservation.checkout-status-purge-interval-ms:60000}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        long cutoff = now - ttlMillis;
+        recent.values().removeIf(c -> c.atMillis() < cutoff);
+
+        long waiterCutoff = now - waiterMaxAgeMillis;
+        for (String id : waiters.keySet()) {
+            waiters.computeIfPresent(id, (k, ws) -> {
+                ws.removeIf(w -> {
+                    boolean stale = w.sinceMillis() < waiterCutoff || w.future().isDone();
+                    if (stale) w.future().cancel(false);
+                    return stale;
+                });
+                return ws.isEmpty() ? null : ws;
+            });
+        }
+    }
+
+    /** 待機中のセッション数（テスト用） */
+    int waitingSessions() {
+        return waiters.size();
+    }
+}
@@ -0,0 +1,137 @@
+// src/main/java/com/example/studio_book/service/ClosureRuleExpander.java
+package com.example.studio_book.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.studio_book.entity.Closure;
+import com.example.studio_book.entity.ClosureRule;
+import com.example.studio_book.repository.ClosureRuleRepository;
+
+/**
+ * 繰り返し休館ルールを、照会された範囲の分だけ Closure（保存しない）に展開する。
+ *
+ * - 展開結果は (ルールID, 月) 単位でメモリに持つ。ルールは更新されない（作り直し）ので、
+ *   同じキーの結果が古くなることはなく、ノード間の無効化も要らない
+ * - 上限を超えたら丸ごと捨てる（削除されたルールの分もここで消える）
+ */
+@Component
+public class ClosureRuleExpander {
+
+    private record Key(Integer ruleId, YearMonth month) {}
+
+    private record Occurrence(LocalDateTime start, LocalDateTime end) {}
+
+    private final ClosureRuleRepository closureRuleRepository;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<Key, List<Occurrence>> cache = new ConcurrentHashMap<>();
+
+    public ClosureRuleExpander(ClosureRuleRepository closureRuleRepository,
+                               @Value("${closure.rule-cache.max-entries:20000}") int maxEntries) {
+        this.closureRuleRepository = closureRuleRepository;
+        this.maxEntries = maxEntries;
+    }
+
+    /** [from, to) に掛かる 1 部屋分の発生 */
+    public List<Closure> occurrences(Integer roomId, LocalDateTime from, LocalDateTime to) {
+        return expandAll(closureRuleRepository.findByRoomIdOrderByIdAsc(roomId), from, to);
+    }
+
+    /** [from, to) に掛かる複数部屋分の発生（ルールは 1 回で読む） */
+    public List<Closure> occurrences(List<Integer> roomIds, LocalDateTime from, LocalDateTime to) {
+        if (roomIds.isEmpty()) return List.of();
+        return expandAll(closureRuleRepository.findByRoomIdIn(roomIds), from, to);
+    }
+
+    /** [start, end) がいずれかの発生と重なるか */
+    public boolean overlaps(int roomId, LocalDateTime start, LocalDateTime end) {
+        return !occurrences(roomId, start, end).isEmpty();
+    }
+
+    private List<Closure> expandAll(List<ClosureRule> rules, LocalDateTime from, LocalDateTime to) {
+        if (rules.isEmpty() || !from.isBefore(to)) return List.of();
+        if (cache.size() > maxEntries) cache.clear();
+
+        List<Closure> out = new ArrayList<>();
+        // 前月末日に始まって日付を跨ぐ発生も拾う
+        YearMonth first = YearMonth.from(from.minusDays(1));
+        YearMonth last = YearMonth.from(to);
+        for (ClosureRule rule : rules) {
+            for (YearMonth m = first; !m.isAfter(last); m = m.plusMonths(1)) {
+                for (Occurrence o : cache.computeIfAbsent(new Key(rule.getId(), m), k -> expand(rule, k.month()))) {
+                    if (o.start().isBefore(to) && from.isBefore(o.end())) {
+                        Closure c = new Closure();
+                        c.setRoomId(rule.getRoomId());
+                        c.setStartAt(o.start());
+                        c.setEndAt(o.end());
+                        c.setReason(rule.getReason());
+                        out.add(c);
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    /** 1 ルール・1 か月分 */
+    private static List<Occurrence> expand(ClosureRule rule, YearMonth month) {
+        List<Occurrence> out = new ArrayList<>();
+        for (LocalDate d : datesIn(rule, month)) {
+            if (d.isBefore(rule.getValidFrom())) continue;
+            if (rule.getValidUntil() != null && d.isAfter(rule.getValidUntil())) continue;
+
+            if (rule.getStartTime() == null) {
+                out.add(new Occurrence(d.atStartOfDay(), d.plusDays(1).atStartOfDay()));
+                continue;
+            }
+            LocalDateTime start = d.atTime(rule.getStartTime());
+            // 終了が開始以前なら翌日の時刻（22:00〜02:00 など）
+            LocalDateTime end = rule.getEndTime().isAfter(rule.getStartTime())
+                    ? d.atTime(rule.getEndTime())
+                    : d.plusDays(1).atTime(rule.getEndTime());
+            out.add(new Occurrence(start, end));
+        }
+        return List.copyOf(out);
+    }
+
+    private static List<LocalDate> datesIn(ClosureRule rule, YearMonth month) {
+        switch (rule.getFrequency()) {
+            case ClosureRule.WEEKLY -> {
+                List<LocalDate> days = new ArrayList<>(5);
+                DayOfWeek dow = DayOfWeek.of(rule.getWeekday());
+                for (LocalDate d = month.atDay(1).with(TemporalAdjusters.nextOrSame(dow));
+                     !d.isAfter(month.atEndOfMonth()); d = d.plusWeeks(1)) {
+                    days.add(d);
+                }
+                return days;
+            }
+            case ClosureRule.MONTHLY -> {
+                DayOfWeek dow = DayOfWeek.of(rule.getWeekday());
+                LocalDate d = rule.getWeekOfMonth() < 0
+                        ? month.atEndOfMonth().with(TemporalAdjusters.lastInMonth(dow))
+                        : month.atDay(1).with(TemporalAdjusters.dayOfWeekInMonth(rule.getWeekOfMonth(), dow));
+                // 第5○曜日が無い月は翌月にずれるので除く
+                return YearMonth.from(d).equals(month) ? List.of(d) : List.of();
+            }
+            case ClosureRule.YEARLY -> {
+                if (month.getMonthValue() != rule.getMonth() || !month.isValidDay(rule.getDayOfMonth())) {
+                    return List.of();
+                }
+                return List.of(month.atDay(rule.getDayOfMonth()));
+            }
+            default -> {
+                return List.of();
+            }
+        }
+    }
+}
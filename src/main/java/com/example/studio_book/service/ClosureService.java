@@ -3,6 +3,9 @@ package com.example.studio_book.service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 
@@ -10,8 +13,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.studio_book.entity.Closure;
+import com.example.studio_book.entity.ClosureRule;
 import com.example.studio_book.entity.Room;
+import com.example.studio_book.form.ClosureRuleForm;
 import com.example.studio_book.repository.ClosureRepository;
+import com.example.studio_book.repository.ClosureRuleRepository;
 import com.example.studio_book.repository.RoomRepository;
 import com.example.studio_book.security.UserDetailsImpl;
 
@@ -22,7 +28,11 @@ import lombok.RequiredArgsConstructor;
 public class ClosureService {
 
     private final ClosureRepository closureRepository;
+    private final ClosureRuleRepository closureRuleRepository;
+    private final ClosureRuleExpander closureRuleExpander;
     private final RoomRepository roomRepository;
+    private final RoomLockService roomLockService;
+    private final AvailabilityBitmaps availability;
 
     public Room getOwnedRoomOrThrow(Integer roomId, UserDetailsImpl principal) {
         Room room = roomRepository.findById(roomId)
@@ -60,7 +70,8 @@ public class ClosureService {
         LocalDateTime start = startDate.atStartOfDay();
         LocalDateTime endExclusive = endDate.plusDays(1).atStartOfDay();
 
-        // 交差チェック
+        // 交差チェック（チェック〜保存の間に同室の書き込みが入らないようロック）
+        roomLockService.lockForTransaction(roomId);
         boolean overlaps = closureRepository
             .existsByRoomIdAndEndAtGreaterThanAndStartAtLessThan(roomId, start, endExclusive);
         if (overlaps) {
@@ -73,6 +84,7 @@ public class ClosureService {
         c.setEndAt(endExclusive);
         c.setReason(reason);
         closureRepository.save(c);
+        availability.invalidateAfterCommit(roomId);
     }
 
     @Transactional
@@ -84,6 +96,7 @@ public class ClosureService {
             throw new SecurityException("Room mismatch");
         }
         closureRepository.delete(c);
+        availability.invalidateAfterCommit(roomId);
     }
     
     @Transactional
@@ -101,6 +114,7 @@ public class ClosureService {
         }
 
         // 重複チェック（[start, end) 交差）
+        roomLockService.lockForTransaction(roomId);
         boolean overlaps = closureRepository
             .existsByRoomIdAndEndAtGreaterThanAndStartAtLessThan(roomId, startAt, endAt);
         if (overlaps) {
@@ -113,6 +127,82 @@ public class ClosureService {
         c.setEndAt(endAt);
         c.setReason(reason);
         closureRepository.save(c);
+        availability.invalidateAfterCommit(roomId);
+    }
+
+    // ===== 繰り返し休館 =====
+
+    public List<ClosureRule> listRules(Integer roomId, UserDetailsImpl principal) {
+        getOwnedRoomOrThrow(roomId, principal);
+        return closureRuleRepository.findByRoomIdOrderByIdAsc(roomId);
+    }
+
+    /** [from, to) に掛かる個別の休館と、繰り返し休館の発生をまとめて返す（開始順） */
+    public List<Closure> listBetween(Integer roomId, LocalDateTime from, LocalDateTime to, UserDetailsImpl principal) {
+        getOwnedRoomOrThrow(roomId, principal);
+        var all = new ArrayList<>(closureRepository.findByRoomIdAndEndAtAfterAndStartAtBefore(roomId, from, to));
+        all.addAll(closureRuleExpander.occurrences(roomId, from, to));
+        all.sort(Comparator.comparing(Closure::getStartAt));
+        return all;
+    }
+
+    @Transactional
+    public void createRule(Integer roomId, ClosureRuleForm form, UserDetailsImpl principal) {
+        getOwnedRoomOrThrow(roomId, principal);
+
+        ClosureRule r = new ClosureRule();
+        r.setRoomId(roomId);
+        r.setFrequency(form.getFrequency());
+        switch (form.getFrequency()) {
+            case ClosureRule.WEEKLY -> r.setWeekday(requireRange(form.getWeekday(), 1, 7, "曜日"));
+            case ClosureRule.MONTHLY -> {
+                r.setWeekday(requireRange(form.getWeekday(), 1, 7, "曜日"));
+                Integer n = form.getWeekOfMonth();
+                if (n == null || !(n == -1 || (n >= 1 && n <= 5))) {
+                    throw new IllegalArgumentException("第何週かを選択してください。");
+                }
+                r.setWeekOfMonth(n);
+            }
+            case ClosureRule.YEARLY -> {
+                int m = requireRange(form.getMonth(), 1, 12, "月");
+                int d = requireRange(form.getDayOfMonth(), 1, 31, "日");
+                // 2/29 は閏年のみ、4/31 などは存在しない
+                if (d > Month.of(m).maxLength()) {
+                    throw new IllegalArgumentException("存在しない日付です。");
+                }
+                r.setMonth(m);
+                r.setDayOfMonth(d);
+            }
+            default -> throw new IllegalArgumentException("不正な繰り返しの種類です。");
+        }
+        if (form.getStartTime() != null && form.getStartTime().equals(form.getEndTime())) {
+            throw new IllegalArgumentException("開始時刻と終了時刻が同じです。");
+        }
+        r.setStartTime(form.getStartTime());
+        r.setEndTime(form.getEndTime());
+        r.setValidFrom(form.getValidFrom());
+        r.setValidUntil(form.getValidUntil());
+        r.setReason(form.getReason());
+        closureRuleRepository.save(r);
+        availability.invalidateAfterCommit(roomId);
+    }
+
+    @Transactional
+    public void deleteRule(Integer roomId, Integer ruleId, UserDetailsImpl principal) {
+        getOwnedRoomOrThrow(roomId, principal);
+        ClosureRule r = closureRuleRepository.findById(ruleId)
+                .orElseThrow(() -> new IllegalArgumentException("Closure rule not found"));
+        if (!r.getRoomId().equals(roomId)) {
+            throw new SecurityException("Room mismatch");
+        }
+        closureRuleRepository.delete(r);
+        availability.invalidateAfterCommit(roomId);
     }
-}
 
+    private static int requireRange(Integer v, int min, int max, String label) {
+        if (v == null || v < min || v > max) {
+            throw new IllegalArgumentException(label + "を選択してください。");
+        }
+        return v;
+    }
+}
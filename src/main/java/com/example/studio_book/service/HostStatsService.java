@@ -8,6 +8,7 @@ import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -16,6 +17,7 @@ import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 
 import com.example.studio_book.dto.MonthlySeriesResponse;
+import com.example.studio_book.entity.Closure;
 import com.example.studio_book.entity.Reservation;
 import com.example.studio_book.entity.Room;
 import com.example.studio_book.entity.RoomBusinessHour;
@@ -34,9 +36,11 @@ public class HostStatsService {
     private final RoomRepository roomRepository;
     private final RoomBusinessHourRepository businessHourRepository;
     private final ClosureRepository closureRepository;
+    private final ClosureRuleExpander closureRules;
     private final ReservationRepository reservationRepository;
     
     private final ReservationStatsRepository statsRepo;
+    private final AppMetrics metrics;
 
     /** 直近3か月（当月含む）のラベルとfrom/toを返す */
     private static record Window(List<String> labels, LocalDateTime from, LocalDateTime to) {}
@@ -57,6 +61,7 @@ public class HostStatsService {
     }
 
     public MonthlySeriesResponse getSeries(Integer hostId, Integer roomIdOrNull) {
+        long t0 = System.nanoTime();
         Window w = last3MonthsWindow();
         Map<String, BigDecimal> bookedMap = new HashMap<>();
         Map<String, BigDecimal> paidMap   = new HashMap<>();
@@ -86,13 +91,15 @@ public class HostStatsService {
             paid.add(paidMap.getOrDefault(ym, BigDecimal.ZERO));
         }
 
+        metrics.recordStats("series", roomIdOrNull != null ? 1 : -1, System.nanoTime() - t0);
         return new MonthlySeriesResponse(w.labels, booked, paid);
     }
     
 
-    /** 直近3か月の labels(YYYY-MM) と同順で稼働率[%]を返す */
+    /** 直近3か月の labels(YYYY-MM) と同順で稼働率[%]を返す（対象ルーム合算の 予約分/営業分） */
     public List<Double> computeUtilizationPercents(Integer hostId, Integer roomIdOrNull, List<String> ymLabels) {
         if (ymLabels == null || ymLabels.isEmpty()) return List.of();
+        long t0 = System.nanoTime();
 
      // 対象ルームID
         List<Integer> roomIds = (roomIdOrNull != null)
@@ -105,6 +112,55 @@ public class HostStatsService {
             return ymLabels.stream().map(l -> 0.0).toList();
         }
 
+        Map<Integer, RoomMinutes> byRoom = utilizationMinutes(roomIds, ymLabels);
+
+        List<Double> result = new ArrayList<>();
+        for (int i = 0; i < ymLabels.size(); i++) {
+            long openMinutesAll = 0L;
+            long paidMinutesAll = 0L;
+            for (RoomMinutes m : byRoom.values()) {
+                openMinutesAll += m.open()[i];
+                paidMinutesAll += m.paid()[i];
+            }
+            double rate = (openMinutesAll <= 0) ? 0.0 : (paidMinutesAll * 100.0 / openMinutesAll);
+            result.add(rate);
+        }
+
+        metrics.recordStats("utilization", roomIds.size(), System.nanoTime() - t0);
+        return result;
+    }
+
+    /**
+     * 管理者用：各ルームの稼働率[%]を月ごとに単純平均（営業時間のないルームは 0% として数える）
+     * ★ 全ルーム分をまとめて読む（ルームごとに computeUtilizationPercents を呼ぶと部屋数 × 4 本の SQL になる）
+     */
+    public List<Double> computeAverageUtilizationPercents(List<Integer> roomIds, List<String> ymLabels) {
+        if (ymLabels == null || ymLabels.isEmpty()) return List.of();
+        if (roomIds.isEmpty()) {
+            return ymLabels.stream().map(l -> 0.0).toList();
+        }
+        long t0 = System.nanoTime();
+
+        Map<Integer, RoomMinutes> byRoom = utilizationMinutes(roomIds, ymLabels);
+
+        List<Double> result = new ArrayList<>(ymLabels.size());
+        for (int i = 0; i < ymLabels.size(); i++) {
+            double sum = 0.0;
+            for (RoomMinutes m : byRoom.values()) {
+                sum += (m.open()[i] <= 0) ? 0.0 : (m.paid()[i] * 100.0 / m.open()[i]);
+            }
+            result.add(sum / byRoom.size());
+        }
+
+        metrics.recordStats("utilization", roomIds.size(), System.nanoTime() - t0);
+        return result;
+    }
+
+    /** ルームごと・月ごと（labels と同順）の営業分と予約（paid）分 */
+    private record RoomMinutes(long[] open, long[] paid) {}
+
+    /** 予約・休館・営業時間を対象ルーム分まとめて 1 回ずつ読み、ルームごとに集計する */
+    private Map<Integer, RoomMinutes> utilizationMinutes(List<Integer> roomIds, List<String> ymLabels) {
         // YearMonth に変換（labels は "YYYY-MM" 前提）
         List<YearMonth> months = ymLabels.stream().map(YearMonth::parse).toList();
 
@@ -113,31 +169,35 @@ public class HostStatsService {
         LocalDateTime rangeEnd   = months.get(months.size() - 1).plusMonths(1).atDay(1).atStartOfDay();
 
         // 必要データまとめてフェッチ
-        var reservations = reservationRepository
+        Map<Integer, List<Reservation>> resByRoom = reservationRepository
                 .findByRoomIdInAndStatusAndStartAtLessThanAndEndAtGreaterThan(
-                        roomIds, "paid", rangeEnd, rangeStart);
+                        roomIds, "paid", rangeEnd, rangeStart)
+                .stream()
+                .collect(Collectors.groupingBy(r -> r.getRoom().getId()));
 
-        var closures = closureRepository
+        var closures = new ArrayList<>(closureRepository
                 .findByRoomIdInAndStartAtLessThanAndEndAtGreaterThan(
-                        roomIds, rangeEnd, rangeStart);
+                        roomIds, rangeEnd, rangeStart));
+        closures.addAll(closureRules.occurrences(roomIds, rangeStart, rangeEnd));
+        Map<Integer, List<Closure>> closuresByRoom = closures.stream()
+                .collect(Collectors.groupingBy(Closure::getRoomId));
 
         Map<Integer, List<RoomBusinessHour>> bhByRoom =
                 businessHourRepository.findByRoomIdIn(roomIds).stream()
                         .collect(Collectors.groupingBy(bh -> bh.getRoom().getId()));
 
-        List<Double> result = new ArrayList<>();
-        for (YearMonth ym : months) {
-            LocalDate first = ym.atDay(1);
-            LocalDate last  = ym.atEndOfMonth();
+        Map<Integer, RoomMinutes> out = new LinkedHashMap<>();
+        for (Integer roomId : roomIds) {
+            RoomMinutes minutes = new RoomMinutes(new long[months.size()], new long[months.size()]);
+            out.put(roomId, minutes);
 
-            long openMinutesAll = 0L;
-            long paidMinutesAll = 0L;
+            for (int i = 0; i < months.size(); i++) {
+                YearMonth ym = months.get(i);
+                LocalDate first = ym.atDay(1);
+                LocalDate last  = ym.atEndOfMonth();
 
-            for (Integer roomId : roomIds) {
                 var bhs = bhByRoom.getOrDefault(roomId, List.of());
-                var roomClosures = closures.stream()
-                        .filter(c -> c.getRoomId().equals(roomId))
-                        .toList();
+                var roomClosures = closuresByRoom.getOrDefault(roomId, List.of());
 
                 // 日毎のオープン区間（closures を差し引いたもの）
                 Map<LocalDate, List<Interval>> openMap = new HashMap<>();
@@ -172,12 +232,9 @@ public class HostStatsService {
                         .flatMap(List::stream)
                         .mapToLong(Interval::minutes)
                         .sum();
-                openMinutesAll += openMinutes;
 
                 // 予約（paid）の「営業時間との重なり分」を積算
-                var paidRes = reservations.stream()
-                        .filter(r -> r.getRoom().getId().equals(roomId))
-                        .toList();
+                var paidRes = resByRoom.getOrDefault(roomId, List.of());
 
                 long paidMinutes = 0L;
                 for (Reservation r : paidRes) {
@@ -197,14 +254,11 @@ public class HostStatsService {
                         }
                     }
                 }
-                paidMinutesAll += paidMinutes;
+                minutes.open()[i] = openMinutes;
+                minutes.paid()[i] = paidMinutes;
             }
-
-            double rate = (openMinutesAll <= 0) ? 0.0 : (paidMinutesAll * 100.0 / openMinutesAll);
-            result.add(rate);
         }
-
-        return result;
+        return out;
     }
 
     // ========= ヘルパ =========
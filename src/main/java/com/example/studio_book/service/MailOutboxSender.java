@@ -0,0 +1,184 @@
+// src/main/java/com/example/studio_book/service/MailOutboxSender.java
+package com.example.studio_book.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.studio_book.entity.MailOutbox;
+import com.example.studio_book.repository.MailOutboxRepository;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * mail_outbox の送信ジョブ
+ *
+ * - 期限の来た行を batch-size 件ずつ取り出し、1 回の SMTP 接続でまとめて送る
+ * - 取り出し時に attempts を進め、next_attempt_at をリース期限まで先送りしてから commit
+ *   （送信中に落ちてもリース切れで再送される。少なくとも 1 回の配送）
+ * - 失敗は指数バックオフ（±20% のゆらぎ付き）で再試行し、上限回数で failed にする
+ */
+@Slf4j
+@Component
+public class MailOutboxSender {
+
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final MailOutboxRepository repository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final long leaseMillis;
+    private final int maxAttempts;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+
+    @Value("${mail.outbox.retention-days:14}")
+    private long retentionDays = 14;
+
+    public MailOutboxSender(MailOutboxRepository repository,
+                            JavaMailSender mailSender,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${mail.outbox.batch-size:20}") int batchSize,
+                            @Value("${mail.outbox.lease-ms:300000}") long leaseMillis,
+                            @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+                            @Value("${mail.outbox.backoff-base-ms:30000}") long backoffBaseMillis,
+                            @Value("${mail.outbox.backoff-max-ms:3600000}") long backoffMaxMillis) {
+        this.repository = repository;
+        this.mailSender = mailSender;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.leaseMillis = leaseMillis;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:5000}")
+    public void drain() {
+        for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+            if (sendBatch() < batchSize) return;
+        }
+    }
+
+    /** 1 バッチ送信して、取り出した件数を返す */
+    int sendBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<MailOutbox> batch = tx.execute(s -> claim(now));
+        if (batch == null || batch.isEmpty()) return 0;
+
+        Map<MimeMessage, MailOutbox> byMessage = new IdentityHashMap<>();
+        Map<MailOutbox, Exception> failures = new IdentityHashMap<>();
+        for (MailOutbox m : batch) {
+            try {
+                byMessage.put(toMimeMessage(m), m);
+            } catch (MessagingException e) {
+                failures.put(m, e);
+            }
+        }
+
+        if (!byMessage.isEmpty()) {
+            try {
+                // 同じ接続で順に送る（JavaMailSenderImpl は配列単位で Transport を使い回す）
+                mailSender.send(byMessage.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    byMessage.values().forEach(m -> failures.put(m, e));
+                } else {
+                    e.getFailedMessages().forEach((msg, ex) -> {
+                        MailOutbox m = byMessage.get(msg);
+                        if (m != null) failures.put(m, ex);
+                    });
+                }
+            } catch (MailException e) {
+                // 認証失敗など、接続単位の失敗
+                byMessage.values().forEach(m -> failures.put(m, e));
+            }
+        }
+
+        LocalDateTime done = LocalDateTime.now();
+        List<MailOutbox> updated = new ArrayList<>(batch.size());
+        for (MailOutbox m : batch) {
+            Exception ex = failures.get(m);
+            if (ex == null) {
+                m.setStatus(MailOutbox.STATUS_SENT);
+                m.setSentAt(done);
+                m.setLastError(null);
+            } else {
+                scheduleRetry(m, ex, done);
+            }
+            updated.add(m);
+        }
+        tx.executeWithoutResult(s -> repository.saveAll(updated));
+
+        if (!failures.isEmpty()) {
+            log.warn("mail outbox: sent={} failed={}", batch.size() - failures.size(), failures.size());
+        }
+        return batch.size();
+    }
+
+    private List<MailOutbox> claim(LocalDateTime now) {
+        List<MailOutbox> due = repository.lockDue(now, batchSize);
+        LocalDateTime leaseUntil = now.plusNanos(leaseMillis * 1_000_000);
+        for (MailOutbox m : due) {
+            m.setAttempts(m.getAttempts() + 1);
+            m.setNextAttemptAt(leaseUntil);
+        }
+        return repository.saveAll(due);
+    }
+
+    private void scheduleRetry(MailOutbox m, Exception ex, LocalDateTime now) {
+        m.setLastError(abbreviate(ex.getClass().getSimpleName() + ": " + ex.getMessage()));
+        if (m.getAttempts() >= maxAttempts) {
+            m.setStatus(MailOutbox.STATUS_FAILED);
+            log.error("mail outbox: give up id={} attempts={}", m.getId(), m.getAttempts(), ex);
+            return;
+        }
+        m.setNextAttemptAt(now.plusNanos(backoffMillis(m.getAttempts()) * 1_000_000));
+    }
+
+    /** attempts 回目の失敗後の待ち時間 */
+    long backoffMillis(int attempts) {
+        long exp = backoffBaseMillis << Math.min(attempts - 1, 20);
+        long capped = Math.min(Math.max(exp, backoffBaseMillis), backoffMaxMillis);
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return (long) (capped * jitter);
+    }
+
+    private MimeMessage toMimeMessage(MailOutbox m) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        if (m.getFromAddress() != null) helper.setFrom(m.getFromAddress());
+        helper.setTo(m.getToAddress());
+        helper.setSubject(m.getSubject());
+        helper.setText(m.getBody(), m.isHtml());
+        return message;
+    }
+
+    /** 送信済みの行を保持期間後に削除 */
+    @Scheduled(cron = "${mail.outbox.purge-cron:0 45 3 * * *}")
+    public void purgeSent() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        Integer n = tx.execute(s -> repository.deleteSentBefore(before));
+        if (n != null && n > 0) log.info("mail outbox: purged {} sent rows", n);
+    }
+
+    private static String abbreviate(String s) {
+        return s == null || s.length() <= 500 ? s : s.substring(0, 500);
+    }
+}
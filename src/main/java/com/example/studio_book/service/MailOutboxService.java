@@ -0,0 +1,40 @@
+// src/main/java/com/example/studio_book/service/MailOutboxService.java
+package com.example.studio_book.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.studio_book.entity.MailOutbox;
+import com.example.studio_book.repository.MailOutboxRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * メールを送信待ちに積む（実際の送信は MailOutboxSender）
+ * 呼び出し元のトランザクションに参加必須：業務データが commit されたときだけメールも残る。
+ */
+@Service
+@RequiredArgsConstructor
+public class MailOutboxService {
+
+    private final MailOutboxRepository repository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public MailOutbox enqueue(String from, String to, String subject, String body, boolean html) {
+        LocalDateTime now = LocalDateTime.now();
+        MailOutbox m = new MailOutbox();
+        m.setFromAddress(from);
+        m.setToAddress(to);
+        m.setSubject(subject);
+        m.setBody(body);
+        m.setHtml(html);
+        m.setStatus(MailOutbox.STATUS_PENDING);
+        m.setAttempts(0);
+        m.setNextAttemptAt(now);
+        m.setCreatedAt(now);
+        return repository.save(m);
+    }
+}
@@ -4,14 +4,14 @@ package com.example.studio_book.service;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.studio_book.entity.PasswordResetToken;
 import com.example.studio_book.repository.PasswordResetTokenRepository;
 
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -19,9 +19,16 @@ import lombok.RequiredArgsConstructor;
 public class PasswordResetService {
 
     private final PasswordResetTokenRepository tokenRepository;
-    private final JavaMailSender mailSender;
+    private final MailOutboxService mailOutboxService;
 
+    /**
+     * トークン発行とメールの登録を同じトランザクションで行う（送信は MailOutboxSender）
+     * @throws MessagingException 宛先として不正なアドレス
+     */
+    @Transactional
     public void sendResetMail(String email) throws MessagingException {
+        new InternetAddress(email, true);   // 宛先の形式チェック（送信時ではなくここで弾く）
+
         // 古いトークン削除
         tokenRepository.deleteByEmail(email);
 
@@ -33,20 +40,14 @@ public class PasswordResetService {
         resetToken.setExpiresAt(LocalDateTime.now().plusHours(1));
         tokenRepository.save(resetToken);
 
-        // メール送信
+        // メール（送信待ちに登録）
         String resetLink = "http://localhost:8080/password/reset?token=" + token;
 
-        var message = mailSender.createMimeMessage();
-        var helper = new MimeMessageHelper(message, true, "UTF-8");
-        helper.setTo(email);
-        helper.setSubject("【スタジオ予約管理】パスワード再設定のご案内");
-        helper.setText(
+        mailOutboxService.enqueue(null, email,
+            "【スタジオ予約管理】パスワード再設定のご案内",
             "<p>以下のリンクからパスワード再設定を行ってください（有効期限1時間）:</p>"
           + "<p><a href='" + resetLink + "'>パスワードを再設定する</a></p>",
-          true
-        );
-
-        mailSender.send(message);
+            true);
     }
 }
 
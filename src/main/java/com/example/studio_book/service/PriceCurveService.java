@@ -0,0 +1,188 @@
+// src/main/java/com/example/studio_book/service/PriceCurveService.java
+package com.example.studio_book.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.studio_book.entity.PriceRule;
+import com.example.studio_book.entity.Room;
+import com.example.studio_book.repository.PriceRuleRepository;
+import com.example.studio_book.repository.RoomRepository;
+import com.example.studio_book.service.dto.AdminSettingsSnapshot;
+
+/**
+ * カレンダーの料金表示用：日ごと・枠ごとの実効時間単価（税抜）
+ *
+ * - 料金ルールを曜日 × 枠の単価表に 1 回でまとめ（コンパイル）、期間の各日はその曜日の行を引くだけ
+ * - 単価 = 基本単価 × (1 + 枠に掛かる倍率の合計 × 重なり分/枠の長さ)。固定費は日ごとに別で返す
+ * - コンパイル結果は (部屋, 枠の長さ, 版) で持つ。版は部屋単価・管理設定の版・ルールの内容の SHA-256 なので
+ *   ルールが変われば別キーになり、古い結果は上限超えで消える
+ * 請求単位の切り上げは含まない（実際の請求額は確認画面の見積もり）。
+ */
+@Service
+public class PriceCurveService {
+
+    public static final int MAX_DAYS = 62;
+
+    /** 1 日分（prices[i] は i 番目の枠の時間単価） */
+    public record DayCurve(LocalDate date, long flatFee, List<Long> prices) {}
+
+    public record PriceCurve(Integer roomId, int slotMinutes, long basePrice, BigDecimal taxRate,
+                             String version, List<DayCurve> days) {}
+
+    private record Key(Integer roomId, int slotMinutes, String version) {}
+
+    /** [曜日 1..7][枠] の時間単価と [曜日 1..7] の固定費 */
+    private record Compiled(List<List<Long>> pricesByDow, long[] flatFeeByDow) {}
+
+    private final RoomRepository roomRepository;
+    private final PriceRuleRepository priceRuleRepository;
+    private final AdminSettingsService adminSettingsService;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<Key, Compiled> cache = new ConcurrentHashMap<>();
+
+    public PriceCurveService(RoomRepository roomRepository,
+                             PriceRuleRepository priceRuleRepository,
+                             AdminSettingsService adminSettingsService,
+                             @Value("${pricing.curve-cache.max-entries:2000}") int maxEntries) {
+        this.roomRepository = roomRepository;
+        this.priceRuleRepository = priceRuleRepository;
+        this.adminSettingsService = adminSettingsService;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * [from, to]（両端含む）の各日の料金カーブ
+     * @throws IllegalArgumentException 枠が 15/30 分以外・期間が逆転または MAX_DAYS 日超の場合
+     */
+    @Transactional(readOnly = true)
+    public PriceCurve curve(Integer roomId, LocalDate from, LocalDate to, int slotMinutes) {
+        if (slotMinutes != 15 && slotMinutes != 30) {
+            throw new IllegalArgumentException("枠の長さは15分または30分で指定してください。");
+        }
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new IllegalArgumentException("期間は" + MAX_DAYS + "日以内で指定してください。");
+        }
+
+        Room room = roomRepository.findById(roomId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        AdminSettingsSnapshot settings = adminSettingsService.snapshot();
+        List<PriceRule> rules = settings.enablePriceRules() ? priceRuleRepository.findByRoomId(roomId) : List.of();
+
+        String version = version(room, settings, rules);
+        if (cache.size() > maxEntries) cache.clear();
+        Compiled c = cache.computeIfAbsent(new Key(roomId, slotMinutes, version),
+                k -> compile(room.getPrice(), rules, slotMinutes));
+
+        List<DayCurve> days = new ArrayList<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            int dow = d.getDayOfWeek().getValue();
+            days.add(new DayCurve(d, c.flatFeeByDow()[dow], c.pricesByDow().get(dow)));
+        }
+        return new PriceCurve(roomId, slotMinutes, room.getPrice(), settings.taxRate(), version, days);
+    }
+
+    /** ReservationService.price と同じ解釈（曜日 null は毎日、終了 00:00/null は 24:00、終了≦開始の窓は無効） */
+    private static Compiled compile(int basePrice, List<PriceRule> rules, int slotMinutes) {
+        int slots = 24 * 60 / slotMinutes;
+        BigDecimal base = BigDecimal.valueOf(basePrice);
+        List<List<Long>> pricesByDow = new ArrayList<>(8);
+        long[] flatByDow = new long[8];
+        pricesByDow.add(List.of()); // 0 は使わない
+
+        for (int dow = 1; dow <= 7; dow++) {
+            // 枠ごとの Σ(倍率 × 重なり分)
+            BigDecimal[] weighted = new BigDecimal[slots];
+            Arrays.fill(weighted, BigDecimal.ZERO);
+
+            for (PriceRule r : rules) {
+                if (r.getWeekday() != null && r.getWeekday() != dow) continue;
+
+                if ("flat_fee".equals(r.getRuleType()) && r.getFlatFee() != null) {
+                    flatByDow[dow] += r.getFlatFee();
+                    continue;
+                }
+                if (!"multiplier".equals(r.getRuleType()) || r.getMultiplier() == null) continue;
+
+                int ws = minuteOfDay(r.getStartHour() != null ? r.getStartHour() : LocalTime.MIN);
+                LocalTime endHour = r.getEndHour() != null ? r.getEndHour() : LocalTime.MIDNIGHT;
+                int we = endHour.equals(LocalTime.MIDNIGHT) ? 24 * 60 : minuteOfDay(endHour);
+                if (we <= ws) continue;
+
+                for (int i = ws / slotMinutes; i < slots && i * slotMinutes < we; i++) {
+                    int ov = Math.min(we, (i + 1) * slotMinutes) - Math.max(ws, i * slotMinutes);
+                    if (ov > 0) {
+                        weighted[i] = weighted[i].add(r.getMultiplier().multiply(BigDecimal.valueOf(ov)));
+                    }
+                }
+            }
+
+            List<Long> prices = new ArrayList<>(slots);
+            for (int i = 0; i < slots; i++) {
+                BigDecimal extra = base.multiply(weighted[i])
+                        .divide(BigDecimal.valueOf(slotMinutes), 10, RoundingMode.HALF_UP);
+                prices.add(base.add(extra).setScale(0, RoundingMode.HALF_UP).longValue());
+            }
+            pricesByDow.add(List.copyOf(prices));
+        }
+        return new Compiled(List.copyOf(pricesByDow), flatByDow);
+    }
+
+    /**
+     * 部屋単価・管理設定の版・ルールの内容の SHA-256（16 進）。内容が同じなら同じ値
+     * ★ キャッシュのキーと ETag に使うので 32bit ハッシュにはしない（衝突すると別の料金を返してしまう）
+     */
+    static String version(Room room, AdminSettingsSnapshot settings, List<PriceRule> rules) {
+        StringBuilder content = new StringBuilder();
+        field(content, room.getPrice());
+        field(content, settings.version());
+        field(content, settings.enablePriceRules());
+        rules.stream()
+                .sorted(Comparator.comparing(PriceRule::getId, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .forEach(r -> {
+                    field(content, r.getId());
+                    field(content, r.getRuleType());
+                    field(content, r.getWeekday());
+                    field(content, r.getStartHour());
+                    field(content, r.getEndHour());
+                    field(content, r.getMultiplier() == null ? "" : r.getMultiplier().stripTrailingZeros().toPlainString());
+                    field(content, r.getFlatFee());
+                });
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** 区切り文字を含む値でも別の内容と同じ並びにならないよう、長さを前に付ける */
+    private static void field(StringBuilder sb, Object value) {
+        String v = Objects.toString(value);
+        sb.append(v.length()).append(':').append(v).append(';');
+    }
+
+    private static int minuteOfDay(LocalTime t) {
+        return t.getHour() * 60 + t.getMinute();
+    }
+}
@@ -0,0 +1,132 @@
+// src/main/java/com/example/studio_book/service/PriceRuleService.java
+package com.example.studio_book.service;
+
+import java.math.BigDecimal;
+import java.sql.Time;
+import java.sql.Types;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.studio_book.entity.PriceRule;
+import com.example.studio_book.entity.Room;
+import com.example.studio_book.repository.PriceRuleRepository;
+import com.example.studio_book.repository.RoomRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 料金ルールを別スタジオへまとめて写す。
+ * 元・先のルールを 1 回で読み、内容で突き合わせて
+ * 余分な行は 1 回の DELETE、足りない行は 1 回のバッチ INSERT で揃える（同じ内容の行は触らない）。
+ */
+@Service
+@RequiredArgsConstructor
+public class PriceRuleService {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO price_rules (room_id, rule_type, weekday, start_hour, end_hour, multiplier, flat_fee, note)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final PriceRuleRepository priceRuleRepository;
+    private final RoomRepository roomRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /** ルールの中身（ID・部屋を除く）。multiplier は 1.5 と 1.50 を同じに扱う */
+    private record Content(String ruleType, Integer weekday, LocalTime startHour, LocalTime endHour,
+                           BigDecimal multiplier, Integer flatFee, String note) {
+        static Content of(PriceRule r) {
+            return new Content(r.getRuleType(), r.getWeekday(), r.getStartHour(), r.getEndHour(),
+                    r.getMultiplier() == null ? null : r.getMultiplier().stripTrailingZeros(),
+                    r.getFlatFee(), r.getNote());
+        }
+    }
+
+    /**
+     * sourceRoomId のルール一式で targetRoomIds のルールを置き換える（いずれもホスト本人のスタジオに限る）
+     * @return 追加・削除した行数
+     */
+    @Transactional
+    public int copyRules(Integer hostId, Integer sourceRoomId, Collection<Integer> targetRoomIds) {
+        var targets = new LinkedHashSet<>(targetRoomIds);
+        targets.remove(sourceRoomId);
+        if (targets.isEmpty()) return 0;
+
+        var ids = new LinkedHashSet<Integer>();
+        ids.add(sourceRoomId);
+        ids.addAll(targets);
+        List<Room> rooms = roomRepository.findAllById(ids);
+        if (rooms.size() != ids.size()) throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        for (Room r : rooms) {
+            if (!r.getUser().getId().equals(hostId)) throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+        }
+
+        Map<Integer, List<PriceRule>> byRoom = new HashMap<>();
+        for (PriceRule r : priceRuleRepository.findByRoomIdIn(List.copyOf(ids))) {
+            byRoom.computeIfAbsent(r.getRoomId(), k -> new ArrayList<>()).add(r);
+        }
+        List<PriceRule> template = byRoom.getOrDefault(sourceRoomId, List.of());
+
+        List<Integer> toDelete = new ArrayList<>();
+        List<PriceRule> toInsert = new ArrayList<>();
+        for (Integer roomId : targets) {
+            // 同じ内容のルールが複数あっても数で突き合わせる
+            Map<Content, List<PriceRule>> existing = new HashMap<>();
+            for (PriceRule r : byRoom.getOrDefault(roomId, List.of())) {
+                existing.computeIfAbsent(Content.of(r), k -> new ArrayList<>()).add(r);
+            }
+            for (PriceRule t : template) {
+                var same = existing.get(Content.of(t));
+                if (same != null && !same.isEmpty()) {
+                    same.remove(same.size() - 1);
+                    continue;
+                }
+                var copy = new PriceRule();
+                copy.setRoomId(roomId);
+                copy.setRuleType(t.getRuleType());
+                copy.setWeekday(t.getWeekday());
+                copy.setStartHour(t.getStartHour());
+                copy.setEndHour(t.getEndHour());
+                copy.setMultiplier(t.getMultiplier());
+                copy.setFlatFee(t.getFlatFee());
+                copy.setNote(t.getNote());
+                toInsert.add(copy);
+            }
+            existing.values().forEach(rest -> rest.forEach(r -> toDelete.add(r.getId())));
+        }
+
+        if (!toDelete.isEmpty()) {
+            priceRuleRepository.deleteAllByIdInBatch(toDelete);
+        }
+        if (!toInsert.isEmpty()) {
+            insertBatch(toInsert);
+        }
+        return toDelete.size() + toInsert.size();
+    }
+
+    private void insertBatch(List<PriceRule> rules) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, rules, rules.size(), (ps, r) -> {
+            ps.setInt(1, r.getRoomId());
+            ps.setString(2, r.getRuleType());
+            if (r.getWeekday() != null) ps.setInt(3, r.getWeekday());
+            else ps.setNull(3, Types.INTEGER);
+            ps.setTime(4, r.getStartHour() == null ? null : Time.valueOf(r.getStartHour()));
+            ps.setTime(5, r.getEndHour() == null ? null : Time.valueOf(r.getEndHour()));
+            ps.setBigDecimal(6, r.getMultiplier());
+            if (r.getFlatFee() != null) ps.setInt(7, r.getFlatFee());
+            else ps.setNull(7, Types.INTEGER);
+            ps.setString(8, r.getNote());
+        });
+    }
+}
@@ -0,0 +1,62 @@
+// src/main/java/com/example/studio_book/service/ReservationSearchIndexer.java
+package com.example.studio_book.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * reservation_search（予約ごとの名前まとめ）の保守。
+ * 呼び出し元のトランザクション内で実行するので、予約・名前の変更と同時にコミット／ロールバックされる。
+ * JPA の変更は flush 済みであること（予約は IDENTITY なので save 時点で INSERT 済み）。
+ * 導入前の予約は V3 マイグレーションで埋めている。
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationSearchIndexer {
+
+    private static final String SELECT_ROW = """
+            SELECT r.id, r.room_id, r.user_id, rm.user_id,
+                   CONCAT_WS(' ', rm.name, gu.name, host.name)
+              FROM reservations r
+              JOIN rooms rm  ON rm.id = r.room_id
+              JOIN users gu  ON gu.id = r.user_id
+              JOIN users host ON host.id = rm.user_id
+            """;
+
+    private static final String REFRESH = """
+            UPDATE reservation_search s
+              JOIN reservations r ON r.id = s.reservation_id
+              JOIN rooms rm  ON rm.id = r.room_id
+              JOIN users gu  ON gu.id = r.user_id
+              JOIN users host ON host.id = rm.user_id
+               SET s.host_id = rm.user_id,
+                   s.names = CONCAT_WS(' ', rm.name, gu.name, host.name)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** 予約の登録直後 */
+    public void indexReservation(Integer reservationId) {
+        jdbcTemplate.update("INSERT INTO reservation_search (reservation_id, room_id, guest_id, host_id, names) "
+                + SELECT_ROW + " WHERE r.id = ?"
+                + " ON DUPLICATE KEY UPDATE host_id = VALUES(host_id), names = VALUES(names)", reservationId);
+    }
+
+    /** スタジオ名・ホストの変更後 */
+    public void refreshRoom(Integer roomId) {
+        jdbcTemplate.update(REFRESH + " WHERE s.room_id = ?", roomId);
+    }
+
+    /** ユーザー名の変更後（予約者・ホストどちらの立場の行も直す） */
+    public void refreshUser(Integer userId) {
+        jdbcTemplate.update(REFRESH + " WHERE s.guest_id = ?", userId);
+        jdbcTemplate.update(REFRESH + " WHERE s.host_id = ?", userId);
+    }
+
+    /** スタジオ削除時（予約はカスケードで消える） */
+    public void removeRoom(Integer roomId) {
+        jdbcTemplate.update("DELETE FROM reservation_search WHERE room_id = ?", roomId);
+    }
+}
@@ -7,28 +7,40 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.example.studio_book.dto.ReservationConfirmDto;
-import com.example.studio_book.entity.AdminSettings;
 import com.example.studio_book.entity.AuditLog;
+import com.example.studio_book.entity.PriceRule;
 import com.example.studio_book.entity.Reservation;
 import com.example.studio_book.entity.ReservationChargeItem;
+import com.example.studio_book.entity.ReservationQuote;
+import com.example.studio_book.entity.ReservationQuoteItem;
 import com.example.studio_book.entity.Room;
 import com.example.studio_book.entity.User;
-import com.example.studio_book.repository.AdminSettingsRepository;
-import com.example.studio_book.repository.AuditLogRepository;
 import com.example.studio_book.repository.PriceRuleRepository;
 import com.example.studio_book.repository.ReservationChargeItemRepository;
+import com.example.studio_book.repository.ReservationQuoteItemRepository;
+import com.example.studio_book.repository.ReservationQuoteRepository;
 import com.example.studio_book.repository.ReservationRepository;
 import com.example.studio_book.repository.RoomRepository;
 import com.example.studio_book.repository.UserRepository;
+import com.example.studio_book.service.dto.AdminSettingsSnapshot;
+import com.example.studio_book.viewmodel.ConfirmLineItem;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -39,28 +51,58 @@ public class ReservationService {
     private final UserRepository userRepository;
     private final PriceRuleRepository priceRuleRepository;
     
-    private final AdminSettingsRepository adminSettingsRepository;           // ★追加
+    private final AdminSettingsService adminSettingsService;                 // ★追加
     private final ReservationChargeItemRepository chargeItemRepository;     // ★追加
-    private final AuditLogRepository auditLogRepository;                    // ★追加
+    private final AuditLogWriter auditLogWriter;                            // ★追加
+    private final SlotHoldService slotHoldService;
+    private final RoomLockService roomLockService;
+    private final CheckoutStatusRegistry checkoutStatusRegistry;
+    private final ReservationQuoteRepository quoteRepository;
+    private final ReservationQuoteItemRepository quoteItemRepository;
+    private final AppMetrics metrics;
+    private final ReservationSearchIndexer searchIndexer;
+    private final AvailabilityBitmaps availability;
+
+    @Value("${reservation.quote-retention-days:7}")
+    private long quoteRetentionDays = 7;
 
 
     public ReservationService(ReservationRepository reservationRepository,
                               RoomRepository roomRepository,
                               UserRepository userRepository,
                               PriceRuleRepository priceRuleRepository,
-                              AdminSettingsRepository adminSettingsRepository,
+                              AdminSettingsService adminSettingsService,
                               ReservationChargeItemRepository chargeItemRepository,
-                              AuditLogRepository auditLogRepository) {
+                              AuditLogWriter auditLogWriter,
+                              SlotHoldService slotHoldService,
+                              RoomLockService roomLockService,
+                              CheckoutStatusRegistry checkoutStatusRegistry,
+                              ReservationQuoteRepository quoteRepository,
+                              ReservationQuoteItemRepository quoteItemRepository,
+                              AppMetrics metrics,
+                              ReservationSearchIndexer searchIndexer,
+                              AvailabilityBitmaps availability) {
         this.reservationRepository = reservationRepository;
         this.roomRepository = roomRepository;
         this.userRepository = userRepository;
         this.priceRuleRepository = priceRuleRepository;
-        this.adminSettingsRepository = adminSettingsRepository;     // ★
+        this.adminSettingsService = adminSettingsService;           // ★
         this.chargeItemRepository = chargeItemRepository;           // ★
-        this.auditLogRepository = auditLogRepository;               // ★
+        this.auditLogWriter = auditLogWriter;                       // ★
+        this.slotHoldService = slotHoldService;
+        this.roomLockService = roomLockService;
+        this.checkoutStatusRegistry = checkoutStatusRegistry;
+        this.quoteRepository = quoteRepository;
+        this.quoteItemRepository = quoteItemRepository;
+        this.metrics = metrics;
+        this.searchIndexer = searchIndexer;
+        this.availability = availability;
     }
 
     private static final DateTimeFormatter MD_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+
+    /** Webhook からの予約登録の結果（CONFLICT は呼び出し側で返金する） */
+    public enum StripeBookingResult { CREATED, DUPLICATE, CONFLICT }
     /**
      * Webhook (checkout.session.completed) から予約を作成
      * @param md PaymentIntent.metadata
@@ -74,6 +116,51 @@ public class ReservationService {
     public boolean existsByPaymentIntentId(String paymentIntentId) {
         return reservationRepository.existsByPaymentIntentId(paymentIntentId);
     }
+
+    /** Checkout セッションの予約が確定済みか（メモリの直近記録 → DB の順。Stripe は呼ばない） */
+    @Transactional(readOnly = true)
+    public boolean isCheckoutCompleted(String checkoutSessionId, Integer userId) {
+        if (checkoutSessionId == null || checkoutSessionId.isBlank()) return false;
+        return checkoutStatusRegistry.isCompleted(checkoutSessionId, userId)
+            || reservationRepository.existsByCheckoutSessionIdAndUser_Id(checkoutSessionId, userId);
+    }
+
+    /** Checkout セッションが競合で予約できず返金に回ったか（このノードの直近記録のみ） */
+    public boolean isCheckoutConflict(String checkoutSessionId, Integer userId) {
+        return checkoutStatusRegistry.isConflict(checkoutSessionId, userId);
+    }
+
+    /**
+     * payment_intent 系イベントで先に登録された予約に checkout_session_id を補完する
+     * @return 該当予約があれば true
+     */
+    @Transactional
+    public boolean attachCheckoutSession(String paymentIntentId, String checkoutSessionId) {
+        Optional<Reservation> found = reservationRepository.findByPaymentIntentId(paymentIntentId);
+        if (found.isEmpty()) return false;
+
+        Reservation r = found.get();
+        if (r.getCheckoutSessionId() == null) {
+            r.setCheckoutSessionId(checkoutSessionId);
+            reservationRepository.save(r);
+        }
+        Integer userId = r.getUser() != null ? r.getUser().getId() : null;
+        afterCommit(() -> checkoutStatusRegistry.markCompleted(checkoutSessionId, userId));
+        return true;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
     // 指定されたユーザーに紐づく予約を作成日時が新しい順に並べ替え、ページングされた状態で取得する
     public Page<Reservation> findReservationsByUserOrderByCreatedAtDesc(User user, Pageable pageable) {
         return reservationRepository.findByUserOrderByCreatedAtDesc(user, pageable);
@@ -85,6 +172,7 @@ public class ReservationService {
 
         Optional<Room> optionalRoom = roomRepository.findById(reservationconfirmDTO.getRoomId());
         Room room = optionalRoom.orElseThrow(() -> new EntityNotFoundException("指定されたIDのスタジオが存在しません。"));
+        roomLockService.lockForTransaction(room.getId());
 
         reservation.setRoom(room);
         reservation.setUser(user);
@@ -93,10 +181,12 @@ public class ReservationService {
         reservation.setAmount(Math.toIntExact(reservationconfirmDTO.getAmount()));
 
         reservationRepository.save(reservation);
+        searchIndexer.indexReservation(reservation.getId());
+        availability.markBookedAfterCommit(room.getId(), reservation.getStartAt(), reservation.getEndAt());
     }    
     
     @Transactional
-    public void createReservationFromStripe(Map<String, String> md,
+    public StripeBookingResult createReservationFromStripe(Map<String, String> md,
                                             String paymentIntentId,
                                             String checkoutSessionId,
                                             Long paidAmount) {
@@ -106,7 +196,8 @@ public class ReservationService {
         }
         if (existsByPaymentIntentId(paymentIntentId)) {
             // すでに登録済み（再送対策）
-            return;
+            metrics.countDuplicateWebhook();
+            return StripeBookingResult.DUPLICATE;
         }
 
         // 必須メタデータ
@@ -125,9 +216,36 @@ public class ReservationService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found: " + userId));
 
-        // ここで必要なら重複・競合チェック（同時間帯に同室があればエラー等）
-        // boolean overlap = reservationRepository.existsOverlap(roomId, startAt, endAt);
-        // if (overlap) { ... }
+        // 同室の書き込みを直列化（この後の重複チェック〜保存を commit まで他と交差させない）
+        roomLockService.lockForTransaction(roomId);
+        if (existsByPaymentIntentId(paymentIntentId)) {
+            // ロック待ちの間に同じイベントの再送が先に登録した
+            metrics.countDuplicateWebhook();
+            return StripeBookingResult.DUPLICATE;
+        }
+
+        // 重複・競合チェック（既存予約 or 他ユーザーの仮押さえ）
+        // 決済は完了しているので例外にはせず、監査ログ（返金対象の記録）を残して CONFLICT を返す。
+        // ★ 返金は呼び出し側（StripeService）がコミット後に PaymentIntent 単位の冪等キーで行う
+        if (reservationRepository.existsOverlapping(roomId, startAt, endAt)
+                || slotHoldService.isHeldByOther(roomId, userId, startAt, endAt)) {
+            auditLogWriter.write(
+                AuditLog.builder()
+                    .ts(LocalDateTime.now())
+                    .actorId(userId)
+                    .action("reservation_conflict")
+                    .entity("room")
+                    .entityId(roomId)
+                    .note("PI=" + paymentIntentId + ", " + md.get("startAt") + "~" + md.get("endAt"))
+                    .build(),
+                AuditLogWriter.Durability.SYNC
+            );
+            // 「反映中」画面で待っているリクエストへ競合を通知（コミット後）
+            if (checkoutSessionId != null) {
+                afterCommit(() -> checkoutStatusRegistry.markConflict(checkoutSessionId, userId));
+            }
+            return StripeBookingResult.CONFLICT;
+        }
 
         // 登録
         Reservation r = new Reservation();
@@ -141,13 +259,22 @@ public class ReservationService {
         r.setStatus("booked");
 
         reservationRepository.save(r);
-        
+        searchIndexer.indexReservation(r.getId());
+        availability.markBookedAfterCommit(roomId, startAt, endAt);
 
-        // ★ 料金内訳生成（admin_settings と price_rules 参照）
-        generateChargeItemsAndAudit(r, paidAmount);
+        // 予約が入ったので仮押さえは不要
+        slotHoldService.release(roomId, userId, startAt, endAt);
+
+        // 「反映中」画面で待っているリクエストへ通知（コミット後）
+        if (checkoutSessionId != null) {
+            afterCommit(() -> checkoutStatusRegistry.markCompleted(checkoutSessionId, userId));
+        }
+
+        // ★ 料金内訳生成（確認画面の見積もりから。無ければ再計算）
+        generateChargeItemsAndAudit(r, paidAmount, md.get("quoteId"));
 
         // ★ 監査ログ（予約作成）
-        auditLogRepository.save(
+        auditLogWriter.write(
             AuditLog.builder()
                 .ts(LocalDateTime.now())
                 .actorId(r.getUser().getId())
@@ -155,8 +282,10 @@ public class ReservationService {
                 .entity("reservation")
                 .entityId(r.getId())
                 .note("PI=" + paymentIntentId + ", CS=" + checkoutSessionId)
-                .build()
+                .build(),
+            AuditLogWriter.Durability.SYNC
         );
+        return StripeBookingResult.CREATED;
     }
     
     @Transactional(readOnly = true)
@@ -166,121 +295,21 @@ public class ReservationService {
         if (startAt == null || endAt == null || !startAt.isBefore(endAt)) {
             throw new IllegalArgumentException("start/end is invalid");
         }
-        System.out.println("[BUILD] START roomId=" + roomId + " userId=" + user.getId()
-                + " start=" + startAt + " end=" + endAt);
+
+        long t0 = System.nanoTime();
 
         // 1) ルーム取得
         var room = roomRepository.findById(roomId).orElse(null);
-        System.out.println("[BUILD] after roomRepository.findById -> room=" + (room != null));
         if (room == null) throw new IllegalArgumentException("Room not found: " + roomId);
 
-        // 2) ルール取得
-        var rules = priceRuleRepository.findByRoomId(roomId);
+        // 2) 料金計算（Webhook 側のフォールバックと同じ計算）
+        PricedQuote priced = price(room, startAt, endAt, adminSettingsService.snapshot());
+        metrics.recordQuote(System.nanoTime() - t0);
 
-        // 3) 料金内訳リスト
-        var items = new java.util.ArrayList<com.example.studio_book.viewmodel.ConfirmLineItem>();
-
-        // 4) 基本料金（分課金）
-        BigDecimal basePerHour = BigDecimal.valueOf(room.getPrice()); // 円/時
         long minutesAll = Duration.between(startAt, endAt).toMinutes();
         long hoursRoundedUp = (minutesAll + 59) / 60; // 画面表示用の「時間数」
-        BigDecimal baseAmount = basePerHour
-                .divide(BigDecimal.valueOf(60), 10, RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(minutesAll))
-                .setScale(0, RoundingMode.HALF_UP);
 
-        items.add(new com.example.studio_book.viewmodel.ConfirmLineItem(
-                "base",
-                "基本料金 (" + room.getPrice() + "円/時, " + minutesAll + "分)",
-                baseAmount.longValue(),
-                startAt, endAt
-        ));
-
-        // 5) 日毎の固定費・加算料金
-        BigDecimal rulesTotal = BigDecimal.ZERO;
-
-        LocalDate d = startAt.toLocalDate();
-        LocalDate last = endAt.minusNanos(1).toLocalDate();
-
-        while (!d.isAfter(last)) {
-            final LocalDate d0 = d;
-            LocalDateTime segStart = d.equals(startAt.toLocalDate()) ? startAt : d.atStartOfDay();
-            LocalDateTime segEnd   = d.equals(endAt.toLocalDate())   ? endAt   : d.plusDays(1).atStartOfDay();
-
-            int weekday1to7 = d.getDayOfWeek().getValue(); // 1=月..7=日
-
-            // 5-1) 固定費（その日分を合算）
-            BigDecimal flat = rules.stream()
-                    .filter(rp -> "flat_fee".equals(rp.getRuleType()) && rp.getFlatFee() != null)
-                    .filter(rp -> rp.getWeekday() == null || equalsWeekday(rp.getWeekday(), weekday1to7))
-                    .map(rp -> BigDecimal.valueOf(rp.getFlatFee()))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            if (flat.signum() > 0) {
-                rulesTotal = rulesTotal.add(flat);
-                items.add(new com.example.studio_book.viewmodel.ConfirmLineItem(
-                        "flat_fee",
-                        "固定費 (" + d + ")",
-                        flat.longValue(),
-                        segStart, segEnd
-                ));
-            }
-
-            // 5-2) 加算（倍率×基本単価）重複分のみ
-            for (var pr : rules) {
-                if (!"multiplier".equals(pr.getRuleType()) || pr.getMultiplier() == null) continue;
-                if (pr.getWeekday() != null && !equalsWeekday(pr.getWeekday(), weekday1to7)) continue;
-
-                LocalTime winStart = pr.getStartHour() != null ? pr.getStartHour() : LocalTime.MIN;
-                LocalTime winEnd   = pr.getEndHour()   != null ? pr.getEndHour()   : LocalTime.MIDNIGHT;
-                LocalDateTime wStart = d0.atTime(winStart);
-                LocalDateTime wEnd   = winEnd.equals(LocalTime.MIDNIGHT) ? d0.plusDays(1).atStartOfDay() : d0.atTime(winEnd);
-
-                long ovMin = overlapMinutes(segStart, segEnd, wStart, wEnd);
-                if (ovMin <= 0) continue;
-
-                BigDecimal extraPerHour = basePerHour.multiply(pr.getMultiplier());
-                BigDecimal extra = extraPerHour
-                        .divide(BigDecimal.valueOf(60), 10, RoundingMode.HALF_UP)
-                        .multiply(BigDecimal.valueOf(ovMin))
-                        .setScale(0, RoundingMode.HALF_UP);
-
-                if (extra.signum() > 0) {
-                    rulesTotal = rulesTotal.add(extra);
-                    items.add(new com.example.studio_book.viewmodel.ConfirmLineItem(
-                            "multiplier",
-                            "時間帯加算 (" + pr.getMultiplier() + "x, " + ovMin + "分, " + d + ")",
-                            extra.longValue(),
-                            // 重複区間
-                            segStart.isAfter(wStart) ? segStart : wStart,
-                            segEnd.isBefore(wEnd) ? segEnd : wEnd
-                    ));
-                }
-            }
-
-            d = d.plusDays(1);
-        }
-
-        // 6) 小計・税・合計（税率は admin_settings.tax_rate：0.1=10% を想定）
-        BigDecimal subtotalBD = baseAmount.add(rulesTotal).setScale(0, RoundingMode.HALF_UP);
-
-        BigDecimal taxRate = getDecimal("tax_rate", BigDecimal.ZERO); // 0.1=10%
-        BigDecimal taxBD = taxRate.signum() > 0
-                ? subtotalBD.multiply(taxRate).setScale(0, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
-
-        if (taxBD.signum() > 0) {
-            items.add(new com.example.studio_book.viewmodel.ConfirmLineItem(
-                    "tax",
-                    "消費税 (" + taxRate.multiply(BigDecimal.valueOf(100)).setScale(0, RoundingMode.HALF_UP).toPlainString() + "%)",
-                    taxBD.longValue(),
-                    null, null
-            ));
-        }
-
-        BigDecimal totalBD = subtotalBD.add(taxBD);
-
-        // 7) DTOに詰める（amount は最終合計＝Stripeへ送る額）
+        // 3) DTOに詰める（amount は最終合計＝Stripeへ送る額）
         return ReservationConfirmDto.builder()
                 .roomId(room.getId())
                 .roomName(room.getName())
@@ -288,68 +317,75 @@ public class ReservationService {
                 .endAt(endAt)
                 .hourlyPrice(room.getPrice())
                 .hours(hoursRoundedUp)
-                .items(items)
-                .subtotal(subtotalBD.longValue())
-                .tax(taxBD.longValue())
-                .amount(totalBD.longValue())
+                .items(priced.items())
+                .subtotal(priced.subtotal())
+                .tax(priced.tax())
+                .amount(priced.total())
                 .build();
     }
 
-
-    /** PriceRule.weekday の定義に合わせるユーティリティ
-     *  例: DBが 0=日..6=土 の場合 → 1=月..7=日 に合わせて正規化
+    /**
+     * 同じ部屋・同じ長さの複数の開始時刻について合計額（税込）を返す（空き枠の安い順検索用）
+     * 部屋・設定・料金ルールは 1 回だけ読む。計算は buildConfirmDto と同じ
      */
-    private boolean equalsWeekday(Integer ruleWeekday, int weekday1to7) {
-        // 例）DB: 0(日)～6(土) のとき
-        // int db0to6 = (weekday1to7 % 7); // 1..7 → 0..6 (1=月→1, …, 7=日→0)
-        // return ruleWeekday != null && ruleWeekday == db0to6;
-
-        // もし DB も 1..7 (月..日) ならそのままでOK:
-        return ruleWeekday != null && ruleWeekday == weekday1to7;
+    @Transactional(readOnly = true)
+    public List<Long> quoteTotals(Integer roomId, List<LocalDateTime> starts, Duration length) {
+        var room = roomRepository.findById(roomId)
+                .orElseThrow(() -> new IllegalArgumentException("Room not found: " + roomId));
+        var settings = adminSettingsService.snapshot();
+        var rules = settings.enablePriceRules() ? priceRuleRepository.findByRoomId(roomId) : List.<PriceRule>of();
+
+        List<Long> totals = new ArrayList<>(starts.size());
+        for (LocalDateTime s : starts) {
+            totals.add(price(room, s, s.plus(length), settings, rules).total());
+        }
+        return totals;
     }
 
-    /** 半開区間 [aStart, aEnd) と [bStart, bEnd) の重複分（分） */
-    private long overlapMinutes(LocalDateTime aStart, LocalDateTime aEnd,
-                                LocalDateTime bStart, LocalDateTime bEnd) {
-        var s = aStart.isAfter(bStart) ? aStart : bStart;
-        var e = aEnd.isBefore(bEnd) ? aEnd : bEnd;
-        if (!s.isBefore(e)) return 0L;
-        return java.time.Duration.between(s, e).toMinutes();
+    /** 料金計算の結果（内訳・小計・税・合計） */
+    private record PricedQuote(List<ConfirmLineItem> items, long subtotal, long tax, long total) {}
+
+    /**
+     * 料金計算（確認画面の見積もりと、見積もりが無い場合の Webhook で共通）
+     * - 基本料金：BILLING_UNIT_MINUTES 単位で切り上げた分数 × 時間単価
+     * - ルール：ENABLE_PRICE_RULES が有効なときのみ（固定費は日毎、加算は時間帯の重複分）
+     * - 税：tax_rate（0.1 = 10%）
+     */
+    private PricedQuote price(Room room, LocalDateTime startAt, LocalDateTime endAt,
+                              AdminSettingsSnapshot settings) {
+        var rules = settings.enablePriceRules() ? priceRuleRepository.findByRoomId(room.getId()) : List.<PriceRule>of();
+        return price(room, startAt, endAt, settings, rules);
     }
-    
-    private void generateChargeItemsAndAudit(Reservation r, Long paidAmount) {
-        final Integer reservationId = r.getId();
-        final Room room = r.getRoom();
-        final LocalDateTime startAt = r.getStartAt();
-        final LocalDateTime endAt   = r.getEndAt();
 
-        // ========== AdminSettings ==========
-        // tax_rate は「0.1 → 10%」の小数表記を想定。/100 では割らない。
-        BigDecimal taxRate = getDecimal("tax_rate", BigDecimal.ZERO); 
-        boolean enableRules = getBoolean("ENABLE_PRICE_RULES", true);
-        int billingUnitMin = getInt("BILLING_UNIT_MINUTES", 1);
+    private PricedQuote price(Room room, LocalDateTime startAt, LocalDateTime endAt,
+                              AdminSettingsSnapshot settings, List<PriceRule> rules) {
+        var items = new ArrayList<ConfirmLineItem>();
 
-        // ========== Base ==========
+        // 基本料金（分課金）
         BigDecimal basePerHour = BigDecimal.valueOf(room.getPrice()); // 円/時
-        long totalMinutes = Duration.between(startAt, endAt).toMinutes();
+        long billedMinutes = Duration.between(startAt, endAt).toMinutes();
+        int billingUnitMin = settings.billingUnitMinutes();
         if (billingUnitMin > 1) {
-            long units = (totalMinutes + billingUnitMin - 1) / billingUnitMin; // 切り上げ
-            totalMinutes = units * billingUnitMin;
+            long units = (billedMinutes + billingUnitMin - 1) / billingUnitMin; // 切り上げ
+            billedMinutes = units * billingUnitMin;
         }
         BigDecimal baseAmount = basePerHour
-            .divide(BigDecimal.valueOf(60), 10, RoundingMode.HALF_UP)
-            .multiply(BigDecimal.valueOf(totalMinutes))
-            .setScale(0, RoundingMode.HALF_UP);
+                .divide(BigDecimal.valueOf(60), 10, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(billedMinutes))
+                .setScale(0, RoundingMode.HALF_UP);
 
-        saveItem(reservationId, "base",
-                "基本料金 (" + basePerHour.intValue() + "円/時, " + totalMinutes + "分)",
-                baseAmount.intValue(),
-                startAt, endAt, basePerHour.intValue());
+        items.add(new ConfirmLineItem(
+                "base",
+                "基本料金 (" + room.getPrice() + "円/時, " + billedMinutes + "分)",
+                baseAmount.longValue(),
+                startAt, endAt,
+                basePerHour.intValue()
+        ));
 
-        // ========== Rules ==========
+        // 日毎の固定費・加算料金
         BigDecimal rulesTotal = BigDecimal.ZERO;
-        if (enableRules) {
-            var rules = priceRuleRepository.findByRoomId(room.getId());
+        if (settings.enablePriceRules()) {
+
             LocalDate d = startAt.toLocalDate();
             LocalDate last = endAt.minusNanos(1).toLocalDate();
 
@@ -357,24 +393,28 @@ public class ReservationService {
                 final LocalDate d0 = d;
                 LocalDateTime segStart = d.equals(startAt.toLocalDate()) ? startAt : d.atStartOfDay();
                 LocalDateTime segEnd   = d.equals(endAt.toLocalDate())   ? endAt   : d.plusDays(1).atStartOfDay();
-                int weekday1to7 = d.getDayOfWeek().getValue();
 
-                // flat_fee（その日分を一括）
+                int weekday1to7 = d.getDayOfWeek().getValue(); // 1=月..7=日
+
+                // 固定費（その日分を合算）
                 BigDecimal flat = rules.stream()
-                    .filter(rp -> "flat_fee".equals(rp.getRuleType()) && rp.getFlatFee() != null)
-                    .filter(rp -> rp.getWeekday() == null || equalsWeekday(rp.getWeekday(), weekday1to7))
-                    .map(rp -> BigDecimal.valueOf(rp.getFlatFee()))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+                        .filter(rp -> "flat_fee".equals(rp.getRuleType()) && rp.getFlatFee() != null)
+                        .filter(rp -> rp.getWeekday() == null || equalsWeekday(rp.getWeekday(), weekday1to7))
+                        .map(rp -> BigDecimal.valueOf(rp.getFlatFee()))
+                        .reduce(BigDecimal.ZERO, BigDecimal::add);
 
                 if (flat.signum() > 0) {
                     rulesTotal = rulesTotal.add(flat);
-                    saveItem(reservationId, "flat_fee",
+                    items.add(new ConfirmLineItem(
+                            "flat_fee",
                             "固定費 (" + d + ")",
-                            flat.intValue(),
-                            segStart, segEnd, null);
+                            flat.longValue(),
+                            segStart, segEnd,
+                            null
+                    ));
                 }
 
-                // multiplier（ウィンドウ重複分）
+                // 加算（倍率×基本単価）重複分のみ
                 for (var pr : rules) {
                     if (!"multiplier".equals(pr.getRuleType()) || pr.getMultiplier() == null) continue;
                     if (pr.getWeekday() != null && !equalsWeekday(pr.getWeekday(), weekday1to7)) continue;
@@ -389,17 +429,20 @@ public class ReservationService {
 
                     BigDecimal extraPerHour = basePerHour.multiply(pr.getMultiplier());
                     BigDecimal extra = extraPerHour
-                        .divide(BigDecimal.valueOf(60), 10, RoundingMode.HALF_UP)
-                        .multiply(BigDecimal.valueOf(ovMin))
-                        .setScale(0, RoundingMode.HALF_UP);
+                            .divide(BigDecimal.valueOf(60), 10, RoundingMode.HALF_UP)
+                            .multiply(BigDecimal.valueOf(ovMin))
+                            .setScale(0, RoundingMode.HALF_UP);
 
                     if (extra.signum() > 0) {
                         rulesTotal = rulesTotal.add(extra);
-                        saveItem(reservationId, "multiplier",
+                        items.add(new ConfirmLineItem(
+                                "multiplier",
                                 "時間帯加算 (" + pr.getMultiplier() + "x, " + ovMin + "分, " + d + ")",
-                                extra.intValue(),
+                                extra.longValue(),
+                                // 重複区間
                                 max(segStart, wStart), min(segEnd, wEnd),
-                                extraPerHour.intValue());
+                                extraPerHour.intValue()
+                        ));
                     }
                 }
 
@@ -407,24 +450,126 @@ public class ReservationService {
             }
         }
 
-        // ========== 小計 → 税 → 合計 ==========
-        BigDecimal subtotal = baseAmount.add(rulesTotal);   // ★ 先に定義
-        BigDecimal tax = BigDecimal.ZERO;
-        if (taxRate.signum() > 0) {
-            // tax_rate は 0.1 = 10% として扱う。/100 はしない。
-            tax = subtotal.multiply(taxRate).setScale(0, RoundingMode.HALF_UP);
+        // 小計・税・合計
+        BigDecimal subtotal = baseAmount.add(rulesTotal).setScale(0, RoundingMode.HALF_UP);
+        BigDecimal taxRate = settings.taxRate();
+        BigDecimal tax = taxRate.signum() > 0
+                ? subtotal.multiply(taxRate).setScale(0, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
 
-            saveItem(reservationId, "tax",
+        if (tax.signum() > 0) {
+            items.add(new ConfirmLineItem(
+                    "tax",
                     "消費税 (" + formatPercent(taxRate) + ")",
-                    tax.intValue(),
-                    null, null, null);
+                    tax.longValue(),
+                    null, null,
+                    null
+            ));
+        }
+
+        return new PricedQuote(items, subtotal.longValue(), tax.longValue(), subtotal.add(tax).longValue());
+    }
+
+    /**
+     * 確認画面の見積もりを保存し、quoteId を返す（PaymentIntent の metadata に載せる）
+     * Webhook ではこの内訳をそのまま料金明細にするので、再計算しない。
+     */
+    @Transactional
+    public String saveQuote(ReservationConfirmDto dto, Integer userId) {
+        ReservationQuote q = new ReservationQuote();
+        q.setId(UUID.randomUUID().toString());
+        q.setRoomId(dto.getRoomId());
+        q.setUserId(userId);
+        q.setStartAt(dto.getStartAt());
+        q.setEndAt(dto.getEndAt());
+        q.setSubtotal(dto.getSubtotal());
+        q.setTax(dto.getTax());
+        q.setAmount(dto.getAmount());
+        q.setCreatedAt(LocalDateTime.now());
+        quoteRepository.save(q);
+
+        List<ConfirmLineItem> items = dto.getItems() != null ? dto.getItems() : List.of();
+        var rows = new ArrayList<ReservationQuoteItem>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            ConfirmLineItem it = items.get(i);
+            ReservationQuoteItem row = new ReservationQuoteItem();
+            row.setQuoteId(q.getId());
+            row.setSortOrder(i);
+            row.setKind(it.getKind());
+            row.setDescription(it.getLabel());
+            row.setAmount(it.getAmount());
+            row.setSliceStart(it.getSliceStart());
+            row.setSliceEnd(it.getSliceEnd());
+            row.setUnitRatePerHour(it.getUnitRatePerHour());
+            rows.add(row);
         }
+        quoteItemRepository.saveAll(rows);
+        return q.getId();
+    }
+
+    /** 決済されなかった見積もりの掃除（予約確定時に明細へ写しているので、古いものは不要） */
+    @Scheduled(cron = "${reservation.quote-purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeOldQuotes() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(quoteRetentionDays);
+        quoteItemRepository.deleteByQuoteCreatedBefore(cutoff);
+        quoteRepository.deleteByCreatedAtBefore(cutoff);
+    }
 
-        BigDecimal calcTotal = subtotal.add(tax);
+    /** PriceRule.weekday の定義に合わせるユーティリティ
+     *  例: DBが 0=日..6=土 の場合 → 1=月..7=日 に合わせて正規化
+     */
+    private boolean equalsWeekday(Integer ruleWeekday, int weekday1to7) {
+        // 例）DB: 0(日)～6(土) のとき
+        // int db0to6 = (weekday1to7 % 7); // 1..7 → 0..6 (1=月→1, …, 7=日→0)
+        // return ruleWeekday != null && ruleWeekday == db0to6;
+
+        // もし DB も 1..7 (月..日) ならそのままでOK:
+        return ruleWeekday != null && ruleWeekday == weekday1to7;
+    }
+
+    /** 半開区間 [aStart, aEnd) と [bStart, bEnd) の重複分（分） */
+    private long overlapMinutes(LocalDateTime aStart, LocalDateTime aEnd,
+                                LocalDateTime bStart, LocalDateTime bEnd) {
+        var s = aStart.isAfter(bStart) ? aStart : bStart;
+        var e = aEnd.isBefore(bEnd) ? aEnd : bEnd;
+        if (!s.isBefore(e)) return 0L;
+        return java.time.Duration.between(s, e).toMinutes();
+    }
+    
+    private void generateChargeItemsAndAudit(Reservation r, Long paidAmount, String quoteId) {
+        final Integer reservationId = r.getId();
+
+        // 確認画面で提示した見積もりがあればそれを明細にする（再計算しない）
+        Optional<ReservationQuote> quote = Optional.ofNullable(quoteId)
+                .flatMap(quoteRepository::findById)
+                .filter(q -> matchesReservation(q, r));
+
+        long calcTotal;
+        String source;
+        if (quote.isPresent()) {
+            for (ReservationQuoteItem qi : quoteItemRepository.findByQuoteIdOrderBySortOrderAsc(quoteId)) {
+                saveItem(reservationId, qi.getKind(), qi.getDescription(),
+                        Math.toIntExact(qi.getAmount()),
+                        qi.getSliceStart(), qi.getSliceEnd(), qi.getUnitRatePerHour());
+            }
+            calcTotal = quote.get().getAmount();
+            source = "quote=" + quoteId;
+        } else {
+            // 見積もりが無い（旧セッション・不一致）場合のみ、同じ計算で作り直す
+            PricedQuote priced = price(r.getRoom(), r.getStartAt(), r.getEndAt(), adminSettingsService.snapshot());
+            for (ConfirmLineItem it : priced.items()) {
+                saveItem(reservationId, it.getKind(), it.getLabel(),
+                        Math.toIntExact(it.getAmount()),
+                        it.getSliceStart(), it.getSliceEnd(), it.getUnitRatePerHour());
+            }
+            calcTotal = priced.total();
+            source = "recalculated";
+        }
 
         // 監査ログ：計算金額と実際の決済額の突合を記録
-        String note = "calcTotal=" + calcTotal.intValue() + ", paid=" + (paidAmount != null ? paidAmount : -1);
-        auditLogRepository.save(
+        String note = "calcTotal=" + calcTotal + ", paid=" + (paidAmount != null ? paidAmount : -1) + ", " + source;
+        auditLogWriter.write(
             AuditLog.builder()
                 .ts(LocalDateTime.now())
                 .actorId(r.getUser().getId())
@@ -432,10 +577,19 @@ public class ReservationService {
                 .entity("reservation")
                 .entityId(reservationId)
                 .note(note)
-                .build()
+                .build(),
+            AuditLogWriter.Durability.SYNC
         );
     }
 
+    /** 見積もりが同じ部屋・利用者・時間帯のものか（metadata の取り違え対策） */
+    private boolean matchesReservation(ReservationQuote q, Reservation r) {
+        return Objects.equals(q.getRoomId(), r.getRoom().getId())
+            && Objects.equals(q.getUserId(), r.getUser().getId())
+            && Objects.equals(q.getStartAt(), r.getStartAt())
+            && Objects.equals(q.getEndAt(), r.getEndAt());
+    }
+
     // 税率の表示用（0.1 → "10%"）
     private String formatPercent(BigDecimal rate) {
         return rate.multiply(BigDecimal.valueOf(100))
@@ -460,29 +614,6 @@ chargeItemRepository.save(it);
 private LocalDateTime max(LocalDateTime a, LocalDateTime b) { return a.isAfter(b) ? a : b; }
 private LocalDateTime min(LocalDateTime a, LocalDateTime b) { return a.isBefore(b) ? a : b; }
 
-private BigDecimal getDecimal(String key, BigDecimal def) {
-    return adminSettingsRepository.findByKey(key)
-        .map(AdminSettings::getValue)
-        .map(v -> {
-            try { return new BigDecimal(v); }
-            catch (Exception e) { return def; }
-        }).orElse(def);
-}
-
-private boolean getBoolean(String key, boolean def) {
-return adminSettingsRepository.findByKey(key)
-.map(AdminSettings::getValue)
-.map(v -> v.equalsIgnoreCase("true") || v.equals("1") || v.equalsIgnoreCase("on"))
-.orElse(def);
-}
-
-private int getInt(String key, int def) {
-return adminSettingsRepository.findByKey(key)
-.map(AdminSettings::getValue)
-.map(v -> {
-  try { return Integer.parseInt(v); } catch (Exception e) { return def; }
-}).orElse(def);
-}
 
 
 
@@ -0,0 +1,105 @@
+// src/main/java/com/example/studio_book/service/RoomLockService.java
+package com.example.studio_book.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.studio_book.repository.RoomRepository;
+
+/**
+ * 部屋単位の書き込み直列化（「重複チェック → INSERT」の間に他の書き込みを入れない）
+ *
+ * - 単一ノード: room id でストライプした ReentrantLock
+ * - 複数ノード: 同じトランザクション内で rooms の行を SELECT … FOR UPDATE
+ *
+ * ロックはトランザクション完了（commit/rollback）まで保持する。
+ * 呼び出し側がトランザクション外なら、ここで REQUIRED のトランザクションを開始する。
+ * room id は連番なので stripes 以下の部屋数なら別の部屋同士が同じロックを取り合うことはない。
+ */
+@Service
+public class RoomLockService {
+
+    private final RoomRepository roomRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+
+    public RoomLockService(RoomRepository roomRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.room-lock.stripes:1024}") int stripeCount,
+                           @Value("${app.room-lock.timeout-ms:10000}") long timeoutMillis) {
+        this.roomRepository = roomRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 現在のトランザクションが終わるまで部屋をロックする（@Transactional メソッドの先頭で呼ぶ）
+     * @throws IllegalStateException トランザクション外で呼ばれた場合・ロック待ちがタイムアウトした場合
+     */
+    public void lockForTransaction(Integer roomId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("lockForTransaction はトランザクション内で呼び出してください");
+        }
+        ReentrantLock lock = stripeFor(roomId);
+        acquire(lock, roomId);
+        try {
+            // commit 前に外すと他スレッドが未コミットの隙間に入るので完了時に解放
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+        roomRepository.lockById(roomId);
+    }
+
+    /** トランザクション外からの呼び出し用：ロックを取ってから action を 1 トランザクションで実行 */
+    public <T> T withRoomLock(Integer roomId, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            lockForTransaction(roomId);
+            return action.get();
+        }
+        return transactionTemplate.execute(status -> {
+            lockForTransaction(roomId);
+            return action.get();
+        });
+    }
+
+    /** テスト・監視用：その部屋のロックがどこかのスレッドに保持されているか */
+    boolean isLocked(Integer roomId) {
+        return stripeFor(roomId).isLocked();
+    }
+
+    private ReentrantLock stripeFor(Integer roomId) {
+        if (roomId == null) throw new IllegalArgumentException("roomId is null");
+        return stripes[Math.floorMod(roomId, stripes.length)];
+    }
+
+    private void acquire(ReentrantLock lock, Integer roomId) {
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("混み合っています。しばらくしてから再度お試しください。(roomId=" + roomId + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("ロック待ちが中断されました。(roomId=" + roomId + ")", e);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -24,15 +25,21 @@ import com.example.studio_book.form.RoomRegisterForm;
 import com.example.studio_book.repository.RoomRepository;
 import com.example.studio_book.repository.UserRepository;
 
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 @Service
 public class RoomService {
 
     private final RoomRepository roomRepository;
     private final UserRepository userRepository; // ← 追加
+    private final ReservationSearchIndexer searchIndexer;
 
-    public RoomService(RoomRepository roomRepository, UserRepository userRepository) {
+    public RoomService(RoomRepository roomRepository, UserRepository userRepository,
+                       ReservationSearchIndexer searchIndexer) {
         this.roomRepository = roomRepository;
         this.userRepository = userRepository; // ← 追加
+        this.searchIndexer = searchIndexer;
     }
 
     // すべてのスタジオをページングされた状態で取得する
@@ -130,6 +137,8 @@ public class RoomService {
     
     @Transactional
     public void updateRoom(RoomEditForm roomEditForm, Room room) {
+        String oldName = room.getName();
+        Integer oldHostId = room.getUser() != null ? room.getUser().getId() : null;
         MultipartFile imageFile = roomEditForm.getImageFile();
 
         if (!imageFile.isEmpty()) {
@@ -151,11 +160,18 @@ public class RoomService {
                 .orElseThrow(() -> new IllegalArgumentException("指定したホストが存在しません: " +roomEditForm.getUserId()));
         room.setUser(host);
 
-        roomRepository.save(room);
+        // 名前かホストが変わったら予約検索用の名前も直す（UPDATE ... JOIN で読むので先に flush）
+        if (!Objects.equals(oldName, room.getName()) || !Objects.equals(oldHostId, host.getId())) {
+            roomRepository.saveAndFlush(room);
+            searchIndexer.refreshRoom(room.getId());
+        } else {
+            roomRepository.save(room);
+        }
     } 
     
     @Transactional
     public void deleteRoom(Room room) {
+        searchIndexer.removeRoom(room.getId());
         roomRepository.delete(room);
     }    
 
@@ -177,7 +193,7 @@ public class RoomService {
         try {
             Files.copy(imageFile.getInputStream(), filePath);
         } catch (IOException e) {
-            e.printStackTrace();
+            log.error("画像ファイルのコピーに失敗しました: {}", filePath, e);
         }
     } 
     @Transactional(readOnly = true)
@@ -205,6 +221,12 @@ public class RoomService {
         return room;
     }
     
+    /** ホストが持つスタジオ（名前順） */
+    @Transactional(readOnly = true)
+    public List<Room> findOwnedRooms(Integer hostId) {
+        return roomRepository.findByUser_IdOrderByNameAsc(hostId);
+    }
+
     public boolean existsByNameAndAddress(String name, String address) {
         return roomRepository.existsByNameAndAddress(name, address);
     }
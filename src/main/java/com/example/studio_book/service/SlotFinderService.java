@@ -0,0 +1,218 @@
+// src/main/java/com/example/studio_book/service/SlotFinderService.java
+package com.example.studio_book.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 「次に空いている枠」の検索
+ *
+ * 1) 空き区間 = AvailabilityBitmaps の open & ~closed & ~booked の連続ビット（日跨ぎは繋げる）
+ * 2) 有効な仮押さえを開始順にまとめ、空き区間からマージ走査で差し引く
+ * 3) 区間の中から指定の長さの枠を切り出す（時刻順は詰めて、安い順は 15 分刻みの全候補を見積もって選ぶ）
+ * 候補ごとに DB を引かない（読み込みは空き状況・仮押さえ・料金ルールの各 1 回まで）。
+ */
+@Service
+public class SlotFinderService {
+
+    public enum Order { TIME, PRICE }
+
+    public record FreeSlot(LocalDateTime startAt, LocalDateTime endAt, long amount) {}
+
+    record Interval(LocalDateTime start, LocalDateTime end) {}
+
+    public static final int MAX_LIMIT = 50;
+
+    private final AvailabilityBitmaps availability;
+    private final SlotHoldService slotHoldService;
+    private final ReservationService reservationService;
+    private final int horizonDays;
+    private final Clock clock;
+
+    @Autowired
+    public SlotFinderService(AvailabilityBitmaps availability,
+                             SlotHoldService slotHoldService,
+                             ReservationService reservationService,
+                             @Value("${reservation.slot-search.horizon-days:14}") int horizonDays) {
+        this(availability, slotHoldService, reservationService, horizonDays, Clock.systemDefaultZone());
+    }
+
+    /** テストで「今」を固定するため */
+    SlotFinderService(AvailabilityBitmaps availability,
+                      SlotHoldService slotHoldService,
+                      ReservationService reservationService,
+                      int horizonDays,
+                      Clock clock) {
+        this.availability = availability;
+        this.slotHoldService = slotHoldService;
+        this.reservationService = reservationService;
+        this.horizonDays = horizonDays;
+        this.clock = clock;
+    }
+
+    /**
+     * after 以降（horizon-days 日以内）で minutes 分の空き枠を最大 limit 件（枠同士は重ならない）
+     * after が過去なら現在時刻から探す（過ぎた枠は予約できない）
+     * @throws IllegalArgumentException minutes が 15 分単位でない・limit が範囲外の場合
+     */
+    public List<FreeSlot> nextSlots(int roomId, LocalDateTime after, int minutes, int limit, Order order) {
+        if (minutes <= 0 || minutes % AvailabilityBitmaps.SLOT_MINUTES != 0 || minutes > 24 * 60) {
+            throw new IllegalArgumentException("利用時間は15分単位（24時間まで）で指定してください。");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("件数は1〜" + MAX_LIMIT + "で指定してください。");
+        }
+        Duration length = Duration.ofMinutes(minutes);
+
+        // ★ 過去の after をそのまま使うと、終わった枠を返して horizon も過去側で使い切る
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime from = ceilToSlot(after.isBefore(now) ? now : after);
+        LocalDate lastDay = from.toLocalDate().plusDays(horizonDays - 1L);
+        LocalDateTime to = lastDay.plusDays(1).atStartOfDay();
+
+        List<Interval> free = freeIntervals(availability.days(roomId, from.toLocalDate(), lastDay), from, to);
+        if (free.isEmpty()) return List.of();
+
+        List<Interval> held = merge(slotHoldService.listActive(roomId, from, to).stream()
+                .map(h -> new Interval(h.getStartAt(), h.getEndAt()))
+                .toList());
+        free = subtract(free, held);
+
+        return order == Order.PRICE
+                ? cheapest(roomId, free, length, limit)
+                : earliest(roomId, free, length, limit);
+    }
+
+    /** 時刻順：区間の先頭から詰めて切り出す */
+    private List<FreeSlot> earliest(int roomId, List<Interval> free, Duration length, int limit) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        for (Interval iv : free) {
+            for (LocalDateTime s = iv.start(); !s.plus(length).isAfter(iv.end()); s = s.plus(length)) {
+                if (starts.size() >= limit) break;
+                starts.add(s);
+            }
+        }
+        if (starts.isEmpty()) return List.of();
+
+        List<Long> totals = reservationService.quoteTotals(roomId, starts, length);
+        List<FreeSlot> out = new ArrayList<>(starts.size());
+        for (int i = 0; i < starts.size(); i++) {
+            out.add(new FreeSlot(starts.get(i), starts.get(i).plus(length), totals.get(i)));
+        }
+        return out;
+    }
+
+    /** 安い順：15 分刻みの全候補を見積もり、安い（同額なら早い）ものから重ならないように選ぶ */
+    private List<FreeSlot> cheapest(int roomId, List<Interval> free, Duration length, int limit) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        for (Interval iv : free) {
+            for (LocalDateTime s = iv.start(); !s.plus(length).isAfter(iv.end());
+                 s = s.plusMinutes(AvailabilityBitmaps.SLOT_MINUTES)) {
+                starts.add(s);
+            }
+        }
+        if (starts.isEmpty()) return List.of();
+
+        List<Long> totals = reservationService.quoteTotals(roomId, starts, length);
+        List<FreeSlot> candidates = new ArrayList<>(starts.size());
+        for (int i = 0; i < starts.size(); i++) {
+            candidates.add(new FreeSlot(starts.get(i), starts.get(i).plus(length), totals.get(i)));
+        }
+        candidates.sort(Comparator.comparingLong(FreeSlot::amount).thenComparing(FreeSlot::startAt));
+
+        List<FreeSlot> out = new ArrayList<>(limit);
+        for (FreeSlot c : candidates) {
+            boolean overlaps = out.stream()
+                    .anyMatch(p -> c.startAt().isBefore(p.endAt()) && p.startAt().isBefore(c.endAt()));
+            if (!overlaps) out.add(c);
+            if (out.size() >= limit) break;
+        }
+        return out;
+    }
+
+    /** 日ごとのビットマップから [from, to) の空き区間（連続ビット。日跨ぎは繋げる） */
+    static List<Interval> freeIntervals(Map<LocalDate, AvailabilityBitmaps.Day> days,
+                                        LocalDateTime from, LocalDateTime to) {
+        List<Interval> out = new ArrayList<>();
+        LocalDateTime runStart = null;
+        for (var e : days.entrySet()) {
+            long[] mask = e.getValue().freeMask();
+            for (int i = 0; i < AvailabilityBitmaps.SLOTS_PER_DAY; i++) {
+                LocalDateTime t = e.getKey().atStartOfDay().plusMinutes((long) i * AvailabilityBitmaps.SLOT_MINUTES);
+                boolean free = !t.isBefore(from) && (mask[i >>> 6] >>> (i & 63) & 1L) != 0;
+                if (free && runStart == null) {
+                    runStart = t;
+                } else if (!free && runStart != null) {
+                    out.add(new Interval(runStart, t));
+                    runStart = null;
+                }
+            }
+        }
+        if (runStart != null) out.add(new Interval(runStart, to));
+        return out;
+    }
+
+    /** 開始順の区間の重なり・接しをまとめる */
+    static List<Interval> merge(List<Interval> sorted) {
+        List<Interval> out = new ArrayList<>();
+        for (Interval iv : sorted) {
+            Interval last = out.isEmpty() ? null : out.get(out.size() - 1);
+            if (last != null && !iv.start().isAfter(last.end())) {
+                if (iv.end().isAfter(last.end())) out.set(out.size() - 1, new Interval(last.start(), iv.end()));
+            } else {
+                out.add(iv);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * free から held を差し引く（どちらも開始順・互いに重ならない前提の 2 本のマージ走査）
+     * 端数の出た端は 15 分境界へ内側に丸める
+     */
+    static List<Interval> subtract(List<Interval> free, List<Interval> held) {
+        List<Interval> out = new ArrayList<>();
+        int j = 0;
+        for (Interval f : free) {
+            LocalDateTime cursor = f.start();
+            // f より前に終わる仮押さえは以後も関係ない
+            while (j < held.size() && !held.get(j).end().isAfter(cursor)) j++;
+            int k = j;
+            while (k < held.size() && held.get(k).start().isBefore(f.end())) {
+                Interval h = held.get(k);
+                addAligned(out, cursor, h.start());
+                if (h.end().isAfter(cursor)) cursor = h.end();
+                k++;
+            }
+            addAligned(out, cursor, f.end());
+        }
+        return out;
+    }
+
+    private static void addAligned(List<Interval> out, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime s = ceilToSlot(start);
+        LocalDateTime e = floorToSlot(end);
+        if (s.isBefore(e)) out.add(new Interval(s, e));
+    }
+
+    private static LocalDateTime floorToSlot(LocalDateTime t) {
+        LocalDateTime m = t.truncatedTo(ChronoUnit.MINUTES);
+        return m.minusMinutes(m.getMinute() % AvailabilityBitmaps.SLOT_MINUTES);
+    }
+
+    private static LocalDateTime ceilToSlot(LocalDateTime t) {
+        LocalDateTime f = floorToSlot(t);
+        return f.equals(t) ? f : f.plusMinutes(AvailabilityBitmaps.SLOT_MINUTES);
+    }
+}
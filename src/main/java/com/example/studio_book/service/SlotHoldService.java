@@ -0,0 +1,102 @@
+// src/main/java/com/example/studio_book/service/SlotHoldService.java
+package com.example.studio_book.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.studio_book.entity.SlotHold;
+import com.example.studio_book.repository.ReservationRepository;
+import com.example.studio_book.repository.SlotHoldRepository;
+
+/**
+ * 決済中の枠の仮押さえ（ソフトロック）
+ *
+ * confirm 画面で Stripe セッションを作る直前に取得し、Webhook で予約が入った時点で解放する。
+ * 期限切れは expires_at の比較だけで無効になるため、解放漏れがあっても自動で外れる。
+ */
+@Service
+public class SlotHoldService {
+
+    private final SlotHoldRepository slotHoldRepository;
+    private final ReservationRepository reservationRepository;
+    private final RoomLockService roomLockService;
+
+    // Stripe Checkout の expires_at は「作成から30分以上」が必須なので既定は31分
+    @Value("${reservation.hold-ttl-minutes:31}")
+    private long holdTtlMinutes;
+
+    public SlotHoldService(SlotHoldRepository slotHoldRepository,
+                           ReservationRepository reservationRepository,
+                           RoomLockService roomLockService) {
+        this.slotHoldRepository = slotHoldRepository;
+        this.reservationRepository = reservationRepository;
+        this.roomLockService = roomLockService;
+    }
+
+    /**
+     * 枠を仮押さえする（同一ユーザーの同室の旧い仮押さえは置き換え）
+     * @throws IllegalStateException 予約済み、または他ユーザーが決済手続き中の場合
+     */
+    @Transactional
+    public SlotHold hold(Integer roomId, Integer userId, LocalDateTime startAt, LocalDateTime endAt) {
+        roomLockService.lockForTransaction(roomId);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (reservationRepository.existsOverlapping(roomId, startAt, endAt)) {
+            throw new IllegalStateException("指定の時間帯は既に予約があります。別の時間を選択してください。");
+        }
+        if (slotHoldRepository.existsActiveOverlappingByOtherUser(roomId, userId, startAt, endAt, now)) {
+            throw new IllegalStateException("指定の時間帯は他のお客様が決済手続き中です。しばらくしてから再度お試しください。");
+        }
+
+        slotHoldRepository.deleteByRoomIdAndUserId(roomId, userId);
+
+        SlotHold h = new SlotHold();
+        h.setRoomId(roomId);
+        h.setUserId(userId);
+        h.setStartAt(startAt);
+        h.setEndAt(endAt);
+        h.setExpiresAt(now.plusMinutes(holdTtlMinutes));
+        return slotHoldRepository.save(h);
+    }
+
+    /** 他ユーザーの有効な仮押さえと重なるか（userId が null なら全員が対象） */
+    @Transactional(readOnly = true)
+    public boolean isHeldByOther(Integer roomId, Integer userId, LocalDateTime startAt, LocalDateTime endAt) {
+        return slotHoldRepository.existsActiveOverlappingByOtherUser(
+                roomId, userId != null ? userId : -1, startAt, endAt, LocalDateTime.now());
+    }
+
+    /** [startAt, endAt) に掛かる有効な仮押さえ（全ユーザー・開始順） */
+    @Transactional(readOnly = true)
+    public List<SlotHold> listActive(Integer roomId, LocalDateTime startAt, LocalDateTime endAt) {
+        return slotHoldRepository.findActiveOverlapping(roomId, startAt, endAt, LocalDateTime.now());
+    }
+
+    /** 予約確定後の解放 */
+    @Transactional
+    public void release(Integer roomId, Integer userId, LocalDateTime startAt, LocalDateTime endAt) {
+        slotHoldRepository.deleteExact(roomId, userId, startAt, endAt);
+    }
+
+    /**
+     * 決済キャンセル時、その手続きの仮押さえ 1 件だけを解放（他のタブ・他の部屋の手続きは残す）
+     * @return 解放した場合 true（本人のものでない・解放済みなら false）
+     */
+    @Transactional
+    public boolean releaseHold(Integer holdId, Integer userId) {
+        return slotHoldRepository.deleteByIdAndUserId(holdId, userId) > 0;
+    }
+
+    /** 期限切れの掃除（判定は expires_at で行うので、ここは容量対策のみ） */
+    @Scheduled(fixedDelayString = "${reservation.hold-purge-interval-ms:300000}")
+    @Transactional
+    public void purgeExpired() {
+        slotHoldRepository.deleteExpired(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,244 @@
+// src/main/java/com/example/studio_book/service/StripeGateway.java
+package com.example.studio_book.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.stripe.StripeClient;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Stripe API 呼び出しの窓口
+ *
+ * - 呼び出しは仮想スレッドで実行し、接続/読み取りタイムアウトを明示
+ * - 同時実行数をセマフォで制限（バルクヘッド）。満杯なら待たずに失敗させ、Tomcat スレッドを溜めない
+ * - 連続失敗でサーキットを開き、一定時間は Stripe を呼ばずに即失敗（その後 1 件だけ試行）
+ *
+ * 制限・遮断・タイムアウトはすべて ApiConnectionException として返すので、
+ * 呼び出し側の既存の StripeException ハンドリングがそのまま使える。
+ */
+@Component
+public class StripeGateway implements MeterBinder {
+
+    @FunctionalInterface
+    public interface StripeCall<T> {
+        T apply(StripeClient client) throws StripeException;
+    }
+
+    public enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    /** 監視用のスナップショット */
+    public record Metrics(long calls, long successes, long failures, long timeouts,
+                          long rejected, long shortCircuited, long inFlight, CircuitState state) {}
+
+    private final StripeClient client;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore bulkhead;
+    private final int maxConcurrent;
+    private final long callTimeoutMillis;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+
+    private final AtomicReference<CircuitState> state = new AtomicReference<>(CircuitState.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAtMillis;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+
+    public StripeGateway(@Value("${stripe.api-key}") String apiKey,
+                         @Value("${stripe.api-base:}") String apiBase,
+                         @Value("${stripe.gateway.connect-timeout-ms:2000}") int connectTimeoutMillis,
+                         @Value("${stripe.gateway.read-timeout-ms:8000}") int readTimeoutMillis,
+                         @Value("${stripe.gateway.max-concurrent:16}") int maxConcurrent,
+                         @Value("${stripe.gateway.failure-threshold:5}") int failureThreshold,
+                         @Value("${stripe.gateway.open-duration-ms:30000}") long openDurationMillis) {
+        StripeClient.StripeClientBuilder builder = StripeClient.builder()
+                .setApiKey(apiKey)
+                .setConnectTimeout(connectTimeoutMillis)
+                .setReadTimeout(readTimeoutMillis)
+                .setMaxNetworkRetries(0);  // 再試行は冪等キー付きで呼び出し側が判断する
+        if (apiBase != null && !apiBase.isBlank()) {
+            builder.setApiBase(apiBase);   // ローカルのスタブサーバー向け
+        }
+        this.client = builder.build();
+        this.maxConcurrent = maxConcurrent;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        // クライアント側のタイムアウトが効かなかった場合の保険
+        this.callTimeoutMillis = connectTimeoutMillis + readTimeoutMillis + 1000L;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+    }
+
+    /** 同期呼び出し（完了・タイムアウト・制限のいずれかまで待つ） */
+    public <T> T call(String operation, StripeCall<T> call) throws StripeException {
+        try {
+            return callAsync(operation, call).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ce ? ce.getCause() : e.getCause();
+            if (cause instanceof StripeException se) throw se;
+            if (cause instanceof TimeoutException) {
+                throw new ApiConnectionException("Stripe " + operation + " timed out", cause);
+            }
+            if (cause instanceof RuntimeException re) throw re;
+            throw new ApiConnectionException("Stripe " + operation + " failed", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiConnectionException("Stripe " + operation + " interrupted", e);
+        }
+    }
+
+    /** 非同期呼び出し（呼び出しスレッドは一切ブロックしない） */
+    public <T> CompletableFuture<T> callAsync(String operation, StripeCall<T> call) {
+        calls.increment();
+
+        if (!allowRequest()) {
+            shortCircuited.increment();
+            return CompletableFuture.failedFuture(
+                    new ApiConnectionException("Stripe circuit is open; skipped " + operation));
+        }
+        if (!bulkhead.tryAcquire()) {
+            rejected.increment();
+            releaseTrial();
+            return CompletableFuture.failedFuture(
+                    new ApiConnectionException("Too many concurrent Stripe calls; rejected " + operation));
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                T value = null;
+                Throwable error = null;
+                try {
+                    value = call.apply(client);
+                    onSuccess();
+                } catch (Throwable t) {
+                    error = t;
+                    onFailure(t);
+                } finally {
+                    bulkhead.release();   // 実際に終わったときに返す（タイムアウト後も走っている間は枠を占有）
+                }
+                if (error == null) result.complete(value);
+                else result.completeExceptionally(error);
+            });
+        } catch (RejectedExecutionException e) {
+            bulkhead.release();
+            releaseTrial();
+            return CompletableFuture.failedFuture(new ApiConnectionException("Stripe gateway is shut down", e));
+        }
+
+        return result.orTimeout(callTimeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((v, t) -> {
+                    if (t instanceof TimeoutException) {
+                        timeouts.increment();
+                    }
+                });
+    }
+
+    public Metrics metrics() {
+        return new Metrics(calls.sum(), successes.sum(), failures.sum(), timeouts.sum(),
+                rejected.sum(), shortCircuited.sum(), maxConcurrent - bulkhead.availablePermits(), state.get());
+    }
+
+    public CircuitState circuitState() {
+        return state.get();
+    }
+
+    /** metrics() と同じ値を studio.stripe.* として公開 */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "successes", successes);
+        counter(registry, "failures", failures);
+        counter(registry, "timeouts", timeouts);
+        counter(registry, "rejected", rejected);
+        counter(registry, "short_circuited", shortCircuited);
+        Gauge.builder("studio.stripe.in_flight", this, g -> g.maxConcurrent - g.bulkhead.availablePermits())
+                .register(registry);
+        Gauge.builder("studio.stripe.circuit_open", this, g -> g.state.get() == CircuitState.CLOSED ? 0 : 1)
+                .description("1 = OPEN / HALF_OPEN")
+                .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String result, LongAdder adder) {
+        FunctionCounter.builder("studio.stripe.calls", adder, LongAdder::sum)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    // ---- サーキットブレーカー ----
+
+    private boolean allowRequest() {
+        CircuitState s = state.get();
+        if (s == CircuitState.CLOSED) return true;
+        if (s == CircuitState.OPEN
+                && System.currentTimeMillis() - openedAtMillis >= openDurationMillis) {
+            // 開いてから一定時間経過：1 件だけ試しに通す
+            return state.compareAndSet(CircuitState.OPEN, CircuitState.HALF_OPEN);
+        }
+        return false;
+    }
+
+    /** 試行枠を取ったが実行できなかった場合は OPEN に戻して次の試行に譲る */
+    private void releaseTrial() {
+        state.compareAndSet(CircuitState.HALF_OPEN, CircuitState.OPEN);
+    }
+
+    private void onSuccess() {
+        successes.increment();
+        consecutiveFailures.set(0);
+        state.set(CircuitState.CLOSED);
+    }
+
+    private void onFailure(Throwable t) {
+        failures.increment();
+        if (!isTransient(t)) {
+            // 4xx（パラメータ不正・認証など）は Stripe が応答している証拠なので遮断の対象外
+            consecutiveFailures.set(0);
+            state.compareAndSet(CircuitState.HALF_OPEN, CircuitState.CLOSED);
+            return;
+        }
+        if (state.get() == CircuitState.HALF_OPEN
+                || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAtMillis = System.currentTimeMillis();
+            state.set(CircuitState.OPEN);
+        }
+    }
+
+    private static boolean isTransient(Throwable t) {
+        return t instanceof ApiConnectionException
+            || t instanceof ApiException
+            || t instanceof RateLimitException
+            || !(t instanceof StripeException);
+    }
+}
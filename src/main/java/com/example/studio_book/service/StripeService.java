@@ -1,6 +1,8 @@
 package com.example.studio_book.service;
 
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
@@ -24,7 +26,10 @@ import com.stripe.exception.StripeException;
 import com.stripe.model.Charge;
 import com.stripe.model.Event;
 import com.stripe.model.PaymentIntent;
+import com.stripe.model.Refund;
 import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.RefundCreateParams;
 import com.stripe.param.checkout.SessionCreateParams;
 import com.stripe.param.checkout.SessionCreateParams.Mode;
 import com.stripe.param.checkout.SessionCreateParams.PaymentMethodType;
@@ -32,9 +37,23 @@ import com.stripe.param.checkout.SessionRetrieveParams;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 public class StripeService {
+    /**
+     * Webhook 1 件の処理結果（メトリクスの outcome タグにそのまま使う）
+     * ERROR は Stripe の再送で再試行させる（予約登録・返金とも PaymentIntent 単位で冪等）
+     */
+    public enum WebhookOutcome {
+        OK, SKIPPED, ERROR;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
     // 定数
     private static final PaymentMethodType PAYMENT_METHOD_TYPE = SessionCreateParams.PaymentMethodType.CARD;  // 決済方法
     private static final String CURRENCY = "jpy";  // 通貨
@@ -57,27 +76,31 @@ public class StripeService {
     
     private final RoomRepository roomRepository;
     private final ReservationService reservationService;
+    private final StripeGateway stripeGateway;
 
-    public StripeService(RoomRepository roomRepository, ReservationService reservationService) {
+    public StripeService(RoomRepository roomRepository, ReservationService reservationService,
+                         StripeGateway stripeGateway) {
         this.roomRepository = roomRepository;
         this.reservationService = reservationService;
+        this.stripeGateway = stripeGateway;
     }
 
     // 依存性の注入後に一度だけ実行するメソッド
     @PostConstruct
     private void init() {
         // Stripeのシークレットキーを設定する
-        System.out.println("[StripeService] stripeApiKey=" 
-                + (stripeApiKey == null ? "null" : "length=" + stripeApiKey.length()));
+        log.info("stripeApiKey={}", stripeApiKey == null ? "null" : "length=" + stripeApiKey.length());
         Stripe.apiKey = stripeApiKey;
     }
 
     public String createStripeSession(ReservationConfirmDto reservationDTO, User user) {
-        Optional<Room> optionalRoom = roomRepository.findById(reservationDTO.getRoomId());
-        Room room = optionalRoom.orElseThrow(() -> new EntityNotFoundException("指定されたIDのスタジオが存在しません。"));
-
-        // 商品名
-        String roomName = room.getName();
+        // 商品名（input 時に DTO へ載せているので、無い場合だけ読み直す）
+        String roomName = reservationDTO.getRoomName();
+        if (roomName == null) {
+            Optional<Room> optionalRoom = roomRepository.findById(reservationDTO.getRoomId());
+            Room room = optionalRoom.orElseThrow(() -> new EntityNotFoundException("指定されたIDのスタジオが存在しません。"));
+            roomName = room.getName();
+        }
 
         // ★ Stripe へ送る金額は「最小通貨単位」。JPYは整数（例: 12500円 → 12500）
         long unitAmount = reservationDTO.getAmount(); // ここは既に「円」単位の long の想定で OK
@@ -91,8 +114,22 @@ public class StripeService {
         String hourlyPrice = reservationDTO.getHourlyPrice().toString();
         String hours = String.valueOf(reservationDTO.getHours());
 
+        SessionCreateParams.PaymentIntentData.Builder paymentIntentData =
+            SessionCreateParams.PaymentIntentData.builder()
+                .putMetadata("roomId", roomId)
+                .putMetadata("userId", userId)
+                .putMetadata("startAt", startAt)
+                .putMetadata("endAt", endAt)
+                .putMetadata("amount", amount)
+                .putMetadata("hourlyPrice", hourlyPrice)
+                .putMetadata("hours", hours);
+        // ★ 確認画面の見積もり（Webhook はこの内訳で明細を作り、再計算しない）
+        if (reservationDTO.getQuoteId() != null) {
+            paymentIntentData.putMetadata("quoteId", reservationDTO.getQuoteId());
+        }
+
         // セッションに入れる支払い情報
-        SessionCreateParams sessionCreateParams =
+        SessionCreateParams.Builder sessionBuilder =
             SessionCreateParams.builder()
                 .addPaymentMethodType(PAYMENT_METHOD_TYPE)
                 .addLineItem(
@@ -110,58 +147,89 @@ public class StripeService {
                         .build())
                 .setMode(MODE)
                 .setSuccessUrl(stripeSuccessUrl)
-                .setCancelUrl(stripeCancelUrl)
+                .setCancelUrl(cancelUrl(reservationDTO.getHoldId()))
                 // ★ PaymentIntent に予約メタデータを付与（サーバーのみがセット可能）
-                .setPaymentIntentData(
-                    SessionCreateParams.PaymentIntentData.builder()
-                        .putMetadata("roomId", roomId)
-                        .putMetadata("userId", userId)
-                        .putMetadata("startAt", startAt)
-                        .putMetadata("endAt", endAt)
-                        .putMetadata("amount", amount)
-                        .putMetadata("hourlyPrice", hourlyPrice)
-                        .putMetadata("hours", hours)
-                        .build()
-                )
-                .build();
+                .setPaymentIntentData(paymentIntentData.build());
+
+        // ★ 仮押さえの期限と同時にセッションも失効させる（期限後に決済されて二重予約になるのを防ぐ）
+        if (reservationDTO.getHoldExpiresAt() != null) {
+            sessionBuilder.setExpiresAt(
+                reservationDTO.getHoldExpiresAt().atZone(ZoneId.systemDefault()).toEpochSecond());
+        }
+        SessionCreateParams sessionCreateParams = sessionBuilder.build();
+
+        // ★ 冪等キー：同じ見積もり・同じ期限の再送（リトライ）は同じセッションが返る
+        //   保存済み見積もりがあれば quoteId（metadata に含まれ、パラメータと 1:1 になる）
+        long expiresEpoch = reservationDTO.getHoldExpiresAt() != null
+            ? reservationDTO.getHoldExpiresAt().atZone(ZoneId.systemDefault()).toEpochSecond() : 0L;
+        String idempotencyKey = reservationDTO.getQuoteId() != null
+            ? "checkout:" + userId + ":" + reservationDTO.getQuoteId()
+            : "checkout:" + userId + ":" + reservationDTO.quoteKey() + ":" + expiresEpoch;
+        RequestOptions requestOptions = RequestOptions.builder()
+            .setIdempotencyKey(idempotencyKey)
+            .build();
 
         try {
             // Stripeに送信する支払い情報をセッションとして作成する
-            Session session = Session.create(sessionCreateParams);
+            Session session = stripeGateway.call("checkout.sessions.create",
+                    client -> client.checkout().sessions().create(sessionCreateParams, requestOptions));
 
             // 作成したセッションのIDを返す
             return session.getId();
         } catch (RateLimitException e) {
-            System.out.println("短時間のうちに過剰な回数のAPIコールが行われました。");
+            log.warn("短時間のうちに過剰な回数のAPIコールが行われました。: {}", e.getMessage());
             return "";
         } catch (InvalidRequestException e) {
-            System.out.println("APIコールのパラメーターが誤っているか、状態が誤っているか、方法が無効でした。");
+            log.warn("APIコールのパラメーターが誤っているか、状態が誤っているか、方法が無効でした。: {}", e.getMessage());
             return "";
         } catch (PermissionException e) {
-            System.out.println("このリクエストに使用されたAPIキーには必要な権限がありません。");
+            log.error("このリクエストに使用されたAPIキーには必要な権限がありません。: {}", e.getMessage());
             return "";
         } catch (AuthenticationException e) {
-            System.out.println("Stripeは、提供された情報では認証できません。");
+            log.error("Stripeは、提供された情報では認証できません。: {}", e.getMessage());
             return "";
         } catch (ApiConnectionException e) {
-            System.out.println("お客様のサーバーとStripeの間でネットワークの問題が発生しました。");
+            log.warn("お客様のサーバーとStripeの間でネットワークの問題が発生しました。: {}", e.getMessage());
             return "";
         } catch (ApiException e) {
-            System.out.println("Stripe側で問題が発生しました（稀な状況です）。");
+            log.warn("Stripe側で問題が発生しました（稀な状況です）。: {}", e.getMessage());
             return "";
         } catch (StripeException e) {
-            System.out.println("Stripeとの通信中に予期せぬエラーが発生しました。");
+            log.error("Stripeとの通信中に予期せぬエラーが発生しました。", e);
             return "";
         }
     }
+
+    /** キャンセル時の戻り先（どの仮押さえを解放するかを hold で渡す） */
+    private String cancelUrl(Integer holdId) {
+        if (holdId == null) return stripeCancelUrl;
+        return stripeCancelUrl + (stripeCancelUrl.contains("?") ? "&" : "?") + "hold=" + holdId;
+    }
+
+    /**
+     * Checkout セッションを失効させる（仮押さえを解放した後に決済されないように）
+     * @return 失効できた場合 true（完了済み・失効済み・通信失敗は false。ログのみ）
+     */
+    public boolean expireSession(String checkoutSessionId) {
+        try {
+            stripeGateway.call("checkout.sessions.expire",
+                    client -> client.checkout().sessions().expire(checkoutSessionId));
+            return true;
+        } catch (StripeException e) {
+            log.warn("Checkout セッションの失効に失敗しました。 session={} : {}", checkoutSessionId, e.getMessage());
+            return false;
+        }
+    }
+
     // セッションから予約情報を取得し、ReservationServiceクラスを介してデータベースに登録する
-    public void processSessionCompleted(Event event) {
+    public WebhookOutcome processSessionCompleted(Event event) {
         var deser = event.getDataObjectDeserializer();
+        WebhookOutcome outcome = WebhookOutcome.SKIPPED;
 
         // まずは通常ルート（従来通り）
         if (deser.getObject().isPresent()) {
             Session session = (Session) deser.getObject().get();
-            handleSession(session);
+            outcome = handleSession(session);
         } else {
             // ★ フォールバック：raw JSON から sessionId を抜いて API で取り直す
             try {
@@ -181,61 +249,83 @@ public class StripeService {
                         SessionRetrieveParams retrieveParams = SessionRetrieveParams.builder()
                                 .addExpand("payment_intent")
                                 .build();
-                        Session session = Session.retrieve(sessionId, retrieveParams, null);
-                        handleSession(session);
+                        Session session = stripeGateway.call("checkout.sessions.retrieve",
+                                client -> client.checkout().sessions().retrieve(sessionId, retrieveParams));
+                        outcome = handleSession(session);
                     } else {
-                        System.out.println("checkout.session.completed のフォールバック復元に失敗（id が取れない） raw=" + raw);
+                        // raw は決済情報を含むので本文は出さない
+                        log.warn("checkout.session.completed のフォールバック復元に失敗（id が取れない） event={}", event.getId());
                     }
                 } else {
-                    System.out.println("checkout.session.completed のフォールバック復元に失敗（rawJson が null）");
+                    log.warn("checkout.session.completed のフォールバック復元に失敗（rawJson が null） event={}", event.getId());
                 }
             } catch (Exception e) {
-                System.out.println("checkout.session.completed フォールバック例外: " + e.getMessage());
+                log.error("checkout.session.completed フォールバック例外 event={}", event.getId(), e);
+                outcome = WebhookOutcome.ERROR;
             }
         }
 
-        System.out.println("Stripe API Version: " + event.getApiVersion());
-        System.out.println("stripe-java Version: " + Stripe.VERSION + ", stripe-java API Version: " + Stripe.API_VERSION);
+        log.debug("Stripe API Version: {}, stripe-java Version: {}, stripe-java API Version: {}",
+                event.getApiVersion(), Stripe.VERSION, Stripe.API_VERSION);
+        return outcome;
     }
 
     /** 共通ハンドラ：Session（expand 済み）から予約登録 */
-    private void handleSession(Session session) {
+    private WebhookOutcome handleSession(Session session) {
         try {
             PaymentIntent pi = session.getPaymentIntentObject();
+            if (pi == null) {
+                // Webhook の Session は payment_intent が ID のみ（expand されていない）
+                // payment_intent 系イベントが先に登録済みなら checkout_session_id を補完するだけで済む
+                String piId = session.getPaymentIntent();
+                if (piId != null && reservationService.attachCheckoutSession(piId, session.getId())) {
+                    log.info("予約に checkout_session_id を補完しました。(via checkout.session.completed) pi={}", piId);
+                    return WebhookOutcome.OK;
+                }
+                String sessionId = session.getId();
+                SessionRetrieveParams retrieveParams = SessionRetrieveParams.builder()
+                        .addExpand("payment_intent")
+                        .build();
+                session = stripeGateway.call("checkout.sessions.retrieve",
+                        client -> client.checkout().sessions().retrieve(sessionId, retrieveParams));
+                pi = session.getPaymentIntentObject();
+            }
             Map<String, String> md = pi.getMetadata();
             String paymentIntentId = pi.getId();
             Long paidAmount = pi.getAmount(); // JPYなら整数
 
-            reservationService.createReservationFromStripe(
-                    md,
-                    paymentIntentId,
-                    session.getId(),   // checkout_session_id
-                    paidAmount
-            );
-            System.out.println("予約情報の登録処理が成功しました。(via checkout.session.completed)");
+            book(md, paymentIntentId, session.getId(), paidAmount);  // session.getId() = checkout_session_id
+            log.info("予約情報の登録処理が成功しました。(via checkout.session.completed) pi={}", paymentIntentId);
+            return WebhookOutcome.OK;
         } catch (Exception e) {
-            System.out.println("handleSession 例外: " + e.getMessage());
+            log.error("handleSession 例外 session={}", session.getId(), e);
+            return WebhookOutcome.ERROR;
         }
     }
-    
-    public void processChargeEvent(Event event) {
-        event.getDataObjectDeserializer().getObject().ifPresentOrElse(raw -> {
+
+    public WebhookOutcome processChargeEvent(Event event) {
+        return event.getDataObjectDeserializer().getObject().map(raw -> {
             Charge charge = (Charge) raw;
             try {
                 Map<String, String> md = charge.getMetadata();      // ← ここに予約メタデータが入ってくる（ログで確認済み）
                 String paymentIntentId = charge.getPaymentIntent(); // 冪等キー
                 Long paidAmount = charge.getAmount();               // JPY は整数
 
-                reservationService.createReservationFromStripe(md, paymentIntentId, null, paidAmount);
-                System.out.println("予約情報の登録処理が成功しました。(via " + event.getType() + ")");
+                book(md, paymentIntentId, null, paidAmount);
+                log.info("予約情報の登録処理が成功しました。(via {}) pi={}", event.getType(), paymentIntentId);
+                return WebhookOutcome.OK;
             } catch (Exception e) {
-                System.out.println("processChargeEvent 例外: " + e.getMessage());
+                log.error("processChargeEvent 例外 event={}", event.getId(), e);
+                return WebhookOutcome.ERROR;
             }
-        }, () -> System.out.println(event.getType() + " のデシリアライズに失敗"));
+        }).orElseGet(() -> {
+            log.warn("{} のデシリアライズに失敗 event={}", event.getType(), event.getId());
+            return WebhookOutcome.SKIPPED;
+        });
     }
-    
-    public void processPaymentIntentSucceeded(Event event) {
-        event.getDataObjectDeserializer().getObject().ifPresentOrElse(raw -> {
+
+    public WebhookOutcome processPaymentIntentSucceeded(Event event) {
+        return event.getDataObjectDeserializer().getObject().map(raw -> {
             com.stripe.model.PaymentIntent pi = (com.stripe.model.PaymentIntent) raw;
             try {
                 // メタデータ取得
@@ -244,11 +334,47 @@ public class StripeService {
                 Long paidAmount = pi.getAmount(); // JPY なら整数
 
                 // セッションIDは無しでもOK（トレース不要なら null 可）
-                reservationService.createReservationFromStripe(md, paymentIntentId, null, paidAmount);
-                System.out.println("[WEBHOOK] payment_intent.succeeded -> reservation upserted");
+                book(md, paymentIntentId, null, paidAmount);
+                log.info("payment_intent.succeeded -> reservation upserted pi={}", paymentIntentId);
+                return WebhookOutcome.OK;
             } catch (Exception e) {
-                System.out.println("[WEBHOOK] pi.succeeded error: " + e.getMessage());
+                log.error("pi.succeeded error event={}", event.getId(), e);
+                return WebhookOutcome.ERROR;
             }
-        }, () -> System.out.println("[WEBHOOK] cannot deserialize payment_intent.succeeded"));
+        }).orElseGet(() -> {
+            log.warn("cannot deserialize payment_intent.succeeded event={}", event.getId());
+            return WebhookOutcome.SKIPPED;
+        });
+    }
+
+    /** 予約を登録し、決済後に枠が埋まっていた場合は返金する */
+    private void book(Map<String, String> md, String paymentIntentId, String checkoutSessionId, Long paidAmount) {
+        var result = reservationService.createReservationFromStripe(md, paymentIntentId, checkoutSessionId, paidAmount);
+        if (result == ReservationService.StripeBookingResult.CONFLICT) {
+            refundConflict(paymentIntentId);
+        }
+    }
+
+    /**
+     * 競合で予約できなかった決済を全額返金
+     * ★ 冪等キーは PaymentIntent 単位。同じ決済の複数イベント・再送で呼ばれても返金は 1 回
+     * @throws IllegalStateException 返金に失敗した場合（Webhook を失敗扱いにして Stripe の再送で再試行させる）
+     */
+    void refundConflict(String paymentIntentId) {
+        RefundCreateParams params = RefundCreateParams.builder()
+                .setPaymentIntent(paymentIntentId)
+                .setReason(RefundCreateParams.Reason.REQUESTED_BY_CUSTOMER)
+                .putMetadata("reason", "reservation_conflict")
+                .build();
+        RequestOptions requestOptions = RequestOptions.builder()
+                .setIdempotencyKey("refund:" + paymentIntentId)
+                .build();
+        try {
+            Refund refund = stripeGateway.call("refunds.create",
+                    client -> client.refunds().create(params, requestOptions));
+            log.warn("予約が競合したため返金しました。 pi={} refund={}", paymentIntentId, refund.getId());
+        } catch (StripeException e) {
+            throw new IllegalStateException("競合した予約の返金に失敗しました。 pi=" + paymentIntentId, e);
+        }
     }
 }
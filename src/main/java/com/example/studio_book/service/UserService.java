@@ -1,6 +1,7 @@
 package com.example.studio_book.service;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
@@ -15,7 +16,6 @@ import com.example.studio_book.entity.User;
 import com.example.studio_book.entity.UserRole;
 import com.example.studio_book.form.SignupForm;
 import com.example.studio_book.form.UserEditForm;
-import com.example.studio_book.repository.AuditLogRepository;
 import com.example.studio_book.repository.RoleRepository;
 import com.example.studio_book.repository.UserRepository;
 import com.example.studio_book.repository.UserRoleRepository;
@@ -28,18 +28,21 @@ public class UserService {
     
     // ★ 追加
     private final UserRoleRepository userRoleRepository;
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final ReservationSearchIndexer searchIndexer;
 
     public UserService(UserRepository userRepository,
             RoleRepository roleRepository,
             PasswordEncoder passwordEncoder,
             UserRoleRepository userRoleRepository,     // ★ 追加
-            AuditLogRepository auditLogRepository) {   // ★ 追加
+            AuditLogWriter auditLogWriter,   // ★ 追加
+            ReservationSearchIndexer searchIndexer) {
 this.userRepository = userRepository;
 this.roleRepository = roleRepository;
 this.passwordEncoder = passwordEncoder;
 this.userRoleRepository = userRoleRepository;
-this.auditLogRepository = auditLogRepository;
+this.auditLogWriter = auditLogWriter;
+this.searchIndexer = searchIndexer;
 }
 
     @Transactional
@@ -78,13 +81,14 @@ this.auditLogRepository = auditLogRepository;
                 .note("email=" + saved.getEmail() + ", role=" + role.getName())
                 .build();
 
-        auditLogRepository.save(log);
+        auditLogWriter.write(log);
 
         return saved;
     }
     
     @Transactional
     public void updateUser(UserEditForm userEditForm, User user) {
+        boolean renamed = !Objects.equals(user.getName(), userEditForm.getName());
         user.setName(userEditForm.getName());
         user.setFurigana(userEditForm.getFurigana());
         user.setPostalCode(userEditForm.getPostalCode());
@@ -92,7 +96,13 @@ this.auditLogRepository = auditLogRepository;
         user.setPhoneNumber(userEditForm.getPhoneNumber());
         user.setEmail(userEditForm.getEmail());
 
-        userRepository.save(user);
+        if (renamed) {
+            // 予約検索用の名前も直す（UPDATE ... JOIN で読むので先に flush）
+            userRepository.saveAndFlush(user);
+            searchIndexer.refreshUser(user.getId());
+        } else {
+            userRepository.save(user);
+        }
     }    
     
     @Transactional
@@ -114,7 +124,7 @@ this.auditLogRepository = auditLogRepository;
                 .entityId(user.getId())
                 .note("email=" + user.getEmail())
                 .build();
-        auditLogRepository.save(log);
+        auditLogWriter.write(log);
     }
     
     // メールアドレスが登録済みかどうかをチェックする
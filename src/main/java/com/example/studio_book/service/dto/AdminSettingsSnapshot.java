@@ -0,0 +1,56 @@
+// src/main/java/com/example/studio_book/service/dto/AdminSettingsSnapshot.java
+package com.example.studio_book.service.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * admin_settings の読み取り専用スナップショット（料金計算で使う値は型付きで保持）
+ *
+ * @param version       変更検知用（admin_settings_revision の変更番号）
+ * @param values        key → value の生値
+ * @param taxRate       tax_rate（0.1 = 10%）。未設定・不正値は 0
+ * @param adminFeeRate  admin_fee_rate。未設定・不正値は 0
+ * @param enablePriceRules   ENABLE_PRICE_RULES（true/1/on）。未設定は true
+ * @param billingUnitMinutes BILLING_UNIT_MINUTES。未設定・不正値は 1
+ */
+public record AdminSettingsSnapshot(
+    String version,
+    Map<String, String> values,
+    BigDecimal taxRate,
+    BigDecimal adminFeeRate,
+    boolean enablePriceRules,
+    int billingUnitMinutes
+) {
+
+    public static AdminSettingsSnapshot of(String version, Map<String, String> values) {
+        Map<String, String> copy = Map.copyOf(values);
+        return new AdminSettingsSnapshot(
+            version,
+            copy,
+            decimal(copy.get("tax_rate"), BigDecimal.ZERO),
+            decimal(copy.get("admin_fee_rate"), BigDecimal.ZERO),
+            bool(copy.get("ENABLE_PRICE_RULES"), true),
+            integer(copy.get("BILLING_UNIT_MINUTES"), 1)
+        );
+    }
+
+    public String value(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    private static BigDecimal decimal(String v, BigDecimal def) {
+        if (v == null) return def;
+        try { return new BigDecimal(v); } catch (Exception e) { return def; }
+    }
+
+    private static boolean bool(String v, boolean def) {
+        if (v == null) return def;
+        return v.equalsIgnoreCase("true") || v.equals("1") || v.equalsIgnoreCase("on");
+    }
+
+    private static int integer(String v, int def) {
+        if (v == null) return def;
+        try { return Integer.parseInt(v); } catch (Exception e) { return def; }
+    }
+}
@@ -7,10 +7,15 @@ import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
 import org.springframework.validation.Validator;
 
+import com.example.studio_book.config.QueryCountInspector;
 import com.example.studio_book.form.ReservationInputForm;
 import com.example.studio_book.repository.ClosureRepository;
 import com.example.studio_book.repository.ReservationRepository;
+import com.example.studio_book.service.AppMetrics;
+import com.example.studio_book.service.AvailabilityBitmaps;
 import com.example.studio_book.service.BusinessHourService;
+import com.example.studio_book.service.ClosureRuleExpander;
+import com.example.studio_book.service.SlotHoldService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -20,7 +25,11 @@ public class ReservationInputValidator implements Validator {
 
   private final ReservationRepository reservationRepository;
   private final ClosureRepository closureRepository;
+  private final ClosureRuleExpander closureRules;
   private final BusinessHourService businessHourService;
+  private final SlotHoldService slotHoldService;
+  private final AvailabilityBitmaps availability;
+  private final AppMetrics metrics;
 
   @Override
   public boolean supports(Class<?> clazz) {
@@ -33,6 +42,13 @@ public class ReservationInputValidator implements Validator {
    * @param roomId チェック対象の部屋ID（Controllerから渡すヘルパー経由で設定）
    */
   public void validateWithRoomId(Object target, Errors errors, int roomId) {
+    validateWithRoomId(target, errors, roomId, null);
+  }
+
+  /**
+   * @param userId 予約しようとしているユーザー（本人の仮押さえは干渉扱いにしない）
+   */
+  public void validateWithRoomId(Object target, Errors errors, int roomId, Integer userId) {
     validate(target, errors); // 基本チェック
     if (errors.hasErrors()) return;
 
@@ -40,18 +56,43 @@ public class ReservationInputValidator implements Validator {
     LocalDateTime s = f.getStartDateTime();
     LocalDateTime e = f.getEndDateTime();
 
+    long t0 = System.nanoTime();
+    long queriesBefore = QueryCountInspector.current();
+    try {
+      checkAvailability(errors, roomId, userId, s, e);
+    } finally {
+      metrics.recordValidation(QueryCountInspector.current() - queriesBefore, System.nanoTime() - t0);
+    }
+  }
+
+  private void checkAvailability(Errors errors, int roomId, Integer userId, LocalDateTime s, LocalDateTime e) {
     // 予約済みとの干渉
     if (reservationRepository.existsOverlapping(roomId, s, e)) {
       errors.reject("reservation.overlap", "指定の時間帯は既に予約があります。別の時間を選択してください。");
     }
 
+    // 他ユーザーが決済手続き中（仮押さえ）
+    if (slotHoldService.isHeldByOther(roomId, userId, s, e)) {
+      errors.reject("slot.held", "指定の時間帯は他のお客様が決済手続き中です。しばらくしてから再度お試しください。");
+    }
+
+    // ★ 休館・営業時間は 15 分境界ならビットマップで判定（端数のある時刻だけ元の行で判定）
+    //   予約・仮押さえは他ノードの書き込みもすぐ見える必要があるので上の DB 照会のまま
+    boolean aligned = AvailabilityBitmaps.isAligned(s, e);
+
     // 休館日との干渉
-    if (closureRepository.existsOverlapping(roomId, s, e)) {
+    boolean closed = aligned
+        ? availability.anyClosed(roomId, s, e)
+        : closureRepository.existsOverlapping(roomId, s, e) || closureRules.overlaps(roomId, s, e);
+    if (closed) {
       errors.reject("closure.overlap", "指定の時間帯は休館です。別の時間を選択してください。");
     }
 
     // 営業時間外
-    if (!businessHourService.fitsWithinBusinessHours(roomId, s, e)) {
+    boolean open = aligned
+        ? availability.allOpen(roomId, s, e)
+        : businessHourService.fitsWithinBusinessHours(roomId, s, e);
+    if (!open) {
       errors.reject("businesshour.outside", "営業時間外を含んでいます。営業時間内の時間帯を指定してください。");
     }
   }
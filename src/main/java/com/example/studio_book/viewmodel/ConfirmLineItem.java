@@ -14,4 +14,10 @@ public class ConfirmLineItem {
   private long amount;           // 円（整数）
   private LocalDateTime sliceStart; // 任意
   private LocalDateTime sliceEnd;   // 任意
+  private Integer unitRatePerHour;  // 任意（base/multiplier の時間単価。明細へ引き継ぐ）
+
+  public ConfirmLineItem(String kind, String label, long amount,
+                         LocalDateTime sliceStart, LocalDateTime sliceEnd) {
+    this(kind, label, amount, sliceStart, sliceEnd, null);
+  }
 }
@@ -0,0 +1,86 @@
+// src/main/java/db/migration/V2__Access_path_indexes.java
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * 一覧・重複チェック・集計が使う二次インデックス。
+ * MySQL には CREATE INDEX IF NOT EXISTS が無いので、ddl-auto 時代に作られた DB でも
+ * 同名の索引があれば飛ばせるよう information_schema を見てから作る。
+ * 名前はエンティティの @Index と揃えている。
+ */
+public class V2__Access_path_indexes extends BaseJavaMigration {
+
+    record Idx(String table, String name, String columns, String kind) {
+        static Idx of(String table, String name, String columns) {
+            return new Idx(table, name, columns, "INDEX");
+        }
+        /** 日本語を部分一致で引くため ngram パーサ */
+        static Idx fullText(String table, String name, String column) {
+            return new Idx(table, name, column, "FULLTEXT INDEX");
+        }
+    }
+
+    static final List<Idx> INDEXES = List.of(
+        // 予約：部屋ごとの期間検索（重複チェック・カレンダー・ホスト一覧）／状態＋開始日時／Checkout 照会
+        Idx.of("reservations", "idx_reservations_room_start", "room_id, start_at, end_at, status"),
+        Idx.of("reservations", "idx_reservations_status_start", "status, start_at"),
+        Idx.of("reservations", "idx_reservations_checkout_session", "checkout_session_id"),
+        // 休業・料金ルールは部屋ごとに引く
+        Idx.of("closures", "idx_closures_room_start", "room_id, start_at"),
+        Idx.of("price_rules", "idx_price_rules_room", "room_id"),
+        // 明細・見積もり
+        Idx.of("reservation_charge_items", "idx_charge_items_reservation", "reservation_id, slice_start"),
+        Idx.of("reservation_quotes", "idx_reservation_quotes_created", "created_at"),
+        Idx.of("reservation_quote_items", "idx_reservation_quote_items_quote", "quote_id, sort_order"),
+        // 仮押さえ・メール送信待ち
+        Idx.of("slot_holds", "idx_slot_holds_room_time", "room_id, start_at, end_at"),
+        Idx.of("mail_outbox", "idx_mail_outbox_due", "status, next_attempt_at"),
+        // 予約検索の索引テーブル
+        Idx.of("reservation_search", "idx_reservation_search_room", "room_id"),
+        Idx.of("reservation_search", "idx_reservation_search_guest", "guest_id"),
+        Idx.of("reservation_search", "idx_reservation_search_host", "host_id"),
+        Idx.fullText("reservation_search", "ft_reservation_search_names", "names"),
+        // 監査ログ（(ts, id) のキーセット＋各フィルタ）
+        Idx.of("audit_logs", "idx_audit_logs_ts", "ts, id"),
+        Idx.of("audit_logs", "idx_audit_logs_action_ts", "action, ts"),
+        Idx.of("audit_logs", "idx_audit_logs_entity_ts", "entity, entity_id, ts"),
+        Idx.of("audit_logs", "idx_audit_logs_actor_ts", "actor_id, ts"),
+        Idx.fullText("audit_logs", "ft_audit_logs_note", "note")
+    );
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection c = context.getConnection();
+        for (Idx idx : INDEXES) {
+            if (exists(c, idx)) continue;
+            String ddl = "ALTER TABLE " + idx.table() + " ADD " + idx.kind() + " " + idx.name()
+                    + " (" + idx.columns() + ")"
+                    + (idx.kind().startsWith("FULLTEXT") ? " WITH PARSER ngram" : "");
+            try (Statement st = c.createStatement()) {
+                st.execute(ddl);
+            }
+        }
+    }
+
+    private static boolean exists(Connection c, Idx idx) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("""
+                SELECT COUNT(*) FROM information_schema.statistics
+                 WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?
+                """)) {
+            ps.setString(1, idx.table());
+            ps.setString(2, idx.name());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+}
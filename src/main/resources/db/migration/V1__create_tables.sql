@@ -0,0 +1,217 @@
+-- 全テーブル（主キー・一意制約・外部キーまで）。
+-- Flyway 導入前に ddl-auto や旧 schema.sql で作られた DB でも流せるよう IF NOT EXISTS にしている。
+-- 検索用のインデックスは V2（既存 DB にも冪等に追加するため Java マイグレーション）。
+
+CREATE TABLE IF NOT EXISTS roles (
+    id   INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(50) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS users (
+    id           INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name         VARCHAR(50) NOT NULL,
+    furigana     VARCHAR(50) NOT NULL,
+    postal_code  VARCHAR(50) NOT NULL,
+    address      VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(50) NOT NULL,
+    email        VARCHAR(255) NOT NULL UNIQUE,
+    password     VARCHAR(255) NOT NULL,
+    role_id      INT NOT NULL,
+    enabled      BOOLEAN NOT NULL,
+    created_at   DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at   DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (role_id) REFERENCES roles (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    id      BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id INT NOT NULL,
+    role_id INT NOT NULL,
+    CONSTRAINT uq_user_roles_user_role UNIQUE (user_id, role_id),
+    FOREIGN KEY (user_id) REFERENCES users (id),
+    FOREIGN KEY (role_id) REFERENCES roles (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS verification_tokens (
+    id         INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id    INT NOT NULL UNIQUE,
+    token      VARCHAR(255) NOT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS password_reset_tokens (
+    id         BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    email      VARCHAR(255),
+    token      VARCHAR(255),
+    expires_at DATETIME
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS rooms (
+    id          INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id     INT NOT NULL,
+    name        VARCHAR(50) NOT NULL,
+    image_name  VARCHAR(255),
+    description VARCHAR(255) NOT NULL,
+    price       INT NOT NULL,
+    capacity    INT NOT NULL,
+    postal_code VARCHAR(50) NOT NULL,
+    address     VARCHAR(255) NOT NULL,
+    created_at  DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at  DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT ux_rooms_name_address UNIQUE (name, address),
+    FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS room_businesshours (
+    id         INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    room_id    INT NOT NULL,
+    day_index  INT NOT NULL,
+    start_time TIME,
+    end_time   TIME,
+    holiday    BOOLEAN NOT NULL,
+    CONSTRAINT uq_room_day UNIQUE (room_id, day_index),
+    CONSTRAINT fk_room_businesshours_room FOREIGN KEY (room_id) REFERENCES rooms (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS closures (
+    id       INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    room_id  INT NOT NULL,
+    start_at DATETIME NOT NULL,
+    end_at   DATETIME NOT NULL,
+    reason   VARCHAR(255),
+    FOREIGN KEY (room_id) REFERENCES rooms (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS price_rules (
+    id         INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    room_id    INT NOT NULL,
+    rule_type  VARCHAR(255) NOT NULL,
+    weekday    INT,
+    start_hour TIME,
+    end_hour   TIME,
+    multiplier DECIMAL(6, 2),
+    flat_fee   INT,
+    note       VARCHAR(255)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS reservations (
+    id                  INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    room_id             INT NOT NULL,
+    user_id             INT NOT NULL,
+    start_at            DATETIME NOT NULL,
+    end_at              DATETIME NOT NULL,
+    amount              INT NOT NULL,
+    payment_intent_id   VARCHAR(255),
+    checkout_session_id VARCHAR(255),
+    status              VARCHAR(255) NOT NULL,
+    created_at          DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at          DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT ux_reservations_payment_intent UNIQUE (payment_intent_id),
+    FOREIGN KEY (room_id) REFERENCES rooms (id),
+    FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS reservation_charge_items (
+    id                 INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    reservation_id     INT NOT NULL,
+    kind               VARCHAR(255) NOT NULL,
+    description        VARCHAR(255),
+    slice_amount       INT NOT NULL,
+    slice_start        DATETIME,
+    slice_end          DATETIME,
+    unit_rate_per_hour INT
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS reservation_quotes (
+    id         VARCHAR(36) NOT NULL PRIMARY KEY,
+    room_id    INT NOT NULL,
+    user_id    INT NOT NULL,
+    start_at   DATETIME NOT NULL,
+    end_at     DATETIME NOT NULL,
+    subtotal   BIGINT NOT NULL,
+    tax        BIGINT NOT NULL,
+    amount     BIGINT NOT NULL,
+    created_at DATETIME NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS reservation_quote_items (
+    id                 INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    quote_id           VARCHAR(36) NOT NULL,
+    sort_order         INT NOT NULL,
+    kind               VARCHAR(255) NOT NULL,
+    description        VARCHAR(255),
+    amount             BIGINT NOT NULL,
+    slice_start        DATETIME,
+    slice_end          DATETIME,
+    unit_rate_per_hour INT
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS reservation_search (
+    reservation_id INT NOT NULL PRIMARY KEY,
+    room_id        INT NOT NULL,
+    guest_id       INT NOT NULL,
+    host_id        INT NOT NULL,
+    names          TEXT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS slot_holds (
+    id         INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    room_id    INT NOT NULL,
+    user_id    INT NOT NULL,
+    start_at   DATETIME NOT NULL,
+    end_at     DATETIME NOT NULL,
+    expires_at DATETIME NOT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS reviews (
+    id            INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    room_id       INT NOT NULL,
+    user_id       INT NOT NULL,
+    score         INT NOT NULL,
+    content       TEXT NOT NULL,
+    host_reply    TEXT,
+    host_reply_at DATETIME,
+    is_public     BOOLEAN NOT NULL DEFAULT TRUE,
+    hidden_reason VARCHAR(255),
+    created_at    DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at    DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT uq_room_user UNIQUE (room_id, user_id),
+    FOREIGN KEY (room_id) REFERENCES rooms (id),
+    FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS admin_settings (
+    id         BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    `key`      VARCHAR(255) NOT NULL,
+    `value`    VARCHAR(255) NOT NULL,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT uq_admin_settings_key UNIQUE (`key`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS audit_logs (
+    id        INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    ts        DATETIME NOT NULL,
+    actor_id  INT NOT NULL,
+    action    VARCHAR(100) NOT NULL,
+    entity    VARCHAR(100) NOT NULL,
+    entity_id INT,
+    note      VARCHAR(255)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS mail_outbox (
+    id              BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    from_address    VARCHAR(255),
+    to_address      VARCHAR(255) NOT NULL,
+    subject         VARCHAR(255) NOT NULL,
+    body            TEXT NOT NULL,
+    html            BOOLEAN NOT NULL,
+    status          VARCHAR(16) NOT NULL,
+    attempts        INT NOT NULL,
+    next_attempt_at DATETIME NOT NULL,
+    last_error      VARCHAR(500),
+    created_at      DATETIME NOT NULL,
+    sent_at         DATETIME
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
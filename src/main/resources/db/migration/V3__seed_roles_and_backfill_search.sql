@@ -0,0 +1,13 @@
+-- ロールはアプリが ID で参照するので必ず入れておく
+INSERT IGNORE INTO roles (id, name) VALUES (1, 'ROLE_GENERAL');
+INSERT IGNORE INTO roles (id, name) VALUES (2, 'ROLE_HOST');
+INSERT IGNORE INTO roles (id, name) VALUES (3, 'ROLE_ADMIN');
+
+-- reservation_search 導入前の予約を埋める（以後は ReservationSearchIndexer が保守）
+INSERT INTO reservation_search (reservation_id, room_id, guest_id, host_id, names)
+SELECT r.id, r.room_id, r.user_id, rm.user_id, CONCAT_WS(' ', rm.name, gu.name, host.name)
+  FROM reservations r
+  JOIN rooms rm   ON rm.id = r.room_id
+  JOIN users gu   ON gu.id = r.user_id
+  JOIN users host ON host.id = rm.user_id
+ WHERE NOT EXISTS (SELECT 1 FROM reservation_search s WHERE s.reservation_id = r.id);
@@ -0,0 +1,17 @@
+-- 繰り返しの休館（期間ごとの行は作らず、照会範囲の分だけアプリ側で展開する）
+CREATE TABLE IF NOT EXISTS closure_rules (
+    id            INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    room_id       INT NOT NULL,
+    frequency     VARCHAR(16) NOT NULL,
+    weekday       INT,
+    week_of_month INT,
+    month         INT,
+    day_of_month  INT,
+    start_time    TIME,
+    end_time      TIME,
+    valid_from    DATE NOT NULL,
+    valid_until   DATE,
+    reason        VARCHAR(255),
+    INDEX idx_closure_rules_room (room_id),
+    FOREIGN KEY (room_id) REFERENCES rooms (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
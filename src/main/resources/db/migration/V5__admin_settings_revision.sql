@@ -0,0 +1,8 @@
+-- admin_settings の変更番号（1 行だけ）。保存のたびに同じトランザクションで +1 し、
+-- 各ノードはこの値だけを見てスナップショットを読み直すか決める（updated_at の秒精度に頼らない）
+CREATE TABLE IF NOT EXISTS admin_settings_revision (
+    id       TINYINT NOT NULL PRIMARY KEY,
+    revision BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO admin_settings_revision (id, revision) VALUES (1, 0);
@@ -2,10 +2,38 @@ package com.example.studio_book;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
 
-@SpringBootTest
+/**
+ * アプリ全体を実際の MySQL（Flyway 適用済み）で起動する。本番と同じく ddl-auto=validate。
+ * Docker が無い環境ではスキップされる（CI では必ず実行）。
+ */
+@SpringBootTest(properties = {
+	"spring.jpa.hibernate.ddl-auto=validate",
+	"stripe.api-key=sk_test_dummy",
+	"stripe.publishable-key=pk_test_dummy",
+	"stripe.webhook-secret=whsec_dummy",
+	"stripe.success-url=http://localhost/reservations?reserved=done",
+	"stripe.cancel-url=http://localhost/reservations?reserved=cancel",
+	"spring.mail.host=localhost"
+})
+@Testcontainers(disabledWithoutDocker = true)
 class StudioBookApplicationTests {
 
+	@Container
+	static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+		registry.add("spring.datasource.username", MYSQL::getUsername);
+		registry.add("spring.datasource.password", MYSQL::getPassword);
+	}
+
 	@Test
 	void contextLoads() {
 	}
@@ -0,0 +1,115 @@
+package com.example.studio_book.config;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+/**
+ * CorrelationIdFilter（フィルタ単体。MockMvc なし）
+ * - 上流の X-Request-Id は形式が正しければそのまま使い、不正・長すぎる値は採番し直すこと
+ * - リクエスト中は MDC に載り、終わったら（例外でも）消えること
+ * - 非同期の再ディスパッチでは最初に決めた ID を使い回すこと
+ */
+class CorrelationIdFilterTest {
+
+    private static final String UUID_PATTERN = "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}";
+
+    private final CorrelationIdFilter filter = new CorrelationIdFilter();
+
+    /** チェーンの中で見えた MDC の値 */
+    private final List<String> seen = new ArrayList<>();
+    private final FilterChain chain = (req, res) -> seen.add(MDC.get(CorrelationIdFilter.MDC_KEY));
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    private MockHttpServletResponse run(String incoming) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/host/sales_details.csv");
+        if (incoming != null) request.addHeader(CorrelationIdFilter.HEADER, incoming);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    @DisplayName("上流の値はそのまま MDC に載せて返し、終わったら MDC から消す")
+    void validIdIsEchoed() throws Exception {
+        MockHttpServletResponse response = run("abc-123");
+
+        assertThat(response.getHeader(CorrelationIdFilter.HEADER)).isEqualTo("abc-123");
+        assertThat(seen).containsExactly("abc-123");
+        assertThat(MDC.get(CorrelationIdFilter.MDC_KEY)).isNull();
+    }
+
+    @Test
+    @DisplayName("ヘッダなしは採番する")
+    void missingIdIsGenerated() throws Exception {
+        MockHttpServletResponse response = run(null);
+
+        String id = response.getHeader(CorrelationIdFilter.HEADER);
+        assertThat(id).matches(UUID_PATTERN);
+        assertThat(seen).containsExactly(id);
+    }
+
+    @Test
+    @DisplayName("改行・記号入り（ログ注入）や 64 文字超は使わずに採番し直す")
+    void invalidOrOversizedIdIsReplaced() throws Exception {
+        for (String bad : List.of("bad\nid", "a b", "id;drop", "x".repeat(65))) {
+            seen.clear();
+            MockHttpServletResponse response = run(bad);
+
+            String id = response.getHeader(CorrelationIdFilter.HEADER);
+            assertThat(id).as(bad).matches(UUID_PATTERN);
+            assertThat(seen).as(bad).containsExactly(id);
+        }
+        // 64 文字ちょうどは受け付ける
+        assertThat(run("x".repeat(64)).getHeader(CorrelationIdFilter.HEADER)).isEqualTo("x".repeat(64));
+    }
+
+    @Test
+    @DisplayName("チェーンが例外でも MDC は消える")
+    void mdcIsClearedOnException() {
+        FilterChain failing = (req, res) -> {
+            seen.add(MDC.get(CorrelationIdFilter.MDC_KEY));
+            throw new ServletException("boom");
+        };
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(CorrelationIdFilter.HEADER, "req-1");
+
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(), failing))
+                .isInstanceOf(ServletException.class);
+        assertThat(seen).containsExactly("req-1");
+        assertThat(MDC.get(CorrelationIdFilter.MDC_KEY)).isNull();
+    }
+
+    @Test
+    @DisplayName("非同期の再ディスパッチでは採番し直さず、最初のディスパッチの ID を MDC に載せる")
+    void asyncDispatchReusesId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/rooms/1/calendar/next-slots");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        String id = response.getHeader(CorrelationIdFilter.HEADER);
+        assertThat(id).matches(UUID_PATTERN);
+
+        // DeferredResult の完了で同じリクエストが ASYNC として戻ってくる
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(seen).containsExactly(id, id);
+        assertThat(MDC.get(CorrelationIdFilter.MDC_KEY)).isNull();
+    }
+}
@@ -20,14 +20,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.example.studio_book.dto.AdminReservationRow;
+import com.example.studio_book.dto.KeysetPage;
+import com.example.studio_book.dto.ReservationListFilter;
 import com.example.studio_book.entity.Reservation;
+import com.example.studio_book.entity.Room;
 import com.example.studio_book.repository.ReservationRepository;
+import com.example.studio_book.service.AvailabilityBitmaps;
+import com.example.studio_book.service.RoomLockService;
 
 @WebMvcTest(controllers = AdminReservationController.class)
 @AutoConfigureMockMvc(addFilters = false) // Security無効化（CSRFはwith(csrf())で供給）
@@ -39,11 +44,17 @@ class AdminReservationControllerTest {
     @MockBean
     ReservationRepository reservationRepository;
 
+    @MockBean
+    RoomLockService roomLockService;
+
+    @MockBean
+    AvailabilityBitmaps availability;
+
     // ---------------------------------------------------------------------
     // index() : Repositoryが Page<AdminReservationRow> を返す仕様に合わせる
     // ---------------------------------------------------------------------
     @Test
-    @DisplayName("index: フィルタなし → Page<AdminReservationRow> がModelに載る")
+    @DisplayName("index: フィルタなし → 先頭ページ（cursor なし）、概算件数つき、COUNT なし")
     void index_noFilters_ok() throws Exception {
         var start = LocalDateTime.of(2025, 1, 10, 9, 0);
         var end   = LocalDateTime.of(2025, 1, 10, 12, 0);
@@ -51,29 +62,35 @@ class AdminReservationControllerTest {
         var row = new AdminReservationRow(
             1, "RoomA", "GuestTaro", "HostHanako", start, end, 5000, "booked"
         );
-        Page<AdminReservationRow> page = new PageImpl<>(List.of(row), Pageable.ofSize(5), 1);
+        Slice<AdminReservationRow> slice = new SliceImpl<>(List.of(row), Pageable.ofSize(5), false);
 
-        when(reservationRepository.findAdminReservationPageFiltered(
-            isNull(), isNull(), isNull(), isNull(), isNull(), any(Pageable.class)
-        )).thenReturn(page);
+        when(reservationRepository.findAdminReservations(any(), isNull(), eq(false), eq(5))).thenReturn(slice);
+        when(reservationRepository.estimateReservationCount()).thenReturn(1200L);
 
-        mockMvc.perform(get("/admin/reservations").with(csrf()))
+        var result = mockMvc.perform(get("/admin/reservations").with(csrf()))
         .andExpect(status().isOk())
         .andExpect(view().name("admin/reservations/index"))
-        .andExpect(model().attributeExists("page", "rows"));
-        // ページャ確認
-        ArgumentCaptor<Pageable> pageableCap = ArgumentCaptor.forClass(Pageable.class);
-        verify(reservationRepository).findAdminReservationPageFiltered(
-            isNull(), isNull(), isNull(), isNull(), isNull(), pageableCap.capture()
-        );
-        assertThat(pageableCap.getValue().getPageSize()).isEqualTo(5);
+        .andExpect(model().attributeExists("page", "rows"))
+        .andReturn();
+
+        @SuppressWarnings("unchecked")
+        var page = (KeysetPage<AdminReservationRow>) result.getModelAndView().getModel().get("page");
+        assertThat(page.content()).containsExactly(row);
+        assertThat(page.hasNext()).isFalse();
+        assertThat(page.hasPrevious()).isFalse();
+        assertThat(page.approximateTotal()).isEqualTo(1200L);
+
+        // 条件なし・先頭ページ・5件
+        ArgumentCaptor<ReservationListFilter> filterCap = ArgumentCaptor.forClass(ReservationListFilter.class);
+        verify(reservationRepository).findAdminReservations(filterCap.capture(), isNull(), eq(false), eq(5));
+        assertThat(filterCap.getValue().isEmpty()).isTrue();
     }
 
     @Test
-    @DisplayName("index: フィルタの正規化（trim/日付変換/負のpage矯正/ID）")
+    @DisplayName("index: フィルタの正規化（trim/日付変換/ID）＋ 絞り込み時は概算件数を出さない")
     void index_filters_normalized() throws Exception {
-        when(reservationRepository.findAdminReservationPageFiltered(any(), any(), any(), any(), any(), any()))
-            .thenReturn(Page.empty());
+        when(reservationRepository.findAdminReservations(any(), any(), anyBoolean(), anyInt()))
+            .thenReturn(new SliceImpl<>(List.of()));
 
         LocalDate from = LocalDate.of(2025, 1, 2);
         LocalDate to   = LocalDate.of(2025, 1, 30);
@@ -84,27 +101,61 @@ class AdminReservationControllerTest {
                 .param("startFrom", from.toString())
                 .param("startTo", to.toString())
                 .param("reservationId", "123")
-                .param("page", "-1") // → 0 に矯正される想定
+                .param("cursor", "500")
         ).andExpect(status().isOk());
 
-        ArgumentCaptor<String> kwCap = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> stCap = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<LocalDateTime> fromCap = ArgumentCaptor.forClass(LocalDateTime.class);
-        ArgumentCaptor<LocalDateTime> toCap   = ArgumentCaptor.forClass(LocalDateTime.class);
-        ArgumentCaptor<Integer> idCap = ArgumentCaptor.forClass(Integer.class);
-        ArgumentCaptor<Pageable> pageableCap = ArgumentCaptor.forClass(Pageable.class);
+        ArgumentCaptor<ReservationListFilter> filterCap = ArgumentCaptor.forClass(ReservationListFilter.class);
+        verify(reservationRepository).findAdminReservations(filterCap.capture(), eq(500), eq(false), eq(5));
+
+        var f = filterCap.getValue();
+        assertThat(f.kw()).isEqualTo("abc");                                  // trim済み
+        assertThat(f.status()).isEqualTo("booked");
+        assertThat(f.reservationId()).isEqualTo(123);
+        assertThat(f.startFrom()).isEqualTo(from.atStartOfDay());             // 00:00
+        assertThat(f.startTo()).isEqualTo(to.atTime(23,59,59,999_000_000));   // 23:59:59.999
+        assertThat(f.roomId()).isNull();
+        verify(reservationRepository, never()).estimateReservationCount();
+    }
 
-        verify(reservationRepository).findAdminReservationPageFiltered(
-            kwCap.capture(), stCap.capture(), fromCap.capture(), toCap.capture(), idCap.capture(), pageableCap.capture()
-        );
+    @Test
+    @DisplayName("index: 次ページ → 末尾IDが next、起点付きなので prev もある")
+    void index_forward_cursors() throws Exception {
+        var t = LocalDateTime.of(2025, 1, 10, 9, 0);
+        var rows = List.of(
+            new AdminReservationRow(90, "R", "G", "H", t, t.plusHours(1), 1000, "booked"),
+            new AdminReservationRow(85, "R", "G", "H", t, t.plusHours(1), 1000, "booked"));
+        when(reservationRepository.findAdminReservations(any(), eq(100), eq(false), anyInt()))
+            .thenReturn(new SliceImpl<>(rows, Pageable.ofSize(5), true));
+
+        var result = mockMvc.perform(get("/admin/reservations").with(csrf()).param("cursor", "100"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        @SuppressWarnings("unchecked")
+        var page = (KeysetPage<AdminReservationRow>) result.getModelAndView().getModel().get("page");
+        assertThat(page.nextCursor()).isEqualTo("85");
+        assertThat(page.prevCursor()).isEqualTo("90");
+    }
 
-        assertThat(kwCap.getValue()).isEqualTo("abc");                       // trim済み
-        assertThat(stCap.getValue()).isEqualTo("booked");
-        assertThat(idCap.getValue()).isEqualTo(123);
-        assertThat(fromCap.getValue()).isEqualTo(from.atStartOfDay());       // 00:00
-        assertThat(toCap.getValue()).isEqualTo(to.atTime(23,59,59,999_000_000)); // 23:59:59.999
-        assertThat(pageableCap.getValue().getPageNumber()).isEqualTo(0);     // -1 → 0
-        assertThat(pageableCap.getValue().getPageSize()).isEqualTo(5);
+    @Test
+    @DisplayName("index: dir=prev → 新しい側を昇順で取り、表示は降順に戻す")
+    void index_backward_reversed() throws Exception {
+        var t = LocalDateTime.of(2025, 1, 10, 9, 0);
+        var ascending = List.of(
+            new AdminReservationRow(11, "R", "G", "H", t, t.plusHours(1), 1000, "booked"),
+            new AdminReservationRow(12, "R", "G", "H", t, t.plusHours(1), 1000, "booked"));
+        when(reservationRepository.findAdminReservations(any(), eq(10), eq(true), anyInt()))
+            .thenReturn(new SliceImpl<>(ascending, Pageable.ofSize(5), false));
+
+        var result = mockMvc.perform(get("/admin/reservations").with(csrf()).param("cursor", "10").param("dir", "prev"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        @SuppressWarnings("unchecked")
+        var page = (KeysetPage<AdminReservationRow>) result.getModelAndView().getModel().get("page");
+        assertThat(page.content()).extracting(AdminReservationRow::getReservationId).containsExactly(12, 11);
+        assertThat(page.nextCursor()).isEqualTo("11");
+        assertThat(page.hasPrevious()).isFalse();   // これより新しい行はない
     }
 
     // ---------------------------------------------------------------------
@@ -174,6 +225,28 @@ class AdminReservationControllerTest {
         assertThat(r.getStatus()).isEqualTo("booked");
         verify(reservationRepository).save(r);
     }
-}
 
+    @Test
+    @DisplayName("clear: canceled → booked は部屋ロック下で重複確認し、重複があれば戻さない")
+    void clear_fromCanceled_conflict_keepsCanceled() throws Exception {
+        var room = new Room();
+        room.setId(7);
+        var r = new Reservation();
+        r.setId(31);
+        r.setRoom(room);
+        r.setStatus("canceled");
+        r.setStartAt(LocalDateTime.of(2025, 1, 10, 9, 0));
+        r.setEndAt(LocalDateTime.of(2025, 1, 10, 12, 0));
+
+        when(reservationRepository.findById(31)).thenReturn(Optional.of(r));
+        when(reservationRepository.existsOverlapping(7, r.getStartAt(), r.getEndAt())).thenReturn(true);
+
+        mockMvc.perform(post("/admin/reservations/{id}/clear", 31).with(csrf()))
+               .andExpect(status().is3xxRedirection())
+               .andExpect(redirectedUrl("/admin/reservations?conflict=1"));
 
+        verify(roomLockService).lockForTransaction(7);
+        assertThat(r.getStatus()).isEqualTo("canceled");
+        verify(reservationRepository, never()).save(any());
+    }
+}
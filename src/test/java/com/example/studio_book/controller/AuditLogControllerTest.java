@@ -2,6 +2,7 @@
 package com.example.studio_book.controller;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.*;
 import static org.mockito.Mockito.*;
@@ -19,15 +20,12 @@ import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.example.studio_book.dto.KeysetPage;
 import com.example.studio_book.entity.AuditLog;
-import com.example.studio_book.repository.AuditLogRepository;
+import com.example.studio_book.service.AuditLogSearchService;
 
 @WebMvcTest(AuditLogController.class)
 class AuditLogControllerTest {
@@ -36,7 +34,7 @@ class AuditLogControllerTest {
     MockMvc mockMvc;
 
     @MockBean
-    AuditLogRepository auditLogRepository;
+    AuditLogSearchService auditLogSearchService;
 
     private AuditLog log(int id, String action, String entity) {
         AuditLog al = new AuditLog();
@@ -57,39 +55,36 @@ class AuditLogControllerTest {
 
         @Test
         @WithMockUser(roles = "ADMIN")
-        void ok_and_repository_called_with_spec_and_default_pageable() throws Exception {
+        void ok_and_first_page_requested_without_filters() throws Exception {
             // Arrange
-            Page<AuditLog> page = new PageImpl<>(List.of(
+            KeysetPage<AuditLog> slice = new KeysetPage<>(List.of(
                 log(1, "CREATE", "User"),
                 log(2, "UPDATE", "Room")
-            ));
-            given(auditLogRepository.findAll(any(Specification.class), any(Pageable.class))).willReturn(page);
+            ), "2025-11-01T10:00_2", null, 12345L);
+            given(auditLogSearchService.search(any(), any(), anyBoolean())).willReturn(slice);
 
             // Act & Assert
             mockMvc.perform(get("/admin/logs"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("admin/logs"))
-                .andExpect(model().attributeExists("logs"))
+                .andExpect(model().attribute("logs", slice))
                 .andExpect(model().attribute("q", (Object) null))
                 .andExpect(model().attribute("actorId", (Object) null))
                 .andExpect(model().attribute("action", (Object) null))
                 .andExpect(model().attribute("entity", (Object) null))
                 .andExpect(model().attribute("entityId", (Object) null))
                 .andExpect(model().attribute("from", (Object) null))
-                .andExpect(model().attribute("to", (Object) null));
-
-            // Verify: Specification/Pageable の中身を検査
-            ArgumentCaptor<Specification<AuditLog>> specCap = ArgumentCaptor.forClass(Specification.class);
-            ArgumentCaptor<Pageable> pageableCap = ArgumentCaptor.forClass(Pageable.class);
-            verify(auditLogRepository).findAll(specCap.capture(), pageableCap.capture());
-
-            assertThat(specCap.getValue()).as("Specification should not be null").isNotNull();
-
-            Pageable p = pageableCap.getValue();
-            assertThat(p.getPageNumber()).isEqualTo(0);
-            assertThat(p.getPageSize()).isEqualTo(10);
-            assertThat(p.getSort().getOrderFor("ts")).isNotNull();
-            assertThat(p.getSort().getOrderFor("ts").isDescending()).isTrue();
+                .andExpect(model().attribute("to", (Object) null))
+                // 次ページはカーソル付きリンク、件数は概算表示
+                .andExpect(content().string(containsString("cursor=2025-11-01T10:00_2")))
+                .andExpect(content().string(containsString("全 約 12,345 件")));
+
+            // Verify: 条件なし・先頭ページ
+            ArgumentCaptor<AuditLogSearchService.Criteria> critCap =
+                ArgumentCaptor.forClass(AuditLogSearchService.Criteria.class);
+            verify(auditLogSearchService).search(critCap.capture(), isNull(), eq(false));
+            assertThat(critCap.getValue())
+                .isEqualTo(new AuditLogSearchService.Criteria(null, null, null, null, null, null, null));
         }
     }
 
@@ -99,12 +94,10 @@ class AuditLogControllerTest {
 
         @Test
         @WithMockUser(roles = "ADMIN")
-        void ok_and_params_are_kept_in_model_and_pageable_changes_with_page_param() throws Exception {
+        void ok_and_params_are_kept_in_model_and_cursor_is_passed() throws Exception {
             // Arrange
-            Page<AuditLog> page = new PageImpl<>(List.of(
-                log(10, "DELETE", "Reservation")
-            ));
-            given(auditLogRepository.findAll(any(Specification.class), any(Pageable.class))).willReturn(page);
+            given(auditLogSearchService.search(any(), any(), anyBoolean()))
+                .willReturn(new KeysetPage<>(List.of(log(10, "DELETE", "Reservation")), null, null, null));
 
             // クエリパラメータ（全種）
             String q = "resv";
@@ -114,7 +107,7 @@ class AuditLogControllerTest {
             int entityId = 1234;
             LocalDate from = LocalDate.of(2025, 11, 1);
             LocalDate to = LocalDate.of(2025, 11, 10);
-            int pageIndex = 2;
+            String cursor = "2025-11-05T12:00_99";
 
             // Act & Assert
             mockMvc.perform(get("/admin/logs")
@@ -125,7 +118,8 @@ class AuditLogControllerTest {
                     .param("entityId", String.valueOf(entityId))
                     .param("from", from.toString())
                     .param("to", to.toString())
-                    .param("page", String.valueOf(pageIndex)))
+                    .param("cursor", cursor)
+                    .param("dir", "prev"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("admin/logs"))
                 .andExpect(model().attributeExists("logs"))
@@ -138,15 +132,20 @@ class AuditLogControllerTest {
                 .andExpect(model().attribute("from", from))
                 .andExpect(model().attribute("to", to));
 
-            // Verify: Pageable が page=2,size=10, sort=ts DESC
-            ArgumentCaptor<Pageable> pageableCap = ArgumentCaptor.forClass(Pageable.class);
-            verify(auditLogRepository).findAll(any(Specification.class), pageableCap.capture());
+            verify(auditLogSearchService).search(
+                eq(new AuditLogSearchService.Criteria(q, actorId, action, entity, entityId, from, to)),
+                eq(cursor), eq(true));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("壊れたカーソル → 400")
+        void badCursor_400() throws Exception {
+            given(auditLogSearchService.search(any(), any(), anyBoolean()))
+                .willThrow(new IllegalArgumentException("invalid cursor: x"));
 
-            Pageable p = pageableCap.getValue();
-            assertThat(p.getPageNumber()).isEqualTo(pageIndex);
-            assertThat(p.getPageSize()).isEqualTo(10);
-            assertThat(p.getSort().getOrderFor("ts")).isNotNull();
-            assertThat(p.getSort().getOrderFor("ts").isDescending()).isTrue();
+            mockMvc.perform(get("/admin/logs").param("cursor", "x"))
+                .andExpect(status().isBadRequest());
         }
     }
 
@@ -0,0 +1,145 @@
+package com.example.studio_book.controller;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.example.studio_book.service.ReservationSearchIndexer;
+
+/**
+ * 画面・API ごとの SQL 本数と所要時間の上限（アプリ全体を実際の MySQL で起動し、MockMvc で 1 リクエストずつ）
+ *
+ * 本数は QueryBudget（QueryCountInspector の差分）。部屋・レビュー・予約は上限より多く入れてあるので、
+ * 行ごとに SELECT する変更（テンプレートからの遅延ロードを含む）はここで落ちる。
+ * 各リクエストは 1 回空打ちしてから測る（テンプレートのコンパイル・設定のスナップショット読み込みを除く）。
+ * Docker が無い環境ではスキップされる（CI では必ず実行）。
+ */
+@SpringBootTest(properties = {
+    "stripe.api-key=sk_test_dummy",
+    "stripe.publishable-key=pk_test_dummy",
+    "stripe.webhook-secret=whsec_dummy",
+    "stripe.success-url=http://localhost/reservations?reserved=done",
+    "stripe.cancel-url=http://localhost/reservations?reserved=cancel",
+    "spring.mail.host=localhost"
+})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointQueryBudgetTest {
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    private static final int HOST_ID = 1;
+    private static final int ROOM_ID = 1;
+    private static final int ROOMS = 12;
+    private static final int GUESTS = 20;
+
+    @Autowired MockMvc mvc;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired ReservationSearchIndexer searchIndexer;
+
+    /** ホスト 1 人・部屋 12・利用者 20 人。部屋 1 には全員のレビュー（半分は非公開・ホスト返信あり）、予約は各部屋に（検索索引も） */
+    @BeforeAll
+    void seed() {
+        jdbc.update("INSERT IGNORE INTO roles (id, name) VALUES (1, 'ROLE_GENERAL'), (2, 'ROLE_HOST'), (3, 'ROLE_ADMIN')");
+        String user = "INSERT INTO users (id, name, furigana, postal_code, address, phone_number, email, password, role_id, enabled) "
+                + "VALUES (?, ?, 'フリガナ', '100-0001', '東京都', '090', ?, 'x', ?, true)";
+        jdbc.update(user, HOST_ID, "ホスト", "host@example.com", 2);
+        for (int u = 2; u <= GUESTS + 1; u++) {
+            jdbc.update(user, u, "ゲスト" + u, "guest" + u + "@example.com", 1);
+        }
+        for (int r = 1; r <= ROOMS; r++) {
+            jdbc.update("INSERT INTO rooms (id, user_id, name, description, price, capacity, postal_code, address) "
+                    + "VALUES (?, ?, ?, 'desc', 3000, 5, '100-0001', '東京都')", r, HOST_ID, "スタジオ" + r);
+        }
+        LocalDateTime start = LocalDateTime.of(2025, 11, 10, 10, 0);
+        for (int u = 2; u <= GUESTS + 1; u++) {
+            boolean visible = u % 2 == 0;
+            jdbc.update("INSERT INTO reviews (room_id, user_id, score, content, host_reply, host_reply_at, is_public) "
+                    + "VALUES (?, ?, 4, 'よかった', ?, ?, ?)",
+                    ROOM_ID, u, visible ? null : "ありがとうございます", visible ? null : start, visible);
+            int roomId = 1 + u % ROOMS;
+            jdbc.update("INSERT INTO reservations (id, room_id, user_id, start_at, end_at, amount, payment_intent_id, status) "
+                    + "VALUES (?, ?, ?, ?, ?, 6000, ?, 'paid')",
+                    u, roomId, u, start.plusDays(u), start.plusDays(u).plusHours(2), "pi_" + u);
+            searchIndexer.indexReservation(u);
+        }
+    }
+
+    /** 空打ち 1 回のあとに測る */
+    private void assertBudget(RequestBuilder request, int maxStatements) throws Exception {
+        mvc.perform(request).andExpect(status().isOk());
+
+        var budget = QueryBudget.watch();
+        mvc.perform(request).andExpect(status().isOk());
+        budget.assertWithin(maxStatements, QueryBudget.PAGE);
+    }
+
+    @Test
+    @DisplayName("トップ: 新着・人気で 2 本、レビューの平均・件数は全 ID まとめて 2 本")
+    void home() throws Exception {
+        assertBudget(get("/"), 4);
+    }
+
+    @Test
+    @DisplayName("部屋一覧: 一覧＋件数＋平均スコアをまとめて 1 本（キーワード検索も同じ）")
+    void roomList() throws Exception {
+        assertBudget(get("/rooms"), 3);
+        assertBudget(get("/rooms").param("keyword", "スタジオ").param("order", "priceAsc"), 3);
+    }
+
+    @Test
+    @DisplayName("部屋詳細: 部屋・ホスト・レビュー 5 本・営業時間・料金ルール（投稿者はレビューと同時に読む）")
+    void roomDetail() throws Exception {
+        assertBudget(get("/rooms/{id}", ROOM_ID), 9);
+    }
+
+    @Test
+    @DisplayName("管理: 統計画面は部屋の選択肢 1 本、集計 API は部屋数によらず一定")
+    void adminStats() throws Exception {
+        assertBudget(get("/admin/stats").with(user("admin").roles("ADMIN")), 1);
+        assertBudget(get("/admin/stats/api").with(user("admin").roles("ADMIN")), 14);
+    }
+
+    @Test
+    @DisplayName("管理: 予約一覧は一覧 1 本＋概算件数 1 本（COUNT(*) は打たない）。キーワードは reservation_search の全文検索 1 本")
+    void adminReservations() throws Exception {
+        assertBudget(get("/admin/reservations").with(user("admin").roles("ADMIN")), 2);
+        assertBudget(get("/admin/reservations").param("kw", "ゲスト").with(user("admin").roles("ADMIN")), 1);
+
+        // 索引の行が実際に全文検索（ngram）で引けること：予約者名・スタジオ名のどちらでも
+        mvc.perform(get("/admin/reservations").param("kw", "ゲスト7").with(user("admin").roles("ADMIN")))
+           .andExpect(model().attribute("rows", contains(hasProperty("reservationId", is(7)))));
+        // スタジオ9 の予約は 8 と 20（id 降順）
+        mvc.perform(get("/admin/reservations").param("kw", "スタジオ9").with(user("admin").roles("ADMIN")))
+           .andExpect(model().attribute("rows", contains(
+                   hasProperty("reservationId", is(20)), hasProperty("reservationId", is(8)))));
+    }
+}
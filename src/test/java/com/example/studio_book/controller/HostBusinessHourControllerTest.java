@@ -10,6 +10,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -107,6 +108,22 @@ class HostBusinessHourControllerTest {
         then(businessHourService).should().loadOrDefault(roomId);
     }
 
+    @Test
+    @DisplayName("GET: 他のスタジオ（自分以外）を otherRooms に載せる")
+    void get_otherRooms_excludesCurrent() throws Exception {
+        int roomId = 10;
+
+        given(roomService.findOwned(eq(roomId), eq(123))).willReturn(dummyRoom(roomId));
+        given(roomService.findOwnedRooms(123)).willReturn(List.of(dummyRoom(roomId), dummyRoom(11)));
+        given(businessHourService.loadOrDefault(eq(roomId))).willReturn(defaultForm(roomId));
+
+        mockMvc.perform(get("/host/rooms/{roomId}/business-hours", roomId)
+                .with(authentication(auth())))
+            .andExpect(status().isOk())
+            .andExpect(model().attribute("otherRooms", org.hamcrest.Matchers.hasSize(1)))
+            .andExpect(content().string(org.hamcrest.Matchers.containsString("name=\"applyTo\"")));
+    }
+
     // ====== POST ======
     @Nested
     class PostUpdate {
@@ -145,6 +162,31 @@ class HostBusinessHourControllerTest {
             then(businessHourService).should().save(eq(roomId), any(BusinessHoursForm.class));
         }
 
+        @Test
+        @DisplayName("applyTo 指定: 自スタジオ＋選んだスタジオへまとめて適用（save は呼ばない）")
+        void post_applyTo_appliesToAllRooms() throws Exception {
+            int roomId = 10;
+
+            given(roomService.findOwned(eq(roomId), eq(123))).willReturn(dummyRoom(roomId));
+            given(roomService.findOwnedRooms(123)).willReturn(List.of(dummyRoom(roomId), dummyRoom(11), dummyRoom(12)));
+
+            mockMvc.perform(post("/host/rooms/{roomId}/business-hours", roomId)
+                    .with(authentication(auth()))
+                    .with(csrf())
+                    .param("roomId", String.valueOf(roomId))
+                    .param("rows[0].dayIndex", "1")
+                    .param("rows[0].holiday", "false")
+                    .param("rows[0].startTime", "09:00")
+                    .param("rows[0].endTime", "18:00")
+                    .param("applyTo", "11", "12")
+            )
+            .andExpect(status().is3xxRedirection())
+            .andExpect(redirectedUrl("/host/rooms?success"));
+
+            then(businessHourService).should().applyToRooms(eq(123), eq(List.of(10, 11, 12)), any(BusinessHoursForm.class));
+            then(businessHourService).should(never()).save(anyInt(), any());
+        }
+
         @Test
         @DisplayName("バリデーション: 必須（開始/終了がnull）でエラー")
         void post_required_errors() throws Exception {
@@ -218,5 +218,103 @@ class HostClosureControllerTest {
         then(closureService).should()
             .delete(eq(roomId), eq(closureId), any());
     }
-}
 
+    @Test
+    @DisplayName("GET events?start&end -> 範囲指定で取得し、繰り返しの発生は recurring=true")
+    void events_withRange_includesRecurring() throws Exception {
+        int roomId = 10;
+
+        Closure occurrence = new Closure();   // 展開された発生（id なし）
+        occurrence.setRoomId(roomId);
+        occurrence.setStartAt(LocalDateTime.of(2025, 12, 9, 0, 0));
+        occurrence.setEndAt(LocalDateTime.of(2025, 12, 10, 0, 0));
+        occurrence.setReason("定休日");
+
+        given(closureService.listBetween(eq(roomId),
+                eq(LocalDateTime.of(2025, 12, 1, 0, 0)), eq(LocalDateTime.of(2026, 1, 1, 0, 0)), any()))
+            .willReturn(List.of(occurrence));
+
+        mockMvc.perform(
+                get("/host/rooms/{roomId}/closures/events", roomId)
+                .with(user(principal()))
+                .param("start", "2025-12-01T00:00:00+09:00")
+                .param("end", "2026-01-01T00:00:00+09:00")
+                .accept(MediaType.APPLICATION_JSON)
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].title").value("休館: 定休日"))
+            .andExpect(jsonPath("$[0].allDay").value(true))
+            .andExpect(jsonPath("$[0].extendedProps.recurring").value(true));
+
+        then(closureService).should(never()).list(anyInt(), any());
+    }
+
+    @Nested
+    @DisplayName("POST /host/rooms/{roomId}/closures/rules")
+    class RuleTests {
+
+        @Test
+        @DisplayName("正常系 -> createRule してリダイレクト")
+        void createRule_success() throws Exception {
+            int roomId = 10;
+
+            mockMvc.perform(
+                    post("/host/rooms/{roomId}/closures/rules", roomId)
+                    .with(user(principal()))
+                    .with(csrf())
+                    .param("frequency", "monthly")
+                    .param("weekOfMonth", "2")
+                    .param("weekday", "2")
+                    .param("validFrom", "2025-12-01")
+                    .param("reason", "第2火曜定休")
+                )
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/host/rooms/10/closures?success=1"));
+
+            then(closureService).should().createRule(eq(roomId),
+                argThat(f -> "monthly".equals(f.getFrequency())
+                        && f.getWeekOfMonth() == 2 && f.getWeekday() == 2
+                        && f.getStartTime() == null),
+                any());
+        }
+
+        @Test
+        @DisplayName("開始時刻だけ指定 -> index再表示（createRule しない）")
+        void createRule_validationError() throws Exception {
+            int roomId = 10;
+            Room room = new Room();
+            room.setId(roomId);
+            given(closureService.getOwnedRoomOrThrow(eq(roomId), any())).willReturn(room);
+
+            mockMvc.perform(
+                    post("/host/rooms/{roomId}/closures/rules", roomId)
+                    .with(user(principal()))
+                    .with(csrf())
+                    .requestAttr("_csrf", new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", "dummy-token"))
+                    .param("frequency", "weekly")
+                    .param("weekday", "1")
+                    .param("startTime", "10:00")
+                    .param("validFrom", "2025-12-01")
+                )
+                .andExpect(status().isOk())
+                .andExpect(view().name("host/closures/index"))
+                .andExpect(model().attributeHasFieldErrors("closureRuleForm", "validTimes"));
+
+            then(closureService).should(never()).createRule(anyInt(), any(), any());
+        }
+
+        @Test
+        @DisplayName("POST rules/{ruleId}/delete -> リダイレクト")
+        void deleteRule() throws Exception {
+            mockMvc.perform(
+                    post("/host/rooms/{roomId}/closures/rules/{ruleId}/delete", 10, 5)
+                    .with(user(principal()))
+                    .with(csrf())
+                )
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/host/rooms/10/closures?success=1"));
+
+            then(closureService).should().deleteRule(eq(10), eq(5), any());
+        }
+    }
+}
@@ -20,13 +20,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.test.context.TestSecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
 import com.example.studio_book.entity.PriceRule;
 import com.example.studio_book.entity.Room;
+import com.example.studio_book.entity.User;
 import com.example.studio_book.repository.PriceRuleRepository;
 import com.example.studio_book.repository.RoomRepository;
+import com.example.studio_book.security.UserDetailsImpl;
+import com.example.studio_book.service.PriceRuleService;
 
 @WebMvcTest(controllers = HostPriceRuleController.class)
 @AutoConfigureMockMvc(addFilters = false)
@@ -41,14 +46,21 @@ class HostPriceRuleControllerTest {
     @MockBean
     RoomRepository roomRepository;
 
+    @MockBean
+    PriceRuleService priceRuleService;
+
     private static final Integer ROOM_ID = 10;
     private static final Integer RULE_ID = 111;
+    private static final Integer HOST_ID = 7;
     private static final RequestPostProcessor CSRF = csrf();
 
     private Room stubRoom() {
         Room r = new Room();
         r.setId(ROOM_ID);
         r.setName("RoomA");
+        User host = new User();
+        host.setId(HOST_ID);
+        r.setUser(host);
         return r;
     }
 
@@ -194,5 +206,53 @@ class HostPriceRuleControllerTest {
             then(priceRuleRepository).should().deleteById(RULE_ID);
         }
     }
-}
 
+    /* ---------- POST copy ---------- */
+    @Nested
+    class CopyRules {
+
+        /** addFilters=false では with(user(..)) が効かないので直接セット（テスト後に自動で消える） */
+        private void loginAsHost() {
+            User host = new User();
+            host.setId(HOST_ID);
+            var principal = new UserDetailsImpl(host, List.of());
+            TestSecurityContextHolder.setAuthentication(
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        }
+
+        @Test
+        @DisplayName("POST copy：ログイン中ホストで copyRules を1回呼び、copied を表示")
+        void copy_ok() throws Exception {
+            given(roomRepository.findById(ROOM_ID)).willReturn(Optional.of(stubRoom()));
+            given(priceRuleRepository.findByRoomIdOrderByWeekdayAscStartHourAscIdAsc(ROOM_ID))
+                    .willReturn(List.of());
+
+            loginAsHost();
+            mockMvc.perform(post("/host/rooms/{roomId}/price-rules/copy", ROOM_ID)
+                    .with(CSRF)
+                    .param("targetRoomIds", "20", "21"))
+                    .andExpect(status().isOk())
+                    .andExpect(view().name("host/price_rules/edit"))
+                    .andExpect(model().attribute("copied", true));
+
+            then(priceRuleService).should().copyRules(HOST_ID, ROOM_ID, List.of(20, 21));
+            then(priceRuleRepository).should(never()).save(any());
+        }
+
+        @Test
+        @DisplayName("POST copy：コピー先なし → 何もしない")
+        void copy_noTargets_noop() throws Exception {
+            given(roomRepository.findById(ROOM_ID)).willReturn(Optional.of(stubRoom()));
+            given(priceRuleRepository.findByRoomIdOrderByWeekdayAscStartHourAscIdAsc(ROOM_ID))
+                    .willReturn(List.of());
+
+            loginAsHost();
+            mockMvc.perform(post("/host/rooms/{roomId}/price-rules/copy", ROOM_ID)
+                    .with(CSRF))
+                    .andExpect(status().isOk())
+                    .andExpect(model().attribute("copied", false));
+
+            then(priceRuleService).shouldHaveNoInteractions();
+        }
+    }
+}
@@ -20,8 +20,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -36,11 +36,14 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
 
 import com.example.studio_book.dto.HostReservationRow;
+import com.example.studio_book.dto.KeysetCursor;
+import com.example.studio_book.dto.ReservationListFilter;
 import com.example.studio_book.entity.Reservation;
 import com.example.studio_book.entity.Room;
 import com.example.studio_book.entity.User;
 import com.example.studio_book.repository.ReservationRepository;
 import com.example.studio_book.security.UserDetailsImpl;
+import com.example.studio_book.service.AvailabilityBitmaps;
 
 public class HostReservationControllerTest {
 
@@ -49,6 +52,9 @@ public class HostReservationControllerTest {
     @Mock
     private ReservationRepository reservationRepository;
 
+    @Mock
+    private AvailabilityBitmaps availability;
+
     private HostReservationController target;
 
     private AutoCloseable mocks;
@@ -56,7 +62,7 @@ public class HostReservationControllerTest {
     @BeforeEach
     void setUp() {
         mocks = MockitoAnnotations.openMocks(this);
-        target = new HostReservationController(reservationRepository);
+        target = new HostReservationController(reservationRepository, availability);
 
         // ダミービュー解決（Thymeleafに依存しない）
         InternalResourceViewResolver viewResolver = new InternalResourceViewResolver();
@@ -151,7 +157,7 @@ public class HostReservationControllerTest {
             int hostId = 777;
             var principal = hostPrincipal(hostId);
 
-            Page<HostReservationRow> page = new PageImpl<>(
+            Slice<HostReservationRow> page = new SliceImpl<>(
                     List.of(
                             row(
                                     1,
@@ -163,22 +169,25 @@ public class HostReservationControllerTest {
                     )
             );
 
-            given(reservationRepository.findPageForHostFiltered(
+            given(reservationRepository.findHostReservations(
                     eq(hostId),
-                    eq("foo"), // kw 正規化後
-                    eq("booked"),
-                    eq(LocalDate.of(2025, 11, 1).atStartOfDay()),
-                    eq(LocalDate.of(2025, 11, 30).atTime(23, 59, 59, 999_000_000)),
-                    eq(123),
-                    eq(10),
-                    any() // Pageable
+                    eq(new ReservationListFilter(
+                            "foo", // kw 正規化後
+                            "booked",
+                            LocalDate.of(2025, 11, 1).atStartOfDay(),
+                            LocalDate.of(2025, 11, 30).atTime(23, 59, 59, 999_000_000),
+                            123,
+                            10)),
+                    eq(new KeysetCursor(LocalDateTime.of(2025, 11, 25, 9, 0), 40)),
+                    eq(false),
+                    eq(5)
             )).willReturn(page);
 
             given(reservationRepository.findRoomOptionsForHost(hostId))
                     .willReturn(List.of());
 
             mockMvc.perform(get("/host/reservations")
-                            .param("page", "0")
+                            .param("cursor", "2025-11-25T09:00_40")
                             .param("kw", "  foo  ")
                             .param("status", "booked")
                             .param("reservationId", "123")
@@ -199,10 +208,24 @@ public class HostReservationControllerTest {
                     .andExpect(model().attribute("startTo", "2025-11-30"));
 
             then(reservationRepository).should(times(1))
-                    .findPageForHostFiltered(anyInt(), any(), any(), any(), any(), any(), any(), any());
+                    .findHostReservations(anyInt(), any(), any(), anyBoolean(), anyInt());
             then(reservationRepository).should(times(1))
                     .findRoomOptionsForHost(hostId);
         }
+
+        @Test
+        @DisplayName("壊れた cursor → 400、一覧クエリは呼ばない")
+        void index_badCursor_400() throws Exception {
+            var principal = hostPrincipal(777);
+
+            mockMvc.perform(get("/host/reservations")
+                            .param("cursor", "not-a-cursor")
+                            .with(auth(principal)))
+                    .andExpect(status().isBadRequest());
+
+            then(reservationRepository).should(never())
+                    .findHostReservations(anyInt(), any(), any(), anyBoolean(), anyInt());
+        }
     }
 
     @Nested
@@ -296,6 +319,8 @@ public class HostReservationControllerTest {
             then(reservationRepository).should().save(captor.capture());
             org.assertj.core.api.Assertions.assertThat(captor.getValue().getStatus())
                     .isEqualToIgnoringCase("canceled");
+            // 空き状況のキャッシュも捨てる
+            then(availability).should().invalidateAfterCommit(10);
         }
 
         @Test
@@ -40,10 +40,10 @@ import org.springframework.web.servlet.view.InternalResourceViewResolver;
 import com.example.studio_book.entity.Review;
 import com.example.studio_book.entity.Room;
 import com.example.studio_book.entity.User;
-import com.example.studio_book.repository.AuditLogRepository;
 import com.example.studio_book.repository.ReviewRepository;
 import com.example.studio_book.repository.RoomRepository;
 import com.example.studio_book.security.UserDetailsImpl;
+import com.example.studio_book.service.AuditLogWriter;
 
 @WebMvcTest(controllers = HostReviewManageController.class)
 @AutoConfigureMockMvc(addFilters = false) // フィルタは無効。認証はテスト側で直接セット
@@ -53,7 +53,7 @@ class HostReviewManageControllerTest {
     MockMvc mvc;
 
     @MockBean ReviewRepository reviewRepository;
-    @MockBean AuditLogRepository auditLogRepository;
+    @MockBean AuditLogWriter auditLogWriter;
     @MockBean RoomRepository roomRepository;
 
     // ---------------- helper ----------------
@@ -105,7 +105,7 @@ class HostReviewManageControllerTest {
 
     @BeforeEach
     void resetMocks() {
-        Mockito.reset(reviewRepository, auditLogRepository, roomRepository);
+        Mockito.reset(reviewRepository, auditLogWriter, roomRepository);
         SecurityContextHolder.clearContext();
     }
 
@@ -182,7 +182,7 @@ class HostReviewManageControllerTest {
             assertThat(saved.getHostReply()).isEqualTo("ありがとうございます！");
             assertThat(saved.getHostReplyAt()).isNotNull();
 
-            then(auditLogRepository).should(times(1))
+            then(auditLogWriter).should(times(1))
                 .add(eq("host_reply"), eq(hostId), eq("review"), eq(10));
         }
 
@@ -239,7 +239,7 @@ class HostReviewManageControllerTest {
             assertThat(Boolean.TRUE.equals(saved.getPublicVisible())).isTrue();
             assertThat(saved.getHiddenReason()).isNull();
 
-            then(auditLogRepository).should(times(1))
+            then(auditLogWriter).should(times(1))
                 .add(eq("review_public_on"), eq(hostId), eq("review"), eq(10));
         }
 
@@ -264,11 +264,11 @@ class HostReviewManageControllerTest {
             assertThat(Boolean.FALSE.equals(c1.getValue().getPublicVisible())).isTrue();
             assertThat(c1.getValue().getHiddenReason()).isNull();
 
-            then(auditLogRepository).should(times(1))
+            then(auditLogWriter).should(times(1))
                 .add(eq("review_public_off"), eq(hostId), eq("review"), eq(11));
 
             // 呼び出し履歴リセット & 再スタブ
-            Mockito.reset(reviewRepository, auditLogRepository);
+            Mockito.reset(reviewRepository, auditLogWriter);
             given(reviewRepository.findById(11)).willReturn(Optional.of(r));
 
             // 2回目：trimして保存
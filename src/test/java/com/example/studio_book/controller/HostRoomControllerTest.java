@@ -40,6 +40,7 @@ import com.example.studio_book.repository.PriceRuleRepository;
 import com.example.studio_book.repository.RoomBusinessHourRepository;
 import com.example.studio_book.repository.RoomRepository;
 import com.example.studio_book.security.UserDetailsImpl;
+import com.example.studio_book.service.RoomService;
 import com.example.studio_book.viewmodel.PriceRuleViewModel; 
 
 @WebMvcTest(controllers = HostRoomController.class)
@@ -57,6 +58,9 @@ class HostRoomControllerTest {
     @MockBean
     RoomBusinessHourRepository roomBusinessHourRepository;
 
+    @MockBean
+    RoomService roomService;
+
     // ===== Helper =====
 
     private User host(int id) {
@@ -236,7 +240,8 @@ class HostRoomControllerTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/host/rooms?success"));
 
-            then(roomRepository).should().delete(r);
+            then(roomService).should().deleteRoom(r);
+            then(roomRepository).should(never()).delete(any());
         }
 
         @Test
@@ -252,7 +257,7 @@ class HostRoomControllerTest {
                     .with(user(principal)).with(csrf()))
                 .andExpect(status().isNotFound());
 
-            then(roomRepository).should(never()).delete(any());
+            then(roomService).should(never()).deleteRoom(any());
         }
     }
 }
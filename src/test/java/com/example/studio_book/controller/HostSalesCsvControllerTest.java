@@ -35,6 +35,7 @@ import com.example.studio_book.entity.User;
 import com.example.studio_book.repository.ReservationChargeItemRepository;
 import com.example.studio_book.repository.ReservationRepository;
 import com.example.studio_book.security.UserDetailsImpl;
+import com.example.studio_book.service.AppMetrics;
 
 import jakarta.servlet.ServletException;
 
@@ -51,6 +52,9 @@ class HostSalesCsvControllerTest {
     @MockBean
     ReservationChargeItemRepository chargeItemRepository;
 
+    @MockBean
+    AppMetrics metrics;
+
     // ===== helpers =====
     private UserDetailsImpl detailsOf(int hostId) {
         User u = new User();
@@ -32,6 +32,7 @@ import com.example.studio_book.entity.User;
 import com.example.studio_book.repository.ReservationChargeItemRepository;
 import com.example.studio_book.repository.ReservationRepository;
 import com.example.studio_book.security.UserDetailsImpl;
+import com.example.studio_book.service.AppMetrics;
 
 // 重要: セキュリティフィルタ有効のままでOK。with(user(...))がSecurityContextをセットします。
 @WebMvcTest(controllers = HostSalesPdfController.class)
@@ -47,6 +48,9 @@ class HostSalesPdfControllerTest {
     @MockBean
     ReservationChargeItemRepository chargeItemRepository;
 
+    @MockBean
+    AppMetrics metrics;
+
  // テスト用ヘルパ
     private UserDetailsImpl detailsOf(int userId) {
         User u = new User();
@@ -0,0 +1,58 @@
+// src/test/java/com/example/studio_book/controller/QueryBudget.java
+package com.example.studio_book.controller;
+
+import java.time.Duration;
+
+import com.example.studio_book.config.QueryCountInspector;
+
+/**
+ * MockMvc 1 リクエスト分の、Hibernate が発行した SQL の本数と所要時間の上限。
+ *
+ * 本数は本番と同じ QueryCountInspector（スレッドごとの StatementInspector）の差分。
+ * MockMvc はテストのスレッドでリクエストを処理するので、テンプレート描画中の遅延ロード（N+1）も数に入る。
+ * JdbcTemplate の SQL は数えない。実 DB を使う EndpointQueryBudgetTest から使う。
+ *
+ * <pre>
+ * var budget = QueryBudget.watch();
+ * mvc.perform(get("/rooms")).andExpect(status().isOk());
+ * budget.assertWithin(3, QueryBudget.PAGE);
+ * </pre>
+ */
+final class QueryBudget {
+
+    /** 画面 1 枚の上限（テンプレートの初回コンパイルは事前の 1 回で済ませておくこと） */
+    static final Duration PAGE = Duration.ofSeconds(1);
+
+    private final long before;
+    private final long startNanos;
+
+    private QueryBudget() {
+        this.before = QueryCountInspector.current();
+        this.startNanos = System.nanoTime();
+    }
+
+    /** データの準備が終わってから、リクエスト直前に呼ぶ */
+    static QueryBudget watch() {
+        return new QueryBudget();
+    }
+
+    /** watch 以降に発行された SQL の本数 */
+    long statements() {
+        return QueryCountInspector.current() - before;
+    }
+
+    Duration elapsed() {
+        return Duration.ofNanos(System.nanoTime() - startNanos);
+    }
+
+    void assertWithin(int maxStatements, Duration maxTime) {
+        Duration took = elapsed();
+        long n = statements();
+        if (n > maxStatements) {
+            throw new AssertionError("SQL statements " + n + " exceeded budget " + maxStatements);
+        }
+        if (took.compareTo(maxTime) > 0) {
+            throw new AssertionError("request took " + took.toMillis() + "ms, budget " + maxTime.toMillis() + "ms");
+        }
+    }
+}
@@ -11,26 +11,29 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
-import org.mockito.MockedStatic;
-import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockAsyncContext;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.example.studio_book.dto.ReservationConfirmDto;
 import com.example.studio_book.entity.Reservation;
 import com.example.studio_book.entity.Room;
+import com.example.studio_book.entity.SlotHold;
 import com.example.studio_book.entity.User;
 import com.example.studio_book.form.ReservationInputForm;
 import com.example.studio_book.repository.PriceRuleRepository;
@@ -38,12 +41,14 @@ import com.example.studio_book.repository.ReviewRepository;
 import com.example.studio_book.repository.RoomBusinessHourRepository;
 import com.example.studio_book.repository.RoomRepository;
 import com.example.studio_book.security.UserDetailsImpl;
+import com.example.studio_book.service.CheckoutStatusRegistry;
 import com.example.studio_book.service.ReservationService;
+import com.example.studio_book.service.SlotHoldService;
 import com.example.studio_book.service.StripeService;
 import com.example.studio_book.validation.ReservationInputValidator;
-import com.stripe.model.checkout.Session;
-import com.stripe.param.checkout.SessionRetrieveParams;
 
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.http.HttpSession;
 
 @WebMvcTest(ReservationController.class)
@@ -62,6 +67,8 @@ class ReservationControllerTest {
     @MockBean RoomBusinessHourRepository roomBusinessHourRepository;
     @MockBean PriceRuleRepository priceRuleRepository;
     @MockBean ReservationInputValidator reservationInputValidator;
+    @MockBean SlotHoldService slotHoldService;
+    @MockBean CheckoutStatusRegistry checkoutStatusRegistry;
 
     // ==== ヘルパ（衝突回避のため user -> userEntity に改名） ====
     private static User userEntity(int id, String email) {
@@ -81,6 +88,11 @@ class ReservationControllerTest {
         r.setPrice(5000); // ベース価格（int）
         return r;
     }
+    private static SlotHold hold(LocalDateTime expiresAt) {
+        SlotHold h = new SlotHold();
+        h.setExpiresAt(expiresAt);
+        return h;
+    }
     
 
     // ----------------------------
@@ -130,24 +142,182 @@ class ReservationControllerTest {
             given(reservationService.findReservationsByUserOrderByCreatedAtDesc(eq(me), any()))
                 .willReturn(new PageImpl<>(List.of()));
 
-            try (MockedStatic<Session> mocked = Mockito.mockStatic(Session.class)) {
-                Session fake = new Session();
-                fake.setPaymentIntent("pi_123");
+            given(reservationService.isCheckoutCompleted("cs_test_abc", 12)).willReturn(true);
 
-                mocked.when(() -> Session.retrieve(eq("cs_test_abc"), any(SessionRetrieveParams.class), isNull()))
-                      .thenReturn(fake);
+            mvc.perform(get("/reservations")
+                    .param("reserved","1")
+                    .param("session_id","cs_test_abc")
+                    .with(user(principalOf(me))).with(csrf()))
+               .andExpect(status().isOk())
+               .andExpect(view().name("reservations/index"))
+               .andExpect(model().attributeExists("reservationPage","reserved"))
+               .andExpect(model().attributeDoesNotExist("processing"));
+        }
 
-                given(reservationService.existsByPaymentIntentId("pi_123")).willReturn(true);
+        @Test
+        @DisplayName("reserved=cancel&hold → その仮押さえだけ解放し、同じ手続きの Stripe セッションを失効")
+        void index_cancel_releases_only_that_hold() throws Exception {
+            User me = userEntity(13, "me@example.com");
+            given(reservationService.findReservationsByUserOrderByCreatedAtDesc(eq(me), any()))
+                .willReturn(new PageImpl<>(List.of()));
+            given(slotHoldService.releaseHold(77, 13)).willReturn(true);
 
-                mvc.perform(get("/reservations")
-                        .param("reserved","1")
-                        .param("session_id","cs_test_abc")
-                        .with(user(principalOf(me))).with(csrf()))
-                   .andExpect(status().isOk())
-                   .andExpect(view().name("reservations/index"))
-                   .andExpect(model().attributeExists("reservationPage","reserved"))
-                   .andExpect(model().attributeDoesNotExist("processing"));
-            }
+            ReservationConfirmDto dto = ReservationConfirmDto.builder()
+                    .roomId(1).holdId(77).checkoutSessionId("cs_cached").build();
+            MockHttpSession session = new MockHttpSession();
+            session.setAttribute("reservationDTO", dto);
+
+            mvc.perform(get("/reservations")
+                    .param("reserved","cancel").param("hold", "77")
+                    .session(session)
+                    .with(user(principalOf(me))).with(csrf()))
+               .andExpect(status().isOk())
+               .andExpect(view().name("reservations/index"));
+
+            then(slotHoldService).should().releaseHold(77, 13);
+            then(stripeService).should().expireSession("cs_cached");
+            assertThat(dto.getCheckoutSessionId()).isNull();
+        }
+
+        @Test
+        @DisplayName("reserved=cancel でも別の手続きの DTO・セッションには触れない")
+        void index_cancel_keeps_other_checkout() throws Exception {
+            User me = userEntity(13, "me@example.com");
+            given(reservationService.findReservationsByUserOrderByCreatedAtDesc(eq(me), any()))
+                .willReturn(new PageImpl<>(List.of()));
+            given(slotHoldService.releaseHold(77, 13)).willReturn(true);
+
+            ReservationConfirmDto other = ReservationConfirmDto.builder()
+                    .roomId(2).holdId(88).checkoutSessionId("cs_other_tab").build();
+            MockHttpSession session = new MockHttpSession();
+            session.setAttribute("reservationDTO", other);
+
+            mvc.perform(get("/reservations")
+                    .param("reserved","cancel").param("hold", "77")
+                    .session(session)
+                    .with(user(principalOf(me))).with(csrf()))
+               .andExpect(status().isOk());
+
+            then(stripeService).should(never()).expireSession(any());
+            assertThat(other.getCheckoutSessionId()).isEqualTo("cs_other_tab");
+        }
+    }
+
+    // ----------------------------
+    // GET /reservations/status
+    // ----------------------------
+    @Nested
+    @DisplayName("GET /reservations/status")
+    class Status {
+
+        @Test
+        @DisplayName("確定済み → 即 completed（待機しない）")
+        void status_completed_immediately() throws Exception {
+            User me = userEntity(14, "me@example.com");
+            given(reservationService.isCheckoutCompleted("cs_done", 14)).willReturn(true);
+
+            MvcResult async = mvc.perform(get("/reservations/status")
+                    .param("session_id", "cs_done").param("wait", "25")
+                    .with(user(principalOf(me))))
+               .andReturn();
+
+            mvc.perform(asyncDispatch(async))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.status").value("completed"));
+            then(checkoutStatusRegistry).should(never()).await(any());
+        }
+
+        @Test
+        @DisplayName("未確定 & wait=0 → processing")
+        void status_processing_without_wait() throws Exception {
+            User me = userEntity(15, "me@example.com");
+
+            MvcResult async = mvc.perform(get("/reservations/status")
+                    .param("session_id", "cs_pending")
+                    .with(user(principalOf(me))))
+               .andReturn();
+
+            mvc.perform(asyncDispatch(async))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.status").value("processing"));
+        }
+
+        @Test
+        @DisplayName("未確定 & wait 指定 → Webhook の確定通知で completed を返す")
+        void status_long_poll_completes_on_notify() throws Exception {
+            User me = userEntity(16, "me@example.com");
+            CompletableFuture<CheckoutStatusRegistry.Outcome> done = new CompletableFuture<>();
+            given(checkoutStatusRegistry.await("cs_wait")).willReturn(done);
+
+            MvcResult async = mvc.perform(get("/reservations/status")
+                    .param("session_id", "cs_wait").param("wait", "25")
+                    .with(user(principalOf(me))))
+               .andExpect(request().asyncStarted())
+               .andReturn();
+
+            done.complete(new CheckoutStatusRegistry.Outcome(16, CheckoutStatusRegistry.Status.COMPLETED));
+
+            mvc.perform(asyncDispatch(async))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.status").value("completed"));
+        }
+
+        @Test
+        @DisplayName("別ユーザーのセッションとして確定 → processing のまま")
+        void status_other_users_session_is_not_completed() throws Exception {
+            User me = userEntity(17, "me@example.com");
+            CompletableFuture<CheckoutStatusRegistry.Outcome> done = new CompletableFuture<>();
+            given(checkoutStatusRegistry.await("cs_other")).willReturn(done);
+
+            MvcResult async = mvc.perform(get("/reservations/status")
+                    .param("session_id", "cs_other").param("wait", "25")
+                    .with(user(principalOf(me))))
+               .andReturn();
+
+            done.complete(new CheckoutStatusRegistry.Outcome(99, CheckoutStatusRegistry.Status.COMPLETED));
+
+            mvc.perform(asyncDispatch(async))
+               .andExpect(jsonPath("$.status").value("processing"));
+        }
+
+        @Test
+        @DisplayName("競合で返金に回った → conflict を返す")
+        void status_long_poll_conflict() throws Exception {
+            User me = userEntity(19, "me@example.com");
+            CompletableFuture<CheckoutStatusRegistry.Outcome> done = new CompletableFuture<>();
+            given(checkoutStatusRegistry.await("cs_conflict")).willReturn(done);
+
+            MvcResult async = mvc.perform(get("/reservations/status")
+                    .param("session_id", "cs_conflict").param("wait", "25")
+                    .with(user(principalOf(me))))
+               .andReturn();
+
+            done.complete(new CheckoutStatusRegistry.Outcome(19, CheckoutStatusRegistry.Status.CONFLICT));
+
+            mvc.perform(asyncDispatch(async))
+               .andExpect(jsonPath("$.status").value("conflict"));
+        }
+
+        @Test
+        @DisplayName("確定しないままタイムアウト → processing を返し、待機を外す")
+        void status_timeout_detachesWaiter() throws Exception {
+            User me = userEntity(18, "me@example.com");
+            CompletableFuture<CheckoutStatusRegistry.Outcome> waiter = new CompletableFuture<>();
+            given(checkoutStatusRegistry.await("cs_unknown")).willReturn(waiter);
+
+            MvcResult async = mvc.perform(get("/reservations/status")
+                    .param("session_id", "cs_unknown").param("wait", "25")
+                    .with(user(principalOf(me))))
+               .andExpect(request().asyncStarted())
+               .andReturn();
+
+            // コンテナのタイムアウト → 完了 を再現
+            MockAsyncContext ctx = (MockAsyncContext) async.getRequest().getAsyncContext();
+            for (AsyncListener l : ctx.getListeners()) l.onTimeout(new AsyncEvent(ctx));
+            for (AsyncListener l : ctx.getListeners()) l.onComplete(new AsyncEvent(ctx));
+
+            assertThat(async.getAsyncResult()).isEqualTo(Map.of("status", "processing"));
+            then(checkoutStatusRegistry).should().cancel("cs_unknown", waiter);
         }
     }
 
@@ -188,6 +358,9 @@ class ReservationControllerTest {
 
             session.setAttribute("reservationDTO", dto);
 
+            LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(31);
+            given(slotHoldService.hold(eq(101), eq(21), any(), any())).willReturn(hold(expiresAt));
+            given(reservationService.saveQuote(dto, 21)).willReturn("quote-uuid-1");
             given(stripeService.createStripeSession(eq(dto), eq(me))).willReturn("cs_test_987");
 
             mvc.perform(get("/reservations/confirm")
@@ -198,6 +371,41 @@ class ReservationControllerTest {
                .andExpect(model().attribute("confirm", dto))
                .andExpect(model().attribute("sessionId", "cs_test_987"))
                .andExpect(model().attributeExists("stripePublishableKey"));
+
+            // 仮押さえの期限が DTO に載り、Stripe セッションの期限に使われる
+            assertThat(dto.getHoldExpiresAt()).isEqualTo(expiresAt);
+            // 見積もりを保存し、その id を Stripe の metadata 用に DTO へ載せる
+            assertThat(dto.getQuoteId()).isEqualTo("quote-uuid-1");
+        }
+
+        @Test
+        @DisplayName("他ユーザーが仮押さえ中 → Stripe を呼ばず /rooms/{roomId} リダイレクト＆フラッシュ")
+        void confirm_slot_held_by_other_redirects_back() throws Exception {
+            User me = userEntity(23, "me@example.com");
+            MockHttpSession session = new MockHttpSession();
+
+            ReservationConfirmDto dto = ReservationConfirmDto.builder()
+                    .roomId(202)
+                    .roomName("Room C")
+                    .startAt(LocalDateTime.now().plusDays(1))
+                    .endAt(LocalDateTime.now().plusDays(1).plusHours(1))
+                    .hourlyPrice(4000)
+                    .hours(1L)
+                    .amount(4000L)
+                    .build();
+            session.setAttribute("reservationDTO", dto);
+
+            given(slotHoldService.hold(eq(202), eq(23), any(), any()))
+                .willThrow(new IllegalStateException("指定の時間帯は他のお客様が決済手続き中です。"));
+
+            mvc.perform(get("/reservations/confirm")
+                    .session(session)
+                    .with(user(principalOf(me))).with(csrf()))
+               .andExpect(status().is3xxRedirection())
+               .andExpect(redirectedUrl("/rooms/202"))
+               .andExpect(flash().attribute("errorMessage", "指定の時間帯は他のお客様が決済手続き中です。"));
+
+            then(stripeService).should(never()).createStripeSession(any(), any());
         }
 
         @Test
@@ -217,6 +425,8 @@ class ReservationControllerTest {
                     .build();
 
             session.setAttribute("reservationDTO", dto);
+            given(slotHoldService.hold(eq(201), eq(22), any(), any()))
+                .willReturn(hold(LocalDateTime.now().plusMinutes(31)));
             given(stripeService.createStripeSession(eq(dto), eq(me))).willReturn("");
 
             mvc.perform(get("/reservations/confirm")
@@ -226,6 +436,73 @@ class ReservationControllerTest {
                .andExpect(redirectedUrl("/rooms/201"))
                .andExpect(flash().attributeExists("errorMessage"));
         }
+
+        @Test
+        @DisplayName("2回目のGET（リロード）→ キャッシュ済みセッションを再利用し、仮押さえもStripeも呼ばない")
+        void confirm_reload_reuses_cached_session() throws Exception {
+            User me = userEntity(24, "me@example.com");
+            MockHttpSession session = new MockHttpSession();
+
+            ReservationConfirmDto dto = ReservationConfirmDto.builder()
+                    .roomId(203)
+                    .roomName("Room D")
+                    .startAt(LocalDateTime.now().plusDays(1))
+                    .endAt(LocalDateTime.now().plusDays(1).plusHours(1))
+                    .hourlyPrice(4000)
+                    .hours(1L)
+                    .amount(4000L)
+                    .build();
+            session.setAttribute("reservationDTO", dto);
+
+            given(slotHoldService.hold(eq(203), eq(24), any(), any()))
+                .willReturn(hold(LocalDateTime.now().plusMinutes(31)));
+            given(stripeService.createStripeSession(eq(dto), eq(me))).willReturn("cs_test_once");
+
+            for (int i = 0; i < 2; i++) {
+                mvc.perform(get("/reservations/confirm")
+                        .session(session)
+                        .with(user(principalOf(me))).with(csrf()))
+                   .andExpect(status().isOk())
+                   .andExpect(model().attribute("sessionId", "cs_test_once"));
+            }
+
+            then(slotHoldService).should(times(1)).hold(any(), any(), any(), any());
+            then(stripeService).should(times(1)).createStripeSession(any(), any());
+            assertThat(dto.getCheckoutSessionId()).isEqualTo("cs_test_once");
+            assertThat(dto.getCheckoutQuoteKey()).isEqualTo(dto.quoteKey());
+        }
+
+        @Test
+        @DisplayName("見積もりが変わったら（金額変更）キャッシュを使わず作り直す")
+        void confirm_quote_changed_creates_new_session() throws Exception {
+            User me = userEntity(25, "me@example.com");
+            MockHttpSession session = new MockHttpSession();
+
+            ReservationConfirmDto dto = ReservationConfirmDto.builder()
+                    .roomId(204)
+                    .roomName("Room E")
+                    .startAt(LocalDateTime.now().plusDays(1))
+                    .endAt(LocalDateTime.now().plusDays(1).plusHours(1))
+                    .hourlyPrice(4000)
+                    .hours(1L)
+                    .amount(4000L)
+                    .holdExpiresAt(LocalDateTime.now().plusMinutes(20))
+                    .checkoutSessionId("cs_old")
+                    .build();
+            dto.setCheckoutQuoteKey(dto.quoteKey());
+            dto.setAmount(5000L);
+            session.setAttribute("reservationDTO", dto);
+
+            given(slotHoldService.hold(eq(204), eq(25), any(), any()))
+                .willReturn(hold(LocalDateTime.now().plusMinutes(31)));
+            given(stripeService.createStripeSession(eq(dto), eq(me))).willReturn("cs_new");
+
+            mvc.perform(get("/reservations/confirm")
+                    .session(session)
+                    .with(user(principalOf(me))).with(csrf()))
+               .andExpect(status().isOk())
+               .andExpect(model().attribute("sessionId", "cs_new"));
+        }
     }
 
     // ----------------------------
@@ -262,7 +539,7 @@ class ReservationControllerTest {
 
             then(reservationInputValidator)
                 .should(never())
-                .validateWithRoomId(any(ReservationInputForm.class), any(), eq(roomId));
+                .validateWithRoomId(any(ReservationInputForm.class), any(), eq(roomId), any());
         }
 
         @Test
@@ -9,6 +9,8 @@ import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
@@ -33,6 +35,10 @@ import com.example.studio_book.entity.RoomBusinessHour;
 import com.example.studio_book.repository.ClosureRepository;
 import com.example.studio_book.repository.ReservationRepository;
 import com.example.studio_book.repository.RoomBusinessHourRepository;
+import com.example.studio_book.service.AppMetrics;
+import com.example.studio_book.service.ClosureRuleExpander;
+import com.example.studio_book.service.PriceCurveService;
+import com.example.studio_book.service.SlotFinderService;
 
 /**
  * RoomCalendarController の Web 層テスト
@@ -59,6 +65,18 @@ class RoomCalendarControllerTest {
     @MockBean
     RoomBusinessHourRepository bhRepo;
 
+    @MockBean
+    ClosureRuleExpander closureRules;
+
+    @MockBean
+    SlotFinderService slotFinder;
+
+    @MockBean
+    PriceCurveService priceCurves;
+
+    @MockBean
+    AppMetrics metrics;
+
     private static final int ROOM_ID = 10;
 
     // --- テスト用ユーティリティ（必要最小限のフィールドだけセット） ---
@@ -177,6 +195,33 @@ class RoomCalendarControllerTest {
                .andExpect(jsonPath("$[?(@.extendedProps.type=='closure')]", hasSize(1)));
         }
 
+        @Test
+        @DisplayName("繰り返し休館の発生も差し引かれる（表示範囲で展開を依頼する）")
+        void open_split_by_recurring_closure() throws Exception {
+            var start = LocalDateTime.of(2025, 11, 10, 0, 0); // Mon
+            var end   = LocalDateTime.of(2025, 11, 11, 0, 0);
+
+            given(bhRepo.findByRoomIdOrderByDayIndexAsc(ROOM_ID)).willReturn(List.of(
+                bh(1, false, LocalTime.of(10, 0), LocalTime.of(18, 0))
+            ));
+            given(closureRepo.findByRoomIdAndEndAtAfterAndStartAtBefore(eq(ROOM_ID), any(), any()))
+                .willReturn(List.of());
+            given(closureRules.occurrences(ROOM_ID, start, end))
+                .willReturn(List.of(closure(LocalDateTime.of(2025, 11, 10, 12, 0),
+                                            LocalDateTime.of(2025, 11, 10, 13, 0))));
+            given(reservationRepo.findByRoomIdAndEndAtAfterAndStartAtBefore(eq(ROOM_ID), any(), any()))
+                .willReturn(List.of());
+
+            mvc.perform(get("/rooms/{roomId}/calendar/events", ROOM_ID)
+                    .param("start", isoOffset(start))
+                    .param("end",   isoOffset(end))
+                    .accept(MediaType.APPLICATION_JSON))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$[?(@.extendedProps.type=='closure')]", hasSize(1)))
+               .andExpect(jsonPath("$[?(@.extendedProps.type=='open')]", hasSize(2)))
+               .andExpect(jsonPath("$[?(@.extendedProps.type=='open')].end", hasItem("2025-11-10T12:00:00")));
+        }
+
         @Test
         @DisplayName("予約は前面イベントとして返る（色・extendedProps 含む）")
         void reservation_foreground() throws Exception {
@@ -257,4 +302,103 @@ class RoomCalendarControllerTest {
                .andExpect(jsonPath("$.length()").value(0)); // 何も出さない
         }
     }
+
+    @Nested
+    @DisplayName("GET /rooms/{roomId}/calendar/next-slots")
+    class NextSlots {
+
+        @Test
+        @DisplayName("after(+09:00) をローカル時刻で渡し、枠を start/end/amount で返す")
+        void ok() throws Exception {
+            var after = LocalDateTime.of(2025, 11, 11, 9, 50);
+            given(slotFinder.nextSlots(ROOM_ID, after, 60, 2, SlotFinderService.Order.PRICE)).willReturn(List.of(
+                new SlotFinderService.FreeSlot(LocalDateTime.of(2025, 11, 11, 10, 0), LocalDateTime.of(2025, 11, 11, 11, 0), 3300L),
+                new SlotFinderService.FreeSlot(LocalDateTime.of(2025, 11, 12, 10, 0), LocalDateTime.of(2025, 11, 12, 11, 0), 3300L)));
+
+            mvc.perform(get("/rooms/{roomId}/calendar/next-slots", ROOM_ID)
+                    .param("after", isoOffset(after))
+                    .param("minutes", "60")
+                    .param("limit", "2")
+                    .param("order", "price")
+                    .accept(MediaType.APPLICATION_JSON))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.length()").value(2))
+               .andExpect(jsonPath("$[0].start").value("2025-11-11T10:00:00"))
+               .andExpect(jsonPath("$[0].end").value("2025-11-11T11:00:00"))
+               .andExpect(jsonPath("$[0].amount").value(3300));
+        }
+
+        @Test
+        @DisplayName("order が不正なら 400")
+        void badOrder_400() throws Exception {
+            mvc.perform(get("/rooms/{roomId}/calendar/next-slots", ROOM_ID).param("order", "random"))
+               .andExpect(status().isBadRequest());
+            then(slotFinder).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("サービスが IllegalArgumentException（15 分単位でない等）なら 400")
+        void invalidMinutes_400() throws Exception {
+            given(slotFinder.nextSlots(eq(ROOM_ID), any(), eq(50), anyInt(), any()))
+                .willThrow(new IllegalArgumentException("利用時間は15分単位（24時間まで）で指定してください。"));
+
+            mvc.perform(get("/rooms/{roomId}/calendar/next-slots", ROOM_ID).param("minutes", "50"))
+               .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /rooms/{roomId}/calendar/price-curve")
+    class PriceCurve {
+
+        private final LocalDate day = LocalDate.of(2025, 11, 10);
+
+        private void givenCurve(String version) {
+            given(priceCurves.curve(ROOM_ID, day, day, 30)).willReturn(new PriceCurveService.PriceCurve(
+                ROOM_ID, 30, 2000L, new BigDecimal("0.1"), version,
+                List.of(new PriceCurveService.DayCurve(day, 500L, List.of(2000L, 3000L)))));
+        }
+
+        @Test
+        @DisplayName("日ごとの単価と ETag を返す")
+        void ok_withEtag() throws Exception {
+            givenCurve("abc");
+
+            mvc.perform(get("/rooms/{roomId}/calendar/price-curve", ROOM_ID)
+                    .param("from", "2025-11-10")
+                    .param("to", "2025-11-10"))
+               .andExpect(status().isOk())
+               .andExpect(header().string("ETag", "\"abc-2025-11-10-2025-11-10-30\""))
+               .andExpect(jsonPath("$.slotMinutes").value(30))
+               .andExpect(jsonPath("$.days[0].date").value("2025-11-10"))
+               .andExpect(jsonPath("$.days[0].flatFee").value(500))
+               .andExpect(jsonPath("$.days[0].prices[1]").value(3000));
+        }
+
+        @Test
+        @DisplayName("If-None-Match が一致すれば 304（本文なし）")
+        void notModified() throws Exception {
+            givenCurve("abc");
+
+            mvc.perform(get("/rooms/{roomId}/calendar/price-curve", ROOM_ID)
+                    .param("from", "2025-11-10")
+                    .param("to", "2025-11-10")
+                    .header("If-None-Match", "\"abc-2025-11-10-2025-11-10-30\""))
+               .andExpect(status().isNotModified())
+               .andExpect(content().string(""));
+        }
+
+        @Test
+        @DisplayName("サービスが IllegalArgumentException なら 400")
+        void invalid_400() throws Exception {
+            given(priceCurves.curve(ROOM_ID, day, day, 20))
+                .willThrow(new IllegalArgumentException("枠の長さは15分または30分で指定してください。"));
+
+            mvc.perform(get("/rooms/{roomId}/calendar/price-curve", ROOM_ID)
+                    .param("from", "2025-11-10")
+                    .param("to", "2025-11-10")
+                    .param("slot", "20"))
+               .andExpect(status().isBadRequest());
+        }
+    }
 }
@@ -17,6 +17,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.example.studio_book.service.AppMetrics;
 import com.example.studio_book.service.StripeService;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
@@ -33,6 +34,9 @@ class StripeWebhookControllerTest {
     @MockBean
     StripeService stripeService;
 
+    @MockBean
+    AppMetrics metrics;
+
     private static final String URL = "/stripe/webhook";
     private static final String SIG = "t=123,v1=abc";
     private static final String PAYLOAD = "{\"id\":\"evt_123\",\"type\":\"dummy\"}";
@@ -75,6 +79,7 @@ class StripeWebhookControllerTest {
     void checkoutSessionCompleted_callsService() throws Exception {
         Event evt = new Event();
         evt.setType("checkout.session.completed");
+        when(stripeService.processSessionCompleted(evt)).thenReturn(StripeService.WebhookOutcome.OK);
 
         try (MockedStatic<Webhook> mocked = org.mockito.Mockito.mockStatic(Webhook.class)) {
             mocked.when(() -> Webhook.constructEvent(PAYLOAD, SIG, "whsec_test"))
@@ -89,6 +94,7 @@ class StripeWebhookControllerTest {
         }
 
         org.mockito.Mockito.verify(stripeService, times(1)).processSessionCompleted(evt);
+        verify(metrics).recordWebhook(eq("checkout.session.completed"), eq("ok"), anyLong());
         org.mockito.Mockito.verify(stripeService, never()).processPaymentIntentSucceeded(any(Event.class));
         org.mockito.Mockito.verify(stripeService, never()).processChargeEvent(any(Event.class));
     }
@@ -99,6 +105,7 @@ class StripeWebhookControllerTest {
     void paymentIntentSucceeded_callsService() throws Exception {
         Event evt = new Event();
         evt.setType("payment_intent.succeeded");
+        when(stripeService.processPaymentIntentSucceeded(evt)).thenReturn(StripeService.WebhookOutcome.OK);
 
         try (MockedStatic<Webhook> mocked = org.mockito.Mockito.mockStatic(Webhook.class)) {
             mocked.when(() -> Webhook.constructEvent(PAYLOAD, SIG, "whsec_test"))
@@ -123,6 +130,7 @@ class StripeWebhookControllerTest {
     void chargeSucceeded_callsService() throws Exception {
         Event evt = new Event();
         evt.setType("charge.succeeded");
+        when(stripeService.processChargeEvent(evt)).thenReturn(StripeService.WebhookOutcome.OK);
 
         try (MockedStatic<Webhook> mocked = org.mockito.Mockito.mockStatic(Webhook.class)) {
             mocked.when(() -> Webhook.constructEvent(PAYLOAD, SIG, "whsec_test"))
@@ -147,6 +155,7 @@ class StripeWebhookControllerTest {
     void chargeUpdated_callsService() throws Exception {
         Event evt = new Event();
         evt.setType("charge.updated");
+        when(stripeService.processChargeEvent(evt)).thenReturn(StripeService.WebhookOutcome.OK);
 
         try (MockedStatic<Webhook> mocked = org.mockito.Mockito.mockStatic(Webhook.class)) {
             mocked.when(() -> Webhook.constructEvent(PAYLOAD, SIG, "whsec_test"))
@@ -164,5 +173,50 @@ class StripeWebhookControllerTest {
         org.mockito.Mockito.verify(stripeService, never()).processSessionCompleted(any(Event.class));
         org.mockito.Mockito.verify(stripeService, never()).processPaymentIntentSucceeded(any(Event.class));
     }
-}
 
+    // 処理失敗
+    @Test
+    @DisplayName("処理に失敗 → outcome=error で記録し 500（Stripe に再送させる）")
+    void serviceError_recordsErrorAndReturns500() throws Exception {
+        Event evt = new Event();
+        evt.setType("payment_intent.succeeded");
+        when(stripeService.processPaymentIntentSucceeded(evt)).thenReturn(StripeService.WebhookOutcome.ERROR);
+
+        try (MockedStatic<Webhook> mocked = org.mockito.Mockito.mockStatic(Webhook.class)) {
+            mocked.when(() -> Webhook.constructEvent(PAYLOAD, SIG, "whsec_test"))
+                  .thenReturn(evt);
+
+            mvc.perform(post(URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Stripe-Signature", SIG)
+                    .content(PAYLOAD))
+               .andExpect(status().isInternalServerError())
+               .andExpect(content().string("error"));
+        }
+
+        verify(metrics).recordWebhook(eq("payment_intent.succeeded"), eq("error"), anyLong());
+    }
+
+    // 対象外のイベント
+    @Test
+    @DisplayName("対象外のイベント → outcome=skipped で記録し 200 OK")
+    void otherEvent_recordsSkipped() throws Exception {
+        Event evt = new Event();
+        evt.setType("customer.created");
+
+        try (MockedStatic<Webhook> mocked = org.mockito.Mockito.mockStatic(Webhook.class)) {
+            mocked.when(() -> Webhook.constructEvent(PAYLOAD, SIG, "whsec_test"))
+                  .thenReturn(evt);
+
+            mvc.perform(post(URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Stripe-Signature", SIG)
+                    .content(PAYLOAD))
+               .andExpect(status().isOk())
+               .andExpect(content().string("ok"));
+        }
+
+        verify(metrics).recordWebhook(eq("customer.created"), eq("skipped"), anyLong());
+        verifyNoInteractions(stripeService);
+    }
+}
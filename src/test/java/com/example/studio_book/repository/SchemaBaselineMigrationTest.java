@@ -0,0 +1,147 @@
+package com.example.studio_book.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * 本番と同じ手順（Flyway → Hibernate の validate）をスキーマの出自ごとに流す。
+ * - ddl-auto（エンティティから Hibernate が作った表）に baseline-on-migrate / baseline-version 0 で migrate
+ * - 空の DB に migrate
+ * どちらも全マイグレーションが成功し、その後 spring.jpa.hibernate.ddl-auto=validate が通ること。
+ * Docker が無い環境ではスキップされる（CI では必ず実行）。
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaBaselineMigrationTest {
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    static DriverManagerDataSource dataSource;
+    static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void connect() {
+        dataSource = new DriverManagerDataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    /** テストごとに空の DB から始める（FOREIGN_KEY_CHECKS は接続ごとなので 1 本の接続で） */
+    @BeforeEach
+    void dropAll() {
+        var tables = jdbc.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = DATABASE()", String.class);
+        jdbc.execute((ConnectionCallback<Void>) con -> {
+            try (Statement st = con.createStatement()) {
+                st.execute("SET FOREIGN_KEY_CHECKS = 0");
+                for (String t : tables) {
+                    st.execute("DROP TABLE `" + t + "`");
+                }
+                st.execute("SET FOREIGN_KEY_CHECKS = 1");
+            }
+            return null;
+        });
+    }
+
+    /** application-production.properties と同じ */
+    private static Flyway flyway() {
+        return Flyway.configure()
+                     .dataSource(dataSource)
+                     .baselineOnMigrate(true)
+                     .baselineVersion("0")
+                     .load();
+    }
+
+    /** Spring Boot と同じ命名規則で EntityManagerFactory を組み立てる（hbm2ddl は create / validate） */
+    private static void hibernate(String ddlAuto) {
+        var factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.example.studio_book.entity");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        Map<String, Object> props = new HashMap<>();
+        props.put("hibernate.hbm2ddl.auto", ddlAuto);
+        props.put("hibernate.physical_naming_strategy",
+                "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy");
+        props.put("hibernate.implicit_naming_strategy",
+                "org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy");
+        factory.setJpaPropertyMap(props);
+        try {
+            factory.afterPropertiesSet();
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    private static boolean indexExists(String table, String name) {
+        Integer n = jdbc.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.statistics
+                 WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?
+                """, Integer.class, table, name);
+        return n != null && n > 0;
+    }
+
+    @Test
+    @DisplayName("ddl-auto で作られた DB: baseline 0 から全部流れ、既存の予約が索引テーブルに埋まり、validate が通る")
+    void ddlAutoSchema_migratesAndValidates() {
+        hibernate("create");
+        // Flyway 導入前からある行（ロールは当時 data.sql で入れていた）
+        jdbc.update("INSERT INTO roles (id, name) VALUES (1, 'ROLE_GENERAL'), (2, 'ROLE_HOST'), (3, 'ROLE_ADMIN')");
+        jdbc.update("""
+                INSERT INTO users (id, name, furigana, postal_code, address, phone_number, email, password, role_id, enabled)
+                VALUES (1, 'ゲスト 太郎', 'ゲスト タロウ', '100-0001', '東京都', '090', 'g@example.com', 'x', 1, true),
+                       (2, 'ホスト 次郎', 'ホスト ジロウ', '100-0001', '東京都', '090', 'h@example.com', 'x', 2, true)
+                """);
+        jdbc.update("""
+                INSERT INTO rooms (id, user_id, name, description, price, capacity, postal_code, address)
+                VALUES (10, 2, 'スタジオA', 'desc', 3000, 5, '100-0001', '住所')
+                """);
+        jdbc.update("""
+                INSERT INTO reservations (id, user_id, room_id, start_at, end_at, amount, payment_intent_id, status)
+                VALUES (100, 1, 10, '2025-11-10 10:00:00', '2025-11-10 12:00:00', 6000, 'pi_100', 'paid')
+                """);
+
+        int pending = flyway().info().pending().length;
+        MigrateResult result = flyway().migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(result.migrationsExecuted).isEqualTo(pending);
+        assertThat(flyway().info().pending()).isEmpty();
+        assertThat(indexExists("reservations", "idx_reservations_room_start")).isTrue();
+        assertThat(indexExists("reservation_search", "ft_reservation_search_names")).isTrue();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM roles", Integer.class)).isEqualTo(3);
+        assertThat(jdbc.queryForObject("SELECT names FROM reservation_search WHERE reservation_id = 100", String.class))
+                .isEqualTo("スタジオA ゲスト 太郎 ホスト 次郎");
+
+        assertThatCode(() -> hibernate("validate")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("空の DB: 全部流れて validate が通り、もう一度 migrate しても何もしない")
+    void emptySchema_migratesAndValidates() {
+        int pending = flyway().info().pending().length;
+        MigrateResult result = flyway().migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(result.migrationsExecuted).isEqualTo(pending);
+        assertThatCode(() -> hibernate("validate")).doesNotThrowAnyException();
+
+        assertThat(flyway().migrate().migrationsExecuted).isZero();
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.studio_book.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * db/migration を実際の MySQL に流し、よく使う検索が想定の索引を使うかを EXPLAIN で確かめる。
+ * Docker が無い環境ではスキップされる。
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaMigrationExplainTest {
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    static JdbcTemplate jdbc;
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 9, 0);
+    private static final int ROOMS = 20;
+    private static final int RESERVATIONS = 2000;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        Flyway.configure()
+              .dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())
+              .load()
+              .migrate();
+
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword()));
+        seed();
+    }
+
+    /** 件数が少ないと全走査の方が安く見積もられるので、部屋を絞る検索が効く程度に入れる */
+    private static void seed() {
+        jdbc.update("""
+                INSERT INTO users (id, name, furigana, postal_code, address, phone_number, email, password, role_id, enabled)
+                VALUES (1, 'ゲスト 太郎', 'ゲスト タロウ', '100-0001', '東京都', '090', 'g@example.com', 'x', 1, true),
+                       (2, 'ホスト 次郎', 'ホスト ジロウ', '100-0001', '東京都', '090', 'h@example.com', 'x', 2, true)
+                """);
+
+        List<Object[]> rooms = new ArrayList<>();
+        for (int i = 1; i <= ROOMS; i++) {
+            rooms.add(new Object[]{i, "スタジオ" + i, "住所" + i});
+        }
+        jdbc.batchUpdate("""
+                INSERT INTO rooms (id, user_id, name, description, price, capacity, postal_code, address)
+                VALUES (?, 2, ?, 'desc', 3000, 5, '100-0001', ?)
+                """, rooms);
+
+        List<Object[]> reservations = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> logs = new ArrayList<>();
+        for (int i = 1; i <= RESERVATIONS; i++) {
+            LocalDateTime start = BASE.plusHours(i);
+            reservations.add(new Object[]{i, (i % ROOMS) + 1, start, start.plusHours(1), "pi_" + i, "cs_" + i});
+            items.add(new Object[]{i, start, start.plusHours(1)});
+            logs.add(new Object[]{start, "reservation_created", i, "予約 " + i + " を登録"});
+        }
+        jdbc.batchUpdate("""
+                INSERT INTO reservations (id, user_id, room_id, start_at, end_at, amount, payment_intent_id, checkout_session_id, status)
+                VALUES (?, 1, ?, ?, ?, 3000, ?, ?, 'booked')
+                """, reservations);
+        jdbc.batchUpdate("""
+                INSERT INTO reservation_charge_items (reservation_id, kind, slice_amount, slice_start, slice_end)
+                VALUES (?, 'BASE', 3000, ?, ?)
+                """, items);
+        jdbc.batchUpdate("""
+                INSERT INTO audit_logs (ts, actor_id, action, entity, entity_id, note)
+                VALUES (?, 1, ?, 'reservation', ?, ?)
+                """, logs);
+
+        List<Object[]> perRoom = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            perRoom.add(new Object[]{(i % ROOMS) + 1, BASE.plusDays(i)});
+        }
+        jdbc.batchUpdate("""
+                INSERT INTO closures (room_id, start_at, end_at, reason)
+                VALUES (?, ?, DATE_ADD(?, INTERVAL 1 DAY), 'maintenance')
+                """, perRoom.stream().map(a -> new Object[]{a[0], a[1], a[1]}).toList());
+        jdbc.batchUpdate("""
+                INSERT INTO price_rules (room_id, rule_type, multiplier) VALUES (?, 'multiplier', 1.20)
+                """, perRoom.stream().map(a -> new Object[]{a[0]}).toList());
+
+        // 予約検索の索引テーブル（V3 の埋め込みと同じ）
+        jdbc.update("""
+                INSERT INTO reservation_search (reservation_id, room_id, guest_id, host_id, names)
+                SELECT r.id, r.room_id, r.user_id, rm.user_id, CONCAT_WS(' ', rm.name, gu.name, host.name)
+                  FROM reservations r
+                  JOIN rooms rm   ON rm.id = r.room_id
+                  JOIN users gu   ON gu.id = r.user_id
+                  JOIN users host ON host.id = rm.user_id
+                """);
+
+        jdbc.execute("ANALYZE TABLE reservations, reservation_charge_items, closures, price_rules, audit_logs, reservation_search");
+    }
+
+    private static String keyOf(String sql, Object... args) {
+        List<Map<String, Object>> plan = jdbc.queryForList("EXPLAIN " + sql, args);
+        assertThat(plan).isNotEmpty();
+        return (String) plan.get(0).get("key");
+    }
+
+    @Test
+    @DisplayName("重複チェック: reservations(room_id, start_at, end_at)")
+    void overlapCheck_usesRoomStartIndex() {
+        assertThat(keyOf("""
+                SELECT 1 FROM reservations
+                 WHERE room_id = ? AND start_at < ? AND end_at > ? AND status <> 'canceled'
+                 LIMIT 1
+                """, 3, BASE.plusDays(10), BASE.plusDays(9)))
+            .isEqualTo("idx_reservations_room_start");
+    }
+
+    @Test
+    @DisplayName("Webhook の重複防止: reservations(payment_intent_id)")
+    void paymentIntent_usesUniqueIndex() {
+        assertThat(keyOf("SELECT id FROM reservations WHERE payment_intent_id = ?", "pi_42"))
+            .isEqualTo("ux_reservations_payment_intent");
+    }
+
+    @Test
+    @DisplayName("決済完了の照会: reservations(checkout_session_id)")
+    void checkoutSession_usesIndex() {
+        assertThat(keyOf("SELECT id FROM reservations WHERE checkout_session_id = ? AND user_id = ?", "cs_42", 1))
+            .isEqualTo("idx_reservations_checkout_session");
+    }
+
+    @Test
+    @DisplayName("休業日: closures(room_id, start_at)")
+    void closures_useRoomStartIndex() {
+        assertThat(keyOf("""
+                SELECT * FROM closures WHERE room_id = ? AND start_at < ? AND end_at > ?
+                """, 5, BASE.plusDays(30), BASE))
+            .isEqualTo("idx_closures_room_start");
+    }
+
+    @Test
+    @DisplayName("料金ルール: price_rules(room_id)")
+    void priceRules_useRoomIndex() {
+        assertThat(keyOf("SELECT * FROM price_rules WHERE room_id = ?", 7))
+            .isEqualTo("idx_price_rules_room");
+    }
+
+    @Test
+    @DisplayName("料金明細: reservation_charge_items(reservation_id, slice_start)")
+    void chargeItems_useReservationIndex() {
+        assertThat(keyOf("""
+                SELECT * FROM reservation_charge_items WHERE reservation_id = ? ORDER BY slice_start
+                """, 42))
+            .isEqualTo("idx_charge_items_reservation");
+    }
+
+    @Test
+    @DisplayName("監査ログ一覧: audit_logs(ts)")
+    void auditLogs_useTsIndex() {
+        assertThat(keyOf("""
+                SELECT * FROM audit_logs WHERE ts >= ? AND ts < ? ORDER BY ts DESC, id DESC LIMIT 21
+                """, BASE.plusDays(10), BASE.plusDays(11)))
+            .isEqualTo("idx_audit_logs_ts");
+    }
+
+    @Test
+    @DisplayName("全文検索: audit_logs.note / reservation_search.names は ngram FULLTEXT")
+    void fullText_usesNgramIndexes() {
+        assertThat(keyOf("""
+                SELECT id FROM audit_logs WHERE MATCH(note) AGAINST(? IN BOOLEAN MODE)
+                """, "\"予約 42\""))
+            .isEqualTo("ft_audit_logs_note");
+        assertThat(keyOf("""
+                SELECT reservation_id FROM reservation_search WHERE MATCH(names) AGAINST(? IN BOOLEAN MODE)
+                """, "\"スタジオ1\""))
+            .isEqualTo("ft_reservation_search_names");
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.studio_book.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.example.studio_book.config.MetricsConfig;
+import com.example.studio_book.config.QueryCountInspector;
+import com.example.studio_book.entity.Room;
+import com.example.studio_book.form.BusinessHourRowForm;
+import com.example.studio_book.form.BusinessHoursForm;
+import com.example.studio_book.repository.impl.AdminStatsRepositoryImpl;
+import com.example.studio_book.service.AdminStatsService;
+import com.example.studio_book.service.AppMetrics;
+import com.example.studio_book.service.AvailabilityBitmaps;
+import com.example.studio_book.service.BusinessHourService;
+import com.example.studio_book.service.ClosureRuleExpander;
+import com.example.studio_book.service.HostStatsService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 実際の MySQL に対して、画面・集計の 1 回分で Hibernate が発行する SQL の本数を数える。
+ *
+ * 本数は QueryCountInspector（本番と同じ StatementInspector）の差分。
+ * 部屋数を増やしても本数が変わらないこと（N+1 でないこと）と、上限を超えないことを確かめる。
+ * JdbcTemplate の SQL（営業時間の一括 UPSERT）は含まない。Docker が無い環境ではスキップされる。
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({
+    MetricsConfig.class, SimpleMeterRegistry.class, AppMetrics.class,
+    AdminStatsRepositoryImpl.class, AdminStatsService.class, HostStatsService.class,
+    ClosureRuleExpander.class, AvailabilityBitmaps.class, BusinessHourService.class
+})
+class SqlQueryBudgetTest {
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    private static final int HOST_ID = 2;
+    /** 予約は部屋ごとに別々の利用者 3 人から */
+    private static final int[] GUEST_IDS = {1, 3, 4};
+
+    @Autowired JdbcTemplate jdbc;
+    @Autowired TestEntityManager em;
+    @Autowired RoomRepository roomRepository;
+    @Autowired AdminStatsService adminStatsService;
+    @Autowired BusinessHourService businessHourService;
+
+    private int nextRoomId = 1;
+
+    @BeforeEach
+    void seedUsers() {
+        jdbc.update("""
+                INSERT INTO users (id, name, furigana, postal_code, address, phone_number, email, password, role_id, enabled)
+                VALUES (1, 'ゲスト 一郎', 'ゲスト イチロウ', '100-0001', '東京都', '090', 'g1@example.com', 'x', 1, true),
+                       (2, 'ホスト 次郎', 'ホスト ジロウ', '100-0001', '東京都', '090', 'h@example.com', 'x', 2, true),
+                       (3, 'ゲスト 三郎', 'ゲスト サブロウ', '100-0001', '東京都', '090', 'g3@example.com', 'x', 1, true),
+                       (4, 'ゲスト 四郎', 'ゲスト シロウ', '100-0001', '東京都', '090', 'g4@example.com', 'x', 1, true)
+                """);
+    }
+
+    /** 営業時間（毎日 09:00-21:00）と、当月の利用済み予約を持つ部屋を count 件追加 */
+    private void addRooms(int count) {
+        List<Object[]> rooms = new ArrayList<>();
+        List<Object[]> hours = new ArrayList<>();
+        List<Object[]> reservations = new ArrayList<>();
+        LocalDateTime firstOfMonth = YearMonth.now().atDay(1).atTime(10, 0);
+        for (int n = 0; n < count; n++) {
+            int id = nextRoomId++;
+            rooms.add(new Object[]{id, "スタジオ" + id, "住所" + id});
+            for (int day = 1; day <= 7; day++) {
+                hours.add(new Object[]{id, day});
+            }
+            for (int g = 0; g < GUEST_IDS.length; g++) {
+                LocalDateTime start = firstOfMonth.plusHours(3L * g);
+                reservations.add(new Object[]{GUEST_IDS[g], id, start, start.plusHours(2), "pi_" + id + "_" + g});
+            }
+        }
+        jdbc.batchUpdate("""
+                INSERT INTO rooms (id, user_id, name, description, price, capacity, postal_code, address)
+                VALUES (?, 2, ?, 'desc', 3000, 5, '100-0001', ?)
+                """, rooms);
+        jdbc.batchUpdate("""
+                INSERT INTO room_businesshours (room_id, day_index, start_time, end_time, holiday)
+                VALUES (?, ?, '09:00:00', '21:00:00', false)
+                """, hours);
+        jdbc.batchUpdate("""
+                INSERT INTO reservations (user_id, room_id, start_at, end_at, amount, payment_intent_id, status)
+                VALUES (?, ?, ?, ?, 6000, ?, 'paid')
+                """, reservations);
+    }
+
+    /** 永続化コンテキストを空にしてから action の SQL 本数を数える */
+    private long sqlCount(Runnable action) {
+        em.clear();
+        long before = QueryCountInspector.current();
+        action.run();
+        return QueryCountInspector.current() - before;
+    }
+
+    @Test
+    @DisplayName("部屋一覧・トップの新着/人気：部屋ごとに予約を読まない（1 本ずつ）")
+    void roomLists_doNotLoadReservationsPerRoom() {
+        Runnable pages = () -> {
+            roomRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(0, 10)).forEach(Room::getName);
+            roomRepository.findTop8ByOrderByCreatedAtDesc().forEach(Room::getName);
+            roomRepository.findAllByOrderByReservationCountDesc(PageRequest.of(0, 3)).forEach(Room::getName);
+        };
+
+        addRooms(2);
+        long small = sqlCount(pages);
+        addRooms(4);
+        long large = sqlCount(pages);
+
+        assertThat(large).isEqualTo(small);
+        assertThat(large).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("管理ダッシュボード（全スタジオ）：部屋数によらず一定")
+    void adminDashboard_allRooms_isConstant() {
+        addRooms(2);
+        long small = sqlCount(() -> adminStatsService.buildDashboard(0));
+        addRooms(4);
+        long large = sqlCount(() -> adminStatsService.buildDashboard(0));
+
+        // 利用者数 2 + 手数料 3 か月 × 2 + 稼働率（部屋 ID・予約・休館・繰り返し休館・営業時間）5 + 直近 7 日 1
+        assertThat(large).isEqualTo(small);
+        assertThat(large).isLessThanOrEqualTo(14);
+    }
+
+    @Test
+    @DisplayName("営業時間の保存：部屋の予約件数によらず読み込みは 2 本（部屋・既存の営業時間）")
+    void businessHourSave_isConstant() {
+        addRooms(1);
+        BusinessHoursForm form = new BusinessHoursForm();
+        form.setRoomId(1);
+        List<BusinessHourRowForm> rows = new ArrayList<>();
+        for (int day = 1; day <= 7; day++) {
+            rows.add(BusinessHourRowForm.builder()
+                    .dayIndex(day).startTime(LocalTime.of(10, 0)).endTime(LocalTime.of(20, 0)).holiday(false)
+                    .build());
+        }
+        form.setRows(rows);
+
+        long n = sqlCount(() -> businessHourService.save(1, form));
+
+        assertThat(n).isLessThanOrEqualTo(2);
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM room_businesshours WHERE room_id = 1 AND start_time = '10:00:00'", Integer.class))
+                .isEqualTo(7);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.studio_book.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.studio_book.entity.AdminSettings;
+import com.example.studio_book.repository.AdminSettingsRepository;
+
+/**
+ * AdminSettingsService（DB なし）
+ * - 保存のたびに変更番号を進め、スナップショットの差し替えはコミット後（ロールバックなら差し替えない）
+ * - 他ノードの更新は変更番号が変わったときだけ読み直すこと（件数・更新日時が同じでも取りこぼさない）
+ */
+class AdminSettingsServiceTest {
+
+    private AdminSettingsRepository repo;
+    private AdminSettingsService service;
+
+    private final List<AdminSettings> rows = new ArrayList<>();
+    private final AtomicLong revision = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(AdminSettingsRepository.class);
+        service = new AdminSettingsService(repo);
+
+        rows.add(new AdminSettings("tax_rate", "0.1"));
+        when(repo.findAll()).thenAnswer(inv -> List.copyOf(rows));
+        when(repo.findRevision()).thenAnswer(inv -> revision.get());
+        when(repo.bumpRevision()).thenAnswer(inv -> {
+            revision.incrementAndGet();
+            return 1;
+        });
+        when(repo.findByKey("tax_rate")).thenAnswer(inv -> Optional.of(rows.get(0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("保存すると変更番号が進み、自ノードのスナップショットはすぐ差し替わる")
+    void updateValue_bumpsRevision() {
+        assertThat(service.getValue("tax_rate")).isEqualTo("0.1");
+        String before = service.snapshot().version();
+
+        service.updateValue("tax_rate", "0.08");
+
+        verify(repo).bumpRevision();
+        assertThat(service.getValue("tax_rate")).isEqualTo("0.08");
+        assertThat(service.snapshot().version()).isNotEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("他ノードの更新: 件数も更新秒も同じ上書きでも、変更番号が変われば読み直す")
+    void refreshIfChanged_followsRevision() {
+        service.snapshot();
+        service.refreshIfChanged();
+        verify(repo, times(1)).findAll();
+
+        // 他ノードが同じ行を書き換えた（件数・updated_at の秒は変わらない）
+        rows.get(0).setValue("0.08");
+        revision.incrementAndGet();
+        service.refreshIfChanged();
+
+        verify(repo, times(2)).findAll();
+        assertThat(service.getValue("tax_rate")).isEqualTo("0.08");
+    }
+
+    @Test
+    @DisplayName("トランザクション中は読み直さず、コミット後に差し替える。ロールバックなら古い値のまま")
+    void updateValue_reloadsAfterCommitOnly() {
+        service.snapshot();
+        String before = service.snapshot().version();
+
+        // ロールバック: DB の値は戻るので、スナップショットにも残してはいけない
+        TransactionSynchronizationManager.initSynchronization();
+        service.updateValue("tax_rate", "0.08");
+        verify(repo, times(1)).findAll();
+        rows.get(0).setValue("0.1");
+        revision.decrementAndGet();
+        for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+            s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        verify(repo, times(1)).findAll();
+        assertThat(service.getValue("tax_rate")).isEqualTo("0.1");
+        assertThat(service.snapshot().version()).isEqualTo(before);
+
+        // コミット
+        TransactionSynchronizationManager.initSynchronization();
+        service.updateValue("tax_rate", "0.08");
+        assertThat(service.getValue("tax_rate")).isEqualTo("0.1");
+        for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+            s.afterCommit();
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(service.getValue("tax_rate")).isEqualTo("0.08");
+        assertThat(service.snapshot().version()).isNotEqualTo(before);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.studio_book.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * AuditLogArchiver の SQL（(ts, id) の行値比較によるキーセット・DELETE … ORDER BY … LIMIT）を実際の MySQL で流す。
+ * ファイルまわりの細かい条件は AuditLogArchiverTest。Docker が無い環境ではスキップされる（CI では必ず実行）。
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class AuditLogArchiverSqlTest {
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    static JdbcTemplate jdbc;
+
+    private static final YearMonth JAN = YearMonth.of(2025, 1);
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+              .dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())
+              .load()
+              .migrate();
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword()));
+    }
+
+    @BeforeEach
+    void seed() {
+        jdbc.update("DELETE FROM audit_logs");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            // 3 件ずつ同じ ts（キーセットの境目で ts が並ぶ）
+            rows.add(new Object[]{JAN.atDay(1 + i / 3).atTime(9, 0), "action" + i});
+        }
+        rows.add(new Object[]{LocalDateTime.of(2025, 2, 1, 0, 0), "february"});
+        jdbc.batchUpdate("INSERT INTO audit_logs (ts, actor_id, action, entity, entity_id) VALUES (?, 1, ?, 'review', 5)", rows);
+    }
+
+    @Test
+    @DisplayName("3 件ずつのチャンクで 1 月の 10 件を順に書き出し、書き出し後に入った行と 2 月は残す")
+    void exportsInKeysetOrder_andDeletesOnlyExported() throws IOException {
+        AuditLogArchiver archiver = new AuditLogArchiver(jdbc, new ObjectMapper(), true, 12, dir.toString(), 3) {
+            @Override
+            void force(Path path, StandardOpenOption mode) throws IOException {
+                // 移動の直前（書き出し完了後）に、同じ月の行が新しく入る
+                if (path.toString().endsWith(".part")) {
+                    jdbc.update("INSERT INTO audit_logs (ts, actor_id, action, entity, entity_id) "
+                            + "VALUES ('2025-01-01 00:00:00', 1, 'late', 'review', 5)");
+                }
+                super.force(path, mode);
+            }
+        };
+
+        long deleted = archiver.archiveMonth(JAN);
+
+        List<String> exported = new ArrayList<>();
+        ObjectMapper om = new ObjectMapper();
+        try (var in = new BufferedReader(new InputStreamReader(new GZIPInputStream(
+                Files.newInputStream(dir.resolve("audit_logs-2025-01.ndjson.gz"))), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) exported.add(om.readTree(line).get("action").asText());
+        }
+        List<String> expected = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) expected.add("action" + i);
+
+        // ts, id の順（同じ ts が続いてもチャンクの境目で欠けも重複もない）
+        assertThat(exported).containsExactlyElementsOf(expected);
+        assertThat(deleted).isEqualTo(10);
+        assertThat(jdbc.queryForList("SELECT action FROM audit_logs ORDER BY id", String.class))
+                .containsExactly("february", "late");
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.studio_book.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * AuditLogArchiver（DB なし。audit_logs はメモリ上の行で、SELECT/DELETE の条件だけを再現）
+ * - キーセットで複数チャンクに分けて書き出し、展開すると元の行と一致すること
+ * - 消すのはその月の書き出し済み（id ≦ 上限）の行だけで、書き出し後に入った行は残ること
+ * - 書き出しに失敗したら .part を消し、行は 1 件も消さないこと
+ * - 既にファイルがあれば -1, -2 … を付け、.part は消す前に fsync すること
+ * 実際の SQL（行値比較・DELETE … LIMIT）は AuditLogArchiverSqlTest で MySQL に流す。
+ */
+class AuditLogArchiverTest {
+
+    private static final YearMonth JAN = YearMonth.of(2025, 1);
+
+    @TempDir
+    Path dir;
+
+    private AuditJdbc jdbc;
+    private ObjectMapper objectMapper;
+
+    /** force / DELETE の呼ばれた順 */
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new AuditJdbc();
+        objectMapper = new ObjectMapper();
+    }
+
+    private AuditLogArchiver archiver(int chunkSize) {
+        return new AuditLogArchiver(jdbc, objectMapper, true, 12, dir.toString(), chunkSize);
+    }
+
+    /** 1 月に n 件（同じ ts が続く行を含めてキーセットの境目を跨がせる）と 2 月に 1 件 */
+    private void seed(int n) {
+        for (int i = 1; i <= n; i++) {
+            jdbc.insert(i, JAN.atDay(1 + i / 3).atTime(9, 0), "action" + i);
+        }
+        jdbc.insert(n + 1, YearMonth.of(2025, 2).atDay(1).atStartOfDay(), "february");
+    }
+
+    private static List<JsonNode> readArchive(Path file) throws IOException {
+        List<JsonNode> out = new ArrayList<>();
+        try (var in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            ObjectMapper om = new ObjectMapper();
+            while ((line = in.readLine()) != null) {
+                out.add(om.readTree(line));
+            }
+        }
+        return out;
+    }
+
+    private List<Path> files() throws IOException {
+        try (var s = Files.list(dir)) {
+            return s.sorted().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("複数チャンクで書き出し、展開した内容は元の行と一致。その月の行だけ消える")
+    void roundTrip_acrossChunks() throws IOException {
+        seed(10);
+        List<Map<String, Object>> january = jdbc.rows.stream()
+                .filter(r -> ((LocalDateTime) r.get("ts")).getMonthValue() == 1).toList();
+
+        long deleted = archiver(3).archiveMonth(JAN);
+
+        Path file = dir.resolve("audit_logs-2025-01.ndjson.gz");
+        assertThat(files()).containsExactly(file);
+        List<JsonNode> lines = readArchive(file);
+        assertThat(lines).hasSize(10);
+        for (int i = 0; i < lines.size(); i++) {
+            Map<String, Object> r = january.get(i);
+            JsonNode l = lines.get(i);
+            assertThat(l.get("id").asInt()).isEqualTo(r.get("id"));
+            assertThat(l.get("ts").asText()).isEqualTo(r.get("ts").toString());
+            assertThat(l.get("actorId").asInt()).isEqualTo(r.get("actor_id"));
+            assertThat(l.get("action").asText()).isEqualTo(r.get("action"));
+            assertThat(l.get("entity").asText()).isEqualTo(r.get("entity"));
+            assertThat(l.get("entityId").asInt()).isEqualTo(r.get("entity_id"));
+            assertThat(l.get("note").isNull()).isTrue();
+        }
+        // 10 件を 3 件ずつ → 4 回目で打ち切り
+        assertThat(jdbc.selects).isEqualTo(4);
+
+        assertThat(deleted).isEqualTo(10);
+        assertThat(jdbc.rows).extracting(r -> r.get("action")).containsExactly("february");
+    }
+
+    @Test
+    @DisplayName("書き出し後に入った行（id が上限より大きい）は同じ月でも消さない")
+    void delete_onlyUpToExportedMaxId() throws IOException {
+        seed(5);
+        // 最後の SELECT（書き出し完了）の直後に、月初の ts で新しい行が入る
+        jdbc.afterSelect = rowsReturned -> {
+            if (rowsReturned < 3) jdbc.insert(100, JAN.atDay(1).atStartOfDay(), "late");
+        };
+
+        long deleted = archiver(3).archiveMonth(JAN);
+
+        assertThat(deleted).isEqualTo(5);
+        assertThat(jdbc.rows).extracting(r -> r.get("action")).containsExactlyInAnyOrder("late", "february");
+        assertThat(readArchive(dir.resolve("audit_logs-2025-01.ndjson.gz"))).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("書き出しの途中で失敗したら .part を消し、行は 1 件も消さない")
+    void failedExport_keepsEveryRow() throws IOException {
+        seed(10);
+        objectMapper = spy(new ObjectMapper());
+        doCallRealMethod().doCallRealMethod().doCallRealMethod().doCallRealMethod()
+                .doThrow(new JsonMappingException(null, "disk full"))
+                .when(objectMapper).writeValueAsString(any());
+
+        assertThatThrownBy(() -> archiver(3).archiveMonth(JAN)).isInstanceOf(IOException.class);
+
+        assertThat(files()).isEmpty();
+        assertThat(jdbc.rows).hasSize(11);
+        assertThat(jdbc.deletes).isZero();
+    }
+
+    @Test
+    @DisplayName("既に同じ月のファイルがあれば上書きせず -1, -2 … を付ける")
+    void existingFile_getsSuffix() throws IOException {
+        Files.writeString(dir.resolve("audit_logs-2025-01.ndjson.gz"), "previous run");
+        Files.writeString(dir.resolve("audit_logs-2025-01-1.ndjson.gz"), "previous run");
+        seed(2);
+
+        archiver(10).archiveMonth(JAN);
+
+        assertThat(Files.readString(dir.resolve("audit_logs-2025-01.ndjson.gz"))).isEqualTo("previous run");
+        assertThat(Files.readString(dir.resolve("audit_logs-2025-01-1.ndjson.gz"))).isEqualTo("previous run");
+        assertThat(readArchive(dir.resolve("audit_logs-2025-01-2.ndjson.gz"))).hasSize(2);
+    }
+
+    @Test
+    @DisplayName(".part を fsync → 最終名へ移動 → ディレクトリを fsync → DELETE の順")
+    void forcesFileAndDirectoryBeforeDelete() throws IOException {
+        seed(4);
+        AuditLogArchiver archiver = spy(archiver(10));
+        doAnswer(inv -> {
+            Path p = inv.getArgument(0);
+            events.add("force:" + dir.relativize(p) + (Files.isDirectory(p) ? "/" : ""));
+            return inv.callRealMethod();
+        }).when(archiver).force(any(Path.class), any(StandardOpenOption.class));
+        jdbc.beforeDelete = () -> events.add("delete");
+
+        archiver.archiveMonth(JAN);
+
+        assertThat(events).containsExactly(
+                "force:audit_logs-2025-01.ndjson.gz.part", "force:/", "delete");
+    }
+
+    @Test
+    @DisplayName("fsync に失敗したら移動も DELETE もしない")
+    void forceFailure_keepsRows() throws IOException {
+        seed(4);
+        AuditLogArchiver archiver = spy(archiver(10));
+        doThrow(new IOException("EIO")).when(archiver).force(any(Path.class), eq(StandardOpenOption.WRITE));
+
+        assertThatThrownBy(() -> archiver.archiveMonth(JAN)).isInstanceOf(IOException.class);
+
+        assertThat(files()).isEmpty();
+        assertThat(jdbc.rows).hasSize(5);
+        assertThat(jdbc.deletes).isZero();
+    }
+
+    /** audit_logs をメモリ上の行で置き換えた JdbcTemplate（AuditLogArchiver が使う 2 種類の SQL だけ） */
+    static class AuditJdbc extends JdbcTemplate {
+
+        final List<Map<String, Object>> rows = new ArrayList<>();
+        int selects;
+        int deletes;
+        IntConsumer afterSelect = n -> {};
+        Runnable beforeDelete = () -> {};
+
+        private static final Comparator<Map<String, Object>> TS_ID = Comparator
+                .comparing((Map<String, Object> r) -> (LocalDateTime) r.get("ts"))
+                .thenComparing(r -> (Integer) r.get("id"));
+
+        void insert(int id, LocalDateTime ts, String action) {
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("id", id);
+            r.put("ts", ts);
+            r.put("actor_id", 1);
+            r.put("action", action);
+            r.put("entity", "review");
+            r.put("entity_id", 5);
+            r.put("note", null);
+            rows.add(r);
+        }
+
+        private static boolean inMonth(Map<String, Object> r, Object from, Object to) {
+            LocalDateTime ts = (LocalDateTime) r.get("ts");
+            return !ts.isBefore((LocalDateTime) from) && ts.isBefore((LocalDateTime) to);
+        }
+
+        /** WHERE ts >= ? AND ts < ? AND (ts, id) > (?, ?) ORDER BY ts, id LIMIT ? */
+        @Override
+        public List<Map<String, Object>> queryForList(String sql, Object... args) {
+            assertThat(sql).contains("(ts, id) > (?, ?)").contains("ORDER BY ts, id");
+            selects++;
+            LocalDateTime lastTs = (LocalDateTime) args[2];
+            long lastId = ((Number) args[3]).longValue();
+            List<Map<String, Object>> out = rows.stream()
+                    .filter(r -> inMonth(r, args[0], args[1]))
+                    .filter(r -> {
+                        int c = ((LocalDateTime) r.get("ts")).compareTo(lastTs);
+                        return c > 0 || (c == 0 && (Integer) r.get("id") > lastId);
+                    })
+                    .sorted(TS_ID)
+                    .limit((Integer) args[4])
+                    .<Map<String, Object>>map(LinkedHashMap::new)
+                    .toList();
+            afterSelect.accept(out.size());
+            return out;
+        }
+
+        /** WHERE ts >= ? AND ts < ? AND id <= ? ORDER BY ts, id LIMIT ? */
+        @Override
+        public int update(String sql, Object... args) {
+            assertThat(sql).startsWith("DELETE FROM audit_logs").contains("id <= ?");
+            beforeDelete.run();
+            deletes++;
+            long maxId = ((Number) args[2]).longValue();
+            List<Map<String, Object>> victims = rows.stream()
+                    .filter(r -> inMonth(r, args[0], args[1]))
+                    .filter(r -> (Integer) r.get("id") <= maxId)
+                    .sorted(TS_ID)
+                    .limit((Integer) args[3])
+                    .toList();
+            rows.removeAll(victims);
+            return victims.size();
+        }
+    }
+}
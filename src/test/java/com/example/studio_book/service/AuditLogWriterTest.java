@@ -0,0 +1,213 @@
+package com.example.studio_book.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.studio_book.entity.AuditLog;
+import com.example.studio_book.repository.AuditLogRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * AuditLogWriter（DB なし。JdbcTemplate はモック）
+ * - 件数しきい値で吐き出すこと、上限超えは呼び出し元で直接書くこと
+ * - 一時的な失敗は戻して次回に回し、行が原因の失敗はデッドレターに出して詰まらせないこと
+ * - ロールバックされた操作の分は積まないこと、不正な行は積む前に弾くこと
+ */
+class AuditLogWriterTest {
+
+    private static final ValidatorFactory VALIDATORS = Validation.buildDefaultValidatorFactory();
+
+    private JdbcTemplate jdbc;
+    private AuditLogRepository repository;
+    private Validator validator;
+    private SimpleMeterRegistry registry;
+
+    /** batchUpdate に渡された行（呼び出しごと） */
+    private final List<List<AuditLog>> inserted = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbc = mock(JdbcTemplate.class);
+        repository = mock(AuditLogRepository.class);
+        validator = VALIDATORS.getValidator();
+        registry = new SimpleMeterRegistry();
+        recordInserts();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private AuditLogWriter writer(int capacity, int batchSize) {
+        AuditLogWriter w = new AuditLogWriter(repository, jdbc, validator, true, capacity, batchSize);
+        w.bindTo(registry);
+        return w;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recordInserts() {
+        when(jdbc.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    inserted.add(new ArrayList<>((Collection<AuditLog>) inv.getArgument(1)));
+                    return new int[0][];
+                });
+    }
+
+    private static AuditLog entry(String action) {
+        return AuditLog.builder().ts(LocalDateTime.of(2025, 11, 10, 10, 0))
+                .actorId(1).action(action).entity("review").entityId(5).build();
+    }
+
+    private int insertedRows() {
+        return inserted.stream().mapToInt(List::size).sum();
+    }
+
+    private double counter(String name) {
+        return registry.get(name).counter().count();
+    }
+
+    @Test
+    @DisplayName("しきい値までは積むだけ、届いたら別スレッドでまとめて INSERT")
+    void flushesAtBatchSize() {
+        AuditLogWriter w = writer(100, 3);
+
+        w.write(entry("a"));
+        w.write(entry("b"));
+        assertThat(w.pending()).isEqualTo(2);
+        verifyNoInteractions(jdbc);
+
+        w.write(entry("c"));
+        verify(jdbc, timeout(2_000)).batchUpdate(anyString(), anyCollection(), eq(3), any());
+        assertThat(inserted.get(0)).extracting(AuditLog::getAction).containsExactly("a", "b", "c");
+        assertThat(w.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("上限を超えた分は捨てずに呼び出し元スレッドで直接書く")
+    void overflowIsWrittenSynchronously() {
+        AuditLogWriter w = writer(1, 100);
+
+        w.write(entry("queued"));
+        w.write(entry("overflow"));
+
+        assertThat(inserted).singleElement()
+                .satisfies(rows -> assertThat(rows).extracting(AuditLog::getAction).containsExactly("overflow"));
+        assertThat(w.pending()).isEqualTo(1);
+        assertThat(counter("studio.audit.overflow")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("DB 不調（一時的な失敗）はキューへ戻し、次回の flush で書く")
+    @SuppressWarnings("unchecked")
+    void transientFailureIsRequeued() {
+        AuditLogWriter w = writer(100, 10);
+        w.write(entry("a"));
+        w.write(entry("b"));
+
+        when(jdbc.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new TransientDataAccessResourceException("connection refused"));
+        w.flush();
+
+        assertThat(w.pending()).isEqualTo(2);
+        assertThat(counter("studio.audit.dead_letters")).isZero();
+
+        reset(jdbc);
+        recordInserts();
+        w.flush();
+
+        assertThat(insertedRows()).isEqualTo(2);
+        assertThat(w.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("行が原因の失敗は 1 行ずつ入れ直し、入らない行だけデッドレターにして戻さない")
+    @SuppressWarnings("unchecked")
+    void poisonRowIsDeadLettered() {
+        AuditLogWriter w = writer(100, 10);
+        w.write(entry("a"));
+        w.write(entry("poison"));
+        w.write(entry("c"));
+
+        when(jdbc.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    List<AuditLog> rows = new ArrayList<>((Collection<AuditLog>) inv.getArgument(1));
+                    if (rows.stream().anyMatch(r -> "poison".equals(r.getAction()))) {
+                        throw new DataIntegrityViolationException("Data too long for column 'action'");
+                    }
+                    inserted.add(rows);
+                    return new int[0][];
+                });
+        w.flush();
+
+        assertThat(inserted).flatExtracting(rows -> rows).extracting(AuditLog::getAction).containsExactly("a", "c");
+        assertThat(w.pending()).isZero();
+        assertThat(counter("studio.audit.dead_letters")).isEqualTo(1.0);
+
+        // 次回は何も残っていない（毎回同じバッチで失敗し続けない）
+        w.flush();
+        assertThat(insertedRows()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("トランザクション中はコミット後に積む。ロールバックされたら積まない")
+    void rolledBackEntriesAreDropped() {
+        AuditLogWriter w = writer(100, 10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        w.write(entry("rolled_back"));
+        assertThat(w.pending()).isZero();
+        for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+            s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThat(w.pending()).isZero();
+
+        TransactionSynchronizationManager.initSynchronization();
+        w.write(entry("committed"));
+        for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+            s.afterCommit();
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThat(w.pending()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("BUFFERED でも Bean Validation を掛け、不正な行は積まずに例外")
+    void invalidEntryIsRejected() {
+        AuditLogWriter w = writer(100, 10);
+
+        assertThatThrownBy(() -> w.add("host_reply", 0, "review", 5))
+                .isInstanceOf(ConstraintViolationException.class);
+        assertThatThrownBy(() -> w.add("host_reply", null, "review", 5))
+                .isInstanceOf(ConstraintViolationException.class);
+
+        assertThat(w.pending()).isZero();
+        verifyNoInteractions(jdbc);
+    }
+}
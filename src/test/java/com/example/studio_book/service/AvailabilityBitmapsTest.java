@@ -0,0 +1,146 @@
+package com.example.studio_book.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.studio_book.entity.Closure;
+import com.example.studio_book.entity.Reservation;
+import com.example.studio_book.entity.RoomBusinessHour;
+import com.example.studio_book.repository.ClosureRepository;
+import com.example.studio_book.repository.ReservationRepository;
+import com.example.studio_book.repository.RoomBusinessHourRepository;
+
+/**
+ * AvailabilityBitmaps（DB なし）
+ * - 15 分境界の区間で、元の行で判定した場合と同じ結果になること
+ * - 月単位で 1 回だけ読み込み、無効化・予約確定が反映されること
+ */
+class AvailabilityBitmapsTest {
+
+    private static final int ROOM_ID = 10;
+    // 2025-11-04 は火曜
+    private static final LocalDate TUE = LocalDate.of(2025, 11, 4);
+
+    private RoomBusinessHourRepository bhRepo;
+    private ClosureRepository closureRepo;
+    private ClosureRuleExpander closureRules;
+    private ReservationRepository reservationRepo;
+    private AvailabilityBitmaps bitmaps;
+
+    @BeforeEach
+    void setUp() {
+        bhRepo = mock(RoomBusinessHourRepository.class);
+        closureRepo = mock(ClosureRepository.class);
+        closureRules = mock(ClosureRuleExpander.class);
+        reservationRepo = mock(ReservationRepository.class);
+        bitmaps = new AvailabilityBitmaps(bhRepo, closureRepo, closureRules, reservationRepo, 60, 1_000);
+
+        // 火曜 10:00-22:00、水曜 18:00-24:00（終了 00:00）、他は設定なし
+        when(bhRepo.findByRoomIdOrderByDayIndexAsc(ROOM_ID)).thenReturn(List.of(
+                bh(2, LocalTime.of(10, 0), LocalTime.of(22, 0)),
+                bh(3, LocalTime.of(18, 0), LocalTime.MIDNIGHT)));
+    }
+
+    private static RoomBusinessHour bh(int dayIndex, LocalTime start, LocalTime end) {
+        return RoomBusinessHour.builder().dayIndex(dayIndex).startTime(start).endTime(end).holiday(false).build();
+    }
+
+    private static Closure closure(LocalDateTime s, LocalDateTime e) {
+        Closure c = new Closure();
+        c.setRoomId(ROOM_ID);
+        c.setStartAt(s);
+        c.setEndAt(e);
+        return c;
+    }
+
+    private static Reservation reservation(LocalDateTime s, LocalDateTime e, String status) {
+        Reservation r = new Reservation();
+        r.setStartAt(s);
+        r.setEndAt(e);
+        r.setStatus(status);
+        return r;
+    }
+
+    @Test
+    @DisplayName("営業時間: 内包なら true、はみ出せば false。終了 00:00 は 24:00 扱い")
+    void allOpen_businessHours() {
+        assertThat(bitmaps.allOpen(ROOM_ID, TUE.atTime(10, 0), TUE.atTime(12, 0))).isTrue();
+        assertThat(bitmaps.allOpen(ROOM_ID, TUE.atTime(21, 0), TUE.atTime(22, 0))).isTrue();
+        assertThat(bitmaps.allOpen(ROOM_ID, TUE.atTime(9, 45), TUE.atTime(10, 30))).isFalse();
+        assertThat(bitmaps.allOpen(ROOM_ID, TUE.atTime(21, 45), TUE.atTime(22, 15))).isFalse();
+
+        LocalDate wed = TUE.plusDays(1);
+        assertThat(bitmaps.allOpen(ROOM_ID, wed.atTime(23, 0), wed.plusDays(1).atStartOfDay())).isTrue();
+        // 木曜は設定なし（営業なし）
+        assertThat(bitmaps.allOpen(ROOM_ID, wed.atTime(23, 0), wed.plusDays(1).atTime(0, 15))).isFalse();
+    }
+
+    @Test
+    @DisplayName("休館: 端数のある休館は外側に丸めて、重なる 15 分枠を塞ぐ（繰り返し休館も含む）")
+    void anyClosed_roundsOutward() {
+        when(closureRepo.findByRoomIdAndEndAtAfterAndStartAtBefore(eq(ROOM_ID), any(), any()))
+                .thenReturn(List.of(closure(TUE.atTime(13, 5), TUE.atTime(13, 20))));
+        when(closureRules.occurrences(eq(ROOM_ID), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(closure(TUE.atTime(18, 0), TUE.atTime(19, 0))));
+
+        assertThat(bitmaps.anyClosed(ROOM_ID, TUE.atTime(13, 0), TUE.atTime(13, 15))).isTrue();
+        assertThat(bitmaps.anyClosed(ROOM_ID, TUE.atTime(13, 15), TUE.atTime(13, 30))).isTrue();
+        assertThat(bitmaps.anyClosed(ROOM_ID, TUE.atTime(13, 30), TUE.atTime(18, 0))).isFalse();
+        assertThat(bitmaps.anyClosed(ROOM_ID, TUE.atTime(18, 45), TUE.atTime(20, 0))).isTrue();
+    }
+
+    @Test
+    @DisplayName("月単位で 1 回だけ読み込み、無効化すると読み直す")
+    void loadsOncePerMonth_untilInvalidated() {
+        bitmaps.allOpen(ROOM_ID, TUE.atTime(10, 0), TUE.atTime(11, 0));
+        bitmaps.anyClosed(ROOM_ID, TUE.plusDays(10).atTime(10, 0), TUE.plusDays(10).atTime(11, 0));
+        bitmaps.days(ROOM_ID, LocalDate.of(2025, 11, 1), LocalDate.of(2025, 11, 30));
+
+        verify(bhRepo, times(1)).findByRoomIdOrderByDayIndexAsc(ROOM_ID);
+        verify(reservationRepo, times(1)).findByRoomIdAndEndAtAfterAndStartAtBefore(ROOM_ID,
+                LocalDate.of(2025, 11, 1).atStartOfDay(), LocalDate.of(2025, 12, 1).atStartOfDay());
+
+        // トランザクション外なのですぐに捨てる
+        bitmaps.invalidateAfterCommit(ROOM_ID);
+        bitmaps.allOpen(ROOM_ID, TUE.atTime(10, 0), TUE.atTime(11, 0));
+        verify(bhRepo, times(2)).findByRoomIdOrderByDayIndexAsc(ROOM_ID);
+    }
+
+    @Test
+    @DisplayName("予約: キャンセル済みは空き、確定分は読み直さずにビットが立つ")
+    void booked_andMarkBooked() {
+        when(reservationRepo.findByRoomIdAndEndAtAfterAndStartAtBefore(eq(ROOM_ID), any(), any()))
+                .thenReturn(List.of(
+                        reservation(TUE.atTime(10, 0), TUE.atTime(11, 0), "booked"),
+                        reservation(TUE.atTime(12, 0), TUE.atTime(13, 0), "canceled")));
+
+        var day = bitmaps.days(ROOM_ID, TUE, TUE).get(TUE);
+        assertThat(day.anyBooked(40, 44)).isTrue();   // 10:00-11:00
+        assertThat(day.isFree(48, 52)).isTrue();       // 12:00-13:00
+        assertThat(day.isFree(36, 40)).isFalse();      // 09:00-10:00 は営業時間外
+
+        bitmaps.markBookedAfterCommit(ROOM_ID, TUE.atTime(12, 0), TUE.atTime(12, 30));
+        var after = bitmaps.days(ROOM_ID, TUE, TUE).get(TUE);
+        assertThat(after.isFree(48, 50)).isFalse();
+        assertThat(after.isFree(50, 52)).isTrue();
+        verify(reservationRepo, times(1)).findByRoomIdAndEndAtAfterAndStartAtBefore(eq(ROOM_ID), any(), any());
+    }
+
+    @Test
+    @DisplayName("15 分境界の判定")
+    void isAligned() {
+        assertThat(AvailabilityBitmaps.isAligned(TUE.atTime(10, 15), TUE.atTime(11, 45))).isTrue();
+        assertThat(AvailabilityBitmaps.isAligned(TUE.atTime(10, 10), TUE.atTime(11, 45))).isFalse();
+        assertThat(AvailabilityBitmaps.isAligned(TUE.atTime(10, 0), TUE.atTime(11, 0, 30))).isFalse();
+    }
+}
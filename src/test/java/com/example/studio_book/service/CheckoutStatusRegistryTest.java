@@ -0,0 +1,88 @@
+package com.example.studio_book.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * CheckoutStatusRegistry（DB なし）
+ * - 待機はリクエストごとに別で、外すか期限が切れればマップに残らないこと
+ */
+class CheckoutStatusRegistryTest {
+
+    private CheckoutStatusRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new CheckoutStatusRegistry();
+    }
+
+    @Test
+    @DisplayName("未知のセッションを待ってから外すと、マップは空に戻る")
+    void unknownSession_cancelLeavesNothing() {
+        CompletableFuture<CheckoutStatusRegistry.Outcome> a = registry.await("cs_unknown");
+        CompletableFuture<CheckoutStatusRegistry.Outcome> b = registry.await("cs_unknown");
+        assertThat(a).isNotSameAs(b);
+        assertThat(registry.waitingSessions()).isEqualTo(1);
+
+        registry.cancel("cs_unknown", a);
+        assertThat(registry.waitingSessions()).isEqualTo(1);
+        registry.cancel("cs_unknown", b);
+        assertThat(registry.waitingSessions()).isZero();
+    }
+
+    @Test
+    @DisplayName("確定すると待機中の全員に通知し、マップから消える")
+    void markCompleted_notifiesAll() {
+        CompletableFuture<CheckoutStatusRegistry.Outcome> a = registry.await("cs_1");
+        CompletableFuture<CheckoutStatusRegistry.Outcome> b = registry.await("cs_1");
+
+        registry.markCompleted("cs_1", 7);
+
+        var done = new CheckoutStatusRegistry.Outcome(7, CheckoutStatusRegistry.Status.COMPLETED);
+        assertThat(a).isCompletedWithValue(done);
+        assertThat(b).isCompletedWithValue(done);
+        assertThat(registry.waitingSessions()).isZero();
+        assertThat(registry.isCompleted("cs_1", 7)).isTrue();
+        assertThat(registry.isCompleted("cs_1", 8)).isFalse();
+    }
+
+    @Test
+    @DisplayName("確定済みのセッションを待つと即完了し、登録は残らない")
+    void await_afterCompleted() {
+        registry.markCompleted("cs_2", 3);
+
+        assertThat(registry.await("cs_2"))
+                .isCompletedWithValue(new CheckoutStatusRegistry.Outcome(3, CheckoutStatusRegistry.Status.COMPLETED));
+        assertThat(registry.waitingSessions()).isZero();
+    }
+
+    @Test
+    @DisplayName("競合の記録は確定とは区別して通知される")
+    void markConflict_notifiesConflict() {
+        CompletableFuture<CheckoutStatusRegistry.Outcome> f = registry.await("cs_3");
+
+        registry.markConflict("cs_3", 5);
+
+        assertThat(f).isCompletedWithValue(new CheckoutStatusRegistry.Outcome(5, CheckoutStatusRegistry.Status.CONFLICT));
+        assertThat(registry.isConflict("cs_3", 5)).isTrue();
+        assertThat(registry.isCompleted("cs_3", 5)).isFalse();
+    }
+
+    @Test
+    @DisplayName("外し損ねた待機は最長保持時間を過ぎると purge で消える")
+    void purge_evictsStaleWaiters() {
+        ReflectionTestUtils.setField(registry, "waiterMaxAgeMillis", -1L);
+        CompletableFuture<CheckoutStatusRegistry.Outcome> f = registry.await("cs_leaked");
+
+        registry.purge();
+
+        assertThat(registry.waitingSessions()).isZero();
+        assertThat(f).isCancelled();
+    }
+}
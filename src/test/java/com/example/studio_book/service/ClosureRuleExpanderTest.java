@@ -0,0 +1,155 @@
+package com.example.studio_book.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.studio_book.entity.Closure;
+import com.example.studio_book.entity.ClosureRule;
+import com.example.studio_book.repository.ClosureRuleRepository;
+
+/**
+ * ClosureRuleExpander の展開（DB なし）
+ * - 照会範囲に掛かる発生だけを返すこと
+ * - 同じ (ルール, 月) は 2 回目以降キャッシュから返ること
+ */
+class ClosureRuleExpanderTest {
+
+    private static final int ROOM_ID = 10;
+
+    private ClosureRuleRepository repo;
+    private ClosureRuleExpander expander;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(ClosureRuleRepository.class);
+        expander = new ClosureRuleExpander(repo, 1_000);
+    }
+
+    private ClosureRule rule(int id, String frequency) {
+        ClosureRule r = spy(new ClosureRule());
+        r.setId(id);
+        r.setRoomId(ROOM_ID);
+        r.setFrequency(frequency);
+        r.setValidFrom(LocalDate.of(2025, 1, 1));
+        return r;
+    }
+
+    private static List<LocalDateTime> starts(List<Closure> cs) {
+        return cs.stream().map(Closure::getStartAt).toList();
+    }
+
+    @Test
+    @DisplayName("毎週火曜（終日）: 11月は 4 回、範囲外は返さない")
+    void weekly_allDay() {
+        var r = rule(1, ClosureRule.WEEKLY);
+        r.setWeekday(2);
+        when(repo.findByRoomIdOrderByIdAsc(ROOM_ID)).thenReturn(List.of(r));
+
+        var cs = expander.occurrences(ROOM_ID,
+                LocalDateTime.of(2025, 11, 1, 0, 0), LocalDateTime.of(2025, 12, 1, 0, 0));
+
+        assertThat(starts(cs)).containsExactly(
+                LocalDateTime.of(2025, 11, 4, 0, 0), LocalDateTime.of(2025, 11, 11, 0, 0),
+                LocalDateTime.of(2025, 11, 18, 0, 0), LocalDateTime.of(2025, 11, 25, 0, 0));
+        assertThat(cs.get(0).getEndAt()).isEqualTo(LocalDateTime.of(2025, 11, 5, 0, 0));
+        assertThat(cs).allSatisfy(c -> assertThat(c.getId()).isNull());
+    }
+
+    @Test
+    @DisplayName("第2火曜・最終金曜: 月ごとに 1 回")
+    void monthly_nthAndLast() {
+        var second = rule(1, ClosureRule.MONTHLY);
+        second.setWeekday(2);
+        second.setWeekOfMonth(2);
+        var last = rule(2, ClosureRule.MONTHLY);
+        last.setWeekday(5);
+        last.setWeekOfMonth(-1);
+        when(repo.findByRoomIdOrderByIdAsc(ROOM_ID)).thenReturn(List.of(second, last));
+
+        var cs = expander.occurrences(ROOM_ID,
+                LocalDateTime.of(2025, 11, 1, 0, 0), LocalDateTime.of(2026, 1, 1, 0, 0));
+
+        assertThat(starts(cs)).containsExactlyInAnyOrder(
+                LocalDateTime.of(2025, 11, 11, 0, 0), LocalDateTime.of(2025, 12, 9, 0, 0),
+                LocalDateTime.of(2025, 11, 28, 0, 0), LocalDateTime.of(2025, 12, 26, 0, 0));
+    }
+
+    @Test
+    @DisplayName("第5月曜は無い月を飛ばす")
+    void monthly_fifthWeekSkipsShortMonths() {
+        var r = rule(1, ClosureRule.MONTHLY);
+        r.setWeekday(1);
+        r.setWeekOfMonth(5);
+        when(repo.findByRoomIdOrderByIdAsc(ROOM_ID)).thenReturn(List.of(r));
+
+        var cs = expander.occurrences(ROOM_ID,
+                LocalDateTime.of(2025, 11, 1, 0, 0), LocalDateTime.of(2026, 1, 1, 0, 0));
+
+        // 2025-11 は月曜が 4 回、2025-12 は 29 日が第5月曜
+        assertThat(starts(cs)).containsExactly(LocalDateTime.of(2025, 12, 29, 0, 0));
+    }
+
+    @Test
+    @DisplayName("毎年 12/31 22:00〜翌 02:00: 日付を跨ぐ発生も次の月の照会で拾う")
+    void yearly_overnight_spillsIntoNextMonth() {
+        var r = rule(1, ClosureRule.YEARLY);
+        r.setMonth(12);
+        r.setDayOfMonth(31);
+        r.setStartTime(LocalTime.of(22, 0));
+        r.setEndTime(LocalTime.of(2, 0));
+        when(repo.findByRoomIdOrderByIdAsc(ROOM_ID)).thenReturn(List.of(r));
+
+        var cs = expander.occurrences(ROOM_ID,
+                LocalDateTime.of(2026, 1, 1, 0, 0), LocalDateTime.of(2026, 1, 2, 0, 0));
+
+        assertThat(cs).hasSize(1);
+        assertThat(cs.get(0).getStartAt()).isEqualTo(LocalDateTime.of(2025, 12, 31, 22, 0));
+        assertThat(cs.get(0).getEndAt()).isEqualTo(LocalDateTime.of(2026, 1, 1, 2, 0));
+        assertThat(expander.overlaps(ROOM_ID,
+                LocalDateTime.of(2026, 1, 1, 1, 0), LocalDateTime.of(2026, 1, 1, 3, 0))).isTrue();
+        assertThat(expander.overlaps(ROOM_ID,
+                LocalDateTime.of(2026, 1, 1, 2, 0), LocalDateTime.of(2026, 1, 1, 3, 0))).isFalse();
+    }
+
+    @Test
+    @DisplayName("適用期間の外は展開しない")
+    void validPeriod() {
+        var r = rule(1, ClosureRule.WEEKLY);
+        r.setWeekday(2);
+        r.setValidFrom(LocalDate.of(2025, 11, 10));
+        r.setValidUntil(LocalDate.of(2025, 11, 20));
+        when(repo.findByRoomIdOrderByIdAsc(ROOM_ID)).thenReturn(List.of(r));
+
+        var cs = expander.occurrences(ROOM_ID,
+                LocalDateTime.of(2025, 11, 1, 0, 0), LocalDateTime.of(2025, 12, 1, 0, 0));
+
+        assertThat(starts(cs)).containsExactly(
+                LocalDateTime.of(2025, 11, 11, 0, 0), LocalDateTime.of(2025, 11, 18, 0, 0));
+    }
+
+    @Test
+    @DisplayName("同じ月を照会し直してもルールは展開し直さない")
+    void cachedPerRuleAndMonth() {
+        var r = rule(1, ClosureRule.WEEKLY);
+        r.setWeekday(2);
+        when(repo.findByRoomIdOrderByIdAsc(ROOM_ID)).thenReturn(List.of(r));
+
+        var from = LocalDateTime.of(2025, 11, 3, 0, 0);
+        var to = LocalDateTime.of(2025, 11, 10, 0, 0);
+        expander.occurrences(ROOM_ID, from, to);
+        clearInvocations(r);
+        var again = expander.occurrences(ROOM_ID, from.plusDays(7), to.plusDays(7));
+
+        assertThat(starts(again)).containsExactly(LocalDateTime.of(2025, 11, 11, 0, 0));
+        verify(r, never()).getFrequency();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.studio_book.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.studio_book.entity.Reservation;
+import com.example.studio_book.entity.Room;
+import com.example.studio_book.entity.RoomBusinessHour;
+import com.example.studio_book.repository.ClosureRepository;
+import com.example.studio_book.repository.ReservationRepository;
+import com.example.studio_book.repository.RoomBusinessHourRepository;
+import com.example.studio_book.repository.RoomRepository;
+
+/**
+ * HostStatsService の稼働率（DB なし）
+ * - 全スタジオ平均は部屋数によらず各リポジトリを 1 回ずつしか呼ばないこと
+ * - 平均は部屋ごとの稼働率の単純平均（合算の比ではない）であること
+ */
+class HostStatsServiceTest {
+
+    // 2025-09 は 30 日
+    private static final List<String> LABELS = List.of("2025-09");
+
+    private RoomBusinessHourRepository bhRepo;
+    private ClosureRepository closureRepo;
+    private ClosureRuleExpander closureRules;
+    private ReservationRepository reservationRepo;
+    private HostStatsService service;
+
+    @BeforeEach
+    void setUp() {
+        bhRepo = mock(RoomBusinessHourRepository.class);
+        closureRepo = mock(ClosureRepository.class);
+        closureRules = mock(ClosureRuleExpander.class);
+        reservationRepo = mock(ReservationRepository.class);
+        service = new HostStatsService(mock(RoomRepository.class), bhRepo, closureRepo, closureRules,
+                reservationRepo, null, mock(AppMetrics.class));
+    }
+
+    private static Room room(int id) {
+        Room r = new Room();
+        r.setId(id);
+        return r;
+    }
+
+    /** 毎日 10:00-20:00（1 日 600 分） */
+    private static List<RoomBusinessHour> everyDay(int roomId) {
+        List<RoomBusinessHour> out = new ArrayList<>();
+        for (int d = 1; d <= 7; d++) {
+            out.add(RoomBusinessHour.builder().room(room(roomId)).dayIndex(d)
+                    .startTime(LocalTime.of(10, 0)).endTime(LocalTime.of(20, 0)).holiday(false).build());
+        }
+        return out;
+    }
+
+    private static Reservation paid(int roomId, LocalDateTime s, LocalDateTime e) {
+        Reservation r = new Reservation();
+        r.setRoom(room(roomId));
+        r.setStartAt(s);
+        r.setEndAt(e);
+        r.setStatus("paid");
+        return r;
+    }
+
+    @Test
+    @DisplayName("全スタジオ平均：部屋ごとの稼働率を単純平均し、読み込みは 1 回ずつ")
+    void average_isPerRoomMean_andBatched() {
+        List<RoomBusinessHour> bhs = new ArrayList<>(everyDay(1));
+        bhs.addAll(everyDay(2));
+        when(bhRepo.findByRoomIdIn(List.of(1, 2, 3))).thenReturn(bhs);
+        // 部屋 1 は 30 日 × 600 分のうち 1800 分（10%）、部屋 2 は 0%、部屋 3 は営業時間なし（0%）
+        LocalDate d = LocalDate.of(2025, 9, 1);
+        when(reservationRepo.findByRoomIdInAndStatusAndStartAtLessThanAndEndAtGreaterThan(
+                eq(List.of(1, 2, 3)), eq("paid"), any(), any()))
+                .thenReturn(List.of(
+                        paid(1, d.atTime(10, 0), d.atTime(20, 0)),
+                        paid(1, d.plusDays(1).atTime(10, 0), d.plusDays(1).atTime(20, 0)),
+                        paid(1, d.plusDays(2).atTime(10, 0), d.plusDays(2).atTime(20, 0))));
+        when(closureRepo.findByRoomIdInAndStartAtLessThanAndEndAtGreaterThan(anyList(), any(), any()))
+                .thenReturn(List.of());
+        when(closureRules.occurrences(anyList(), any(), any())).thenReturn(List.of());
+
+        List<Double> avg = service.computeAverageUtilizationPercents(List.of(1, 2, 3), LABELS);
+
+        assertThat(avg).hasSize(1);
+        assertThat(avg.get(0)).isCloseTo(10.0 / 3, within(1e-9));
+        verify(reservationRepo, times(1))
+                .findByRoomIdInAndStatusAndStartAtLessThanAndEndAtGreaterThan(anyList(), any(), any(), any());
+        verify(bhRepo, times(1)).findByRoomIdIn(anyList());
+        verify(closureRepo, times(1)).findByRoomIdInAndStartAtLessThanAndEndAtGreaterThan(anyList(), any(), any());
+    }
+
+    @Test
+    @DisplayName("ルーム指定：合算の比（予約分 / 営業分）")
+    void singleRoom_ratio() {
+        when(bhRepo.findByRoomIdIn(List.of(1))).thenReturn(everyDay(1));
+        LocalDate d = LocalDate.of(2025, 9, 1);
+        when(reservationRepo.findByRoomIdInAndStatusAndStartAtLessThanAndEndAtGreaterThan(
+                eq(List.of(1)), eq("paid"), any(), any()))
+                .thenReturn(List.of(paid(1, d.atTime(9, 0), d.atTime(13, 0))));  // 営業内は 180 分
+        when(closureRepo.findByRoomIdInAndStartAtLessThanAndEndAtGreaterThan(anyList(), any(), any()))
+                .thenReturn(List.of());
+        when(closureRules.occurrences(anyList(), any(), any())).thenReturn(List.of());
+
+        List<Double> util = service.computeUtilizationPercents(null, 1, LABELS);
+
+        assertThat(util.get(0)).isCloseTo(180 * 100.0 / 18000, within(1e-9));
+    }
+}
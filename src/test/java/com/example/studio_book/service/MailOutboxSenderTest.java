@@ -0,0 +1,140 @@
+package com.example.studio_book.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.example.studio_book.entity.MailOutbox;
+import com.example.studio_book.repository.MailOutboxRepository;
+import com.example.studio_book.service.RoomLockServiceTest.NoopTransactionManager;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * MailOutboxSender をローカルの SMTP スタブ（GreenMail）に向けて検証する（DB なし）
+ */
+class MailOutboxSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private MailOutboxRepository repository;
+    private final List<MailOutbox> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(MailOutboxRepository.class);
+        when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            List<MailOutbox> list = inv.getArgument(0);
+            saved.addAll(list);
+            return list;
+        });
+    }
+
+    private static JavaMailSenderImpl mailSender(int port) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(port);
+        sender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "1000");
+        return sender;
+    }
+
+    private MailOutboxSender sender(JavaMailSenderImpl mailSender, int maxAttempts) {
+        return new MailOutboxSender(repository, mailSender, new NoopTransactionManager(),
+                20, 300_000, maxAttempts, 30_000, 3_600_000);
+    }
+
+    private static MailOutbox pending(long id, String to, int attempts) {
+        MailOutbox m = new MailOutbox();
+        m.setId(id);
+        m.setToAddress(to);
+        m.setFromAddress("noreply@example.com");
+        m.setSubject("件名 " + id);
+        m.setBody("本文 " + id);
+        m.setStatus(MailOutbox.STATUS_PENDING);
+        m.setAttempts(attempts);
+        m.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        m.setCreatedAt(LocalDateTime.now().minusMinutes(1));
+        return m;
+    }
+
+    @Test
+    @DisplayName("期限の来たメールをまとめて送り、sent にする")
+    void sendsBatch() throws Exception {
+        var rows = List.of(pending(1, "a@example.com", 0), pending(2, "b@example.com", 0), pending(3, "c@example.com", 0));
+        when(repository.lockDue(any(), eq(20))).thenReturn(rows);
+
+        int n = sender(mailSender(smtp.getSmtp().getPort()), 8).sendBatch();
+
+        assertThat(n).isEqualTo(3);
+        MimeMessage[] received = smtp.getReceivedMessages();
+        assertThat(received).hasSize(3);
+        // GreenMail は受信順を保証しないので件名の集合で見る
+        List<String> subjects = new ArrayList<>();
+        for (MimeMessage m : received) subjects.add(m.getSubject());
+        assertThat(subjects).containsExactlyInAnyOrder("件名 1", "件名 2", "件名 3");
+        assertThat(rows).allSatisfy(m -> {
+            assertThat(m.getStatus()).isEqualTo(MailOutbox.STATUS_SENT);
+            assertThat(m.getAttempts()).isEqualTo(1);
+            assertThat(m.getSentAt()).isNotNull();
+        });
+    }
+
+    @Test
+    @DisplayName("SMTP に繋がらない → pending のまま、バックオフ後に再試行")
+    void retriesWithBackoffWhenServerDown() throws Exception {
+        int closedPort;
+        try (ServerSocket s = new ServerSocket(0)) {
+            closedPort = s.getLocalPort();
+        }
+        MailOutbox row = pending(1, "a@example.com", 0);
+        when(repository.lockDue(any(), anyInt())).thenReturn(List.of(row));
+
+        LocalDateTime before = LocalDateTime.now();
+        sender(mailSender(closedPort), 8).sendBatch();
+
+        assertThat(row.getStatus()).isEqualTo(MailOutbox.STATUS_PENDING);
+        assertThat(row.getAttempts()).isEqualTo(1);
+        assertThat(row.getLastError()).isNotBlank();
+        // 1 回目の失敗：30 秒 ±20%
+        assertThat(row.getNextAttemptAt()).isBetween(before.plusSeconds(23), before.plusSeconds(37));
+    }
+
+    @Test
+    @DisplayName("再試行の上限に達したら failed")
+    void givesUpAfterMaxAttempts() throws Exception {
+        int closedPort;
+        try (ServerSocket s = new ServerSocket(0)) {
+            closedPort = s.getLocalPort();
+        }
+        MailOutbox row = pending(1, "a@example.com", 2);
+        when(repository.lockDue(any(), anyInt())).thenReturn(List.of(row));
+
+        sender(mailSender(closedPort), 3).sendBatch();
+
+        assertThat(row.getStatus()).isEqualTo(MailOutbox.STATUS_FAILED);
+        assertThat(row.getAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("バックオフは指数的に伸び、上限で頭打ち")
+    void backoffGrowsAndCaps() {
+        MailOutboxSender s = sender(mailSender(1), 8);
+        assertThat(s.backoffMillis(1)).isBetween(24_000L, 36_000L);
+        assertThat(s.backoffMillis(3)).isBetween(96_000L, 144_000L);
+        assertThat(s.backoffMillis(15)).isBetween(2_880_000L, 4_320_000L);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.studio_book.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.studio_book.entity.PriceRule;
+import com.example.studio_book.entity.Room;
+import com.example.studio_book.repository.PriceRuleRepository;
+import com.example.studio_book.repository.RoomRepository;
+import com.example.studio_book.service.dto.AdminSettingsSnapshot;
+
+/**
+ * PriceCurveService（DB なし）
+ * - 倍率は枠との重なり分だけ単価に乗ること、固定費は曜日ごとに合算されること
+ * - ルールが変わると版が変わること（版は内容の SHA-256）
+ */
+class PriceCurveServiceTest {
+
+    private static final int ROOM_ID = 10;
+    // 2025-11-10 は月曜
+    private static final LocalDate MON = LocalDate.of(2025, 11, 10);
+
+    private RoomRepository roomRepo;
+    private PriceRuleRepository ruleRepo;
+    private AdminSettingsService settings;
+    private PriceCurveService service;
+
+    @BeforeEach
+    void setUp() {
+        roomRepo = mock(RoomRepository.class);
+        ruleRepo = mock(PriceRuleRepository.class);
+        settings = mock(AdminSettingsService.class);
+        service = new PriceCurveService(roomRepo, ruleRepo, settings, 100);
+
+        Room room = new Room();
+        room.setId(ROOM_ID);
+        room.setPrice(2000);
+        when(roomRepo.findById(ROOM_ID)).thenReturn(Optional.of(room));
+        when(settings.snapshot()).thenReturn(AdminSettingsSnapshot.of("v1", Map.of("tax_rate", "0.1")));
+    }
+
+    private static PriceRule multiplier(int id, Integer weekday, LocalTime s, LocalTime e, String m) {
+        PriceRule r = new PriceRule();
+        r.setId(id);
+        r.setRoomId(ROOM_ID);
+        r.setRuleType("multiplier");
+        r.setWeekday(weekday);
+        r.setStartHour(s);
+        r.setEndHour(e);
+        r.setMultiplier(new BigDecimal(m));
+        return r;
+    }
+
+    private static PriceRule flat(int id, Integer weekday, int fee) {
+        PriceRule r = new PriceRule();
+        r.setId(id);
+        r.setRoomId(ROOM_ID);
+        r.setRuleType("flat_fee");
+        r.setWeekday(weekday);
+        r.setFlatFee(fee);
+        return r;
+    }
+
+    @Test
+    @DisplayName("倍率は重なり分だけ按分され、曜日指定は該当曜日だけに効く")
+    void multipliers_areProrated() {
+        when(ruleRepo.findByRoomId(ROOM_ID)).thenReturn(List.of(
+                // 月曜 18:15-24:00 は +50%
+                multiplier(1, 1, LocalTime.of(18, 15), LocalTime.MIDNIGHT, "0.5"),
+                // 毎日 1,000 円、月曜はさらに 500 円
+                flat(2, null, 1000),
+                flat(3, 1, 500)));
+
+        var curve = service.curve(ROOM_ID, MON, MON.plusDays(1), 30);
+
+        assertThat(curve.days()).hasSize(2);
+        var mon = curve.days().get(0);
+        assertThat(mon.prices()).hasSize(48);
+        assertThat(mon.prices().get(35)).isEqualTo(2000L);  // 17:30-18:00
+        assertThat(mon.prices().get(36)).isEqualTo(2500L);  // 18:00-18:30 は 15 分だけ +50%
+        assertThat(mon.prices().get(37)).isEqualTo(3000L);  // 18:30-19:00
+        assertThat(mon.prices().get(47)).isEqualTo(3000L);  // 23:30-24:00
+        assertThat(mon.flatFee()).isEqualTo(1500L);
+
+        var tue = curve.days().get(1);
+        assertThat(tue.prices()).containsOnly(2000L);
+        assertThat(tue.flatFee()).isEqualTo(1000L);
+
+        assertThat(curve.basePrice()).isEqualTo(2000L);
+        assertThat(curve.taxRate()).isEqualByComparingTo("0.1");
+    }
+
+    @Test
+    @DisplayName("ENABLE_PRICE_RULES が無効ならルールを読まず基本単価のみ")
+    void rulesDisabled() {
+        when(settings.snapshot()).thenReturn(AdminSettingsSnapshot.of("v1", Map.of("ENABLE_PRICE_RULES", "false")));
+
+        var curve = service.curve(ROOM_ID, MON, MON, 15);
+
+        assertThat(curve.days().get(0).prices()).hasSize(96).containsOnly(2000L);
+        verifyNoInteractions(ruleRepo);
+    }
+
+    @Test
+    @DisplayName("ルールが変わると版が変わり、同じなら同じ版")
+    void versionFollowsRules() {
+        when(ruleRepo.findByRoomId(ROOM_ID)).thenReturn(List.of(multiplier(1, null, LocalTime.of(18, 0), LocalTime.MIDNIGHT, "0.5")));
+        String v1 = service.curve(ROOM_ID, MON, MON, 30).version();
+        String again = service.curve(ROOM_ID, MON, MON, 30).version();
+
+        when(ruleRepo.findByRoomId(ROOM_ID)).thenReturn(List.of(multiplier(1, null, LocalTime.of(18, 0), LocalTime.MIDNIGHT, "0.6")));
+        var changed = service.curve(ROOM_ID, MON, MON, 30);
+
+        assertThat(again).isEqualTo(v1);
+        assertThat(changed.version()).isNotEqualTo(v1);
+        assertThat(changed.days().get(0).prices().get(36)).isEqualTo(3200L);
+    }
+
+    @Test
+    @DisplayName("版は内容の SHA-256。値の区切りがずれても同じ版にならない")
+    void versionIsContentDigest() {
+        Room room = new Room();
+        room.setPrice(2000);
+        List<PriceRule> rules = List.of(flat(2, null, 1000));
+
+        String v = PriceCurveService.version(room, AdminSettingsSnapshot.of("v1", Map.of()), rules);
+        assertThat(v).matches("[0-9a-f]{64}");
+        assertThat(PriceCurveService.version(room, AdminSettingsSnapshot.of("v1", Map.of()), rules)).isEqualTo(v);
+
+        // 管理設定の版と部屋単価の境目だけが違う内容
+        Room room200 = new Room();
+        room200.setPrice(200);
+        String a = PriceCurveService.version(room200, AdminSettingsSnapshot.of("0v1", Map.of()), rules);
+        String b = PriceCurveService.version(room, AdminSettingsSnapshot.of("v1", Map.of()), rules);
+        assertThat(a).isNotEqualTo(b);
+        assertThat(PriceCurveService.version(room, AdminSettingsSnapshot.of("v1", Map.of()), List.of(flat(2, null, 1001))))
+                .isNotEqualTo(v);
+    }
+
+    @Test
+    @DisplayName("枠が 15/30 以外、期間が逆転・長すぎる場合は IllegalArgumentException")
+    void invalidArguments() {
+        assertThatThrownBy(() -> service.curve(ROOM_ID, MON, MON, 20)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.curve(ROOM_ID, MON, MON.minusDays(1), 30)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.curve(ROOM_ID, MON, MON.plusDays(PriceCurveService.MAX_DAYS), 30))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
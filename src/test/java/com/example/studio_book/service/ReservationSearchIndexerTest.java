@@ -0,0 +1,128 @@
+package com.example.studio_book.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDateTime;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * ReservationSearchIndexer を実際の MySQL（db/migration 適用済み）で動かす。
+ * - 予約の登録で行が入り、再登録は上書きになること
+ * - スタジオ名・ユーザー名の変更で names が追従すること、スタジオ削除で行が消えること
+ * Docker が無い環境ではスキップされる。
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReservationSearchIndexerTest {
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    static JdbcTemplate jdbc;
+    static ReservationSearchIndexer indexer;
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 11, 10, 10, 0);
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+              .dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())
+              .load()
+              .migrate();
+
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword()));
+        indexer = new ReservationSearchIndexer(jdbc);
+    }
+
+    @BeforeEach
+    void seed() {
+        jdbc.update("DELETE FROM reservation_search");
+        jdbc.update("DELETE FROM reservations");
+        jdbc.update("DELETE FROM rooms");
+        jdbc.update("DELETE FROM users");
+
+        jdbc.update("""
+                INSERT INTO users (id, name, furigana, postal_code, address, phone_number, email, password, role_id, enabled)
+                VALUES (1, 'ゲスト 太郎', 'ゲスト タロウ', '100-0001', '東京都', '090', 'g@example.com', 'x', 1, true),
+                       (2, 'ホスト 次郎', 'ホスト ジロウ', '100-0001', '東京都', '090', 'h@example.com', 'x', 2, true)
+                """);
+        jdbc.update("""
+                INSERT INTO rooms (id, user_id, name, description, price, capacity, postal_code, address)
+                VALUES (10, 2, 'スタジオA', 'desc', 3000, 5, '100-0001', '住所'),
+                       (11, 2, 'スタジオB', 'desc', 3000, 5, '100-0001', '住所')
+                """);
+        jdbc.update("""
+                INSERT INTO reservations (id, user_id, room_id, start_at, end_at, amount, payment_intent_id, status)
+                VALUES (100, 1, 10, ?, ?, 6000, 'pi_100', 'paid'),
+                       (101, 1, 11, ?, ?, 6000, 'pi_101', 'paid')
+                """, START, START.plusHours(2), START, START.plusHours(2));
+    }
+
+    private String names(int reservationId) {
+        return jdbc.queryForObject("SELECT names FROM reservation_search WHERE reservation_id = ?",
+                String.class, reservationId);
+    }
+
+    private int rows() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM reservation_search", Integer.class);
+    }
+
+    @Test
+    @DisplayName("予約の登録で行が入り、同じ予約をもう一度登録しても 1 行のまま")
+    void indexReservation_insertsAndUpserts() {
+        indexer.indexReservation(100);
+
+        assertThat(jdbc.queryForMap("SELECT room_id, guest_id, host_id FROM reservation_search WHERE reservation_id = 100"))
+                .containsEntry("room_id", 10).containsEntry("guest_id", 1).containsEntry("host_id", 2);
+        assertThat(names(100)).isEqualTo("スタジオA ゲスト 太郎 ホスト 次郎");
+
+        jdbc.update("UPDATE rooms SET name = 'スタジオA2' WHERE id = 10");
+        indexer.indexReservation(100);
+
+        assertThat(rows()).isEqualTo(1);
+        assertThat(names(100)).isEqualTo("スタジオA2 ゲスト 太郎 ホスト 次郎");
+    }
+
+    @Test
+    @DisplayName("スタジオ名の変更はその部屋の行だけ、ユーザー名の変更は予約者・ホスト両方の行を直す")
+    void refresh_followsRenames() {
+        indexer.indexReservation(100);
+        indexer.indexReservation(101);
+
+        jdbc.update("UPDATE rooms SET name = 'スタジオA改' WHERE id = 10");
+        indexer.refreshRoom(10);
+
+        assertThat(names(100)).isEqualTo("スタジオA改 ゲスト 太郎 ホスト 次郎");
+        assertThat(names(101)).isEqualTo("スタジオB ゲスト 太郎 ホスト 次郎");
+
+        jdbc.update("UPDATE users SET name = 'ゲスト 花子' WHERE id = 1");
+        jdbc.update("UPDATE users SET name = 'ホスト 三郎' WHERE id = 2");
+        indexer.refreshUser(1);
+        indexer.refreshUser(2);
+
+        assertThat(names(100)).isEqualTo("スタジオA改 ゲスト 花子 ホスト 三郎");
+        assertThat(names(101)).isEqualTo("スタジオB ゲスト 花子 ホスト 三郎");
+    }
+
+    @Test
+    @DisplayName("スタジオ削除でその部屋の行だけ消える")
+    void removeRoom_deletesOnlyThatRoom() {
+        indexer.indexReservation(100);
+        indexer.indexReservation(101);
+
+        indexer.removeRoom(10);
+
+        assertThat(rows()).isEqualTo(1);
+        assertThat(names(101)).isNotNull();
+    }
+}
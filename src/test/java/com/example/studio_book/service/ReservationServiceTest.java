@@ -0,0 +1,89 @@
+package com.example.studio_book.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.example.studio_book.entity.AuditLog;
+import com.example.studio_book.entity.Room;
+import com.example.studio_book.entity.User;
+import com.example.studio_book.repository.ReservationRepository;
+import com.example.studio_book.repository.RoomRepository;
+import com.example.studio_book.repository.UserRepository;
+
+/**
+ * ReservationService.createReservationFromStripe（DB なし）
+ * - 決済後に枠が埋まっていた場合は予約せず、返金対象として記録し、待っている画面に競合を通知すること
+ */
+class ReservationServiceTest {
+
+    private static final int ROOM_ID = 10;
+    private static final int USER_ID = 20;
+    private static final Map<String, String> MD = Map.of(
+            "roomId", "10", "userId", "20",
+            "startAt", "2025-11-10T10:00", "endAt", "2025-11-10T12:00", "amount", "5500");
+
+    private ReservationRepository reservationRepo;
+    private AuditLogWriter auditLogWriter;
+    private SlotHoldService slotHoldService;
+    private CheckoutStatusRegistry registry;
+    private ReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepo = mock(ReservationRepository.class);
+        RoomRepository roomRepo = mock(RoomRepository.class);
+        UserRepository userRepo = mock(UserRepository.class);
+        auditLogWriter = mock(AuditLogWriter.class);
+        slotHoldService = mock(SlotHoldService.class);
+        registry = new CheckoutStatusRegistry();
+        service = new ReservationService(reservationRepo, roomRepo, userRepo, null, null, null,
+                auditLogWriter, slotHoldService, mock(RoomLockService.class), registry,
+                null, null, mock(AppMetrics.class), mock(ReservationSearchIndexer.class),
+                mock(AvailabilityBitmaps.class));
+
+        Room room = new Room();
+        room.setId(ROOM_ID);
+        User user = new User();
+        user.setId(USER_ID);
+        when(roomRepo.findById(ROOM_ID)).thenReturn(Optional.of(room));
+        when(userRepo.findById(USER_ID)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    @DisplayName("既存予約と重なる → 保存せず CONFLICT、監査ログに PI を残し、セッションは競合として完了")
+    void overlapping_isConflict() {
+        when(reservationRepo.existsOverlapping(eq(ROOM_ID), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        var result = service.createReservationFromStripe(MD, "pi_1", "cs_1", 5500L);
+
+        assertThat(result).isEqualTo(ReservationService.StripeBookingResult.CONFLICT);
+        verify(reservationRepo, never()).save(any());
+        ArgumentCaptor<AuditLog> log = ArgumentCaptor.forClass(AuditLog.class);
+        verify(auditLogWriter).write(log.capture(), eq(AuditLogWriter.Durability.SYNC));
+        assertThat(log.getValue().getAction()).isEqualTo("reservation_conflict");
+        assertThat(log.getValue().getNote()).contains("PI=pi_1");
+        assertThat(registry.isConflict("cs_1", USER_ID)).isTrue();
+        assertThat(registry.isCompleted("cs_1", USER_ID)).isFalse();
+    }
+
+    @Test
+    @DisplayName("登録済みの PaymentIntent → DUPLICATE")
+    void existing_isDuplicate() {
+        when(reservationRepo.existsByPaymentIntentId("pi_2")).thenReturn(true);
+
+        assertThat(service.createReservationFromStripe(MD, "pi_2", "cs_2", 5500L))
+                .isEqualTo(ReservationService.StripeBookingResult.DUPLICATE);
+        assertThat(registry.isConflict("cs_2", USER_ID)).isFalse();
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.studio_book.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.studio_book.repository.RoomRepository;
+
+/**
+ * RoomLockService の並行ストレステスト（DB なし）
+ * - 同じ部屋：「重複チェック → 追加」がロックで直列化され、重複が発生しないこと
+ * - 別の部屋：互いにブロックせず並行に進むこと
+ */
+class RoomLockServiceTest {
+
+    /** 何もしないトランザクションマネージャ（同期コールバックだけ本物と同じに動かす） */
+    static class NoopTransactionManager extends AbstractPlatformTransactionManager {
+        @Override protected Object doGetTransaction() { return new Object(); }
+        @Override protected void doBegin(Object transaction, TransactionDefinition definition) { }
+        @Override protected void doCommit(DefaultTransactionStatus status) { }
+        @Override protected void doRollback(DefaultTransactionStatus status) { }
+    }
+
+    record Slot(int start, int end) {
+        boolean overlaps(Slot o) { return start < o.end && o.start < end; }
+    }
+
+    private final NoopTransactionManager txManager = new NoopTransactionManager();
+    private RoomRepository roomRepository;
+    private RoomLockService service;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        roomRepository = mock(RoomRepository.class);
+        service = new RoomLockService(roomRepository, txManager, 1024, 5_000);
+        pool = Executors.newFixedThreadPool(16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("同じ部屋への同時書き込みで重複が発生しない")
+    void sameRoom_noOverlaps() throws Exception {
+        List<Slot> booked = new ArrayList<>(); // 意図的に非スレッドセーフ（ロックが守る）
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < 16; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 200; i++) {
+                    int s = ThreadLocalRandom.current().nextInt(0, 100);
+                    Slot want = new Slot(s, s + 1 + ThreadLocalRandom.current().nextInt(3));
+                    service.withRoomLock(1, () -> {
+                        boolean overlaps = booked.stream().anyMatch(want::overlaps);
+                        Thread.yield(); // チェックと追加の間に割り込みを起こしやすくする
+                        if (!overlaps) booked.add(want);
+                        return null;
+                    });
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+
+        assertThat(booked).isNotEmpty();
+        for (int i = 0; i < booked.size(); i++) {
+            for (int j = i + 1; j < booked.size(); j++) {
+                assertThat(booked.get(i).overlaps(booked.get(j)))
+                        .as("%s と %s が重複", booked.get(i), booked.get(j))
+                        .isFalse();
+            }
+        }
+        verify(roomRepository, times(16 * 200)).lockById(1);
+    }
+
+    @Test
+    @DisplayName("別の部屋同士は互いにブロックしない")
+    void differentRooms_runInParallel() throws Exception {
+        int rooms = 8;
+        // 全員がロックを握ったまま集合できなければ（= 直列化されていれば）タイムアウトする
+        CyclicBarrier barrier = new CyclicBarrier(rooms);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int roomId = 1; roomId <= rooms; roomId++) {
+            int id = roomId;
+            futures.add(pool.submit(() -> service.withRoomLock(id, () -> {
+                try {
+                    return barrier.await(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            })));
+        }
+        for (Future<?> f : futures) f.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("既存トランザクション内のロックは完了（commit）まで保持される")
+    void lockForTransaction_heldUntilCompletion() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        Future<?> holder = pool.submit(() -> new TransactionTemplate(txManager).execute(status -> {
+            service.lockForTransaction(1);
+            locked.countDown();
+            try {
+                commit.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.isLocked(1)).isTrue();
+        assertThat(service.isLocked(2)).isFalse();
+
+        commit.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertThat(service.isLocked(1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("トランザクション外で lockForTransaction を呼ぶと例外")
+    void lockForTransaction_outsideTx_throws() {
+        assertThatThrownBy(() -> service.lockForTransaction(1))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(service.isLocked(1)).isFalse();
+    }
+}
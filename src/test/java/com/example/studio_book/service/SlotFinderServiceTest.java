@@ -0,0 +1,169 @@
+package com.example.studio_book.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.studio_book.entity.SlotHold;
+
+/**
+ * SlotFinderService（DB なし）
+ * - ビットマップの空き区間から仮押さえを差し引いて枠を切り出すこと
+ * - 安い順は全候補を見積もって重ならないように選ぶこと
+ * - 過去の after は現在時刻に切り上げること
+ */
+class SlotFinderServiceTest {
+
+    private static final int ROOM_ID = 10;
+    private static final LocalDate D1 = LocalDate.of(2025, 11, 11);
+    private static final LocalDate D2 = D1.plusDays(1);
+
+    private AvailabilityBitmaps availability;
+    private SlotHoldService holds;
+    private ReservationService reservations;
+    private SlotFinderService finder;
+
+    @BeforeEach
+    void setUp() {
+        availability = mock(AvailabilityBitmaps.class);
+        holds = mock(SlotHoldService.class);
+        reservations = mock(ReservationService.class);
+        finder = finderAt(D1.atStartOfDay());
+
+        // 料金は一律 1000（安い順のテストだけ上書き）
+        when(reservations.quoteTotals(eq(ROOM_ID), anyList(), any(Duration.class)))
+                .thenAnswer(inv -> ((List<?>) inv.getArgument(1)).stream().map(s -> 1000L).toList());
+    }
+
+    /** 「今」を now に固定した SlotFinderService（horizon 2 日） */
+    private SlotFinderService finderAt(LocalDateTime now) {
+        ZoneId zone = ZoneId.of("Asia/Tokyo");
+        return new SlotFinderService(availability, holds, reservations, 2,
+                Clock.fixed(now.atZone(zone).toInstant(), zone));
+    }
+
+    /** 各 [from, to) をスロット番号で指定して営業中の日を作る */
+    private static AvailabilityBitmaps.Day openDay(int... fromTo) {
+        long[] open = new long[2];
+        for (int i = 0; i < fromTo.length; i += 2) {
+            AvailabilityBitmaps.set(open, fromTo[i], fromTo[i + 1]);
+        }
+        return new AvailabilityBitmaps.Day(open, new long[2], new long[2]);
+    }
+
+    private void givenDays(AvailabilityBitmaps.Day d1, AvailabilityBitmaps.Day d2) {
+        Map<LocalDate, AvailabilityBitmaps.Day> days = new LinkedHashMap<>();
+        days.put(D1, d1);
+        days.put(D2, d2);
+        when(availability.days(ROOM_ID, D1, D2)).thenReturn(days);
+    }
+
+    private static SlotHold hold(LocalDateTime s, LocalDateTime e) {
+        SlotHold h = new SlotHold();
+        h.setStartAt(s);
+        h.setEndAt(e);
+        return h;
+    }
+
+    private static List<LocalDateTime> starts(List<SlotFinderService.FreeSlot> slots) {
+        return slots.stream().map(SlotFinderService.FreeSlot::startAt).toList();
+    }
+
+    @Test
+    @DisplayName("時刻順: after を 15 分に切り上げ、空き区間の先頭から詰める")
+    void earliest_packsFromRunStart() {
+        // 10:00-13:00, 14:00-16:00
+        givenDays(openDay(40, 52, 56, 64), openDay());
+        when(holds.listActive(eq(ROOM_ID), any(), any())).thenReturn(List.of());
+
+        var slots = finder.nextSlots(ROOM_ID, D1.atTime(9, 50), 60, 4, SlotFinderService.Order.TIME);
+
+        assertThat(starts(slots)).containsExactly(
+                D1.atTime(10, 0), D1.atTime(11, 0), D1.atTime(12, 0), D1.atTime(14, 0));
+        assertThat(slots.get(0).endAt()).isEqualTo(D1.atTime(11, 0));
+        assertThat(slots.get(0).amount()).isEqualTo(1000L);
+    }
+
+    @Test
+    @DisplayName("仮押さえ（重なりあり・端数あり）を差し引き、残りを 15 分境界に丸める")
+    void holdsAreSubtracted() {
+        givenDays(openDay(40, 52, 56, 64), openDay());
+        when(holds.listActive(eq(ROOM_ID), any(), any())).thenReturn(List.of(
+                hold(D1.atTime(10, 30), D1.atTime(11, 0)),
+                hold(D1.atTime(10, 45), D1.atTime(11, 10)),
+                hold(D1.atTime(14, 0), D1.atTime(15, 0))));
+
+        var slots = finder.nextSlots(ROOM_ID, D1.atTime(0, 0), 60, 5, SlotFinderService.Order.TIME);
+
+        // 10:00-10:30 は短すぎる、11:15-13:00 から 1 枠、15:00-16:00 から 1 枠
+        assertThat(starts(slots)).containsExactly(D1.atTime(11, 15), D1.atTime(15, 0));
+    }
+
+    @Test
+    @DisplayName("日付を跨ぐ空きは繋げて扱う")
+    void runsJoinAcrossMidnight() {
+        givenDays(openDay(88, 96), openDay(0, 8));
+        when(holds.listActive(eq(ROOM_ID), any(), any())).thenReturn(List.of());
+
+        var slots = finder.nextSlots(ROOM_ID, D1.atTime(0, 0), 180, 5, SlotFinderService.Order.TIME);
+
+        assertThat(slots).singleElement().satisfies(s -> {
+            assertThat(s.startAt()).isEqualTo(D1.atTime(22, 0));
+            assertThat(s.endAt()).isEqualTo(D2.atTime(1, 0));
+        });
+    }
+
+    @Test
+    @DisplayName("安い順: 15 分刻みの全候補を 1 回で見積もり、重ならないものを安い順に返す")
+    void cheapest_picksNonOverlapping() {
+        // 10:00-14:00
+        givenDays(openDay(40, 56), openDay());
+        when(holds.listActive(eq(ROOM_ID), any(), any())).thenReturn(List.of());
+        // 12:00 以降に始まる枠が安い
+        when(reservations.quoteTotals(eq(ROOM_ID), anyList(), any(Duration.class))).thenAnswer(inv -> {
+            List<LocalDateTime> ss = inv.getArgument(1);
+            return ss.stream().map(s -> s.getHour() >= 12 ? 800L : 1000L).toList();
+        });
+
+        var slots = finder.nextSlots(ROOM_ID, D1.atTime(0, 0), 60, 3, SlotFinderService.Order.PRICE);
+
+        assertThat(starts(slots)).containsExactly(D1.atTime(12, 0), D1.atTime(13, 0), D1.atTime(10, 0));
+        assertThat(slots).extracting(SlotFinderService.FreeSlot::amount).containsExactly(800L, 800L, 1000L);
+        verify(reservations, times(1)).quoteTotals(eq(ROOM_ID), anyList(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("15 分単位でない長さ・範囲外の件数は IllegalArgumentException")
+    void invalidArguments() {
+        assertThatThrownBy(() -> finder.nextSlots(ROOM_ID, D1.atTime(0, 0), 50, 5, SlotFinderService.Order.TIME))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> finder.nextSlots(ROOM_ID, D1.atTime(0, 0), 60, 0, SlotFinderService.Order.TIME))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("過去の after は今（15 分切り上げ）から探し、終わった枠は返さない")
+    void pastAfter_isClampedToNow() {
+        finder = finderAt(D1.atTime(11, 20));
+        givenDays(openDay(40, 52, 56, 64), openDay());
+        when(holds.listActive(eq(ROOM_ID), any(), any())).thenReturn(List.of());
+
+        var slots = finder.nextSlots(ROOM_ID, D1.minusDays(30).atTime(9, 0), 60, 3, SlotFinderService.Order.TIME);
+
+        assertThat(starts(slots)).containsExactly(D1.atTime(11, 30), D1.atTime(14, 0), D1.atTime(15, 0));
+        verify(holds).listActive(ROOM_ID, D1.atTime(11, 30), D2.plusDays(1).atStartOfDay());
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.studio_book.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.studio_book.service.StripeGateway.CircuitState;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.model.checkout.Session;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * StripeGateway をローカルの HTTP スタブ（JDK 内蔵 HttpServer）に向けて検証する
+ */
+class StripeGatewayTest {
+
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile long delayMillis = 0;
+    private volatile CountDownLatch gate = null;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+        server.createContext("/v1/checkout/sessions", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        if (gate != null) gate.countDown();
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        hits.incrementAndGet();
+        try {
+            if (gate != null) gate.await(5, TimeUnit.SECONDS);
+            if (delayMillis > 0) Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String body = status == 200
+                ? "{\"id\":\"cs_test_stub\",\"object\":\"checkout.session\",\"payment_intent\":\"pi_stub\"}"
+                : "{\"error\":{\"type\":\"" + (status >= 500 ? "api_error" : "invalid_request_error")
+                  + "\",\"message\":\"stub " + status + "\"}}";
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().add("Content-Type", "application/json");
+        ex.sendResponseHeaders(status, bytes.length);
+        ex.getResponseBody().write(bytes);
+        ex.close();
+    }
+
+    private StripeGateway gateway(int readTimeoutMillis, int maxConcurrent, int failureThreshold, long openMillis) {
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        return new StripeGateway("sk_test_dummy", base, 1000, readTimeoutMillis,
+                maxConcurrent, failureThreshold, openMillis);
+    }
+
+    private static Session retrieve(StripeGateway g) throws Exception {
+        return g.call("checkout.sessions.retrieve", c -> c.checkout().sessions().retrieve("cs_test_stub"));
+    }
+
+    @Test
+    @DisplayName("正常応答 → 結果を返し、成功がメトリクスに載る")
+    void success() throws Exception {
+        StripeGateway g = gateway(2000, 4, 3, 60_000);
+
+        Session s = retrieve(g);
+
+        assertThat(s.getId()).isEqualTo("cs_test_stub");
+        assertThat(s.getPaymentIntent()).isEqualTo("pi_stub");
+        assertThat(g.metrics().successes()).isEqualTo(1);
+        assertThat(g.metrics().inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("読み取りタイムアウト → ApiConnectionException")
+    void readTimeout() {
+        delayMillis = 1500;
+        StripeGateway g = gateway(300, 4, 3, 60_000);
+
+        assertThatThrownBy(() -> retrieve(g)).isInstanceOf(ApiConnectionException.class);
+        assertThat(g.metrics().failures()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("5xx が閾値回続くとサーキットが開き、以降は Stripe を呼ばずに即失敗")
+    void circuitOpensAfterConsecutiveFailures() {
+        status = 500;
+        StripeGateway g = gateway(2000, 4, 3, 60_000);
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> retrieve(g)).isNotInstanceOf(ApiConnectionException.class);
+        }
+        assertThat(g.circuitState()).isEqualTo(CircuitState.OPEN);
+
+        int before = hits.get();
+        assertThatThrownBy(() -> retrieve(g))
+                .isInstanceOf(ApiConnectionException.class)
+                .hasMessageContaining("circuit");
+        assertThat(hits.get()).isEqualTo(before);
+        assertThat(g.metrics().shortCircuited()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("開放時間経過後は 1 件だけ試行し、成功すれば閉じる")
+    void halfOpenTrialClosesOnSuccess() throws Exception {
+        status = 500;
+        StripeGateway g = gateway(2000, 4, 1, 100);
+        assertThatThrownBy(() -> retrieve(g));
+        assertThat(g.circuitState()).isEqualTo(CircuitState.OPEN);
+
+        Thread.sleep(150);
+        status = 200;
+
+        assertThat(retrieve(g).getId()).isEqualTo("cs_test_stub");
+        assertThat(g.circuitState()).isEqualTo(CircuitState.CLOSED);
+    }
+
+    @Test
+    @DisplayName("4xx はサーキットを開かない")
+    void clientErrorsDoNotTripCircuit() {
+        status = 400;
+        StripeGateway g = gateway(2000, 4, 2, 60_000);
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> retrieve(g)).isInstanceOf(InvalidRequestException.class);
+        }
+        assertThat(g.circuitState()).isEqualTo(CircuitState.CLOSED);
+    }
+
+    @Test
+    @DisplayName("同時実行数を超えた呼び出しは待たずに拒否される（バルクヘッド）")
+    void bulkheadRejectsWhenFull() throws Exception {
+        gate = new CountDownLatch(1);
+        StripeGateway g = gateway(5000, 1, 3, 60_000);
+
+        CompletableFuture<Session> first = g.callAsync("checkout.sessions.retrieve",
+                c -> c.checkout().sessions().retrieve("cs_test_stub"));
+
+        long t0 = System.nanoTime();
+        assertThatThrownBy(() -> retrieve(g))
+                .isInstanceOf(ApiConnectionException.class)
+                .hasMessageContaining("concurrent");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0)).isLessThan(1000);
+        assertThat(g.metrics().rejected()).isEqualTo(1);
+
+        gate.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getId()).isEqualTo("cs_test_stub");
+        assertThat(g.circuitState()).isEqualTo(CircuitState.CLOSED);
+    }
+}
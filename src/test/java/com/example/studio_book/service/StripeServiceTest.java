@@ -0,0 +1,172 @@
+package com.example.studio_book.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.studio_book.dto.ReservationConfirmDto;
+import com.example.studio_book.entity.User;
+import com.example.studio_book.repository.RoomRepository;
+import com.stripe.model.Event;
+import com.stripe.model.EventDataObjectDeserializer;
+import com.stripe.model.PaymentIntent;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * StripeService の Webhook 処理（Stripe はローカルの HTTP スタブ）
+ * - 決済後に枠が埋まっていた（CONFLICT）場合は PaymentIntent 単位の冪等キーで返金すること
+ * - 失敗は ERROR として返し、Webhook の outcome に出ること
+ * - キャンセル時の戻り先で解放する仮押さえが分かること
+ */
+class StripeServiceTest {
+
+    private HttpServer server;
+    private final List<String> refundKeys = new CopyOnWriteArrayList<>();
+    private final List<String> refundBodies = new CopyOnWriteArrayList<>();
+    private final List<String> sessionBodies = new CopyOnWriteArrayList<>();
+
+    private ReservationService reservationService;
+    private StripeService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/refunds", this::refund);
+        server.createContext("/v1/checkout/sessions", this::session);
+        server.start();
+
+        StripeGateway gateway = new StripeGateway("sk_test_dummy",
+                "http://127.0.0.1:" + server.getAddress().getPort(), 1000, 2000, 4, 5, 30_000);
+        reservationService = mock(ReservationService.class);
+        service = new StripeService(mock(RoomRepository.class), reservationService, gateway);
+        ReflectionTestUtils.setField(service, "stripeSuccessUrl", "https://example.com/reservations?reserved=done");
+        ReflectionTestUtils.setField(service, "stripeCancelUrl", "https://example.com/reservations?reserved=cancel");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private void refund(HttpExchange ex) throws IOException {
+        refundKeys.add(ex.getRequestHeaders().getFirst("Idempotency-Key"));
+        refundBodies.add(new String(ex.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        byte[] body = "{\"id\":\"re_stub\",\"object\":\"refund\",\"status\":\"succeeded\"}".getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().add("Content-Type", "application/json");
+        ex.sendResponseHeaders(200, body.length);
+        ex.getResponseBody().write(body);
+        ex.close();
+    }
+
+    private void session(HttpExchange ex) throws IOException {
+        sessionBodies.add(URLDecoder.decode(new String(ex.getRequestBody().readAllBytes(), StandardCharsets.UTF_8),
+                StandardCharsets.UTF_8));
+        byte[] body = "{\"id\":\"cs_stub\",\"object\":\"checkout.session\"}".getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().add("Content-Type", "application/json");
+        ex.sendResponseHeaders(200, body.length);
+        ex.getResponseBody().write(body);
+        ex.close();
+    }
+
+    private static Event paymentIntentSucceeded(String paymentIntentId) {
+        PaymentIntent pi = new PaymentIntent();
+        pi.setId(paymentIntentId);
+        pi.setAmount(5500L);
+        pi.setMetadata(Map.of("roomId", "1", "userId", "2"));
+
+        EventDataObjectDeserializer deser = mock(EventDataObjectDeserializer.class);
+        when(deser.getObject()).thenReturn(Optional.of(pi));
+        Event event = mock(Event.class);
+        when(event.getDataObjectDeserializer()).thenReturn(deser);
+        when(event.getId()).thenReturn("evt_1");
+        when(event.getType()).thenReturn("payment_intent.succeeded");
+        return event;
+    }
+
+    @Test
+    @DisplayName("競合 → PaymentIntent 単位の冪等キーで全額返金（再送でも同じキー）")
+    void conflict_refundsWithIdempotencyKey() {
+        when(reservationService.createReservationFromStripe(any(), eq("pi_conflict"), any(), any()))
+                .thenReturn(ReservationService.StripeBookingResult.CONFLICT);
+
+        service.processPaymentIntentSucceeded(paymentIntentSucceeded("pi_conflict"));
+        service.processPaymentIntentSucceeded(paymentIntentSucceeded("pi_conflict"));
+
+        assertThat(refundKeys).containsExactly("refund:pi_conflict", "refund:pi_conflict");
+        assertThat(refundBodies.get(0)).contains("payment_intent=pi_conflict");
+    }
+
+    @Test
+    @DisplayName("登録できた・登録済みなら返金しない")
+    void createdOrDuplicate_noRefund() {
+        when(reservationService.createReservationFromStripe(any(), eq("pi_ok"), any(), any()))
+                .thenReturn(ReservationService.StripeBookingResult.CREATED);
+        when(reservationService.createReservationFromStripe(any(), eq("pi_dup"), any(), any()))
+                .thenReturn(ReservationService.StripeBookingResult.DUPLICATE);
+
+        assertThat(service.processPaymentIntentSucceeded(paymentIntentSucceeded("pi_ok")))
+                .isEqualTo(StripeService.WebhookOutcome.OK);
+        assertThat(service.processPaymentIntentSucceeded(paymentIntentSucceeded("pi_dup")))
+                .isEqualTo(StripeService.WebhookOutcome.OK);
+
+        assertThat(refundKeys).isEmpty();
+    }
+
+    @Test
+    @DisplayName("登録・返金で例外 → ERROR を返す（握りつぶして ok にしない）")
+    void failure_returnsError() {
+        when(reservationService.createReservationFromStripe(any(), eq("pi_fail"), any(), any()))
+                .thenThrow(new IllegalStateException("db down"));
+        server.removeContext("/v1/refunds");
+        when(reservationService.createReservationFromStripe(any(), eq("pi_refund_fail"), any(), any()))
+                .thenReturn(ReservationService.StripeBookingResult.CONFLICT);
+
+        assertThat(service.processPaymentIntentSucceeded(paymentIntentSucceeded("pi_fail")))
+                .isEqualTo(StripeService.WebhookOutcome.ERROR);
+        assertThat(service.processPaymentIntentSucceeded(paymentIntentSucceeded("pi_refund_fail")))
+                .isEqualTo(StripeService.WebhookOutcome.ERROR);
+    }
+
+    @Test
+    @DisplayName("デシリアライズできないイベント → SKIPPED")
+    void undeserializable_returnsSkipped() {
+        EventDataObjectDeserializer deser = mock(EventDataObjectDeserializer.class);
+        when(deser.getObject()).thenReturn(Optional.empty());
+        Event event = mock(Event.class);
+        when(event.getDataObjectDeserializer()).thenReturn(deser);
+
+        assertThat(service.processPaymentIntentSucceeded(event)).isEqualTo(StripeService.WebhookOutcome.SKIPPED);
+        assertThat(service.processChargeEvent(event)).isEqualTo(StripeService.WebhookOutcome.SKIPPED);
+    }
+
+    @Test
+    @DisplayName("Checkout セッションの cancel_url に仮押さえの id を載せる")
+    void createSession_cancelUrlCarriesHold() {
+        ReservationConfirmDto dto = ReservationConfirmDto.builder()
+                .roomId(1).roomName("A").amount(5500L).hourlyPrice(5000).hours(1L)
+                .startAt(LocalDateTime.of(2025, 11, 10, 10, 0)).endAt(LocalDateTime.of(2025, 11, 10, 11, 0))
+                .holdId(77).build();
+        User user = new User();
+        user.setId(2);
+
+        assertThat(service.createStripeSession(dto, user)).isEqualTo("cs_stub");
+        assertThat(sessionBodies.get(0)).contains("cancel_url=https://example.com/reservations?reserved=cancel&hold=77");
+    }
+}